@@ -26,6 +26,16 @@ public final class CryptoUtilities {
      */
     private static final int THREE = 3;
 
+    /**
+     * Useful constant, not a magic number: 4.
+     */
+    private static final int FOUR = 4;
+
+    /**
+     * Useful constant, not a magic number: 10.
+     */
+    private static final int TEN = 10;
+
     /**
      * Pseudo-random number generator.
      */
@@ -134,6 +144,51 @@ public final class CryptoUtilities {
         }
     }
 
+    /**
+     * Updates x to x * y modulo m.
+     * 
+     * @param x
+     *            the number to be multiplied
+     * @param y
+     *            the number to multiply by
+     * @param m
+     *            the modulus
+     * @updates x
+     * @requires <pre>
+     * {@code m > 0  and  x is not y}
+     * </pre>
+     * @ensures <pre>
+     * {@code x = #x * y mod m}
+     * </pre>
+     */
+    private static void multiplyMod(NaturalNumber x, NaturalNumber y,
+            NaturalNumber m) {
+        x.multiply(y);
+        NaturalNumber remainder = x.divide(m);
+        x.transferFrom(remainder);
+    }
+
+    /**
+     * Updates x to its square modulo m.
+     * 
+     * @param x
+     *            the number to be squared
+     * @param m
+     *            the modulus
+     * @updates x
+     * @requires <pre>
+     * {@code m > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code x = #x * #x mod m}
+     * </pre>
+     */
+    private static void squareMod(NaturalNumber x, NaturalNumber m) {
+        NaturalNumber copy = x.newInstance();
+        copy.copyFrom(x);
+        multiplyMod(x, copy, m);
+    }
+
     /**
      * Updates n to its p-th power modulo m.
      * 
@@ -155,23 +210,82 @@ public final class CryptoUtilities {
             NaturalNumber m) {
         assert m.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: m > 1";
         /*
-         * Use the fast-powering algorithm as previously discussed in class,
-         * with the additional feature that every multiplication is followed
-         * immediately by "reducing the result modulo m"
+         * Left-to-right square-and-multiply with a window of one decimal digit
+         * of p: precompute n^0 .. n^9 mod m, then for each digit of p from the
+         * most significant, raise the running result to the 10th power and
+         * multiply in the table entry for the digit. Every multiplication is
+         * followed immediately by reducing the result modulo m, so the number
+         * of multiplications is O(log p) rather than O(p)
          */
+        NaturalNumber[] table = new NaturalNumber[TEN];
+        table[0] = n.newInstance();
+        table[0].setFromInt(1);
+        table[1] = n.newInstance();
+        table[1].copyFrom(n);
+        table[1].transferFrom(table[1].divide(m));
+        for (int d = 2; d < TEN; d++) {
+            table[d] = n.newInstance();
+            table[d].copyFrom(table[d - 1]);
+            multiplyMod(table[d], table[1], m);
+        }
 
-        // Declare new Natural Number that will have the value of the mod of the
-        // base times the mod from the previous step
-        NaturalNumber c = new NaturalNumber2(1);
-        // Counter variable
-        int e = 0;
-        // While loop to multiply c by base and then moding it p number of times
-        while (e < p.toInt()) {
-            c.multiply(n);
-            c = c.divide(m);
-            e++;
+        NaturalNumber c = n.newInstance();
+        c.setFromInt(1);
+        boolean started = false;
+        String exponent = p.toString();
+        for (int i = 0; i < exponent.length(); i++) {
+            int digit = Character.digit(exponent.charAt(i), TEN);
+            if (started) {
+                /*
+                 * c^10 = ((c^2)^2 * c)^2
+                 */
+                NaturalNumber original = n.newInstance();
+                original.copyFrom(c);
+                squareMod(c, m);
+                squareMod(c, m);
+                multiplyMod(c, original, m);
+                squareMod(c, m);
+            }
+            if (digit > 0) {
+                multiplyMod(c, table[digit], m);
+                started = true;
+            }
         }
-        n.copyFrom(c);
+        n.transferFrom(c);
+    }
+
+    /**
+     * Updates n to its p-th power modulo m, for odd m, using Montgomery
+     * reduction over the bits of p.
+     * 
+     * @param n
+     *            number to be raised to a power
+     * @param p
+     *            the power
+     * @param m
+     *            the modulus
+     * @updates n
+     * @requires <pre>
+     * {@code m > 1  and  m is odd}
+     * </pre>
+     * @ensures <pre>
+     * {@code n = #n ^ (p) mod m}
+     * </pre>
+     */
+    public static void powerModMontgomery(NaturalNumber n, NaturalNumber p,
+            NaturalNumber m) {
+        assert m.compareTo(new NaturalNumber2(1)) > 0 : "Violation of: m > 1";
+        assert !isEven(m) : "Violation of: m is odd";
+
+        NaturalNumber base = n.newInstance();
+        base.copyFrom(n);
+        NaturalNumber reducedBase = base.divide(m);
+        MontgomeryReducer reducer = new MontgomeryReducer(
+                MontgomeryReducer.fromDecimal(m.toString()));
+        int[] result = reducer.power(
+                MontgomeryReducer.fromDecimal(reducedBase.toString()),
+                MontgomeryReducer.fromDecimal(p.toString()));
+        n.setFromString(MontgomeryReducer.toDecimal(result));
     }
 
     /**
@@ -200,43 +314,27 @@ public final class CryptoUtilities {
         assert w.compareTo(n) < 0 : "Violation of: w < n - 1";
         n.increment();
 
-        // Declaration of new natural numbers to make sure the value of the
-        // parameters are not altered during the method computation
-        NaturalNumber case1 = new NaturalNumber2(1);
-        NaturalNumber case2 = new NaturalNumber2(1);
-        NaturalNumber wclone = new NaturalNumber2(1);
-        NaturalNumber wclone2 = new NaturalNumber2(1);
-
-        // More variables to ensure the parameters aren't altered
-        int temp = 0;
-        int wValue = w.toInt();
-
-        // Declaration of new natural numbers to make sure the value of the
-        // parameters are not altered during the method computation
-        wclone.copyFrom(w);
-        wclone2.copyFrom(w);
-
-        // First condition
-        wclone.power(2);
-        case1 = wclone.divide(n);
-        n.decrement();
-        temp = n.toInt();
-        n.increment();
-
-        // Second condition
-        wclone2.power(temp);
-        case2 = wclone2.divide(n);
+        // Copies of w so the parameters are not altered during the method
+        // computation
+        NaturalNumber case1 = new NaturalNumber2(w);
+        NaturalNumber case2 = new NaturalNumber2(w);
 
-        // Restores w
-        w = new NaturalNumber2(wValue);
+        // First condition: w^2 mod n
+        powerMod(case1, new NaturalNumber2(2), n);
 
-        // Conditional statement to see if w is a witness to compositeness
-        if (case1.equals(new NaturalNumber2(1))
-                || !case2.equals(new NaturalNumber2(1))) {
-            return true;
+        // Second condition: w^(n-1) mod n, with Montgomery reduction when n is
+        // odd (as it always is when called from isPrime1 and isPrime2)
+        NaturalNumber nMinusOne = new NaturalNumber2(n);
+        nMinusOne.decrement();
+        if (isEven(n)) {
+            powerMod(case2, nMinusOne, n);
         } else {
-            return false;
+            powerModMontgomery(case2, nMinusOne, n);
         }
+
+        // Conditional statement to see if w is a witness to compositeness
+        NaturalNumber one = new NaturalNumber2(1);
+        return case1.equals(one) || !case2.equals(one);
     }
 
     /**
@@ -303,14 +401,30 @@ public final class CryptoUtilities {
          * clause of isWitnessToCompositeness
          */
 
+        /*
+         * 2 and 3 are primes; other evens are composite; rest of the code works
+         * for odd n >= 5
+         */
+        if (n.compareTo(new NaturalNumber2(THREE)) <= 0) {
+            return true;
+        }
+        if (isEven(n)) {
+            return false;
+        }
+
+        // Witness candidates must satisfy 1 < w < n - 1, so draw a random
+        // number in [0, n - 4] and shift it to [2, n - 2]
+        NaturalNumber range = new NaturalNumber2(n);
+        range.subtract(new NaturalNumber2(FOUR));
+        NaturalNumber two = new NaturalNumber2(2);
+
         // Declared counter variable
         int count = 0;
         // While loop to select 50 candidate witnesses and check if each s
         // witness to compositeness
         while (count < 50) {
-            n.decrement();
-            NaturalNumber random = new NaturalNumber2(randomNumber(n).toInt());
-            n.increment();
+            NaturalNumber random = randomNumber(range);
+            random.add(two);
             if (isWitnessToCompositeness(random, n)) {
                 return false;
             }
@@ -340,14 +454,9 @@ public final class CryptoUtilities {
          * the odd numbers only (why?), until n is likely prime
          */
 
-        // Decrement n to create interval for random number to be generated on
-        n.decrement();
-        // Declare witness candidate
-        NaturalNumber w = new NaturalNumber2(randomNumber(n).toInt());
-        // Make n what it was
-        n.increment();
-        // While loop to generate next likely prime
-        while (!isWitnessToCompositeness(w, n)) {
+        // While loop to generate next likely prime, stepping through the odd
+        // numbers only once n is odd
+        while (!isPrime2(n)) {
             if (isEven(n)) {
                 n.increment();
             } else {
@@ -0,0 +1,405 @@
+import java.util.Arrays;
+
+/**
+ * Modular arithmetic with Montgomery reduction for a fixed odd modulus, on
+ * numbers stored as unsigned 32-bit words, least significant word first.
+ * 
+ * <p>
+ * With k = the number of words in the modulus m and R = 2<sup>32k</sup>,
+ * values are kept in Montgomery form x * R mod m, so that every modular
+ * multiplication is a single interleaved multiply-and-reduce pass (CIOS) with
+ * no division. {@code power} uses a fixed 4-bit window over the bits of the
+ * exponent.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class MontgomeryReducer {
+
+    /**
+     * Mask selecting the low 32 bits of a {@code long}.
+     */
+    private static final long MASK = 0xFFFFFFFFL;
+
+    /**
+     * Bits per word.
+     */
+    private static final int WORD_BITS = 32;
+
+    /**
+     * Bits per exponent window.
+     */
+    private static final int WINDOW_BITS = 4;
+
+    /**
+     * Decimal digits converted per step by {@code fromDecimal} and
+     * {@code toDecimal}.
+     */
+    private static final int CHUNK_DIGITS = 9;
+
+    /**
+     * 10 ^ (CHUNK_DIGITS).
+     */
+    private static final int CHUNK = 1000000000;
+
+    /**
+     * Number of Newton steps that lift an inverse mod 2 to one mod 2^32 (each
+     * step doubles the number of correct bits, starting from 3).
+     */
+    private static final int INVERSE_STEPS = 4;
+
+    /**
+     * The modulus.
+     */
+    private final int[] modulus;
+
+    /**
+     * Number of words in the modulus.
+     */
+    private final int k;
+
+    /**
+     * -modulus^(-1) mod 2^32.
+     */
+    private final int mPrime;
+
+    /**
+     * R^2 mod modulus, used to enter Montgomery form.
+     */
+    private final int[] rSquared;
+
+    /**
+     * R mod modulus, i.e., 1 in Montgomery form.
+     */
+    private final int[] one;
+
+    /**
+     * Constructor from the modulus.
+     * 
+     * @param modulus
+     *            the modulus, least significant word first
+     * @requires <pre>
+     * {@code [modulus is odd]  and  [modulus > 1]}
+     * </pre>
+     */
+    public MontgomeryReducer(int[] modulus) {
+        assert modulus.length > 0 && (modulus[0] & 1) == 1 : ""
+                + "Violation of: modulus is odd";
+        this.modulus = trim(modulus);
+        this.k = this.modulus.length;
+        int inverse = this.modulus[0];
+        for (int i = 0; i < INVERSE_STEPS; i++) {
+            inverse *= 2 - this.modulus[0] * inverse;
+        }
+        this.mPrime = -inverse;
+        /*
+         * R mod m and R^2 mod m by repeated doubling, which needs no division
+         */
+        int[] x = new int[this.k + 1];
+        x[0] = 1;
+        for (int i = 0; i < WORD_BITS * this.k; i++) {
+            this.doubleMod(x);
+        }
+        this.one = Arrays.copyOf(x, this.k);
+        for (int i = 0; i < WORD_BITS * this.k; i++) {
+            this.doubleMod(x);
+        }
+        this.rSquared = Arrays.copyOf(x, this.k);
+    }
+
+    /**
+     * Returns {@code a} without leading zero words.
+     * 
+     * @param a
+     *            the words
+     * @return the trimmed words
+     */
+    private static int[] trim(int[] a) {
+        int n = a.length;
+        while (n > 0 && a[n - 1] == 0) {
+            n--;
+        }
+        return Arrays.copyOf(a, n);
+    }
+
+    /**
+     * Replaces {@code x} by {@code 2 * x mod modulus}.
+     * 
+     * @param x
+     *            the value, with one spare high word
+     * @updates x
+     * @requires <pre>
+     * {@code x < modulus  and  |x| = k + 1}
+     * </pre>
+     */
+    private void doubleMod(int[] x) {
+        int carry = 0;
+        for (int i = 0; i <= this.k; i++) {
+            int next = x[i] >>> (WORD_BITS - 1);
+            x[i] = (x[i] << 1) | carry;
+            carry = next;
+        }
+        if (this.compareToModulus(x) >= 0) {
+            this.subtractModulus(x);
+        }
+    }
+
+    /**
+     * Compares {@code x} with the modulus.
+     * 
+     * @param x
+     *            the value, with at least k words
+     * @return negative, zero, or positive as x is less than, equal to, or
+     *         greater than the modulus
+     */
+    private int compareToModulus(int[] x) {
+        for (int i = x.length - 1; i >= this.k; i--) {
+            if (x[i] != 0) {
+                return 1;
+            }
+        }
+        for (int i = this.k - 1; i >= 0; i--) {
+            long xi = x[i] & MASK;
+            long mi = this.modulus[i] & MASK;
+            if (xi != mi) {
+                return xi < mi ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Subtracts the modulus from {@code x}.
+     * 
+     * @param x
+     *            the value, with at least k words
+     * @updates x
+     * @requires <pre>
+     * {@code x >= modulus}
+     * </pre>
+     */
+    private void subtractModulus(int[] x) {
+        long borrow = 0;
+        for (int i = 0; i < x.length; i++) {
+            long mi = i < this.k ? this.modulus[i] & MASK : 0;
+            long d = (x[i] & MASK) - mi - borrow;
+            x[i] = (int) d;
+            borrow = (d >> WORD_BITS) & 1;
+        }
+    }
+
+    /**
+     * Computes {@code a * b * R^(-1) mod modulus} (CIOS Montgomery product)
+     * into {@code product}, using {@code t} as scratch space.
+     * 
+     * @param a
+     *            the first factor, in k words
+     * @param b
+     *            the second factor, in k words
+     * @param t
+     *            scratch space of k + 2 words
+     * @param product
+     *            receives the product, in k words (may be {@code a} or
+     *            {@code b})
+     * @replaces t, product
+     * @requires <pre>
+     * {@code a < R  and  b < modulus  and  |t| = k + 2  and  |product| = k}
+     * </pre>
+     */
+    private void montgomeryMultiply(int[] a, int[] b, int[] t, int[] product) {
+        Arrays.fill(t, 0);
+        for (int i = 0; i < this.k; i++) {
+            long bi = b[i] & MASK;
+            long carry = 0;
+            for (int j = 0; j < this.k; j++) {
+                long s = (t[j] & MASK) + (a[j] & MASK) * bi + carry;
+                t[j] = (int) s;
+                carry = s >>> WORD_BITS;
+            }
+            long s = (t[this.k] & MASK) + carry;
+            t[this.k] = (int) s;
+            t[this.k + 1] = (int) (s >>> WORD_BITS);
+
+            long mm = (t[0] * this.mPrime) & MASK;
+            s = (t[0] & MASK) + mm * (this.modulus[0] & MASK);
+            carry = s >>> WORD_BITS;
+            for (int j = 1; j < this.k; j++) {
+                s = (t[j] & MASK) + mm * (this.modulus[j] & MASK) + carry;
+                t[j - 1] = (int) s;
+                carry = s >>> WORD_BITS;
+            }
+            s = (t[this.k] & MASK) + carry;
+            t[this.k - 1] = (int) s;
+            t[this.k] = t[this.k + 1] + (int) (s >>> WORD_BITS);
+            t[this.k + 1] = 0;
+        }
+        if (this.compareToModulus(t) >= 0) {
+            this.subtractModulus(t);
+        }
+        System.arraycopy(t, 0, product, 0, this.k);
+    }
+
+    /**
+     * Returns {@code a * b * R^(-1) mod modulus} in a new array.
+     * 
+     * @param a
+     *            the first factor, in k words
+     * @param b
+     *            the second factor, in k words
+     * @return the product, in k words
+     * @requires <pre>
+     * {@code a < R  and  b < modulus}
+     * </pre>
+     */
+    private int[] montgomeryMultiply(int[] a, int[] b) {
+        int[] product = new int[this.k];
+        this.montgomeryMultiply(a, b, new int[this.k + 2], product);
+        return product;
+    }
+
+    /**
+     * Returns {@code base ^ (exponent) mod modulus}.
+     * 
+     * @param base
+     *            the base, least significant word first
+     * @param exponent
+     *            the exponent, least significant word first
+     * @return the power, least significant word first, with no leading zero
+     *         words
+     * @requires <pre>
+     * {@code base < modulus}
+     * </pre>
+     */
+    public int[] power(int[] base, int[] exponent) {
+        int[] b = Arrays.copyOf(base, this.k);
+        assert this.compareToModulus(b) < 0 : "Violation of: base < modulus";
+        int windows = 1 << WINDOW_BITS;
+        int[][] table = new int[windows][];
+        table[0] = this.one;
+        table[1] = this.montgomeryMultiply(b, this.rSquared);
+        for (int i = 2; i < windows; i++) {
+            table[i] = this.montgomeryMultiply(table[i - 1], table[1]);
+        }
+        int[] result = Arrays.copyOf(this.one, this.k);
+        int[] scratch = new int[this.k + 2];
+        boolean started = false;
+        for (int i = exponent.length - 1; i >= 0; i--) {
+            for (int shift = WORD_BITS - WINDOW_BITS; shift >= 0;
+                    shift -= WINDOW_BITS) {
+                int window = (exponent[i] >>> shift) & (windows - 1);
+                if (started) {
+                    for (int s = 0; s < WINDOW_BITS; s++) {
+                        this.montgomeryMultiply(result, result, scratch,
+                                result);
+                    }
+                }
+                if (window != 0) {
+                    this.montgomeryMultiply(result, table[window], scratch,
+                            result);
+                    started = true;
+                }
+            }
+        }
+        int[] unit = new int[this.k];
+        unit[0] = 1;
+        return trim(this.montgomeryMultiply(result, unit));
+    }
+
+    /**
+     * Returns {@code a * b mod modulus}.
+     * 
+     * @param a
+     *            the first factor, least significant word first
+     * @param b
+     *            the second factor, least significant word first
+     * @return the product, least significant word first, with no leading zero
+     *         words
+     * @requires <pre>
+     * {@code a < modulus  and  b < modulus}
+     * </pre>
+     */
+    public int[] multiply(int[] a, int[] b) {
+        int[] x = Arrays.copyOf(a, this.k);
+        int[] y = Arrays.copyOf(b, this.k);
+        assert this.compareToModulus(x) < 0 : "Violation of: a < modulus";
+        assert this.compareToModulus(y) < 0 : "Violation of: b < modulus";
+        /*
+         * x * y * R^(-1), times R^2 * R^(-1), is x * y
+         */
+        return trim(this.montgomeryMultiply(this.montgomeryMultiply(x, y),
+                this.rSquared));
+    }
+
+    /**
+     * Returns the words of the number whose decimal representation is
+     * {@code s}.
+     * 
+     * @param s
+     *            the decimal representation
+     * @return the words, least significant first, with no leading zero words
+     * @requires <pre>
+     * {@code s matches "0|[1-9][0-9]*"}
+     * </pre>
+     */
+    public static int[] fromDecimal(String s) {
+        int[] words = new int[s.length() / CHUNK_DIGITS + 2];
+        int first = s.length() % CHUNK_DIGITS;
+        if (first == 0) {
+            first = CHUNK_DIGITS;
+        }
+        int start = 0;
+        int end = first;
+        while (start < s.length()) {
+            long carry = Integer.parseInt(s.substring(start, end));
+            for (int i = 0; i < words.length; i++) {
+                long t = (words[i] & MASK) * CHUNK + carry;
+                words[i] = (int) t;
+                carry = t >>> WORD_BITS;
+            }
+            start = end;
+            end += CHUNK_DIGITS;
+        }
+        return trim(words);
+    }
+
+    /**
+     * Returns the decimal representation of {@code words}.
+     * 
+     * @param words
+     *            the number, least significant word first
+     * @return the decimal representation
+     */
+    public static String toDecimal(int[] words) {
+        int[] w = trim(words);
+        if (w.length == 0) {
+            return "0";
+        }
+        int[] chunks = new int[w.length * 2 + 1];
+        int count = 0;
+        int length = w.length;
+        while (length > 0) {
+            long remainder = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                long current = (remainder << WORD_BITS) | (w[i] & MASK);
+                w[i] = (int) (current / CHUNK);
+                remainder = current % CHUNK;
+            }
+            chunks[count] = (int) remainder;
+            count++;
+            while (length > 0 && w[length - 1] == 0) {
+                length--;
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        result.append(chunks[count - 1]);
+        for (int i = count - 2; i >= 0; i--) {
+            String chunk = Integer.toString(chunks[i]);
+            for (int pad = chunk.length(); pad < CHUNK_DIGITS; pad++) {
+                result.append('0');
+            }
+            result.append(chunk);
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,673 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import components.naturalnumber.NaturalNumber;
+import components.queue.Queue;
+import components.queue.Queue1L;
+
+/**
+ * Multi-core counterparts of {@code CryptoUtilities.isPrime2} and
+ * {@code CryptoUtilities.generateNextLikelyPrime}.
+ * 
+ * <p>
+ * Candidates are first checked against the primes below {@code SIEVE_LIMIT},
+ * which rejects most composites for the cost of a few hundred single-word
+ * remainders. Survivors get {@code ROUNDS} independent Miller-Rabin rounds over
+ * Montgomery arithmetic, run as fork-join tasks on a shared pool; the first
+ * round to find a witness to compositeness raises a flag that makes every
+ * round not yet finished give up at once. The batch search splits the numbers
+ * from n upward into windows of {@code WINDOW_SIZE} consecutive numbers and
+ * sieves each window with the same small primes. It searches a single window
+ * first, with the rounds of each test in parallel, and then twice as many
+ * windows each time, up to one per core, until it has found enough primes; a
+ * window stops as soon as it holds as many primes as are still needed, so a
+ * search for one prime tests only the numbers up to that prime.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class ParallelPrimality {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ParallelPrimality() {
+    }
+
+    /**
+     * Mask selecting the low 32 bits of a {@code long}.
+     */
+    private static final long MASK = 0xFFFFFFFFL;
+
+    /**
+     * Bits per word.
+     */
+    private static final int WORD_BITS = 32;
+
+    /**
+     * Number of Miller-Rabin rounds per candidate, as in
+     * {@code CryptoUtilities.isPrime2}.
+     */
+    private static final int ROUNDS = 50;
+
+    /**
+     * Bound on the primes used for trial division and sieving.
+     */
+    private static final int SIEVE_LIMIT = 1000;
+
+    /**
+     * Number of consecutive numbers in one window of the batch search.
+     */
+    private static final int WINDOW_SIZE = 2048;
+
+    /**
+     * Pool running the witness rounds and the window searches.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+
+    /**
+     * IS_SMALL_PRIME[i] reports whether i is a prime, for 0 <= i < SIEVE_LIMIT.
+     */
+    private static final boolean[] IS_SMALL_PRIME = new boolean[SIEVE_LIMIT];
+
+    /**
+     * The odd primes below SIEVE_LIMIT, in increasing order.
+     */
+    private static final int[] SMALL_PRIMES;
+
+    static {
+        Arrays.fill(IS_SMALL_PRIME, 2, SIEVE_LIMIT, true);
+        int oddPrimes = 0;
+        for (int i = 2; i < SIEVE_LIMIT; i++) {
+            if (IS_SMALL_PRIME[i]) {
+                for (int j = i * i; j < SIEVE_LIMIT; j += i) {
+                    IS_SMALL_PRIME[j] = false;
+                }
+                if (i > 2) {
+                    oddPrimes++;
+                }
+            }
+        }
+        SMALL_PRIMES = new int[oddPrimes];
+        int count = 0;
+        for (int i = 3; i < SIEVE_LIMIT; i += 2) {
+            if (IS_SMALL_PRIME[i]) {
+                SMALL_PRIMES[count] = i;
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Miller-Rabin test of one odd number, shared by the tasks running its
+     * rounds.
+     */
+    private static final class MillerRabin {
+
+        /**
+         * The number under test.
+         */
+        private final int[] n;
+
+        /**
+         * n - 1.
+         */
+        private final int[] nMinusOne;
+
+        /**
+         * The odd part d of n - 1 = d * 2^(s).
+         */
+        private final int[] d;
+
+        /**
+         * The exponent s of 2 in n - 1 = d * 2^(s).
+         */
+        private final int s;
+
+        /**
+         * Modular arithmetic for modulus n.
+         */
+        private final MontgomeryReducer reducer;
+
+        /**
+         * Set once some round has found a witness that n is composite.
+         */
+        private final AtomicBoolean composite = new AtomicBoolean(false);
+
+        /**
+         * Constructor from the number under test.
+         * 
+         * @param n
+         *            the number, least significant word first
+         * @requires <pre>
+         * {@code n is odd  and  n >= 5}
+         * </pre>
+         */
+        MillerRabin(int[] n) {
+            this.n = n;
+            this.nMinusOne = n.clone();
+            this.nMinusOne[0]--;
+            int zeros = 0;
+            while (bit(this.nMinusOne, zeros) == 0) {
+                zeros++;
+            }
+            this.s = zeros;
+            this.d = shiftRight(this.nMinusOne, zeros);
+            this.reducer = new MontgomeryReducer(n);
+        }
+
+        /**
+         * Returns a random witness candidate w with 2 <= w <= n - 2.
+         * 
+         * @return the candidate, least significant word first
+         */
+        private int[] randomCandidate() {
+            /*
+             * Any number of bitLength(n) - 1 bits is below n - 1, because n is
+             * odd and so exceeds 2^(bitLength(n) - 1)
+             */
+            int bits = bitLength(this.n) - 1;
+            int[] w = new int[(bits + WORD_BITS - 1) / WORD_BITS];
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < w.length; i++) {
+                w[i] = random.nextInt();
+            }
+            int spare = w.length * WORD_BITS - bits;
+            w[w.length - 1] >>>= spare;
+            boolean small = (w[0] & MASK) < 2;
+            for (int i = 1; i < w.length; i++) {
+                small &= w[i] == 0;
+            }
+            if (small) {
+                w[0] = 2;
+            }
+            return w;
+        }
+
+        /**
+         * Runs one round with a random candidate, giving up early once another
+         * round has found a witness.
+         * 
+         * @return true if the candidate is a witness that n is composite (or
+         *         another round already found one)
+         */
+        boolean runRound() {
+            int[] x = this.reducer.power(this.randomCandidate(), this.d);
+            if (isOne(x) || Arrays.equals(x, this.nMinusOne)) {
+                return false;
+            }
+            for (int i = 1; i < this.s; i++) {
+                if (this.composite.get()) {
+                    return true;
+                }
+                x = this.reducer.multiply(x, x);
+                if (Arrays.equals(x, this.nMinusOne)) {
+                    return false;
+                }
+                if (isOne(x)) {
+                    return true;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reports whether n passes {@code rounds} rounds, running them in
+         * parallel on the pool or one after another on the calling thread.
+         * 
+         * @param rounds
+         *            number of rounds
+         * @param parallel
+         *            whether to run the rounds in parallel
+         * @return true if no round found a witness that n is composite
+         */
+        boolean passes(int rounds, boolean parallel) {
+            if (parallel) {
+                POOL.invoke(new Rounds(this, 0, rounds));
+            } else {
+                for (int i = 0; i < rounds && !this.composite.get(); i++) {
+                    if (this.runRound()) {
+                        this.composite.set(true);
+                    }
+                }
+            }
+            return !this.composite.get();
+        }
+
+    }
+
+    /**
+     * Task running the rounds numbered from {@code from} (inclusive) to
+     * {@code to} (exclusive) of one Miller-Rabin test.
+     */
+    private static final class Rounds extends RecursiveAction {
+
+        /**
+         * Serialization version, as required of a Serializable class.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The test the rounds belong to.
+         */
+        private final MillerRabin test;
+
+        /**
+         * First round.
+         */
+        private final int from;
+
+        /**
+         * One past the last round.
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         * 
+         * @param test
+         *            the test
+         * @param from
+         *            first round
+         * @param to
+         *            one past the last round
+         */
+        Rounds(MillerRabin test, int from, int to) {
+            this.test = test;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.test.composite.get()) {
+                return;
+            }
+            if (this.to - this.from == 1) {
+                if (this.test.runRound()) {
+                    this.test.composite.set(true);
+                }
+            } else {
+                int middle = (this.from + this.to) / 2;
+                invokeAll(new Rounds(this.test, this.from, middle),
+                        new Rounds(this.test, middle, this.to));
+            }
+        }
+
+    }
+
+    /**
+     * Task searching the windows numbered from {@code from} (inclusive) to
+     * {@code to} (exclusive) after {@code start} for up to {@code limit}
+     * likely primes each.
+     */
+    private static final class Windows extends RecursiveAction {
+
+        /**
+         * Serialization version, as required of a Serializable class.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * First number of window 0.
+         */
+        private final int[] start;
+
+        /**
+         * First window.
+         */
+        private final int from;
+
+        /**
+         * One past the last window.
+         */
+        private final int to;
+
+        /**
+         * Largest number of likely primes to find in each window.
+         */
+        private final int limit;
+
+        /**
+         * found[i] receives the likely primes in window i, in increasing order.
+         */
+        private final int[][][] found;
+
+        /**
+         * Constructor.
+         * 
+         * @param start
+         *            first number of window 0
+         * @param from
+         *            first window
+         * @param to
+         *            one past the last window
+         * @param limit
+         *            largest number of likely primes to find in each window
+         * @param found
+         *            receives the likely primes of each window
+         */
+        Windows(int[] start, int from, int to, int limit, int[][][] found) {
+            this.start = start;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.found[this.from] = searchWindow(addSmall(this.start,
+                        (long) this.from * WINDOW_SIZE), this.limit, false);
+            } else {
+                int middle = (this.from + this.to) / 2;
+                invokeAll(new Windows(this.start, this.from, middle,
+                        this.limit, this.found), new Windows(this.start,
+                        middle, this.to, this.limit, this.found));
+            }
+        }
+
+    }
+
+    /**
+     * Returns bit {@code i} of {@code a}.
+     * 
+     * @param a
+     *            the number, least significant word first
+     * @param i
+     *            the bit position
+     * @return the bit, 0 or 1
+     */
+    private static int bit(int[] a, int i) {
+        return (a[i / WORD_BITS] >>> (i % WORD_BITS)) & 1;
+    }
+
+    /**
+     * Returns the number of bits in {@code a}.
+     * 
+     * @param a
+     *            the number, least significant word first, with no leading
+     *            zero words
+     * @return the position of the highest one bit, plus one
+     */
+    private static int bitLength(int[] a) {
+        return a.length * WORD_BITS
+                - Integer.numberOfLeadingZeros(a[a.length - 1]);
+    }
+
+    /**
+     * Reports whether {@code a} is 1.
+     * 
+     * @param a
+     *            the number, least significant word first, with no leading
+     *            zero words
+     * @return true iff a = 1
+     */
+    private static boolean isOne(int[] a) {
+        return a.length == 1 && a[0] == 1;
+    }
+
+    /**
+     * Returns {@code a} divided by 2^(shift), with no leading zero words.
+     * 
+     * @param a
+     *            the number, least significant word first
+     * @param shift
+     *            number of bits to shift out
+     * @return the shifted number
+     */
+    private static int[] shiftRight(int[] a, int shift) {
+        int words = shift / WORD_BITS;
+        int bits = shift % WORD_BITS;
+        int[] result = new int[a.length - words];
+        for (int i = 0; i < result.length; i++) {
+            long pair = a[i + words] & MASK;
+            if (i + words + 1 < a.length) {
+                pair |= (a[i + words + 1] & MASK) << WORD_BITS;
+            }
+            result[i] = (int) (pair >>> bits);
+        }
+        int length = result.length;
+        while (length > 0 && result[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Returns {@code a + x}.
+     * 
+     * @param a
+     *            the number, least significant word first, with no leading
+     *            zero words
+     * @param x
+     *            the amount to add
+     * @return the sum, with no leading zero words
+     * @requires <pre>
+     * {@code 0 <= x < 2^32}
+     * </pre>
+     */
+    private static int[] addSmall(int[] a, long x) {
+        int[] result = Arrays.copyOf(a, a.length + 1);
+        long carry = x;
+        for (int i = 0; i < result.length && carry != 0; i++) {
+            long sum = (result[i] & MASK) + carry;
+            result[i] = (int) sum;
+            carry = sum >>> WORD_BITS;
+        }
+        return result[a.length] == 0 ? Arrays.copyOf(result, a.length)
+                : result;
+    }
+
+    /**
+     * Returns {@code a mod p}.
+     * 
+     * @param a
+     *            the number, least significant word first
+     * @param p
+     *            the divisor
+     * @return the remainder
+     * @requires <pre>
+     * {@code p > 0}
+     * </pre>
+     */
+    private static int remainder(int[] a, int p) {
+        long r = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            r = ((r << WORD_BITS) | (a[i] & MASK)) % p;
+        }
+        return (int) r;
+    }
+
+    /**
+     * Reports whether {@code n} is below SIEVE_LIMIT.
+     * 
+     * @param n
+     *            the number, least significant word first, with no leading
+     *            zero words
+     * @return true iff n < SIEVE_LIMIT
+     */
+    private static boolean isSmall(int[] n) {
+        return n.length == 0 || (n.length == 1 && (n[0] & MASK) < SIEVE_LIMIT);
+    }
+
+    /**
+     * Reports whether {@code n} is a prime; may be wrong with "low"
+     * probability.
+     * 
+     * @param n
+     *            the number, least significant word first, with no leading
+     *            zero words
+     * @param parallel
+     *            whether to run the Miller-Rabin rounds in parallel
+     * @return true means n is very likely prime; false means n is definitely
+     *         composite
+     */
+    private static boolean isLikelyPrime(int[] n, boolean parallel) {
+        if (isSmall(n)) {
+            return n.length > 0 && IS_SMALL_PRIME[n[0]];
+        }
+        if ((n[0] & 1) == 0) {
+            return false;
+        }
+        for (int p : SMALL_PRIMES) {
+            if (remainder(n, p) == 0) {
+                return false;
+            }
+        }
+        return new MillerRabin(n).passes(ROUNDS, parallel);
+    }
+
+    /**
+     * Returns the smallest {@code limit} likely primes among the WINDOW_SIZE
+     * numbers starting at {@code start}, or all of them if there are fewer,
+     * in increasing order.
+     * 
+     * @param start
+     *            first number of the window, least significant word first,
+     *            with no leading zero words
+     * @param limit
+     *            largest number of likely primes to find
+     * @param parallel
+     *            whether to run the rounds of each test in parallel
+     * @return the likely primes
+     */
+    private static int[][] searchWindow(int[] start, int limit,
+            boolean parallel) {
+        /*
+         * Sieve out the multiples of 2 and of the odd small primes, so that
+         * only about one number in twelve needs Miller-Rabin
+         */
+        boolean[] sieved = new boolean[WINDOW_SIZE];
+        for (int i = start[0] & 1; i < WINDOW_SIZE; i += 2) {
+            sieved[i] = true;
+        }
+        for (int p : SMALL_PRIMES) {
+            int first = (p - remainder(start, p)) % p;
+            for (int i = first; i < WINDOW_SIZE; i += p) {
+                sieved[i] = true;
+            }
+        }
+        int[][] found = new int[Math.min(limit, WINDOW_SIZE)][];
+        int count = 0;
+        for (int i = 0; i < WINDOW_SIZE && count < limit; i++) {
+            int[] candidate = addSmall(start, i);
+            boolean prime;
+            if (isSmall(candidate)) {
+                /*
+                 * The sieve also crossed out the small primes themselves
+                 */
+                prime = isLikelyPrime(candidate, false);
+            } else if (sieved[i]) {
+                prime = false;
+            } else {
+                /*
+                 * Most survivors of the sieve fail the first round, so only
+                 * the rest are worth spreading over the pool
+                 */
+                MillerRabin test = new MillerRabin(candidate);
+                prime = test.passes(1, false)
+                        && test.passes(ROUNDS - 1, parallel);
+            }
+            if (prime) {
+                found[count] = candidate;
+                count++;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Reports whether n is a prime; may be wrong with "low" probability.
+     * 
+     * @param n
+     *            number to be checked
+     * @return true means n is very likely prime; false means n is definitely
+     *         composite
+     * @requires <pre>
+     * {@code n > 1}
+     * </pre>
+     * @ensures <pre>
+     * {@code isLikelyPrime = [n is a prime number, with small probability of
+     *         error if it is reported to be prime, and no chance of error if it
+     *         is reported to be composite]}
+     * </pre>
+     */
+    public static boolean isLikelyPrime(NaturalNumber n) {
+        int[] words = MontgomeryReducer.fromDecimal(n.toString());
+        assert !isSmall(words) || words.length == 1 && words[0] > 1 : ""
+                + "Violation of: n > 1";
+        return isLikelyPrime(words, true);
+    }
+
+    /**
+     * Returns the {@code count} smallest likely primes at least as large as
+     * {@code n}.
+     * 
+     * @param n
+     *            minimum value of the likely primes
+     * @param count
+     *            number of likely primes to generate
+     * @return the likely primes, in increasing order
+     * @requires <pre>
+     * {@code n > 1  and  count > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code |generateNextLikelyPrimes| = count  and
+     *  [generateNextLikelyPrimes is the sorted string of the smallest count
+     *   numbers >= n that are very likely prime numbers]}
+     * </pre>
+     */
+    public static Queue<NaturalNumber> generateNextLikelyPrimes(
+            NaturalNumber n, int count) {
+        assert count > 0 : "Violation of: count > 0";
+        int[] start = MontgomeryReducer.fromDecimal(n.toString());
+        assert !isSmall(start) || start.length == 1 && start[0] > 1 : ""
+                + "Violation of: n > 1";
+
+        Queue<NaturalNumber> primes = new Queue1L<NaturalNumber>();
+        int windows = 1;
+        while (primes.length() < count) {
+            int needed = count - primes.length();
+            int[][][] found = new int[windows][][];
+            if (windows == 1) {
+                found[0] = searchWindow(start, needed, true);
+            } else {
+                POOL.invoke(new Windows(start, 0, windows, needed, found));
+            }
+            for (int i = 0; i < windows && primes.length() < count; i++) {
+                for (int j = 0; j < found[i].length
+                        && primes.length() < count; j++) {
+                    NaturalNumber p = n.newInstance();
+                    p.setFromString(MontgomeryReducer.toDecimal(found[i][j]));
+                    primes.enqueue(p);
+                }
+            }
+            start = addSmall(start, (long) windows * WINDOW_SIZE);
+            windows = Math.min(2 * windows, POOL.getParallelism());
+        }
+        return primes;
+    }
+
+    /**
+     * Generates a likely prime number at least as large as some given number.
+     * 
+     * @param n
+     *            minimum value of likely prime
+     * @updates n
+     * @requires <pre>
+     * {@code n > 1}
+     * </pre>
+     * @ensures <pre>
+     * {@code n >= #n  and  [n is very likely a prime number]}
+     * </pre>
+     */
+    public static void generateNextLikelyPrime(NaturalNumber n) {
+        n.transferFrom(generateNextLikelyPrimes(n, 1).dequeue());
+    }
+
+}
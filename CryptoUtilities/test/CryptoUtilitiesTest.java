@@ -80,4 +80,86 @@ public class CryptoUtilitiesTest {
         assertEquals("19", m.toString());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testPowerMod_2_100_1000000007() {
+        NaturalNumber n = new NaturalNumber2(2);
+        NaturalNumber p = new NaturalNumber2(100);
+        NaturalNumber m = new NaturalNumber2(1000000007);
+        CryptoUtilities.powerMod(n, p, m);
+        assertEquals("976371285", n.toString());
+        assertEquals("100", p.toString());
+        assertEquals("1000000007", m.toString());
+    }
+
+    @Test
+    public void testPowerMod_LargeExponent() {
+        NaturalNumber n = new NaturalNumber2(3);
+        NaturalNumber p = new NaturalNumber2("1000000000000000000000");
+        NaturalNumber m = new NaturalNumber2(1000);
+        CryptoUtilities.powerMod(n, p, m);
+        assertEquals("1", n.toString());
+        assertEquals("1000000000000000000000", p.toString());
+    }
+
+    /*
+     * Tests of powerModMontgomery
+     */
+
+    @Test
+    public void testPowerModMontgomery_17_18_19() {
+        NaturalNumber n = new NaturalNumber2(17);
+        NaturalNumber p = new NaturalNumber2(18);
+        NaturalNumber m = new NaturalNumber2(19);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals("1", n.toString());
+        assertEquals("18", p.toString());
+        assertEquals("19", m.toString());
+    }
+
+    @Test
+    public void testPowerModMontgomery_0_0_3() {
+        NaturalNumber n = new NaturalNumber2(0);
+        NaturalNumber p = new NaturalNumber2(0);
+        NaturalNumber m = new NaturalNumber2(3);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals("1", n.toString());
+    }
+
+    @Test
+    public void testPowerModMontgomery_BaseLargerThanModulus() {
+        NaturalNumber n = new NaturalNumber2("123456789012345678901234567890");
+        NaturalNumber p = new NaturalNumber2(65537);
+        NaturalNumber m = new NaturalNumber2("1000000000000000000000000000057");
+        NaturalNumber expected = new NaturalNumber2(n);
+        CryptoUtilities.powerMod(expected, p, m);
+        CryptoUtilities.powerModMontgomery(n, p, m);
+        assertEquals(expected, n);
+    }
+
+    /*
+     * Tests of isPrime2 and generateNextLikelyPrime
+     */
+
+    @Test
+    public void testIsPrime2_MersennePrime127() {
+        NaturalNumber n = new NaturalNumber2(
+                "170141183460469231731687303715884105727");
+        assertTrue(CryptoUtilities.isPrime2(n));
+        assertEquals("170141183460469231731687303715884105727", n.toString());
+    }
+
+    @Test
+    public void testIsPrime2_Composite() {
+        NaturalNumber n = new NaturalNumber2(
+                "170141183460469231731687303715884105729");
+        assertTrue(!CryptoUtilities.isPrime2(n));
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_1000000000000() {
+        NaturalNumber n = new NaturalNumber2("1000000000000");
+        CryptoUtilities.generateNextLikelyPrime(n);
+        assertEquals("1000000000039", n.toString());
+    }
+
+}
@@ -0,0 +1,149 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+import components.queue.Queue;
+
+/**
+ * @author Ronit Kumar
+ * 
+ */
+public class ParallelPrimalityTest {
+
+    /*
+     * Tests of isLikelyPrime
+     */
+
+    @Test
+    public void testIsLikelyPrime_2() {
+        NaturalNumber n = new NaturalNumber2(2);
+        assertTrue(ParallelPrimality.isLikelyPrime(n));
+        assertEquals("2", n.toString());
+    }
+
+    @Test
+    public void testIsLikelyPrime_997() {
+        NaturalNumber n = new NaturalNumber2(997);
+        assertTrue(ParallelPrimality.isLikelyPrime(n));
+    }
+
+    @Test
+    public void testIsLikelyPrime_999() {
+        NaturalNumber n = new NaturalNumber2(999);
+        assertTrue(!ParallelPrimality.isLikelyPrime(n));
+    }
+
+    @Test
+    public void testIsLikelyPrime_1009() {
+        NaturalNumber n = new NaturalNumber2(1009);
+        assertTrue(ParallelPrimality.isLikelyPrime(n));
+    }
+
+    @Test
+    public void testIsLikelyPrime_1018081() {
+        /*
+         * 1009^2 has no factor below the sieve limit
+         */
+        NaturalNumber n = new NaturalNumber2(1018081);
+        assertTrue(!ParallelPrimality.isLikelyPrime(n));
+    }
+
+    @Test
+    public void testIsLikelyPrime_StrongPseudoprime() {
+        /*
+         * Strong pseudoprime to bases 2, 3, 5, and 7
+         */
+        NaturalNumber n = new NaturalNumber2("3215031751");
+        assertTrue(!ParallelPrimality.isLikelyPrime(n));
+    }
+
+    @Test
+    public void testIsLikelyPrime_MersennePrime127() {
+        NaturalNumber n = new NaturalNumber2(
+                "170141183460469231731687303715884105727");
+        assertTrue(ParallelPrimality.isLikelyPrime(n));
+        assertEquals("170141183460469231731687303715884105727", n.toString());
+    }
+
+    @Test
+    public void testIsLikelyPrime_Composite() {
+        NaturalNumber n = new NaturalNumber2(
+                "170141183460469231731687303715884105729");
+        assertTrue(!ParallelPrimality.isLikelyPrime(n));
+    }
+
+    /*
+     * Tests of generateNextLikelyPrimes and generateNextLikelyPrime
+     */
+
+    @Test
+    public void testGenerateNextLikelyPrimes_2_10() {
+        NaturalNumber n = new NaturalNumber2(2);
+        Queue<NaturalNumber> primes = ParallelPrimality
+                .generateNextLikelyPrimes(n, 10);
+        assertEquals("<2,3,5,7,11,13,17,19,23,29>", primes.toString());
+        assertEquals("2", n.toString());
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrimes_2_1000() {
+        NaturalNumber n = new NaturalNumber2(2);
+        Queue<NaturalNumber> primes = ParallelPrimality
+                .generateNextLikelyPrimes(n, 1000);
+        assertEquals(1000, primes.length());
+        NaturalNumber last = null;
+        for (NaturalNumber p : primes) {
+            last = p;
+        }
+        assertEquals("7919", last.toString());
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrimes_2_310() {
+        /*
+         * The first window, 2 to 2049, holds 309 primes, so the 310th is the
+         * first prime of the second
+         */
+        NaturalNumber n = new NaturalNumber2(2);
+        Queue<NaturalNumber> primes = ParallelPrimality
+                .generateNextLikelyPrimes(n, 310);
+        assertEquals(310, primes.length());
+        NaturalNumber last = null;
+        for (NaturalNumber p : primes) {
+            last = p;
+        }
+        assertEquals("2053", last.toString());
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrimes_1000000000000_3() {
+        NaturalNumber n = new NaturalNumber2("1000000000000");
+        Queue<NaturalNumber> primes = ParallelPrimality
+                .generateNextLikelyPrimes(n, 3);
+        assertEquals("<1000000000039,1000000000061,1000000000063>",
+                primes.toString());
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrimes_MersennePrime127() {
+        NaturalNumber n = new NaturalNumber2(
+                "170141183460469231731687303715884105727");
+        Queue<NaturalNumber> primes = ParallelPrimality
+                .generateNextLikelyPrimes(n, 3);
+        assertEquals("<170141183460469231731687303715884105727,"
+                + "170141183460469231731687303715884105757,"
+                + "170141183460469231731687303715884105773>",
+                primes.toString());
+    }
+
+    @Test
+    public void testGenerateNextLikelyPrime_1000000000000() {
+        NaturalNumber n = new NaturalNumber2("1000000000000");
+        ParallelPrimality.generateNextLikelyPrime(n);
+        assertEquals("1000000000039", n.toString());
+    }
+
+}
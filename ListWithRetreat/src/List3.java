@@ -17,6 +17,13 @@ import components.list.ListSecondary;
  *         is O(1).
  *         </p>
  * 
+ *         <p>
+ *         A {@code List3} constructed with a positive pool capacity takes its
+ *         nodes from a {@link NodePool} and gives back the nodes that
+ *         {@code removeRight} unlinks, so that a list with as many removals as
+ *         additions stops allocating once its pool is primed.
+ *         </p>
+ * 
  * @param <T>
  *            type of {@code List} entries
  * @convention <pre>
@@ -92,6 +99,47 @@ public class List3<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * Largest number of unlinked nodes kept for reuse, or 0 if none are.
+     */
+    private final int poolCapacity;
+
+    /**
+     * Pool of nodes for reuse, or null if {@code this.poolCapacity = 0}.
+     */
+    private final NodePool<Node> pool;
+
+    /**
+     * Returns a node with null fields, from the pool if there is one.
+     * 
+     * @return the node
+     */
+    private Node newNode() {
+        Node result;
+        if (this.pool == null) {
+            result = new Node();
+        } else {
+            result = this.pool.take();
+        }
+        return result;
+    }
+
+    /**
+     * Gives {@code n}, which is no longer linked, back to the pool if there is
+     * one.
+     * 
+     * @param n
+     *            the node to give back
+     */
+    private void recycle(Node n) {
+        if (this.pool != null) {
+            n.data = null;
+            n.next = null;
+            n.previous = null;
+            this.pool.recycle(n);
+        }
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -174,8 +222,8 @@ public class List3<T> extends ListSecondary<T> {
      */
     private void createNewRep() {
 
-        this.preStart = new Node();
-        this.postFinish = new Node();
+        this.preStart = this.newNode();
+        this.postFinish = this.newNode();
         this.preStart.next = this.postFinish;
         this.lastLeft = this.preStart;
         this.postFinish.previous = this.lastLeft;
@@ -188,7 +236,33 @@ public class List3<T> extends ListSecondary<T> {
      * Default constructor.
      */
     public List3() {
+        this(0);
+    }
 
+    /**
+     * Constructor from pool capacity: {@code this} keeps up to
+     * {@code poolCapacity} removed nodes for reuse by later calls to
+     * {@code addRight}, and keeps none if {@code poolCapacity = 0}.
+     * 
+     * @param poolCapacity
+     *            the largest number of nodes kept for reuse
+     * @requires <pre>
+     * {@code poolCapacity >= 0}
+     * </pre>
+     */
+    public List3(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+        this.poolCapacity = poolCapacity;
+        if (poolCapacity > 0) {
+            this.pool = new NodePool<Node>(new NodePool.Factory<Node>() {
+                @Override
+                public Node newNode() {
+                    return new Node();
+                }
+            }, poolCapacity);
+        } else {
+            this.pool = null;
+        }
         this.createNewRep();
         assert this.conventionHolds();
     }
@@ -197,7 +271,8 @@ public class List3<T> extends ListSecondary<T> {
     @Override
     public final List3<T> newInstance() {
         try {
-            return this.getClass().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (Exception e) { // ReflectiveOperationException in Java 7
             throw new AssertionError("Cannot construct object of type "
                     + this.getClass());
@@ -234,7 +309,7 @@ public class List3<T> extends ListSecondary<T> {
     public final void addRight(T x) {
         assert x != null : "Violation of: x is not null";
 
-        Node n = new Node();
+        Node n = this.newNode();
         n.data = x;
         n.previous = this.lastLeft;
         n.next = this.lastLeft.next;
@@ -253,9 +328,11 @@ public class List3<T> extends ListSecondary<T> {
         this.lastLeft.next = returned.next;
         this.lastLeft.next.previous = this.lastLeft;
         this.rightLength--;
+        T result = returned.data;
+        this.recycle(returned);
 
         assert this.conventionHolds();
-        return returned.data;
+        return result;
     }
 
     @Override
@@ -0,0 +1,329 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a gap buffer: one growable array holding
+ * {@code this.left} at its start and {@code this.right} at its end, with the
+ * unused slots (the gap) between them at the current position, with
+ * implementations of primary methods, {@code retreat}, and {@code jumpTo}.
+ * 
+ * <p>
+ * Moving the position moves entries across the gap instead of following
+ * nodes: {@code advance} and {@code retreat} move one entry, and
+ * {@code jumpTo}, {@code moveToStart}, and {@code moveToFinish} move all the
+ * entries they pass over with a single {@code System.arraycopy}. There are no
+ * nodes, so {@code addRight} allocates only when the gap is used up and the
+ * array doubles. All methods but {@code jumpTo}, {@code moveToStart}, and
+ * {@code moveToFinish} take constant time ({@code addRight} amortized); those
+ * take time linear in the distance moved.
+ * 
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * {@code 0 <= $this.gapStart <= $this.gapEnd <= |$this.entries|  and
+ * |$this.entries| > 0  and
+ * [$this.entries[0, $this.gapStart) and
+ *  $this.entries[$this.gapEnd, |$this.entries|) are not null]  and
+ * [$this.entries[$this.gapStart, $this.gapEnd) are null]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this =
+ *  ($this.entries[0, $this.gapStart),
+ *   $this.entries[$this.gapEnd, |$this.entries|))}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Length of the array of a new list.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Entries of {@code this.left}, then the gap, then entries of
+     * {@code this.right}.
+     */
+    private Object[] entries;
+
+    /**
+     * Index of the first slot of the gap, which is the length of
+     * {@code this.left}.
+     */
+    private int gapStart;
+
+    /**
+     * Index of the first entry of {@code this.right}.
+     */
+    private int gapEnd;
+
+    /**
+     * Doubles the length of the array, widening the gap.
+     */
+    private void grow() {
+        int rightLength = this.rightLength();
+        Object[] newEntries = new Object[2 * this.entries.length];
+        System.arraycopy(this.entries, 0, newEntries, 0, this.gapStart);
+        System.arraycopy(this.entries, this.gapEnd, newEntries,
+                newEntries.length - rightLength, rightLength);
+        this.entries = newEntries;
+        this.gapEnd = newEntries.length - rightLength;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.entries = new Object[DEFAULT_CAPACITY];
+        this.gapStart = 0;
+        this.gapEnd = DEFAULT_CAPACITY;
+    }
+
+    /*
+     * Constructor ------------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public List4() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.entries = localSource.entries;
+        this.gapStart = localSource.gapStart;
+        this.gapEnd = localSource.gapEnd;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void addRight(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.gapStart == this.gapEnd) {
+            this.grow();
+        }
+        this.gapEnd--;
+        this.entries[this.gapEnd] = x;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T removeRight() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        T result = (T) this.entries[this.gapEnd];
+        this.entries[this.gapEnd] = null;
+        this.gapEnd++;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        return (T) this.entries[this.gapEnd];
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        if (this.gapStart < this.gapEnd) {
+            this.entries[this.gapStart] = this.entries[this.gapEnd];
+            this.entries[this.gapEnd] = null;
+        }
+        this.gapStart++;
+        this.gapEnd++;
+    }
+
+    @Override
+    public final void moveToStart() {
+        this.jumpTo(0);
+    }
+
+    @Override
+    public final void moveToFinish() {
+        this.jumpTo(this.gapStart + this.rightLength());
+    }
+
+    @Override
+    public final int leftLength() {
+        return this.gapStart;
+    }
+
+    @Override
+    public final int rightLength() {
+        return this.entries.length - this.gapEnd;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        this.gapStart--;
+        this.gapEnd--;
+        if (this.gapStart < this.gapEnd) {
+            this.entries[this.gapEnd] = this.entries[this.gapStart];
+            this.entries[this.gapStart] = null;
+        }
+    }
+
+    /**
+     * Moves the position in {@code this} so that {@code this.left} has length
+     * {@code leftLength}.
+     * 
+     * @param leftLength
+     *            the new length of {@code this.left}
+     * @updates this
+     * @requires <pre>
+     * {@code 0 <= leftLength  and  leftLength <= |this.left| + |this.right|}
+     * </pre>
+     * @ensures <pre>
+     * {@code this.left * this.right = #this.left * #this.right  and
+     * |this.left| = leftLength}
+     * </pre>
+     */
+    public final void jumpTo(int leftLength) {
+        assert 0 <= leftLength : "Violation of: 0 <= leftLength";
+        assert leftLength <= this.leftLength() + this.rightLength() : ""
+                + "Violation of: leftLength <= |this.left| + |this.right|";
+
+        int gap = this.gapEnd - this.gapStart;
+        /*
+         * Only the slots that both held entries before the move and are in
+         * the gap after it need clearing; there are at most min(distance, gap)
+         * of them.
+         */
+        if (leftLength < this.gapStart) {
+            int distance = this.gapStart - leftLength;
+            System.arraycopy(this.entries, leftLength, this.entries,
+                    this.gapEnd - distance, distance);
+            Arrays.fill(this.entries, leftLength,
+                    Math.min(this.gapStart, leftLength + gap), null);
+        } else if (leftLength > this.gapStart) {
+            int distance = leftLength - this.gapStart;
+            System.arraycopy(this.entries, this.gapEnd, this.entries,
+                    this.gapStart, distance);
+            Arrays.fill(this.entries, Math.max(this.gapEnd, leftLength),
+                    this.gapEnd + distance, null);
+        }
+        this.gapStart = leftLength;
+        this.gapEnd = leftLength + gap;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry in the array.
+         */
+        private int index;
+
+        /**
+         * Default constructor.
+         */
+        private List4Iterator() {
+            this.index = 0;
+            this.skipGap();
+        }
+
+        /**
+         * Moves {@code index} past the gap if it is in it.
+         */
+        private void skipGap() {
+            if (this.index == List4.this.gapStart) {
+                this.index = List4.this.gapEnd;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < List4.this.entries.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = (T) List4.this.entries[this.index];
+            this.index++;
+            this.skipGap();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
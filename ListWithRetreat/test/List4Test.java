@@ -0,0 +1,86 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * @author Ronit Kumar
+ * 
+ *         Customized JUnit test fixture for {@code List4}.
+ */
+public class List4Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List4<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    /**
+     * Test for jumpTo moving backward past more entries than the gap holds.
+     */
+    @Test
+    public final void testJumpToBackward() {
+        List4<String> list1 = (List4<String>) this.createFromArgsTest(5,
+                "a", "b", "c", "d", "e", "f");
+        List<String> list2 = this.createFromArgsRef(1, "a", "b", "c", "d",
+                "e", "f");
+        list1.jumpTo(1);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Test for jumpTo moving forward to the finish.
+     */
+    @Test
+    public final void testJumpToForward() {
+        List4<String> list1 = (List4<String>) this.createFromArgsTest(0,
+                "a", "b", "c");
+        List<String> list2 = this.createFromArgsRef(3, "a", "b", "c");
+        list1.jumpTo(3);
+        assertEquals(list2, list1);
+    }
+
+    /**
+     * Test for addRight, advance, retreat, and jumpTo on a list long enough
+     * for the array to grow several times.
+     */
+    @Test
+    public final void testManyEntries() {
+        final int n = 1000;
+        List4<String> list1 = new List4<String>();
+        List<String> list2 = this.constructorRef();
+        for (int i = 0; i < n; i++) {
+            list1.addRight(Integer.toString(i));
+            list1.advance();
+            list2.addRight(Integer.toString(i));
+            list2.advance();
+        }
+        list1.jumpTo(n / 2);
+        list2.moveToStart();
+        for (int i = 0; i < n / 2; i++) {
+            list2.advance();
+        }
+        assertEquals(list2, list1);
+        list1.retreat();
+        list1.removeRight();
+        list2 = this.constructorRef();
+        for (int i = 0; i < n; i++) {
+            if (i != n / 2 - 1) {
+                list2.addRight(Integer.toString(i));
+                list2.advance();
+            }
+        }
+        list1.jumpTo(n - 1);
+        assertEquals(list2, list1);
+        assertEquals(n - 1, list1.leftLength());
+        assertEquals(0, list1.rightLength());
+    }
+
+}
@@ -12,6 +12,13 @@ import components.list.ListSecondary;
  * Execution-time performance of all methods implemented in this class is O(1).
  * </p>
  * 
+ * <p>
+ * A {@code List2} constructed with a positive pool capacity takes its nodes
+ * from a {@link NodePool} and gives back the nodes that {@code removeRight}
+ * unlinks, so that a list with as many removals as additions stops allocating
+ * once its pool is primed.
+ * </p>
+ * 
  * @param <T>
  *            type of {@code List} entries
  * @convention <pre>
@@ -79,12 +86,51 @@ public class List2<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * Largest number of unlinked nodes kept for reuse, or 0 if none are.
+     */
+    private final int poolCapacity;
+
+    /**
+     * Pool of nodes for reuse, or null if {@code this.poolCapacity = 0}.
+     */
+    private final NodePool<Node> pool;
+
+    /**
+     * Returns a node with null fields, from the pool if there is one.
+     * 
+     * @return the node
+     */
+    private Node newNode() {
+        Node result;
+        if (this.pool == null) {
+            result = new Node();
+        } else {
+            result = this.pool.take();
+        }
+        return result;
+    }
+
+    /**
+     * Gives {@code n}, which is no longer linked, back to the pool if there is
+     * one.
+     * 
+     * @param n
+     *            the node to give back
+     */
+    private void recycle(Node n) {
+        if (this.pool != null) {
+            n.data = null;
+            n.next = null;
+            this.pool.recycle(n);
+        }
+    }
+
     /**
      * Creator of initial representation.
      */
     private void createNewRep() {
-        this.preFront = new Node();
-        this.preFront.next = null;
+        this.preFront = this.newNode();
         this.postFinish = this.preFront;
         this.lastLeft = this.preFront;
         this.leftLength = 0;
@@ -95,6 +141,33 @@ public class List2<T> extends ListSecondary<T> {
      * Default constructor.
      */
     public List2() {
+        this(0);
+    }
+
+    /**
+     * Constructor from pool capacity: {@code this} keeps up to
+     * {@code poolCapacity} removed nodes for reuse by later calls to
+     * {@code addRight}, and keeps none if {@code poolCapacity = 0}.
+     * 
+     * @param poolCapacity
+     *            the largest number of nodes kept for reuse
+     * @requires <pre>
+     * {@code poolCapacity >= 0}
+     * </pre>
+     */
+    public List2(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+        this.poolCapacity = poolCapacity;
+        if (poolCapacity > 0) {
+            this.pool = new NodePool<Node>(new NodePool.Factory<Node>() {
+                @Override
+                public Node newNode() {
+                    return new Node();
+                }
+            }, poolCapacity);
+        } else {
+            this.pool = null;
+        }
         this.createNewRep();
     }
 
@@ -102,7 +175,8 @@ public class List2<T> extends ListSecondary<T> {
     @Override
     public final List2<T> newInstance() {
         try {
-            return this.getClass().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (Exception e) { // ReflectiveOperationException in Java 7
             throw new AssertionError("Cannot construct object of type "
                     + this.getClass());
@@ -135,7 +209,7 @@ public class List2<T> extends ListSecondary<T> {
     @Override
     public final void addRight(T x) {
         assert x != null : "Violation of: x is not null";
-        Node p = new Node();
+        Node p = this.newNode();
         Node q = this.lastLeft;
         p.data = x;
         p.next = q.next;
@@ -157,6 +231,7 @@ public class List2<T> extends ListSecondary<T> {
             this.postFinish = this.lastLeft;
         }
         this.rightLength--;
+        this.recycle(q);
         return x;
     }
 
@@ -0,0 +1,28 @@
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List2} with a node pool, kept
+ * small so that removals both refill and overflow it.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class List2PooledTest extends ListTest {
+
+    /**
+     * Pool capacity of the lists under test.
+     */
+    private static final int POOL_CAPACITY = 2;
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List2<String>(POOL_CAPACITY);
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+}
@@ -0,0 +1,368 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented, like {@code Map2}, as a queue of pairs, but with
+ * the queue kept as a doubly linked chain of nodes so that any pair can be
+ * unlinked in place, and with a side hash index from each key to its node,
+ * with implementations of primary methods.
+ * 
+ * <p>
+ * With the index (the default), {@code add}, {@code remove}, {@code value},
+ * and {@code hasKey} take constant expected time and never rotate or copy
+ * the queue; pairs are iterated in the order in which they were added.
+ * Without the index ({@code new Map8<K, V>(false)}), a lookup scans the
+ * queue from the front and then splices the pair it found to the front, so
+ * that the keys looked up most often stay near the front. This
+ * self-organizing mode suits small maps with skewed access, where it saves
+ * the index's memory; unlike {@code Map2.moveToFront}, it allocates nothing
+ * and stops at the pair found.
+ * 
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * {@code [$this.header.next, $this.header.next.next, ... form a chain of
+ *  $this.size nodes, linked both ways, that ends back at $this.header]  and
+ * [the keys of the nodes in the chain are distinct]  and
+ * if $this.index /= null
+ *  then DOMAIN($this.index) = [keys of the nodes in the chain]  and
+ *       [$this.index maps each key to its node]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [(key, value) pairs of the nodes in the chain from
+ *  $this.header]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map8<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the doubly linked queue.
+     * 
+     * @param <K>
+     *            type of the key
+     * @param <V>
+     *            type of the value
+     */
+    private static final class Node<K, V> {
+
+        /**
+         * Key of this node, {@code null} in the header.
+         */
+        private K key;
+
+        /**
+         * Value of this node, {@code null} in the header.
+         */
+        private V value;
+
+        /**
+         * Node before this one.
+         */
+        private Node<K, V> previous;
+
+        /**
+         * Node after this one.
+         */
+        private Node<K, V> next;
+
+    }
+
+    /**
+     * Header node; {@code header.next} is the front of the queue and
+     * {@code header.previous} its rear.
+     */
+    private Node<K, V> header;
+
+    /**
+     * Number of pairs in {@code this}.
+     */
+    private int size;
+
+    /**
+     * Index from key to node, {@code null} in move-to-front mode.
+     */
+    private HashMap<K, Node<K, V>> index;
+
+    /**
+     * Whether {@code this} keeps a hash index.
+     */
+    private final boolean indexed;
+
+    /**
+     * Unlinks {@code n} from the queue.
+     * 
+     * @param <K>
+     *            type of the key
+     * @param <V>
+     *            type of the value
+     * @param n
+     *            the node to unlink
+     */
+    private static <K, V> void unlink(Node<K, V> n) {
+        n.previous.next = n.next;
+        n.next.previous = n.previous;
+    }
+
+    /**
+     * Links {@code n} into the queue right after {@code p}.
+     * 
+     * @param <K>
+     *            type of the key
+     * @param <V>
+     *            type of the value
+     * @param n
+     *            the node to link
+     * @param p
+     *            the node to link it after
+     */
+    private static <K, V> void linkAfter(Node<K, V> n, Node<K, V> p) {
+        n.previous = p;
+        n.next = p.next;
+        p.next.previous = n;
+        p.next = n;
+    }
+
+    /**
+     * Returns the node whose key is {@code key}, or {@code null} if there is
+     * none. Without the index, the node found is moved to the front.
+     * 
+     * @param key
+     *            the key to look for
+     * @return the node of key, or null
+     * @updates $this.header
+     */
+    private Node<K, V> find(K key) {
+        Node<K, V> result;
+        if (this.index != null) {
+            result = this.index.get(key);
+        } else {
+            result = this.header.next;
+            while (result != this.header && !result.key.equals(key)) {
+                result = result.next;
+            }
+            if (result == this.header) {
+                result = null;
+            } else if (result.previous != this.header) {
+                unlink(result);
+                linkAfter(result, this.header);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.header = new Node<K, V>();
+        this.header.previous = this.header;
+        this.header.next = this.header;
+        this.size = 0;
+        if (this.indexed) {
+            this.index = new HashMap<K, Node<K, V>>();
+        } else {
+            this.index = null;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor, resulting in a map with a hash index.
+     */
+    public Map8() {
+        this.indexed = true;
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor resulting in a map with a hash index if {@code indexed}, and
+     * otherwise in a self-organizing map that moves each key looked up to the
+     * front.
+     * 
+     * @param indexed
+     *            whether to keep a hash index
+     */
+    public Map8(boolean indexed) {
+        this.indexed = indexed;
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().getConstructor(boolean.class)
+                    .newInstance(this.indexed);
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map8<?, ?> : ""
+                + "Violation of: source is of dynamic type Map8<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map8<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map8<K, V> localSource = (Map8<K, V>) source;
+        this.header = localSource.header;
+        this.size = localSource.size;
+        if (this.indexed == localSource.indexed) {
+            this.index = localSource.index;
+        } else if (this.indexed) {
+            this.index = new HashMap<K, Node<K, V>>();
+            for (Node<K, V> n = this.header.next; n != this.header;
+                    n = n.next) {
+                this.index.put(n.key, n);
+            }
+        } else {
+            this.index = null;
+        }
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        Node<K, V> n = new Node<K, V>();
+        n.key = key;
+        n.value = value;
+        linkAfter(n, this.header.previous);
+        if (this.index != null) {
+            this.index.put(key, n);
+        }
+        this.size++;
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        Node<K, V> n = this.find(key);
+        unlink(n);
+        if (this.index != null) {
+            this.index.remove(key);
+        }
+        this.size--;
+        return new SimplePair<K, V>(n.key, n.value);
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        return this.remove(this.header.next.key);
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return this.find(key).value;
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.find(key) != null;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map8Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map8}.
+     */
+    private final class Map8Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Node holding the next pair.
+         */
+        private Node<K, V> current;
+
+        /**
+         * Default constructor.
+         */
+        public Map8Iterator() {
+            this.current = Map8.this.header.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != Map8.this.header;
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Pair<K, V> result = new SimplePair<K, V>(this.current.key,
+                    this.current.value);
+            this.current = this.current.next;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
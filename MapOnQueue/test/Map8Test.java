@@ -0,0 +1,56 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.map.Map.Pair;
+
+/**
+ * Customized JUnit test fixture for {@code Map8} using default constructor.
+ */
+public class Map8Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructor() {
+        return new Map8<String, String>();
+    }
+
+    /**
+     * Test for iteration in the order pairs were added, after lookups and a
+     * remove.
+     */
+    @Test
+    public final void testInsertionOrder() {
+        Map<String, String> m = this.constructor();
+        m.add("red", "1");
+        m.add("green", "2");
+        m.add("blue", "3");
+        assertEquals("3", m.value("blue"));
+        assertEquals("2", m.remove("green").value());
+        StringBuilder order = new StringBuilder();
+        for (Pair<String, String> p : m) {
+            order.append(p.key()).append(' ');
+        }
+        assertEquals("red blue ", order.toString());
+    }
+
+    /**
+     * Test for many adds and removes.
+     */
+    @Test
+    public final void testManyAddsAndRemoves() {
+        final int n = 5000;
+        Map<String, String> m = this.constructor();
+        for (int i = 0; i < n; i++) {
+            m.add("k" + i, "v" + i);
+        }
+        for (int i = 0; i < n; i += 2) {
+            assertEquals("v" + i, m.remove("k" + i).value());
+        }
+        assertEquals(n / 2, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 2 == 1, m.hasKey("k" + i));
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.map.Map;
+
+/**
+ * Customized JUnit test fixture for {@code Map8} without a hash index.
+ */
+public class Map8TestMoveToFront extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructor() {
+        return new Map8<String, String>(false);
+    }
+
+    /**
+     * Test that a lookup moves the pair found to the front.
+     */
+    @Test
+    public final void testMoveToFront() {
+        Map<String, String> m = this.constructor();
+        m.add("red", "1");
+        m.add("green", "2");
+        m.add("blue", "3");
+        assertEquals(true, m.hasKey("blue"));
+        assertEquals(false, m.hasKey("white"));
+        assertEquals("blue", m.iterator().next().key());
+        assertEquals("2", m.value("green"));
+        assertEquals("green", m.iterator().next().key());
+    }
+
+}
@@ -4,6 +4,7 @@ import java.util.NoSuchElementException;
 import components.array.Array;
 import components.array.Array1L;
 import components.map.Map;
+import components.map.Map1L;
 import components.map.MapSecondary;
 
 /**
@@ -14,6 +15,19 @@ import components.map.MapSecondary;
  *         {@code Map} represented as a hash table using {@code Map}s for the
  *         buckets, with implementations of primary methods.
  * 
+ *         <p>
+ *         The table grows: when {@code add} would take the number of entries
+ *         past the load factor times the number of buckets, a table with
+ *         twice as many buckets is started, and from then on every
+ *         {@code add} and {@code remove} moves the entries of a few buckets
+ *         of the old table into the new one. While both tables exist a key is
+ *         in the old table exactly when its old bucket has not been moved
+ *         yet. The buckets of the new table are created only as the old
+ *         buckets whose entries they receive are moved, and each call moves
+ *         enough old buckets that the move is over before the next growth
+ *         can come due, so no single call pays for a full rehash or for
+ *         filling a whole table with buckets.
+ * 
  * @param <K>
  *            type of {@code Map} domain (key) entries
  * @param <V>
@@ -25,18 +39,30 @@ import components.map.MapSecondary;
  *            <pf> = $this.hashTable.entries[i, i+1)]  and
  *            x is in DOMAIN(pf))
  *   ([computed result of x.hashCode()] mod |$this.hashTable.entries| = i))  and
- * |$this.hashTable.examinableIndices| = |$this.hashTable.entries|  and
- * $this.size = sum i: integer, pf: PARTIAL_FUNCTION
- *     where (0 <= i  and  i < |$this.hashTable.entries|  and
- *            <pf> = $this.hashTable.entries[i, i+1))
- *   (|pf|)
- * }
+ * ($this.oldTable = null  or
+ *  (0 <= $this.migrated < |$this.oldTable.entries|  and
+ *   [|$this.hashTable.entries| is a multiple of
+ *    |$this.oldTable.entries|]  and
+ *   |$this.oldTable.examinableIndices| = |$this.oldTable.entries|  and
+ *   [every bucket of $this.oldTable below $this.migrated is empty]  and
+ *   [every key in a bucket i of $this.oldTable has
+ *    [computed result of x.hashCode()] mod |$this.oldTable.entries| = i]))  and
+ * $this.hashTable.examinableIndices =
+ *   {j: integer
+ *      where (0 <= j  and  j < |$this.hashTable.entries|  and
+ *             ($this.oldTable = null  or
+ *              j mod |$this.oldTable.entries| < $this.migrated))}  and
+ * ($this.oldTable = null  or
+ *  $this.size + 1 <= $this.loadFactor * |$this.hashTable.entries|)  and
+ * [no key is in both $this.hashTable and $this.oldTable]  and
+ * [a key whose bucket in $this.oldTable is at or above $this.migrated is not
+ *  in $this.hashTable]  and
+ * $this.size = [total number of pairs in the buckets of $this.hashTable and
+ *               $this.oldTable]}
  * </pre>
  * @correspondence <pre>
- * {@code this = union i: integer, pf: PARTIAL_FUNCTION
- *            where (0 <= i  and  i < |$this.hashTable.entries|  and
- *                   <pf> = $this.hashTable[i, i+1))
- *          (pf)}
+ * {@code this = [union of the buckets of $this.hashTable and, if it is not
+ *                null, $this.oldTable]}
  * </pre>
  */
 public class Map4<K, V> extends MapSecondary<K, V> {
@@ -50,16 +76,43 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      */
     private static final int DEFAULT_HASH_TABLE_SIZE = 100;
 
+    /**
+     * Default largest ratio of entries to buckets before the table grows.
+     */
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
     /**
      * Buckets for hashing.
      */
     private Array<Map<K, V>> hashTable;
 
+    /**
+     * Buckets of the table being replaced by {@code hashTable}, or
+     * {@code null} when the table is not growing.
+     */
+    private Array<Map<K, V>> oldTable;
+
+    /**
+     * Number of buckets of {@code oldTable} already moved.
+     */
+    private int migrated;
+
     /**
      * Total size of abstract {@code this}.
      */
     private int size;
 
+    /**
+     * Size of hash table {@code this} starts from, and returns to on
+     * {@code clear}.
+     */
+    private final int initialSize;
+
+    /**
+     * Largest ratio of entries to buckets before the table grows.
+     */
+    private final double loadFactor;
+
     /**
      * Computes {@code a} mod {@code b} as % should have been defined to work.
      * 
@@ -84,6 +137,35 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         return result;
     }
 
+    /**
+     * Returns a hash table of {@code hashTableSize} empty buckets.
+     * 
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param <V>
+     *            type of {@code Map} range (associated value) entries
+     * @param hashTableSize
+     *            the size of the hash table
+     * @return the hash table
+     * @requires <pre>
+     * {@code hashTableSize > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code |newTable.entries| = hashTableSize  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |newTable.entries|)
+     *   (newTable.entries[i, i+1) = <{}>  and
+     *    i is in newTable.examinableIndices)}
+     * </pre>
+     */
+    private static <K, V> Array<Map<K, V>> newTable(int hashTableSize) {
+        Array<Map<K, V>> table = new Array1L<Map<K, V>>(hashTableSize);
+        for (int i = 0; i < hashTableSize; i++) {
+            table.setEntry(i, new Map1L<K, V>());
+        }
+        return table;
+    }
+
     /**
      * Creator of initial representation.
      * 
@@ -98,12 +180,147 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      *     where (0 <= i  and  i < |$this.hashTable.entries|)
      *   ($this.hashTable.entries[i, i+1) = <{}>  and
      *    i is in $this.hashTable.examinableIndices)  and
-     * $this.size = 0
+     * $this.oldTable = null  and  $this.size = 0
      * </pre>
      */
     private void createNewRep(int hashTableSize) {
         this.size = 0;
-        this.hashTable = new Array1L<Map<K, V>>(hashTableSize);
+        this.hashTable = newTable(hashTableSize);
+        this.oldTable = null;
+        this.migrated = 0;
+    }
+
+    /**
+     * Returns the bucket that holds {@code key} if it is in {@code this}, and
+     * that {@code add} should put it in otherwise.
+     * 
+     * @param key
+     *            the key
+     * @return the bucket for {@code key}
+     */
+    private Map<K, V> bucket(K key) {
+        int hash = key.hashCode();
+        if (this.oldTable != null) {
+            int index = mod(hash, this.oldTable.length());
+            if (index >= this.migrated) {
+                return this.oldTable.entryAt(index);
+            }
+        }
+        return this.hashTable.entryAt(mod(hash, this.hashTable.length()));
+    }
+
+    /**
+     * Reports whether the bucket at index {@code index} of the new table has
+     * been created, i.e., whether the old bucket whose entries it receives
+     * has been moved.
+     * 
+     * @param index
+     *            the index of the bucket in {@code $this.hashTable}
+     * @return whether the bucket exists
+     * @requires <pre>
+     * {@code 0 <= index < |$this.hashTable.entries|}
+     * </pre>
+     * @ensures <pre>
+     * {@code hasBucket = (index is in $this.hashTable.examinableIndices)}
+     * </pre>
+     */
+    private boolean hasBucket(int index) {
+        return this.oldTable == null
+                || index % this.oldTable.length() < this.migrated;
+    }
+
+    /**
+     * Moves the entries of the old buckets still to be moved, spread evenly
+     * over the calls left before the next growth can come due: that is the
+     * number of {@code add}s, counting the current one, that can follow
+     * before the number of entries exceeds the load factor times the number
+     * of buckets. The last of those calls moves whatever is left.
+     * 
+     * @updates $this
+     * @requires <pre>
+     * {@code $this.oldTable = null  or
+     *  $this.size + 1 <= $this.loadFactor * |$this.hashTable.entries|}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this}
+     * </pre>
+     */
+    private void migrateStep() {
+        if (this.oldTable != null) {
+            int headroom = (int) (this.loadFactor * this.hashTable.length())
+                    - this.size;
+            assert headroom > 0 : "Violation of: $this.size + 1 <= "
+                    + "$this.loadFactor * |$this.hashTable.entries|";
+            int left = this.oldTable.length() - this.migrated;
+            this.migrate((left + headroom - 1) / headroom);
+        }
+    }
+
+    /**
+     * Moves the entries of up to {@code buckets} buckets of the old table, if
+     * there is one, into the new table, creating the buckets of the new table
+     * that receive them, and dropping the old table once it is empty.
+     * 
+     * @param buckets
+     *            number of old buckets to move
+     * @updates $this
+     * @ensures <pre>
+     * {@code this = #this}
+     * </pre>
+     */
+    private void migrate(int buckets) {
+        int n = buckets;
+        while (n > 0 && this.oldTable != null) {
+            int oldLength = this.oldTable.length();
+            int newLength = this.hashTable.length();
+            for (int j = this.migrated; j < newLength; j += oldLength) {
+                this.hashTable.setEntry(j, new Map1L<K, V>());
+            }
+            Map<K, V> old = this.oldTable.entryAt(this.migrated);
+            while (old.size() > 0) {
+                Pair<K, V> p = old.removeAny();
+                int index = mod(p.key().hashCode(), newLength);
+                this.hashTable.entryAt(index).add(p.key(), p.value());
+            }
+            this.migrated++;
+            if (this.migrated == oldLength) {
+                this.oldTable = null;
+                this.migrated = 0;
+            }
+            n--;
+        }
+    }
+
+    /**
+     * Starts growing the table if one more entry would exceed the load
+     * factor. The new table has twice as many buckets, or more if that is
+     * still too few for one more entry; none of its buckets is created yet.
+     * 
+     * @updates $this
+     * @requires <pre>
+     * {@code $this.oldTable = null  or
+     *  $this.size + 1 <= $this.loadFactor * |$this.hashTable.entries|}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this  and
+     *  $this.size + 1 <= $this.loadFactor * |$this.hashTable.entries|}
+     * </pre>
+     */
+    private void growIfNeeded() {
+        if (this.size + 1 > this.loadFactor * this.hashTable.length()) {
+            /*
+             * migrateStep moves the last old buckets by the time this can
+             * happen, so there is no growth in progress to finish here
+             */
+            assert this.oldTable == null : "Violation of: growth is finished";
+            int newLength = 2 * this.hashTable.length();
+            while (this.size + 1 > this.loadFactor * newLength) {
+                newLength *= 2;
+            }
+            this.oldTable = this.hashTable;
+            this.hashTable = new Array1L<Map<K, V>>(newLength);
+            this.migrated = 0;
+        }
     }
 
     /*
@@ -114,7 +331,9 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      * Default constructor.
      */
     public Map4() {
-        this.createNewRep(DEFAULT_HASH_TABLE_SIZE);
+        this.initialSize = DEFAULT_HASH_TABLE_SIZE;
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.createNewRep(this.initialSize);
     }
 
     /**
@@ -130,7 +349,35 @@ public class Map4<K, V> extends MapSecondary<K, V> {
      * </pre>
      */
     public Map4(int hashTableSize) {
-        this.createNewRep(hashTableSize);
+        assert hashTableSize > 0 : "Violation of: hashTableSize > 0";
+        this.initialSize = hashTableSize;
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.createNewRep(this.initialSize);
+    }
+
+    /**
+     * Constructor resulting in a hash table large enough to hold
+     * {@code expectedSize} entries without growing, and that grows whenever
+     * the ratio of entries to buckets would exceed {@code loadFactor}.
+     * 
+     * @param expectedSize
+     *            the number of entries expected
+     * @param loadFactor
+     *            largest ratio of entries to buckets
+     * @requires <pre>
+     * {@code expectedSize >= 0  and  loadFactor > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = {}}
+     * </pre>
+     */
+    public Map4(int expectedSize, double loadFactor) {
+        assert expectedSize >= 0 : "Violation of: expectedSize >= 0";
+        assert loadFactor > 0 : "Violation of: loadFactor > 0";
+        this.initialSize = Math.max(1,
+                (int) Math.ceil(expectedSize / loadFactor));
+        this.loadFactor = loadFactor;
+        this.createNewRep(this.initialSize);
     }
 
     /*
@@ -150,7 +397,7 @@ public class Map4<K, V> extends MapSecondary<K, V> {
 
     @Override
     public final void clear() {
-        this.createNewRep(DEFAULT_HASH_TABLE_SIZE);
+        this.createNewRep(this.initialSize);
     }
 
     @Override
@@ -166,8 +413,10 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          */
         Map4<K, V> localSource = (Map4<K, V>) source;
         this.hashTable = localSource.hashTable;
+        this.oldTable = localSource.oldTable;
+        this.migrated = localSource.migrated;
         this.size = localSource.size;
-        localSource.createNewRep(DEFAULT_HASH_TABLE_SIZE);
+        localSource.createNewRep(localSource.initialSize);
     }
 
     /*
@@ -180,9 +429,10 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         assert value != null : "Violation of: value is not null";
         assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
 
+        this.growIfNeeded();
+        this.migrateStep();
+        this.bucket(key).add(key, value);
         this.size++;
-        int index = mod(key.hashCode(), this.hashTable.length());
-        this.hashTable.entryAt(index).add(key, value);
     }
 
     @Override
@@ -190,9 +440,9 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         assert key != null : "Violation of: key is not null";
         assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
 
+        this.migrateStep();
         this.size--;
-        int index = mod(key.hashCode(), this.hashTable.length());
-        return this.hashTable.entryAt(index).remove(key);
+        return this.bucket(key).remove(key);
     }
 
     @Override
@@ -200,16 +450,14 @@ public class Map4<K, V> extends MapSecondary<K, V> {
         assert key != null : "Violation of: key is not null";
         assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
 
-        int index = mod(key.hashCode(), this.hashTable.length());
-        return this.hashTable.entryAt(index).value(key);
+        return this.bucket(key).value(key);
     }
 
     @Override
     public final boolean hasKey(K key) {
         assert key != null : "Violation of: key is not null";
 
-        int index = mod(key.hashCode(), this.hashTable.length());
-        return this.hashTable.entryAt(index).hasKey(key);
+        return this.bucket(key).hasKey(key);
     }
 
     @Override
@@ -232,6 +480,12 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          */
         private int numberSeen;
 
+        /**
+         * Table whose buckets are being visited: the old table, if any, and
+         * then the new one.
+         */
+        private Array<Map<K, V>> table;
+
         /**
          * Bucket from which current bucket iterator comes.
          */
@@ -247,8 +501,12 @@ public class Map4<K, V> extends MapSecondary<K, V> {
          */
         public Map4Iterator() {
             this.numberSeen = 0;
+            this.table = Map4.this.hashTable;
+            if (Map4.this.oldTable != null) {
+                this.table = Map4.this.oldTable;
+            }
             this.currentBucket = 0;
-            this.bucketIterator = Map4.this.hashTable.entryAt(0).iterator();
+            this.bucketIterator = this.table.entryAt(0).iterator();
         }
 
         @Override
@@ -273,8 +531,15 @@ public class Map4<K, V> extends MapSecondary<K, V> {
             }
             while (!this.bucketIterator.hasNext()) {
                 this.currentBucket++;
-                this.bucketIterator = Map4.this.hashTable.entryAt(
-                        this.currentBucket).iterator();
+                if (this.currentBucket == this.table.length()) {
+                    this.table = Map4.this.hashTable;
+                    this.currentBucket = 0;
+                }
+                if (this.table != Map4.this.hashTable
+                        || Map4.this.hasBucket(this.currentBucket)) {
+                    this.bucketIterator = this.table.entryAt(
+                            this.currentBucket).iterator();
+                }
             }
             return this.bucketIterator.next();
         }
@@ -0,0 +1,462 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented as an open-addressing hash table: keys and values
+ * are stored in two parallel arrays whose length is a power of two, a key's
+ * home slot is its mixed hash code masked to that length, and collisions are
+ * resolved by linear probing, with implementations of primary methods.
+ * 
+ * <p>
+ * Unlike {@code Map4}, there is no bucket object per slot and no
+ * {@code mod}: a lookup is one hash, one mask, and a scan of a short run of
+ * adjacent array slots. {@code remove} shifts the rest of the run back
+ * rather than leaving a tombstone, so runs never grow because of removed
+ * entries, and the table doubles whenever it would become more than
+ * three-quarters full.
+ * 
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * {@code |$this.keys| = |$this.values|  and
+ * there exists p: integer (|$this.keys| = 2 ^ (p)  and  p >= 1)  and
+ * 4 * $this.size <= 3 * |$this.keys|  and
+ * $this.size = |{i: integer where (0 <= i < |$this.keys|  and
+ *                                 $this.keys[i] /= null)}|  and
+ * for all i: integer where (0 <= i < |$this.keys|)
+ *   (($this.keys[i] = null) = ($this.values[i] = null))  and
+ * for all i, j: integer
+ *     where (0 <= i < |$this.keys|  and  0 <= j < |$this.keys|  and
+ *            i /= j  and  $this.keys[i] /= null  and
+ *            $this.keys[j] /= null)
+ *   ($this.keys[i] /= $this.keys[j])  and
+ * for all i: integer
+ *     where (0 <= i < |$this.keys|  and  $this.keys[i] /= null)
+ *   ([every slot from HOME($this.keys[i]) up to i, cyclically, is non-null])}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = {(key, value): (K, V)
+ *     where (there exists i: integer
+ *              (0 <= i < |$this.keys|  and
+ *               $this.keys[i] = key  and  $this.values[i] = value))}}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map5<K, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default number of slots in the hash table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Largest number of slots in the hash table.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Multiplier spreading hash codes over the high bits (2^32 divided by the
+     * golden ratio).
+     */
+    private static final int MIX = 0x9E3779B9;
+
+    /**
+     * Number of bits by which the mixed hash's high half is folded onto its
+     * low half.
+     */
+    private static final int FOLD = 16;
+
+    /**
+     * Keys of the hash table, {@code null} in free slots.
+     */
+    private Object[] keys;
+
+    /**
+     * Values of the hash table, parallel to {@code keys}.
+     */
+    private Object[] values;
+
+    /**
+     * Number of occupied slots.
+     */
+    private int size;
+
+    /**
+     * Returns the home slot of a key with hash code {@code hashCode} in a
+     * table with {@code mask + 1} slots.
+     * 
+     * @param hashCode
+     *            the key's hash code
+     * @param mask
+     *            the table length minus one
+     * @return the home slot
+     * @requires <pre>
+     * {@code [mask + 1 is a power of two]}
+     * </pre>
+     * @ensures <pre>
+     * {@code 0 <= home <= mask}
+     * </pre>
+     */
+    private static int home(int hashCode, int mask) {
+        int h = hashCode * MIX;
+        return (h ^ (h >>> FOLD)) & mask;
+    }
+
+    /**
+     * Returns the smallest table length, a power of two, that holds
+     * {@code expectedSize} entries without growing.
+     * 
+     * @param expectedSize
+     *            the number of entries
+     * @return the table length
+     * @requires <pre>
+     * {@code expectedSize >= 0}
+     * </pre>
+     */
+    private static int capacityFor(int expectedSize) {
+        final int three = 3;
+        final int four = 4;
+        long needed = ((long) expectedSize * four + 2) / three;
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * Creator of initial representation.
+     * 
+     * @param capacity
+     *            the number of slots in the hash table
+     * @requires <pre>
+     * {@code [capacity is a power of two]  and  capacity >= 2}
+     * </pre>
+     * @ensures <pre>
+     * {@code |$this.keys| = capacity  and  $this.size = 0  and
+     * [all slots are free]}
+     * </pre>
+     */
+    private void createNewRep(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the slot holding {@code key}, or -1 if there is none.
+     * 
+     * @param key
+     *            the key to look for
+     * @return the slot of {@code key}, or -1
+     * @ensures <pre>
+     * {@code if key is in DOMAIN(this)
+     * then $this.keys[find] = key
+     * else find = -1}
+     * </pre>
+     */
+    private int find(Object key) {
+        int mask = this.keys.length - 1;
+        int i = home(key.hashCode(), mask);
+        Object k = this.keys[i];
+        while (k != null) {
+            if (k.equals(key)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+            k = this.keys[i];
+        }
+        return -1;
+    }
+
+    /**
+     * Stores {@code (key, value)} in the first free slot of {@code key}'s
+     * run.
+     * 
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @updates $this.keys, $this.values
+     * @requires <pre>
+     * {@code key is not in DOMAIN(this)  and  [there is a free slot]}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this union {(key, value)}}
+     * </pre>
+     */
+    private void place(Object key, Object value) {
+        int mask = this.keys.length - 1;
+        int i = home(key.hashCode(), mask);
+        while (this.keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        this.keys[i] = key;
+        this.values[i] = value;
+    }
+
+    /**
+     * Moves every entry into a table of {@code capacity} slots.
+     * 
+     * @param capacity
+     *            the new number of slots
+     * @updates $this.keys, $this.values
+     * @requires <pre>
+     * {@code [capacity is a power of two]  and
+     * 4 * $this.size <= 3 * capacity}
+     * </pre>
+     * @ensures <pre>
+     * {@code |$this.keys| = capacity  and  this = #this}
+     * </pre>
+     */
+    private void resize(int capacity) {
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                this.place(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Frees slot {@code i} and shifts later entries of its run back so that
+     * every key is still reachable from its home slot.
+     * 
+     * @param i
+     *            the slot to free
+     * @updates $this.keys, $this.values
+     * @requires <pre>
+     * {@code 0 <= i < |$this.keys|  and  $this.keys[i] /= null}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this \ {(#$this.keys[i], #$this.values[i])}}
+     * </pre>
+     */
+    private void vacate(int i) {
+        int mask = this.keys.length - 1;
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (this.keys[j] != null) {
+            int h = home(this.keys[j].hashCode(), mask);
+            /*
+             * The entry at j may fill the hole unless its home lies cyclically
+             * in (hole, j], in which case it is already as close as it can be
+             */
+            boolean stays;
+            if (hole <= j) {
+                stays = hole < h && h <= j;
+            } else {
+                stays = hole < h || h <= j;
+            }
+            if (!stays) {
+                this.keys[hole] = this.keys[j];
+                this.values[hole] = this.values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        this.keys[hole] = null;
+        this.values[hole] = null;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Map5() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor resulting in a hash table large enough to hold
+     * {@code expectedSize} entries without growing.
+     * 
+     * @param expectedSize
+     *            the number of entries expected
+     * @requires <pre>
+     * {@code expectedSize >= 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = {}}
+     * </pre>
+     */
+    public Map5(int expectedSize) {
+        assert expectedSize >= 0 : "Violation of: expectedSize >= 0";
+        this.createNewRep(capacityFor(expectedSize));
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map5<?, ?> : ""
+                + "Violation of: source is of dynamic type Map5<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map5<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map5<K, V> localSource = (Map5<K, V>) source;
+        this.keys = localSource.keys;
+        this.values = localSource.values;
+        this.size = localSource.size;
+        localSource.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        final int three = 3;
+        final int four = 4;
+        if (four * (this.size + 1) > three * this.keys.length
+                && this.keys.length < MAX_CAPACITY) {
+            this.resize(2 * this.keys.length);
+        }
+        this.place(key, value);
+        this.size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int i = this.find(key);
+        Pair<K, V> result = new SimplePair<K, V>((K) this.keys[i],
+                (V) this.values[i]);
+        this.vacate(i);
+        this.size--;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return (V) this.values[this.find(key)];
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.find(key) >= 0;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map5}.
+     */
+    private final class Map5Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Number of elements seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Slot at which to look for the next element.
+         */
+        private int slot;
+
+        /**
+         * Default constructor.
+         */
+        public Map5Iterator() {
+            this.numberSeen = 0;
+            this.slot = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < Map5.this.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            while (Map5.this.keys[this.slot] == null) {
+                this.slot++;
+            }
+            this.numberSeen++;
+            Pair<K, V> result = new SimplePair<K, V>(
+                    (K) Map5.this.keys[this.slot],
+                    (V) Map5.this.values[this.slot]);
+            this.slot++;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,649 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+
+/**
+ * {@code Map} represented as a fixed number of independently locked segments,
+ * each a chained hash table of its own, with implementations of primary
+ * methods that are safe to call from many threads at once.
+ * 
+ * <p>
+ * The high bits of a key's mixed hash code choose its segment and the low
+ * bits its bucket, so threads working on keys of different segments never
+ * wait for each other, and each segment grows by itself. {@code merge} (and
+ * {@code addOrIncrement}, for counts) reads, combines, and writes a value
+ * under a single acquisition of the segment's lock, so concurrent updates to
+ * the same key are never lost.
+ * 
+ * <p>
+ * Iterators are weakly consistent: they copy one segment at a time, under its
+ * lock, as they reach it, so they never fail because of concurrent updates,
+ * see every pair that is present for the whole iteration exactly once, and
+ * may or may not see pairs added or removed meanwhile. {@code size} is exact
+ * whenever no update is in progress. The {@code Standard} methods
+ * ({@code clear}, {@code transferFrom}, {@code newInstance}) and the
+ * secondary methods built from several kernel calls require that no other
+ * thread is using {@code this}.
+ * 
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @convention <pre>
+ * {@code [|$this.segments| is a power of two]  and
+ * for all s: Segment where (s is in elements($this.segments))
+ *   ([|s.table| is a power of two]  and
+ *    4 * s.count <= 3 * |s.table|  or  |s.table| = MAX_CAPACITY  and
+ *    s.count = [number of nodes in the chains of s.table]  and
+ *    [every node in chain i of s.table has
+ *     INDEX(node.key) = i and SEGMENT(node.key) = s])  and
+ * [keys are distinct]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [set of (node.key, node.value) over the nodes of all chains
+ *                of all segments]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map6<K, V> extends MapSecondary<K, V> {
+
+    /**
+     * Combines the value already associated with a key and a new one into
+     * the value to associate with the key from then on.
+     * 
+     * @param <V>
+     *            type of the values
+     */
+    public interface Merger<V> {
+
+        /**
+         * Returns the combination of {@code oldValue} and {@code value}.
+         * 
+         * @param oldValue
+         *            the value already associated with the key
+         * @param value
+         *            the value being merged in
+         * @return the value to associate with the key
+         * @ensures <pre>
+         * {@code merge /= null}
+         * </pre>
+         */
+        V merge(V oldValue, V value);
+
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default number of segments.
+     */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * Largest number of segments.
+     */
+    private static final int MAX_CONCURRENCY_LEVEL = 1 << 16;
+
+    /**
+     * Number of buckets in a new segment.
+     */
+    private static final int SEGMENT_CAPACITY = 4;
+
+    /**
+     * Largest number of buckets in a segment.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Multiplier spreading hash codes over the high bits (2^32 divided by the
+     * golden ratio).
+     */
+    private static final int MIX = 0x9E3779B9;
+
+    /**
+     * Number of bits by which the mixed hash's high half is folded onto its
+     * low half.
+     */
+    private static final int FOLD = 16;
+
+    /**
+     * Number of bits in an {@code int}.
+     */
+    private static final int INT_BITS = 32;
+
+    /**
+     * Adds {@code Integer}s, for {@code addOrIncrement}.
+     */
+    private static final Merger<Integer> SUM = new Merger<Integer>() {
+        @Override
+        public Integer merge(Integer oldValue, Integer value) {
+            return oldValue + value;
+        }
+    };
+
+    /**
+     * Link of a bucket's chain.
+     */
+    private static final class Node<K, V> {
+
+        /**
+         * Key of this pair.
+         */
+        private final K key;
+
+        /**
+         * Value of this pair.
+         */
+        private V value;
+
+        /**
+         * Next link of the chain, or {@code null}.
+         */
+        private Node<K, V> next;
+
+        /**
+         * Constructor.
+         * 
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         * @param next
+         *            the next link
+         */
+        Node(K key, V value, Node<K, V> next) {
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+    }
+
+    /**
+     * One independently locked chained hash table; every access to its
+     * fields is made while holding its monitor.
+     */
+    private static final class Segment<K, V> {
+
+        /**
+         * Buckets of the segment.
+         */
+        private Node<K, V>[] table;
+
+        /**
+         * Number of pairs in the segment.
+         */
+        private int count;
+
+        /**
+         * Constructor.
+         */
+        Segment() {
+            this.table = newTable(SEGMENT_CAPACITY);
+            this.count = 0;
+        }
+
+        /**
+         * Returns the node of {@code key} with mixed hash {@code hash}, or
+         * {@code null}.
+         * 
+         * @param key
+         *            the key
+         * @param hash
+         *            the key's mixed hash
+         * @return the node, or {@code null}
+         */
+        Node<K, V> find(K key, int hash) {
+            Node<K, V> n = this.table[hash & (this.table.length - 1)];
+            while (n != null && !n.key.equals(key)) {
+                n = n.next;
+            }
+            return n;
+        }
+
+        /**
+         * Adds ({@code key}, {@code value}), growing the table if needed.
+         * 
+         * @param key
+         *            the key
+         * @param hash
+         *            the key's mixed hash
+         * @param value
+         *            the value
+         */
+        void insert(K key, int hash, V value) {
+            final int three = 3;
+            final int four = 4;
+            if (four * (this.count + 1) > three * this.table.length
+                    && this.table.length < MAX_CAPACITY) {
+                Node<K, V>[] old = this.table;
+                this.table = newTable(2 * old.length);
+                int mask = this.table.length - 1;
+                for (Node<K, V> head : old) {
+                    Node<K, V> n = head;
+                    while (n != null) {
+                        Node<K, V> next = n.next;
+                        int i = mix(n.key.hashCode()) & mask;
+                        n.next = this.table[i];
+                        this.table[i] = n;
+                        n = next;
+                    }
+                }
+            }
+            int i = hash & (this.table.length - 1);
+            this.table[i] = new Node<K, V>(key, value, this.table[i]);
+            this.count++;
+        }
+
+        /**
+         * Removes and returns the node of {@code key}.
+         * 
+         * @param key
+         *            the key
+         * @param hash
+         *            the key's mixed hash
+         * @return the removed node
+         * @requires <pre>
+         * {@code [key is in this segment]}
+         * </pre>
+         */
+        Node<K, V> delete(K key, int hash) {
+            int i = hash & (this.table.length - 1);
+            Node<K, V> previous = null;
+            Node<K, V> n = this.table[i];
+            while (!n.key.equals(key)) {
+                previous = n;
+                n = n.next;
+            }
+            if (previous == null) {
+                this.table[i] = n.next;
+            } else {
+                previous.next = n.next;
+            }
+            this.count--;
+            return n;
+        }
+
+    }
+
+    /**
+     * Segments of the map.
+     */
+    private Segment<K, V>[] segments;
+
+    /**
+     * Number of low bits by which a mixed hash is shifted right to give its
+     * segment.
+     */
+    private int segmentShift;
+
+    /**
+     * Returns a table of {@code capacity} empty buckets.
+     * 
+     * @param <K>
+     *            type of the keys
+     * @param <V>
+     *            type of the values
+     * @param capacity
+     *            the number of buckets
+     * @return the table
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static <K, V> Node<K, V>[] newTable(int capacity) {
+        return new Node[capacity];
+    }
+
+    /**
+     * Returns {@code hashCode} with its bits spread by multiplication, and
+     * the high half folded onto the low half so that both the segment (high
+     * bits) and the bucket (low bits) depend on every bit of the hash code.
+     * 
+     * @param hashCode
+     *            the hash code
+     * @return the mixed hash
+     */
+    private static int mix(int hashCode) {
+        int h = hashCode * MIX;
+        return h ^ (h >>> FOLD);
+    }
+
+    /**
+     * Creator of initial representation.
+     * 
+     * @param concurrencyLevel
+     *            the number of segments
+     * @requires <pre>
+     * {@code [concurrencyLevel is a power of two]}
+     * </pre>
+     * @ensures <pre>
+     * {@code |$this.segments| = concurrencyLevel  and  this = {}}
+     * </pre>
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void createNewRep(int concurrencyLevel) {
+        this.segments = new Segment[concurrencyLevel];
+        for (int i = 0; i < concurrencyLevel; i++) {
+            this.segments[i] = new Segment<K, V>();
+        }
+        this.segmentShift = INT_BITS
+                - Integer.numberOfTrailingZeros(concurrencyLevel);
+    }
+
+    /**
+     * Returns the segment of a key with mixed hash {@code hash}.
+     * 
+     * @param hash
+     *            the key's mixed hash
+     * @return the segment
+     */
+    private Segment<K, V> segmentFor(int hash) {
+        if (this.segments.length == 1) {
+            return this.segments[0];
+        }
+        return this.segments[hash >>> this.segmentShift];
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Map6() {
+        this.createNewRep(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Constructor resulting in (at least) {@code concurrencyLevel} segments,
+     * i.e., about as many threads updating {@code this} without waiting for
+     * each other.
+     * 
+     * @param concurrencyLevel
+     *            the number of threads expected to update {@code this}
+     * @requires <pre>
+     * {@code concurrencyLevel > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = {}}
+     * </pre>
+     */
+    public Map6(int concurrencyLevel) {
+        assert concurrencyLevel > 0 : "Violation of: concurrencyLevel > 0";
+        int level = 1;
+        while (level < concurrencyLevel && level < MAX_CONCURRENCY_LEVEL) {
+            level *= 2;
+        }
+        this.createNewRep(level);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.segments.length);
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map6<?, ?> : ""
+                + "Violation of: source is of dynamic type Map6<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map6<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map6<K, V> localSource = (Map6<K, V>) source;
+        this.segments = localSource.segments;
+        this.segmentShift = localSource.segmentShift;
+        localSource.createNewRep(localSource.segments.length);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+
+        int hash = mix(key.hashCode());
+        Segment<K, V> s = this.segmentFor(hash);
+        synchronized (s) {
+            assert s.find(key, hash) == null : ""
+                    + "Violation of: key is not in DOMAIN(this)";
+            s.insert(key, hash, value);
+        }
+    }
+
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        int hash = mix(key.hashCode());
+        Segment<K, V> s = this.segmentFor(hash);
+        Node<K, V> n;
+        synchronized (s) {
+            assert s.find(key, hash) != null : ""
+                    + "Violation of: key is in DOMAIN(this)";
+            n = s.delete(key, hash);
+        }
+        return new SimplePair<K, V>(n.key, n.value);
+    }
+
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        int hash = mix(key.hashCode());
+        Segment<K, V> s = this.segmentFor(hash);
+        synchronized (s) {
+            Node<K, V> n = s.find(key, hash);
+            assert n != null : "Violation of: key is in DOMAIN(this)";
+            return n.value;
+        }
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        int hash = mix(key.hashCode());
+        Segment<K, V> s = this.segmentFor(hash);
+        synchronized (s) {
+            return s.find(key, hash) != null;
+        }
+    }
+
+    @Override
+    public final int size() {
+        int result = 0;
+        for (Segment<K, V> s : this.segments) {
+            synchronized (s) {
+                result += s.count;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map6Iterator();
+    }
+
+    /*
+     * Atomic update methods --------------------------------------------------
+     */
+
+    /**
+     * Atomically associates {@code value} with {@code key} if {@code key} is
+     * not in {@code DOMAIN(this)}, and otherwise replaces the value
+     * associated with {@code key} by its combination with {@code value};
+     * reports the value now associated with {@code key}.
+     * 
+     * @param key
+     *            the key
+     * @param value
+     *            the value to associate or merge in
+     * @param merger
+     *            combines the old value and {@code value}
+     * @return the value now associated with {@code key}
+     * @updates this
+     * @ensures <pre>
+     * {@code if key is in DOMAIN(#this)
+     * then this = (#this \ {(key, #this(key))}) union
+     *             {(key, merger.merge(#this(key), value))}
+     * else this = #this union {(key, value)}  and
+     * merge = this(key)}
+     * </pre>
+     */
+    public final V merge(K key, V value, Merger<V> merger) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert merger != null : "Violation of: merger is not null";
+
+        int hash = mix(key.hashCode());
+        Segment<K, V> s = this.segmentFor(hash);
+        synchronized (s) {
+            Node<K, V> n = s.find(key, hash);
+            if (n == null) {
+                s.insert(key, hash, value);
+                return value;
+            }
+            n.value = merger.merge(n.value, value);
+            return n.value;
+        }
+    }
+
+    /**
+     * Atomically adds {@code delta} to the count associated with {@code key}
+     * in {@code map}, first adding {@code key} with count 0 if it is not in
+     * {@code DOMAIN(map)}; reports the new count.
+     * 
+     * @param <K>
+     *            type of {@code Map} domain (key) entries
+     * @param map
+     *            the map of counts
+     * @param key
+     *            the key whose count to change
+     * @param delta
+     *            the amount to add
+     * @return the count now associated with {@code key}
+     * @updates map
+     * @ensures <pre>
+     * {@code if key is in DOMAIN(#map)
+     * then map = (#map \ {(key, #map(key))}) union
+     *            {(key, #map(key) + delta)}
+     * else map = #map union {(key, delta)}  and
+     * addOrIncrement = map(key)}
+     * </pre>
+     */
+    public static <K> int addOrIncrement(Map6<K, Integer> map, K key,
+            int delta) {
+        assert map != null : "Violation of: map is not null";
+        return map.merge(key, delta, SUM);
+    }
+
+    /**
+     * Implementation of weakly consistent {@code Iterator} interface for
+     * {@code Map6}.
+     */
+    private final class Map6Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Index of the next segment to copy.
+         */
+        private int nextSegment;
+
+        /**
+         * Pairs of the current segment, as copied.
+         */
+        private final List<Pair<K, V>> pairs;
+
+        /**
+         * Position of the next pair in {@code pairs}.
+         */
+        private int position;
+
+        /**
+         * Default constructor.
+         */
+        public Map6Iterator() {
+            this.nextSegment = 0;
+            this.pairs = new ArrayList<Pair<K, V>>();
+            this.position = 0;
+            this.advance();
+        }
+
+        /**
+         * Copies segments until one with a pair is found or none is left.
+         */
+        private void advance() {
+            while (this.position == this.pairs.size()
+                    && this.nextSegment < Map6.this.segments.length) {
+                this.pairs.clear();
+                this.position = 0;
+                Segment<K, V> s = Map6.this.segments[this.nextSegment];
+                synchronized (s) {
+                    for (Node<K, V> head : s.table) {
+                        Node<K, V> n = head;
+                        while (n != null) {
+                            this.pairs.add(new SimplePair<K, V>(n.key,
+                                    n.value));
+                            n = n.next;
+                        }
+                    }
+                }
+                this.nextSegment++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < this.pairs.size();
+        }
+
+        @Override
+        public Pair<K, V> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Pair<K, V> result = this.pairs.get(this.position);
+            this.position++;
+            this.advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
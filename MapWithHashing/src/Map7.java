@@ -0,0 +1,815 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.map.Map;
+import components.map.MapSecondary;
+import components.queue.Queue;
+import components.queue.Queue1L;
+
+/**
+ * {@code Map} represented as a B+-tree ordered by the keys' {@code compareTo}:
+ * every node holds up to {@code ORDER} keys in one array, internal nodes hold
+ * only separator keys and child links, and all pairs live in the leaves,
+ * which are linked left to right, with implementations of primary methods
+ * and of the ordered methods {@code range} and {@code buildFromSorted}.
+ * 
+ * <p>
+ * A lookup touches one node per level, and there are at most
+ * log_{ORDER/2}(|this|) + 1 levels, so even a million keys need only five
+ * short binary searches over contiguous arrays instead of some twenty
+ * pointer hops through one-key nodes. Iteration and {@code range} follow the
+ * leaf links, yielding pairs in increasing order of keys.
+ * 
+ * @param <K>
+ *            type of {@code Map} domain (key) entries
+ * @param <V>
+ *            type of {@code Map} range (associated value) entries
+ * @mathdefinitions <pre>
+ * {@code IS_BPLUS_TREE(
+ *   n: node
+ *  ): boolean satisfies
+ *  [n.keys[0, n.count) is strictly increasing, n.count <= ORDER, and either
+ *   n is a leaf whose values[0, n.count) are the values of those keys, or
+ *   n is internal with n.count + 1 children, all of the same height, each
+ *   satisfying IS_BPLUS_TREE and holding at least ORDER / 2 keys, such that
+ *   every key under children[i] is less than keys[i] and every key under
+ *   children[i + 1] is at least keys[i]; and the leaves, read left to right,
+ *   are linked through next]}
+ * </pre>
+ * @convention <pre>
+ * {@code IS_BPLUS_TREE($this.root)  and
+ * $this.size = [number of keys in the leaves of $this.root]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = {(key, value): (K, V)
+ *     where ([key is at index i of some leaf of $this.root]  and
+ *            value = [that leaf].values[i])}}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map7<K extends Comparable<K>, V> extends MapSecondary<K, V> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Largest number of keys in a node.
+     */
+    private static final int ORDER = 64;
+
+    /**
+     * Smallest number of keys in a node other than the root.
+     */
+    private static final int MIN = ORDER / 2;
+
+    /**
+     * Node of the B+-tree. Its arrays have room for one key more than
+     * {@code ORDER} so that a node can overflow briefly before it is split.
+     */
+    private static final class Node {
+
+        /**
+         * Number of keys in this node.
+         */
+        private int count;
+
+        /**
+         * Keys of this node, in {@code keys[0, count)}.
+         */
+        private final Object[] keys;
+
+        /**
+         * Values of the keys of a leaf, {@code null} for an internal node.
+         */
+        private final Object[] values;
+
+        /**
+         * Children of an internal node, in {@code children[0, count]},
+         * {@code null} for a leaf.
+         */
+        private final Node[] children;
+
+        /**
+         * Next leaf to the right, {@code null} for the last leaf or an
+         * internal node.
+         */
+        private Node next;
+
+        /**
+         * Constructor for an empty node.
+         * 
+         * @param leaf
+         *            whether the node is a leaf
+         */
+        private Node(boolean leaf) {
+            this.count = 0;
+            this.keys = new Object[ORDER + 1];
+            if (leaf) {
+                this.values = new Object[ORDER + 1];
+                this.children = null;
+            } else {
+                this.values = null;
+                this.children = new Node[ORDER + 2];
+            }
+        }
+
+        /**
+         * Reports whether this node is a leaf.
+         * 
+         * @return true iff this is a leaf
+         */
+        private boolean isLeaf() {
+            return this.children == null;
+        }
+
+    }
+
+    /**
+     * Root of the B+-tree, an empty leaf when {@code this} is empty.
+     */
+    private Node root;
+
+    /**
+     * Number of pairs in {@code this}.
+     */
+    private int size;
+
+    /**
+     * Key promoted to the parent by the most recent {@code split}.
+     */
+    private Object promoted;
+
+    /**
+     * Returns the first index {@code i} in {@code n.keys[0, n.count)} whose
+     * key is at least {@code key} ({@code n.count} if there is none).
+     * 
+     * @param <K>
+     *            type of the keys
+     * @param n
+     *            the node to search
+     * @param key
+     *            the key to search for
+     * @return the index of the first key >= key
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>> int lowerBound(Node n, K key) {
+        int lo = 0;
+        int hi = n.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (((K) n.keys[mid]).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index {@code i} in {@code n.keys[0, n.count)} whose
+     * key is greater than {@code key} ({@code n.count} if there is none),
+     * which for an internal node is the child under which {@code key}
+     * belongs.
+     * 
+     * @param <K>
+     *            type of the keys
+     * @param n
+     *            the node to search
+     * @param key
+     *            the key to search for
+     * @return the index of the first key > key
+     */
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>> int upperBound(Node n, K key) {
+        int lo = 0;
+        int hi = n.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (key.compareTo((K) n.keys[mid]) < 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the leaf of {@code this} where {@code key} is or would be.
+     * 
+     * @param key
+     *            the key to search for
+     * @return the leaf for key
+     */
+    private Node leafFor(K key) {
+        Node n = this.root;
+        while (!n.isLeaf()) {
+            n = n.children[upperBound(n, key)];
+        }
+        return n;
+    }
+
+    /**
+     * Returns the index of {@code key} in {@code leaf}, or -1 if it is not
+     * there.
+     * 
+     * @param <K>
+     *            type of the keys
+     * @param leaf
+     *            the leaf to search
+     * @param key
+     *            the key to search for
+     * @return the index of key in leaf, or -1
+     */
+    private static <K extends Comparable<K>> int indexIn(Node leaf, K key) {
+        int i = lowerBound(leaf, key);
+        if (i == leaf.count || key.compareTo(keyAt(leaf, i)) != 0) {
+            i = -1;
+        }
+        return i;
+    }
+
+    /**
+     * Returns {@code n.keys[i]} as a {@code K}.
+     * 
+     * @param <K>
+     *            type of the keys
+     * @param n
+     *            the node
+     * @param i
+     *            the index
+     * @return the key at index i of n
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> K keyAt(Node n, int i) {
+        return (K) n.keys[i];
+    }
+
+    /**
+     * Moves the upper half of the overfull node {@code n} into a new right
+     * sibling, sets {@code this.promoted} to the key separating them, and
+     * returns the sibling.
+     * 
+     * @param n
+     *            the node to split
+     * @return the new right sibling of n
+     * @updates n, this.promoted
+     * @requires <pre>
+     * {@code n.count = ORDER + 1}
+     * </pre>
+     */
+    private Node split(Node n) {
+        Node right = new Node(n.isLeaf());
+        int total = n.count;
+        if (n.isLeaf()) {
+            int half = total / 2;
+            right.count = total - half;
+            System.arraycopy(n.keys, half, right.keys, 0, right.count);
+            System.arraycopy(n.values, half, right.values, 0, right.count);
+            Arrays.fill(n.keys, half, total, null);
+            Arrays.fill(n.values, half, total, null);
+            n.count = half;
+            right.next = n.next;
+            n.next = right;
+            this.promoted = right.keys[0];
+        } else {
+            int mid = total / 2;
+            this.promoted = n.keys[mid];
+            right.count = total - mid - 1;
+            System.arraycopy(n.keys, mid + 1, right.keys, 0, right.count);
+            System.arraycopy(n.children, mid + 1, right.children, 0,
+                    right.count + 1);
+            Arrays.fill(n.keys, mid, total, null);
+            Arrays.fill(n.children, mid + 1, total + 1, null);
+            n.count = mid;
+        }
+        return right;
+    }
+
+    /**
+     * Inserts the pair ({@code key}, {@code value}) under {@code n}, splitting
+     * {@code n} if it overflows.
+     * 
+     * @param n
+     *            the subtree
+     * @param key
+     *            the key to insert
+     * @param value
+     *            the value to insert
+     * @return the new right sibling of n if n was split, otherwise null
+     * @updates n, this.promoted
+     * @requires <pre>
+     * {@code key is not under n}
+     * </pre>
+     */
+    private Node insert(Node n, K key, V value) {
+        if (n.isLeaf()) {
+            int i = lowerBound(n, key);
+            System.arraycopy(n.keys, i, n.keys, i + 1, n.count - i);
+            System.arraycopy(n.values, i, n.values, i + 1, n.count - i);
+            n.keys[i] = key;
+            n.values[i] = value;
+            n.count++;
+        } else {
+            int c = upperBound(n, key);
+            Node sibling = this.insert(n.children[c], key, value);
+            if (sibling != null) {
+                System.arraycopy(n.keys, c, n.keys, c + 1, n.count - c);
+                System.arraycopy(n.children, c + 1, n.children, c + 2,
+                        n.count - c);
+                n.keys[c] = this.promoted;
+                n.children[c + 1] = sibling;
+                n.count++;
+            }
+        }
+        Node result = null;
+        if (n.count > ORDER) {
+            result = this.split(n);
+        }
+        return result;
+    }
+
+    /**
+     * Removes {@code key} from under {@code n}, restoring the minimum
+     * occupancy of any child left with too few keys.
+     * 
+     * @param <K>
+     *            type of the keys
+     * @param n
+     *            the subtree
+     * @param key
+     *            the key to remove
+     * @updates n
+     * @requires <pre>
+     * {@code key is under n}
+     * </pre>
+     */
+    private static <K extends Comparable<K>> void delete(Node n, K key) {
+        if (n.isLeaf()) {
+            int i = lowerBound(n, key);
+            n.count--;
+            System.arraycopy(n.keys, i + 1, n.keys, i, n.count - i);
+            System.arraycopy(n.values, i + 1, n.values, i, n.count - i);
+            n.keys[n.count] = null;
+            n.values[n.count] = null;
+        } else {
+            int c = upperBound(n, key);
+            delete(n.children[c], key);
+            if (n.children[c].count < MIN) {
+                refill(n, c);
+            }
+        }
+    }
+
+    /**
+     * Brings {@code parent.children[c]}, which has one key fewer than
+     * {@code MIN}, back to at least {@code MIN} keys by borrowing a key from
+     * a sibling or, if neither sibling can spare one, by merging it with a
+     * sibling.
+     * 
+     * @param parent
+     *            the internal node
+     * @param c
+     *            the index of the child to refill
+     * @updates parent
+     * @requires <pre>
+     * {@code parent.count >= 1  and  parent.children[c].count = MIN - 1}
+     * </pre>
+     */
+    private static void refill(Node parent, int c) {
+        Node child = parent.children[c];
+        if (c > 0 && parent.children[c - 1].count > MIN) {
+            Node left = parent.children[c - 1];
+            System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+            if (child.isLeaf()) {
+                System.arraycopy(child.values, 0, child.values, 1,
+                        child.count);
+                child.keys[0] = left.keys[left.count - 1];
+                child.values[0] = left.values[left.count - 1];
+                left.values[left.count - 1] = null;
+                parent.keys[c - 1] = child.keys[0];
+            } else {
+                System.arraycopy(child.children, 0, child.children, 1,
+                        child.count + 1);
+                child.keys[0] = parent.keys[c - 1];
+                child.children[0] = left.children[left.count];
+                left.children[left.count] = null;
+                parent.keys[c - 1] = left.keys[left.count - 1];
+            }
+            left.keys[left.count - 1] = null;
+            left.count--;
+            child.count++;
+        } else if (c < parent.count && parent.children[c + 1].count > MIN) {
+            Node right = parent.children[c + 1];
+            if (child.isLeaf()) {
+                child.keys[child.count] = right.keys[0];
+                child.values[child.count] = right.values[0];
+                System.arraycopy(right.values, 1, right.values, 0,
+                        right.count - 1);
+                right.values[right.count - 1] = null;
+                System.arraycopy(right.keys, 1, right.keys, 0,
+                        right.count - 1);
+                parent.keys[c] = right.keys[0];
+            } else {
+                child.keys[child.count] = parent.keys[c];
+                child.children[child.count + 1] = right.children[0];
+                parent.keys[c] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0,
+                        right.count - 1);
+                System.arraycopy(right.children, 1, right.children, 0,
+                        right.count);
+                right.children[right.count] = null;
+            }
+            right.keys[right.count - 1] = null;
+            right.count--;
+            child.count++;
+        } else if (c > 0) {
+            merge(parent, c - 1);
+        } else {
+            merge(parent, c);
+        }
+    }
+
+    /**
+     * Merges {@code parent.children[s + 1]} into {@code parent.children[s]}
+     * and removes separator {@code parent.keys[s]}.
+     * 
+     * @param parent
+     *            the internal node
+     * @param s
+     *            the index of the separator between the two children
+     * @updates parent
+     * @requires <pre>
+     * {@code 0 <= s < parent.count  and
+     *  [the two children together hold fewer than ORDER keys]}
+     * </pre>
+     */
+    private static void merge(Node parent, int s) {
+        Node left = parent.children[s];
+        Node right = parent.children[s + 1];
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count,
+                    right.count);
+            System.arraycopy(right.values, 0, left.values, left.count,
+                    right.count);
+            left.count += right.count;
+            left.next = right.next;
+        } else {
+            left.keys[left.count] = parent.keys[s];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1,
+                    right.count);
+            System.arraycopy(right.children, 0, left.children,
+                    left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        parent.count--;
+        System.arraycopy(parent.keys, s + 1, parent.keys, s, parent.count - s);
+        System.arraycopy(parent.children, s + 2, parent.children, s + 1,
+                parent.count - s);
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.root = new Node(true);
+        this.size = 0;
+        this.promoted = null;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Map7() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Map<K, V> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Map<K, V> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Map7<?, ?> : ""
+                + "Violation of: source is of dynamic type Map7<?,?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Map7<?,?>, and
+         * the ?,? must be K,V or the call would not have compiled.
+         */
+        Map7<K, V> localSource = (Map7<K, V>) source;
+        this.root = localSource.root;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(K key, V value) {
+        assert key != null : "Violation of: key is not null";
+        assert value != null : "Violation of: value is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        Node sibling = this.insert(this.root, key, value);
+        if (sibling != null) {
+            Node newRoot = new Node(false);
+            newRoot.keys[0] = this.promoted;
+            newRoot.children[0] = this.root;
+            newRoot.children[1] = sibling;
+            newRoot.count = 1;
+            this.root = newRoot;
+        }
+        this.promoted = null;
+        this.size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Pair<K, V> remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        Node leaf = this.leafFor(key);
+        int i = indexIn(leaf, key);
+        Pair<K, V> result = new SimplePair<K, V>((K) leaf.keys[i],
+                (V) leaf.values[i]);
+        delete(this.root, key);
+        if (!this.root.isLeaf() && this.root.count == 0) {
+            this.root = this.root.children[0];
+        }
+        this.size--;
+        return result;
+    }
+
+    @Override
+    public final Pair<K, V> removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        Node n = this.root;
+        while (!n.isLeaf()) {
+            n = n.children[0];
+        }
+        K key = keyAt(n, 0);
+        return this.remove(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final V value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        Node leaf = this.leafFor(key);
+        return (V) leaf.values[indexIn(leaf, key)];
+    }
+
+    @Override
+    public final boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return indexIn(this.leafFor(key), key) >= 0;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports, in increasing order of keys, the pairs of {@code this} whose
+     * keys are at least {@code lo} and smaller than {@code hi}.
+     * 
+     * @param lo
+     *            the lower bound, inclusive
+     * @param hi
+     *            the upper bound, exclusive
+     * @return the pairs of this with keys in [lo, hi), in increasing order
+     * @requires <pre>
+     * {@code lo <= hi}
+     * </pre>
+     * @ensures <pre>
+     * {@code elements(range) = {(key, value): (K, V)
+     *     where ((key, value) is in this  and  lo <= key < hi)}  and
+     *  [range is in strictly increasing order of keys]}
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    public final Queue<Pair<K, V>> range(K lo, K hi) {
+        assert lo != null : "Violation of: lo is not null";
+        assert hi != null : "Violation of: hi is not null";
+        assert lo.compareTo(hi) <= 0 : "Violation of: lo <= hi";
+
+        Queue<Pair<K, V>> result = new Queue1L<Pair<K, V>>();
+        Node leaf = this.leafFor(lo);
+        int i = lowerBound(leaf, lo);
+        boolean done = false;
+        while (leaf != null && !done) {
+            while (i < leaf.count && !done) {
+                K key = (K) leaf.keys[i];
+                done = key.compareTo(hi) >= 0;
+                if (!done) {
+                    result.enqueue(new SimplePair<K, V>(key,
+                            (V) leaf.values[i]));
+                    i++;
+                }
+            }
+            leaf = leaf.next;
+            i = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Replaces {@code this} with the pairs of {@code q}, which must already be
+     * in strictly increasing order of keys, packing the leaves as full as
+     * possible, in time linear in {@code |q|}.
+     * 
+     * @param q
+     *            the pairs, in strictly increasing order of keys
+     * @replaces this
+     * @clears q
+     * @requires <pre>
+     * {@code [q is in strictly increasing order of keys]}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = elements(#q)}
+     * </pre>
+     */
+    public final void buildFromSorted(Queue<Pair<K, V>> q) {
+        assert q != null : "Violation of: q is not null";
+
+        this.createNewRep();
+        int n = q.length();
+        if (n > 0) {
+            /*
+             * Spread the pairs as evenly as possible over the fewest leaves
+             * that hold them, so that every leaf has at least MIN keys
+             */
+            int width = (n + ORDER - 1) / ORDER;
+            Node[] level = new Node[width];
+            Object[] mins = new Object[width];
+            K previous = null;
+            for (int j = 0; j < width; j++) {
+                Node leaf = new Node(true);
+                leaf.count = n / width;
+                if (j < n % width) {
+                    leaf.count++;
+                }
+                for (int i = 0; i < leaf.count; i++) {
+                    Pair<K, V> p = q.dequeue();
+                    assert previous == null
+                            || previous.compareTo(p.key()) < 0 : ""
+                            + "Violation of: q is in strictly increasing order";
+                    previous = p.key();
+                    leaf.keys[i] = p.key();
+                    leaf.values[i] = p.value();
+                }
+                if (j > 0) {
+                    level[j - 1].next = leaf;
+                }
+                level[j] = leaf;
+                mins[j] = leaf.keys[0];
+            }
+            while (level.length > 1) {
+                int m = level.length;
+                int parents = (m + ORDER) / (ORDER + 1);
+                Node[] above = new Node[parents];
+                Object[] aboveMins = new Object[parents];
+                int c = 0;
+                for (int j = 0; j < parents; j++) {
+                    Node parent = new Node(false);
+                    int children = m / parents;
+                    if (j < m % parents) {
+                        children++;
+                    }
+                    aboveMins[j] = mins[c];
+                    parent.children[0] = level[c];
+                    for (int k = 1; k < children; k++) {
+                        parent.keys[k - 1] = mins[c + k];
+                        parent.children[k] = level[c + k];
+                    }
+                    parent.count = children - 1;
+                    c += children;
+                    above[j] = parent;
+                }
+                level = above;
+                mins = aboveMins;
+            }
+            this.root = level[0];
+            this.size = n;
+        }
+    }
+
+    @Override
+    public final Iterator<Pair<K, V>> iterator() {
+        return new Map7Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Map7}, yielding
+     * pairs in increasing order of keys by following the leaf links.
+     */
+    private final class Map7Iterator implements Iterator<Pair<K, V>> {
+
+        /**
+         * Number of elements seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Leaf holding the next pair.
+         */
+        private Node leaf;
+
+        /**
+         * Index of the next pair in {@code leaf}.
+         */
+        private int index;
+
+        /**
+         * Default constructor.
+         */
+        public Map7Iterator() {
+            this.numberSeen = 0;
+            Node n = Map7.this.root;
+            while (!n.isLeaf()) {
+                n = n.children[0];
+            }
+            this.leaf = n;
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < Map7.this.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Pair<K, V> next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            if (this.index == this.leaf.count) {
+                this.leaf = this.leaf.next;
+                this.index = 0;
+            }
+            this.numberSeen++;
+            Pair<K, V> result = new SimplePair<K, V>(
+                    (K) this.leaf.keys[this.index],
+                    (V) this.leaf.values[this.index]);
+            this.index++;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,449 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Map from object keys to {@code int} values, represented like {@code Map5}
+ * as an open-addressing, linearly probed hash table in flat parallel arrays,
+ * but with the values in an {@code int[]} so that counts are never boxed.
+ * 
+ * <p>
+ * Meant for counting: {@code increment} adds one to a key's value, adding the
+ * key with value 1 if it is not already there, with a single probe sequence
+ * instead of a {@code hasKey}, {@code remove}, and {@code add}. Iterating
+ * over an {@code ObjectIntMap} yields its keys, in no particular order.
+ * 
+ * @param <K>
+ *            type of the domain (key) entries
+ * @convention <pre>
+ * {@code |$this.keys| = |$this.values|  and
+ * there exists p: integer (|$this.keys| = 2 ^ (p)  and  p >= 1)  and
+ * 4 * $this.size <= 3 * |$this.keys|  and
+ * $this.size = |{i: integer where (0 <= i < |$this.keys|  and
+ *                                 $this.keys[i] /= null)}|  and
+ * [keys are distinct]  and
+ * for all i: integer
+ *     where (0 <= i < |$this.keys|  and  $this.keys[i] /= null)
+ *   ([every slot from HOME($this.keys[i]) up to i, cyclically, is non-null])}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = {(key, value): (K, integer)
+ *     where (there exists i: integer
+ *              (0 <= i < |$this.keys|  and
+ *               $this.keys[i] = key  and  $this.values[i] = value))}}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class ObjectIntMap<K> implements Iterable<K> {
+
+    /**
+     * Default number of slots in the hash table.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Largest number of slots in the hash table.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Multiplier spreading hash codes over the high bits (2^32 divided by the
+     * golden ratio).
+     */
+    private static final int MIX = 0x9E3779B9;
+
+    /**
+     * Number of bits by which the mixed hash's high half is folded onto its
+     * low half.
+     */
+    private static final int FOLD = 16;
+
+    /**
+     * Keys of the hash table, {@code null} in free slots.
+     */
+    private Object[] keys;
+
+    /**
+     * Values of the hash table, parallel to {@code keys}.
+     */
+    private int[] values;
+
+    /**
+     * Number of occupied slots.
+     */
+    private int size;
+
+    /**
+     * Returns the home slot of a key with hash code {@code hashCode} in a
+     * table with {@code mask + 1} slots.
+     * 
+     * @param hashCode
+     *            the key's hash code
+     * @param mask
+     *            the table length minus one
+     * @return the home slot
+     * @requires <pre>
+     * {@code [mask + 1 is a power of two]}
+     * </pre>
+     * @ensures <pre>
+     * {@code 0 <= home <= mask}
+     * </pre>
+     */
+    private static int home(int hashCode, int mask) {
+        int h = hashCode * MIX;
+        return (h ^ (h >>> FOLD)) & mask;
+    }
+
+    /**
+     * Returns the smallest table length, a power of two, that holds
+     * {@code expectedSize} entries without growing.
+     * 
+     * @param expectedSize
+     *            the number of entries
+     * @return the table length
+     * @requires <pre>
+     * {@code expectedSize >= 0}
+     * </pre>
+     */
+    private static int capacityFor(int expectedSize) {
+        final int three = 3;
+        final int four = 4;
+        long needed = ((long) expectedSize * four + 2) / three;
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * Creator of initial representation.
+     * 
+     * @param capacity
+     *            the number of slots in the hash table
+     * @requires <pre>
+     * {@code [capacity is a power of two]  and  capacity >= 2}
+     * </pre>
+     */
+    private void createNewRep(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the slot holding {@code key} or, if there is none, the free
+     * slot where it would be placed.
+     * 
+     * @param key
+     *            the key to look for
+     * @return the slot of {@code key}, or the free slot ending its run
+     * @requires <pre>
+     * {@code [there is a free slot]}
+     * </pre>
+     */
+    private int slot(Object key) {
+        int mask = this.keys.length - 1;
+        int i = home(key.hashCode(), mask);
+        Object k = this.keys[i];
+        while (k != null && !k.equals(key)) {
+            i = (i + 1) & mask;
+            k = this.keys[i];
+        }
+        return i;
+    }
+
+    /**
+     * Doubles the hash table if adding one more entry would leave it more
+     * than three-quarters full.
+     * 
+     * @updates $this.keys, $this.values
+     * @ensures <pre>
+     * {@code 4 * ($this.size + 1) <= 3 * |$this.keys|  and  this = #this}
+     * </pre>
+     */
+    private void makeRoom() {
+        final int three = 3;
+        final int four = 4;
+        if (four * (this.size + 1) > three * this.keys.length
+                && this.keys.length < MAX_CAPACITY) {
+            Object[] oldKeys = this.keys;
+            int[] oldValues = this.values;
+            this.keys = new Object[2 * oldKeys.length];
+            this.values = new int[2 * oldKeys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int j = this.slot(oldKeys[i]);
+                    this.keys[j] = oldKeys[i];
+                    this.values[j] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Frees slot {@code i} and shifts later entries of its run back so that
+     * every key is still reachable from its home slot.
+     * 
+     * @param i
+     *            the slot to free
+     * @updates $this.keys, $this.values
+     * @requires <pre>
+     * {@code 0 <= i < |$this.keys|  and  $this.keys[i] /= null}
+     * </pre>
+     */
+    private void vacate(int i) {
+        int mask = this.keys.length - 1;
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (this.keys[j] != null) {
+            int h = home(this.keys[j].hashCode(), mask);
+            boolean stays;
+            if (hole <= j) {
+                stays = hole < h && h <= j;
+            } else {
+                stays = hole < h || h <= j;
+            }
+            if (!stays) {
+                this.keys[hole] = this.keys[j];
+                this.values[hole] = this.values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        this.keys[hole] = null;
+        this.values[hole] = 0;
+    }
+
+    /**
+     * Default constructor.
+     */
+    public ObjectIntMap() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor resulting in a hash table large enough to hold
+     * {@code expectedSize} entries without growing.
+     * 
+     * @param expectedSize
+     *            the number of entries expected
+     * @requires <pre>
+     * {@code expectedSize >= 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = {}}
+     * </pre>
+     */
+    public ObjectIntMap(int expectedSize) {
+        assert expectedSize >= 0 : "Violation of: expectedSize >= 0";
+        this.createNewRep(capacityFor(expectedSize));
+    }
+
+    /**
+     * Resets {@code this} to an empty map.
+     * 
+     * @clears this
+     */
+    public void clear() {
+        this.createNewRep(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Adds the pair ({@code key}, {@code value}) to {@code this}.
+     * 
+     * @param key
+     *            the key to be added
+     * @param value
+     *            the associated value to be added
+     * @updates this
+     * @requires <pre>
+     * {@code key is not in DOMAIN(this)}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this union {(key, value)}}
+     * </pre>
+     */
+    public void add(K key, int value) {
+        assert key != null : "Violation of: key is not null";
+        assert !this.hasKey(key) : "Violation of: key is not in DOMAIN(this)";
+
+        this.makeRoom();
+        int i = this.slot(key);
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.size++;
+    }
+
+    /**
+     * Adds one to the value associated with {@code key}, first adding
+     * {@code key} with value 0 if it is not in {@code DOMAIN(this)}, and
+     * reports the new value.
+     * 
+     * @param key
+     *            the key whose count to increment
+     * @return the value now associated with {@code key}
+     * @updates this
+     * @ensures <pre>
+     * {@code if key is in DOMAIN(#this)
+     * then this = (#this \ {(key, #this(key))}) union
+     *             {(key, #this(key) + 1)}
+     * else this = #this union {(key, 1)}  and
+     * increment = this(key)}
+     * </pre>
+     */
+    public int increment(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        int i = this.slot(key);
+        if (this.keys[i] == null) {
+            this.makeRoom();
+            i = this.slot(key);
+            this.keys[i] = key;
+            this.size++;
+        }
+        this.values[i]++;
+        return this.values[i];
+    }
+
+    /**
+     * Removes the pair whose first component is {@code key} and returns its
+     * value.
+     * 
+     * @param key
+     *            the key to be removed
+     * @return the value removed
+     * @updates this
+     * @requires <pre>
+     * {@code key is in DOMAIN(this)}
+     * </pre>
+     * @ensures <pre>
+     * {@code (key, remove) is in #this  and
+     * this = #this \ {(key, remove)}}
+     * </pre>
+     */
+    public int remove(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        int i = this.slot(key);
+        int result = this.values[i];
+        this.vacate(i);
+        this.size--;
+        return result;
+    }
+
+    /**
+     * Reports the value associated with {@code key} in {@code this}.
+     * 
+     * @param key
+     *            the key whose associated value is to be reported
+     * @return the value associated with key
+     * @requires <pre>
+     * {@code key is in DOMAIN(this)}
+     * </pre>
+     * @ensures <pre>
+     * {@code (key, value) is in this}
+     * </pre>
+     */
+    public int value(K key) {
+        assert key != null : "Violation of: key is not null";
+        assert this.hasKey(key) : "Violation of: key is in DOMAIN(this)";
+
+        return this.values[this.slot(key)];
+    }
+
+    /**
+     * Reports whether there is a pair in {@code this} whose first component
+     * is {@code key}.
+     * 
+     * @param key
+     *            the key to be checked
+     * @return true iff there is a pair in this whose first component is key
+     * @ensures <pre>
+     * {@code hasKey = (key is in DOMAIN(this))}
+     * </pre>
+     */
+    public boolean hasKey(K key) {
+        assert key != null : "Violation of: key is not null";
+
+        return this.keys[this.slot(key)] != null;
+    }
+
+    /**
+     * Reports size (cardinality) of {@code this}.
+     * 
+     * @return the number of pairs in this
+     * @ensures <pre>
+     * {@code size = |this|}
+     * </pre>
+     */
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new ObjectIntMapIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code ObjectIntMap},
+     * yielding its keys.
+     */
+    private final class ObjectIntMapIterator implements Iterator<K> {
+
+        /**
+         * Number of keys seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Slot at which to look for the next key.
+         */
+        private int slot;
+
+        /**
+         * Default constructor.
+         */
+        public ObjectIntMapIterator() {
+            this.numberSeen = 0;
+            this.slot = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < ObjectIntMap.this.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public K next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            while (ObjectIntMap.this.keys[this.slot] == null) {
+                this.slot++;
+            }
+            this.numberSeen++;
+            K result = (K) ObjectIntMap.this.keys[this.slot];
+            this.slot++;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntMap}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class IntMapTest {
+
+    /**
+     * Test for default constructor.
+     */
+    @Test
+    public final void testDefaultConstructor() {
+        IntMap m = new IntMap();
+        assertEquals(0, m.size());
+        assertTrue(!m.hasKey(0));
+    }
+
+    /**
+     * Test for add, value, and hasKey, including zero and negative keys.
+     */
+    @Test
+    public final void testAddValue() {
+        IntMap m = new IntMap();
+        m.add(0, 10);
+        m.add(-5, 20);
+        m.add(Integer.MAX_VALUE, 30);
+        assertEquals(3, m.size());
+        assertEquals(10, m.value(0));
+        assertEquals(20, m.value(-5));
+        assertEquals(30, m.value(Integer.MAX_VALUE));
+        assertTrue(!m.hasKey(5));
+    }
+
+    /**
+     * Test for increment of a new and an existing key.
+     */
+    @Test
+    public final void testIncrement() {
+        IntMap m = new IntMap();
+        assertEquals(1, m.increment(7));
+        assertEquals(2, m.increment(7));
+        assertEquals(1, m.size());
+    }
+
+    /**
+     * Test for remove, then increment of the removed key.
+     */
+    @Test
+    public final void testRemove() {
+        IntMap m = new IntMap();
+        m.add(1, 100);
+        m.add(2, 200);
+        assertEquals(100, m.remove(1));
+        assertTrue(!m.hasKey(1));
+        assertEquals(1, m.increment(1));
+        assertEquals(200, m.value(2));
+    }
+
+    /**
+     * Test for growth and removal with many keys.
+     */
+    @Test
+    public final void testManyKeys() {
+        final int n = 10000;
+        IntMap m = new IntMap(n);
+        for (int i = 0; i < n; i++) {
+            m.add(i << 16, -i);
+        }
+        for (int i = 0; i < n; i += 3) {
+            assertEquals(-i, m.remove(i << 16));
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 3 != 0, m.hasKey(i << 16));
+        }
+    }
+
+    /**
+     * Test for keys.
+     */
+    @Test
+    public final void testKeys() {
+        IntMap m = new IntMap();
+        m.add(3, 0);
+        m.add(1, 0);
+        m.add(2, 0);
+        int[] keys = m.keys();
+        Arrays.sort(keys);
+        assertEquals("[1, 2, 3]", Arrays.toString(keys));
+    }
+
+}
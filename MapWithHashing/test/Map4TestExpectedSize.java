@@ -0,0 +1,28 @@
+import components.map.Map;
+
+/**
+ * Customized JUnit test fixture for {@code Map4} using the presizing
+ * constructor with a small expected size and load factor 0.5, so that the
+ * hash table grows many times.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map4TestExpectedSize extends MapTest {
+
+    /**
+     * Expected size to be used in tests.
+     */
+    private static final int TEST_EXPECTED_SIZE = 2;
+
+    /**
+     * Load factor to be used in tests.
+     */
+    private static final double TEST_LOAD_FACTOR = 0.5;
+
+    @Override
+    protected final Map<String, String> constructor() {
+        return new Map4<String, String>(TEST_EXPECTED_SIZE, TEST_LOAD_FACTOR);
+    }
+
+}
@@ -0,0 +1,24 @@
+import components.map.Map;
+
+/**
+ * Customized JUnit test fixture for {@code Map4} using the presizing
+ * constructor with no expected entries and load factor 0.1, so that each
+ * growth moves the old buckets in few calls and the first one must more than
+ * double the table.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map4TestSmallLoadFactor extends MapTest {
+
+    /**
+     * Load factor to be used in tests.
+     */
+    private static final double TEST_LOAD_FACTOR = 0.1;
+
+    @Override
+    protected final Map<String, String> constructor() {
+        return new Map4<String, String>(0, TEST_LOAD_FACTOR);
+    }
+
+}
@@ -0,0 +1,151 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import components.map.Map;
+
+/**
+ * JUnit test fixture for the thread safety of {@code Map6}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map6ConcurrencyTest {
+
+    /**
+     * Number of threads to run.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of operations per thread.
+     */
+    private static final int OPERATIONS = 20000;
+
+    /**
+     * Starts every thread in {@code threads} and waits for all of them.
+     * 
+     * @param threads
+     *            the threads
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static void runAll(List<Thread> threads)
+            throws InterruptedException {
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    /**
+     * Test for addOrIncrement from many threads on few keys.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testAddOrIncrement() throws InterruptedException {
+        final Map6<String, Integer> m = new Map6<String, Integer>();
+        final int keys = 10;
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        Map6.addOrIncrement(m, "w" + (i % keys), 1);
+                    }
+                }
+            });
+        }
+        runAll(threads);
+        assertEquals(keys, m.size());
+        for (int k = 0; k < keys; k++) {
+            assertEquals(THREADS * OPERATIONS / keys, m.value("w" + k)
+                    .intValue());
+        }
+    }
+
+    /**
+     * Test for add and remove from many threads on disjoint keys.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testAddRemove() throws InterruptedException {
+        final Map6<Integer, Integer> m = new Map6<Integer, Integer>(THREADS);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < THREADS; t++) {
+            final int first = t * OPERATIONS;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int i = first; i < first + OPERATIONS; i++) {
+                        m.add(i, i);
+                    }
+                    for (int i = first; i < first + OPERATIONS; i += 2) {
+                        m.remove(i);
+                    }
+                }
+            });
+        }
+        runAll(threads);
+        assertEquals(THREADS * OPERATIONS / 2, m.size());
+        for (int i = 0; i < THREADS * OPERATIONS; i++) {
+            assertEquals(i % 2 == 1, m.hasKey(i));
+        }
+    }
+
+    /**
+     * Test for iterating while other threads update.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testWeaklyConsistentIterator()
+            throws InterruptedException {
+        final Map6<Integer, Integer> m = new Map6<Integer, Integer>();
+        final int stable = 1000;
+        for (int i = 0; i < stable; i++) {
+            m.add(-1 - i, i);
+        }
+        final AtomicBoolean done = new AtomicBoolean(false);
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    m.add(i, i);
+                    if (i % 2 == 0) {
+                        m.remove(i);
+                    }
+                }
+                done.set(true);
+            }
+        };
+        writer.start();
+        boolean finished;
+        do {
+            finished = done.get();
+            int negatives = 0;
+            for (Map.Pair<Integer, Integer> p : m) {
+                if (p.key() < 0) {
+                    negatives++;
+                }
+            }
+            assertEquals(stable, negatives);
+        } while (!finished);
+        writer.join();
+        assertTrue(m.size() == stable + OPERATIONS / 2);
+    }
+
+}
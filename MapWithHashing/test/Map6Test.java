@@ -0,0 +1,16 @@
+import components.map.Map;
+
+/**
+ * Customized JUnit test fixture for {@code Map6} using default constructor.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map6Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructor() {
+        return new Map6<String, String>();
+    }
+
+}
@@ -0,0 +1,108 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.map.Map;
+import components.queue.Queue;
+import components.queue.Queue1L;
+
+/**
+ * Customized JUnit test fixture for {@code Map7} using default constructor.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Map7Test extends MapTest {
+
+    @Override
+    protected final Map<String, String> constructor() {
+        return new Map7<String, String>();
+    }
+
+    /**
+     * Returns {@code i} as a string of five digits, zero-padded on the left
+     * so that string order agrees with numeric order.
+     * 
+     * @param i
+     *            the number
+     * @return the padded string
+     */
+    private static String padded(int i) {
+        final int width = 5;
+        StringBuilder sb = new StringBuilder(Integer.toString(i));
+        while (sb.length() < width) {
+            sb.insert(0, '0');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test for iteration in increasing order of keys after adds in
+     * decreasing order.
+     */
+    @Test
+    public final void testIteratorOrder() {
+        final int n = 1000;
+        Map7<String, String> m = new Map7<String, String>();
+        for (int i = n - 1; i >= 0; i--) {
+            m.add(padded(i), "v" + i);
+        }
+        int i = 0;
+        for (Map.Pair<String, String> p : m) {
+            assertEquals(padded(i), p.key());
+            assertEquals("v" + i, p.value());
+            i++;
+        }
+        assertEquals(n, i);
+    }
+
+    /**
+     * Test for range across several leaves.
+     */
+    @Test
+    public final void testRange() {
+        final int n = 1000;
+        final int lo = 250;
+        final int hi = 750;
+        Map7<String, String> m = new Map7<String, String>();
+        for (int i = 0; i < n; i += 2) {
+            m.add(padded(i), "v" + i);
+        }
+        Queue<Map.Pair<String, String>> q = m.range(padded(lo - 1), padded(hi));
+        assertEquals((hi - lo) / 2, q.length());
+        for (int i = lo; i < hi; i += 2) {
+            assertEquals(padded(i), q.dequeue().key());
+        }
+        assertEquals(0, m.range(padded(n), padded(n + 1)).length());
+    }
+
+    /**
+     * Test for buildFromSorted followed by removes.
+     */
+    @Test
+    public final void testBuildFromSorted() {
+        final int n = 5000;
+        Map7<String, String> source = new Map7<String, String>();
+        for (int i = 0; i < n; i++) {
+            source.add(padded(i), "v" + i);
+        }
+        Queue<Map.Pair<String, String>> q =
+                new Queue1L<Map.Pair<String, String>>();
+        for (Map.Pair<String, String> p : source) {
+            q.enqueue(p);
+        }
+        Map7<String, String> m = new Map7<String, String>();
+        m.add("x", "y");
+        m.buildFromSorted(q);
+        assertEquals(0, q.length());
+        assertEquals(source, m);
+        assertEquals(false, m.hasKey("x"));
+        for (int i = 0; i < n; i += 3) {
+            assertEquals("v" + i, m.remove(padded(i)).value());
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 3 != 0, m.hasKey(padded(i)));
+        }
+    }
+
+}
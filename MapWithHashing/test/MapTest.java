@@ -168,4 +168,53 @@ public abstract class MapTest {
         Map r = this.createFromArgs("A", "5", "B", "6");
         assertEquals(2, r.size());
     }
+
+    /**
+     * Test for many adds and removes, enough to make hash tables grow.
+     */
+    @Test
+    public final void testManyAddsAndRemoves() {
+        final int n = 2000;
+        Map<String, String> m = this.constructor();
+        for (int i = 0; i < n; i++) {
+            m.add("k" + i, "v" + i);
+        }
+        assertEquals(n, m.size());
+        for (int i = 0; i < n; i += 2) {
+            assertEquals("v" + i, m.remove("k" + i).value());
+        }
+        assertEquals(n / 2, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 2 == 1, m.hasKey("k" + i));
+        }
+        int count = 0;
+        for (Map.Pair<String, String> p : m) {
+            assertEquals("v" + p.key().substring(1), p.value());
+            count++;
+        }
+        assertEquals(n / 2, count);
+    }
+
+    /**
+     * Test for iterating after every add and remove, so that some iterations
+     * happen while a hash table is growing.
+     */
+    @Test
+    public final void testIterateWhileGrowing() {
+        final int n = 300;
+        Map<String, String> m = this.constructor();
+        for (int i = 0; i < n; i++) {
+            m.add("k" + i, "v" + i);
+            if (i % 3 == 0) {
+                m.remove("k" + (i / 3));
+            }
+            int count = 0;
+            for (Map.Pair<String, String> p : m) {
+                assertEquals("v" + p.key().substring(1), p.value());
+                assertEquals(true, m.hasKey(p.key()));
+                count++;
+            }
+            assertEquals(m.size(), count);
+        }
+    }
 }
@@ -0,0 +1,119 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code ObjectIntMap}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class ObjectIntMapTest {
+
+    /**
+     * Test for default constructor.
+     */
+    @Test
+    public final void testDefaultConstructor() {
+        ObjectIntMap<String> m = new ObjectIntMap<String>();
+        assertEquals(0, m.size());
+        assertTrue(!m.hasKey("a"));
+    }
+
+    /**
+     * Test for add, value, and hasKey.
+     */
+    @Test
+    public final void testAddValue() {
+        ObjectIntMap<String> m = new ObjectIntMap<String>();
+        m.add("one", 1);
+        m.add("two", 2);
+        assertEquals(2, m.size());
+        assertEquals(1, m.value("one"));
+        assertEquals(2, m.value("two"));
+        assertTrue(!m.hasKey("three"));
+    }
+
+    /**
+     * Test for increment of a new and an existing key.
+     */
+    @Test
+    public final void testIncrement() {
+        ObjectIntMap<String> m = new ObjectIntMap<String>();
+        assertEquals(1, m.increment("the"));
+        assertEquals(2, m.increment("the"));
+        assertEquals(1, m.increment("cat"));
+        assertEquals(2, m.size());
+        assertEquals(2, m.value("the"));
+    }
+
+    /**
+     * Test for remove.
+     */
+    @Test
+    public final void testRemove() {
+        ObjectIntMap<String> m = new ObjectIntMap<String>();
+        m.add("one", 1);
+        m.add("two", 2);
+        assertEquals(1, m.remove("one"));
+        assertEquals(1, m.size());
+        assertTrue(!m.hasKey("one"));
+        assertEquals(2, m.value("two"));
+    }
+
+    /**
+     * Test for growth and removal with many colliding runs.
+     */
+    @Test
+    public final void testManyKeys() {
+        final int n = 10000;
+        ObjectIntMap<Integer> m = new ObjectIntMap<Integer>();
+        for (int i = 0; i < n; i++) {
+            m.add(i * 64, i);
+        }
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(i, m.remove(i * 64));
+        }
+        assertEquals(n / 2, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 2 == 1, m.hasKey(i * 64));
+            if (i % 2 == 1) {
+                assertEquals(i, m.value(i * 64));
+            }
+        }
+    }
+
+    /**
+     * Test for iterating over the keys.
+     */
+    @Test
+    public final void testIterator() {
+        ObjectIntMap<String> m = new ObjectIntMap<String>(3);
+        m.increment("a");
+        m.increment("b");
+        m.increment("b");
+        m.increment("c");
+        int total = 0;
+        int keys = 0;
+        for (String key : m) {
+            total += m.value(key);
+            keys++;
+        }
+        assertEquals(3, keys);
+        assertEquals(4, total);
+    }
+
+    /**
+     * Test for clear.
+     */
+    @Test
+    public final void testClear() {
+        ObjectIntMap<String> m = new ObjectIntMap<String>();
+        m.increment("a");
+        m.clear();
+        assertEquals(0, m.size());
+        assertTrue(!m.hasKey("a"));
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Stack of {@code int} values kept in a growable {@code int[]}, for clients
+ * such as digit stores that would otherwise box every value into a
+ * {@code Stack<Integer>}.
+ * 
+ * <p>
+ * It is not a {@code Stack} component, since {@code push} and {@code pop}
+ * take and return {@code int} rather than a reference type, but its methods
+ * have the same contracts as the {@code Stack} methods of the same names.
+ * When the array is full, {@code push} doubles it. Execution-time performance
+ * of all methods is O(1), amortized for {@code push}.
+ * 
+ * @mathmodel <pre>
+ * {@code type IntStack is modeled by string of integer}
+ * </pre>
+ * @initially <pre>
+ * {@code this = <>}
+ * </pre>
+ * @convention <pre>
+ * {@code 0 <= $this.length <= |$this.entries|  and
+ * |$this.entries| > 0}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = rev($this.entries[0, $this.length))}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class IntStack {
+
+    /**
+     * Length of the array of a new stack.
+     */
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Entries, from the bottom of the stack up.
+     */
+    private int[] entries;
+
+    /**
+     * Number of entries, i.e., length = |this|.
+     */
+    private int length;
+
+    /**
+     * Default constructor.
+     */
+    public IntStack() {
+        this.entries = new int[DEFAULT_CAPACITY];
+        this.length = 0;
+    }
+
+    /**
+     * Adds {@code x} to the top of {@code this}.
+     * 
+     * @param x
+     *            the entry to be added
+     * @updates this
+     * @ensures <pre>
+     * {@code this = <x> * #this}
+     * </pre>
+     */
+    public void push(int x) {
+        if (this.length == this.entries.length) {
+            int[] newEntries = new int[2 * this.entries.length];
+            System.arraycopy(this.entries, 0, newEntries, 0, this.length);
+            this.entries = newEntries;
+        }
+        this.entries[this.length] = x;
+        this.length++;
+    }
+
+    /**
+     * Removes and returns the entry at the top of {@code this}.
+     * 
+     * @return the entry removed
+     * @updates this
+     * @requires <pre>
+     * {@code this /= <>}
+     * </pre>
+     * @ensures <pre>
+     * {@code #this = <pop> * this}
+     * </pre>
+     */
+    public int pop() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        this.length--;
+        return this.entries[this.length];
+    }
+
+    /**
+     * Returns the entry at the top of {@code this}.
+     * 
+     * @return the top entry
+     * @requires <pre>
+     * {@code this /= <>}
+     * </pre>
+     * @ensures <pre>
+     * {@code <top> is prefix of this}
+     * </pre>
+     */
+    public int top() {
+        assert this.length > 0 : "Violation of: this /= <>";
+
+        return this.entries[this.length - 1];
+    }
+
+    /**
+     * Reports length of {@code this}.
+     * 
+     * @return the length of {@code this}
+     * @ensures <pre>
+     * {@code length = |this|}
+     * </pre>
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Resets {@code this} to an empty stack.
+     * 
+     * @clears this
+     */
+    public void clear() {
+        if (this.entries.length > DEFAULT_CAPACITY) {
+            this.entries = new int[DEFAULT_CAPACITY];
+        }
+        this.length = 0;
+    }
+
+}
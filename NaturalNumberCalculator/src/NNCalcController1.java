@@ -1,5 +1,4 @@
 import components.naturalnumber.NaturalNumber;
-import components.naturalnumber.NaturalNumber2;
 
 /**
  * Controller class.
@@ -21,8 +20,8 @@ public final class NNCalcController1 implements NNCalcController {
     /**
      * Useful constants.
      */
-    private static final NaturalNumber TWO = new NaturalNumber2(2),
-            INT_LIMIT = new NaturalNumber2(Integer.MAX_VALUE);
+    private static final NaturalNumber TWO = new NaturalNumber5(2),
+            INT_LIMIT = new NaturalNumber5(Integer.MAX_VALUE);
 
     /**
      * Updates this.view to display this.model, and to allow only operations
@@ -1,5 +1,4 @@
 import components.naturalnumber.NaturalNumber;
-import components.naturalnumber.NaturalNumber2;
 
 /**
  * Model class.
@@ -17,8 +16,8 @@ public final class NNCalcModel1 implements NNCalcModel {
      * Default constructor.
      */
     public NNCalcModel1() {
-        this.top = new NaturalNumber2();
-        this.bottom = new NaturalNumber2();
+        this.top = new NaturalNumber5();
+        this.bottom = new NaturalNumber5();
     }
 
     @Override
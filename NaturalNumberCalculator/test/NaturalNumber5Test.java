@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber5}, including numbers
+ * with more digits than a new {@code IntStack} has room for.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class NaturalNumber5Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructor() {
+        return new NaturalNumber5();
+    }
+
+    @Override
+    protected final NaturalNumber constructor(int i) {
+        return new NaturalNumber5(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructor(String s) {
+        return new NaturalNumber5(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructor(NaturalNumber n) {
+        return new NaturalNumber5(n);
+    }
+
+    /**
+     * Test for multiplyBy10 and divideBy10 across several doublings of the
+     * digit array.
+     */
+    @Test
+    public final void testManyDigits() {
+        final int n = 100;
+        final int ten = 10;
+        NaturalNumber s = this.constructor();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 1; i <= n; i++) {
+            s.multiplyBy10(i % ten);
+            expected.append(i % ten);
+        }
+        assertEquals(expected.toString(), s.toString());
+        for (int i = n; i >= 1; i--) {
+            assertEquals(i % ten, s.divideBy10());
+        }
+        assertTrue(s.isZero());
+        assertEquals("0", s.toString());
+    }
+
+    /**
+     * Test for the constructor from a {@code String} longer than a new
+     * {@code IntStack}.
+     */
+    @Test
+    public final void testStringConstructorLong() {
+        NaturalNumber s = this.constructor("12345678901234567890");
+        assertEquals("12345678901234567890", s.toString());
+    }
+
+    /**
+     * Test for multiplyBy10 with 0 on zero, which must not store a leading
+     * zero.
+     */
+    @Test
+    public final void testMultiplyBy10ZeroOnZero() {
+        NaturalNumber s = this.constructor();
+        s.multiplyBy10(0);
+        assertTrue(s.isZero());
+        s.multiplyBy10(7);
+        assertEquals("7", s.toString());
+    }
+
+    /**
+     * Test for transferFrom and clear.
+     */
+    @Test
+    public final void testTransferFromAndClear() {
+        NaturalNumber s = this.constructor();
+        NaturalNumber t = this.constructor("9876543210987");
+        s.transferFrom(t);
+        assertEquals("9876543210987", s.toString());
+        assertTrue(t.isZero());
+        t.multiplyBy10(4);
+        assertEquals("4", t.toString());
+        s.clear();
+        assertTrue(s.isZero());
+        s.multiplyBy10(2);
+        assertEquals("2", s.toString());
+        assertEquals(s.getClass(), s.newInstance().getClass());
+    }
+
+    /**
+     * Test for the inherited add and multiply on multi-digit numbers.
+     */
+    @Test
+    public final void testAddAndMultiply() {
+        NaturalNumber s = this.constructor("99999999999");
+        NaturalNumber one = this.constructor(1);
+        s.add(one);
+        assertEquals("100000000000", s.toString());
+        NaturalNumber r = this.constructor("123456789");
+        s.multiply(r);
+        assertEquals("12345678900000000000", s.toString());
+        assertEquals("123456789", r.toString());
+    }
+
+}
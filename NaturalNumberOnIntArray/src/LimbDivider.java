@@ -0,0 +1,551 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Division engine for natural numbers stored as base 10<sup>9</sup> limb
+ * arrays, least significant limb first. Uses Knuth's long division while the
+ * divisor or the quotient is short, and Burnikel-Ziegler recursive division
+ * once both reach the configured threshold.
+ * 
+ * <p>
+ * Burnikel-Ziegler splits a 2n-by-n limb division into two 3/2-by-1 divisions
+ * of half the size, each of which is one recursive division plus one
+ * multiplication by {@code LimbMultiplier}. Division therefore costs a small
+ * multiple of a Karatsuba or Toom-3 multiplication, instead of the O(n * m) of
+ * long division.
+ * 
+ * <p>
+ * All limb arrays produced by this class have no leading zero limbs, i.e.,
+ * their length is their number of significant limbs.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class LimbDivider {
+
+    /**
+     * Default number of limbs, in the divisor and in the quotient, at and
+     * above which Burnikel-Ziegler is used instead of long division.
+     */
+    public static final int DEFAULT_BURNIKEL_ZIEGLER_THRESHOLD = 48;
+
+    /**
+     * Smallest Burnikel-Ziegler threshold that still splits into two non-empty
+     * halves.
+     */
+    private static final int MIN_BURNIKEL_ZIEGLER_THRESHOLD = 2;
+
+    /**
+     * Radix of one limb.
+     */
+    private static final int BASE = NaturalNumber4.BASE;
+
+    /**
+     * The number 0.
+     */
+    private static final int[] ZERO = new int[0];
+
+    /**
+     * The number 1.
+     */
+    private static final int[] ONE = { 1 };
+
+    /**
+     * Engine used for the multiplications of Burnikel-Ziegler.
+     */
+    private final LimbMultiplier multiplier;
+
+    /**
+     * Number of limbs at and above which Burnikel-Ziegler is used.
+     */
+    private final int threshold;
+
+    /**
+     * Default constructor, with the default threshold.
+     */
+    public LimbDivider() {
+        this(DEFAULT_BURNIKEL_ZIEGLER_THRESHOLD);
+    }
+
+    /**
+     * Constructor with an explicit threshold, mainly for tuning and testing;
+     * {@code Integer.MAX_VALUE} turns Burnikel-Ziegler off.
+     * 
+     * @param threshold
+     *            number of limbs at and above which Burnikel-Ziegler is used
+     * @requires <pre>
+     * {@code threshold >= 2}
+     * </pre>
+     */
+    public LimbDivider(int threshold) {
+        assert threshold >= MIN_BURNIKEL_ZIEGLER_THRESHOLD : ""
+                + "Violation of: threshold >= 2";
+        this.multiplier = new LimbMultiplier();
+        this.threshold = threshold;
+    }
+
+    /*
+     * Limb-array helpers -----------------------------------------------------
+     */
+
+    /**
+     * Returns the limbs {@code a[from, to)} as a number of their own.
+     * 
+     * @param a
+     *            the limbs
+     * @param from
+     *            first limb taken
+     * @param to
+     *            one past the last limb taken
+     * @return the trimmed slice
+     */
+    private static int[] slice(int[] a, int from, int to) {
+        int end = Math.min(to, a.length);
+        if (from >= end) {
+            return ZERO;
+        }
+        return LimbMultiplier.trim(Arrays.copyOfRange(a, from, end), end
+                - from);
+    }
+
+    /**
+     * Returns {@code a * BASE ^ (k)}.
+     * 
+     * @param a
+     *            the number, with no leading zero limbs
+     * @param k
+     *            the number of limbs to shift by
+     * @return the trimmed product
+     */
+    private static int[] shiftLeft(int[] a, int k) {
+        if (a.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + k];
+        System.arraycopy(a, 0, result, k, a.length);
+        return result;
+    }
+
+    /**
+     * Returns {@code a * f}.
+     * 
+     * @param a
+     *            the number
+     * @param f
+     *            the factor
+     * @return the trimmed product
+     * @requires <pre>
+     * {@code 0 <= f < BASE}
+     * </pre>
+     */
+    private static int[] scale(int[] a, int f) {
+        int[] product = Arrays.copyOf(a, a.length + 1);
+        product[a.length] = NaturalNumber4.multiplyLimbs(product, a.length, f);
+        return LimbMultiplier.trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code BASE ^ (k) - 1}.
+     * 
+     * @param k
+     *            number of limbs
+     * @return the number whose k limbs are all BASE - 1
+     */
+    private static int[] allNines(int k) {
+        int[] result = new int[k];
+        Arrays.fill(result, BASE - 1);
+        return result;
+    }
+
+    /*
+     * Division algorithms ----------------------------------------------------
+     */
+
+    /**
+     * Knuth's Algorithm D on operands already scaled so that the divisor's top
+     * limb is at least BASE / 2: replaces {@code r[0, m + n]} by the remainder
+     * (in its low n limbs, zeros above), and records the quotient in
+     * {@code q[0, m]} unless {@code q} is {@code null}.
+     * 
+     * @param r
+     *            the dividend, m + n + 1 limbs with a zero or small top limb
+     * @param m
+     *            number of dividend limbs beyond the divisor's length
+     * @param w
+     *            the divisor, in its low n limbs
+     * @param n
+     *            number of limbs in the divisor
+     * @param q
+     *            receives the quotient, or {@code null}
+     * @updates r
+     * @replaces q
+     * @requires <pre>
+     * {@code n >= 2  and  w[n - 1] >= BASE / 2  and
+     * r[m + n, m + n] < w[0, n)  and  (q = null  or  |q| > m)}
+     * </pre>
+     */
+    private static void divideScaled(int[] r, int m, int[] w, int n, int[] q) {
+        long vTop = w[n - 1];
+        long vNext = w[n - 2];
+        for (int j = m; j >= 0; j--) {
+            long numerator = (long) r[j + n] * BASE + r[j + n - 1];
+            long qHat = numerator / vTop;
+            long rHat = numerator % vTop;
+            while (qHat >= BASE
+                    || qHat * vNext > rHat * BASE + r[j + n - 2]) {
+                qHat--;
+                rHat += vTop;
+                if (rHat >= BASE) {
+                    break;
+                }
+            }
+            /*
+             * Subtract qHat * w from r[j, j + n]
+             */
+            long carry = 0;
+            int borrow = 0;
+            for (int i = 0; i < n; i++) {
+                long product = qHat * w[i] + carry;
+                carry = product / BASE;
+                int difference = r[i + j] - (int) (product % BASE) - borrow;
+                if (difference < 0) {
+                    difference += BASE;
+                    borrow = 1;
+                } else {
+                    borrow = 0;
+                }
+                r[i + j] = difference;
+            }
+            int top = r[j + n] - (int) carry - borrow;
+            if (top < 0) {
+                /*
+                 * qHat was one too large: add w back once
+                 */
+                qHat--;
+                int addCarry = 0;
+                for (int i = 0; i < n; i++) {
+                    int sum = r[i + j] + w[i] + addCarry;
+                    if (sum >= BASE) {
+                        sum -= BASE;
+                        addCarry = 1;
+                    } else {
+                        addCarry = 0;
+                    }
+                    r[i + j] = sum;
+                }
+                top += addCarry;
+            }
+            r[j + n] = top;
+            if (q != null) {
+                q[j] = (int) qHat;
+            }
+        }
+    }
+
+    /**
+     * Knuth's Algorithm D: returns the quotient and remainder of {@code u}
+     * divided by {@code v}.
+     * 
+     * @param u
+     *            the dividend, with no leading zero limbs
+     * @param v
+     *            the divisor, with no leading zero limbs
+     * @return the trimmed quotient and remainder, in that order
+     * @requires <pre>
+     * {@code v > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code u = schoolbook[0] * v + schoolbook[1]  and
+     * 0 <= schoolbook[1] < v}
+     * </pre>
+     */
+    static int[][] schoolbook(int[] u, int[] v) {
+        if (LimbMultiplier.compare(u, v) < 0) {
+            return new int[][] { ZERO, u };
+        }
+        int n = v.length;
+        if (n == 1) {
+            int[] q = u.clone();
+            int r = NaturalNumber4.divideLimbs(q, q.length, v[0]);
+            return new int[][] { LimbMultiplier.trim(q, q.length),
+                    r == 0 ? ZERO : new int[] { r } };
+        }
+        int m = u.length - n;
+        /*
+         * Scale both operands so the divisor's top limb is at least BASE / 2;
+         * this keeps every trial quotient digit within two of the true one
+         */
+        int scale = (int) ((long) BASE / (v[n - 1] + 1));
+        int[] w = Arrays.copyOf(v, n);
+        NaturalNumber4.multiplyLimbs(w, n, scale);
+        int[] r = Arrays.copyOf(u, u.length + 1);
+        r[u.length] = NaturalNumber4.multiplyLimbs(r, u.length, scale);
+        int[] q = new int[m + 1];
+        divideScaled(r, m, w, n, q);
+        NaturalNumber4.divideLimbs(r, n, scale);
+        return new int[][] { LimbMultiplier.trim(q, q.length),
+                LimbMultiplier.trim(Arrays.copyOf(r, n), n) };
+    }
+
+    /**
+     * Replaces {@code u[0, uLength)} by its remainder modulo
+     * {@code v[0, vLength)} without allocating, and reports the remainder's
+     * number of significant limbs.
+     * 
+     * @param u
+     *            the dividend, with room for one more limb
+     * @param uLength
+     *            number of significant limbs in {@code u}
+     * @param v
+     *            the divisor
+     * @param vLength
+     *            number of significant limbs in {@code v}
+     * @param w
+     *            scratch space for the scaled divisor
+     * @return the number of significant limbs in the remainder
+     * @updates u
+     * @replaces w
+     * @requires <pre>
+     * {@code |u| > uLength  and  vLength > 0  and  |w| >= vLength  and
+     * [u[0, uLength) and v[0, vLength) have no leading zero limbs]}
+     * </pre>
+     * @ensures <pre>
+     * {@code u[0, remainderInPlace) = #u[0, uLength) mod v[0, vLength)}
+     * </pre>
+     */
+    static int remainderInPlace(int[] u, int uLength, int[] v, int vLength,
+            int[] w) {
+        if (NaturalNumber4.compareLimbs(u, uLength, v, vLength) < 0) {
+            return uLength;
+        }
+        if (vLength == 1) {
+            u[0] = NaturalNumber4.divideLimbs(u, uLength, v[0]);
+            return u[0] == 0 ? 0 : 1;
+        }
+        int scale = (int) ((long) BASE / (v[vLength - 1] + 1));
+        System.arraycopy(v, 0, w, 0, vLength);
+        NaturalNumber4.multiplyLimbs(w, vLength, scale);
+        u[uLength] = NaturalNumber4.multiplyLimbs(u, uLength, scale);
+        divideScaled(u, uLength - vLength, w, vLength, null);
+        NaturalNumber4.divideLimbs(u, vLength, scale);
+        int length = vLength;
+        while (length > 0 && u[length - 1] == 0) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Divides a number of at most 2n limbs by one of n limbs.
+     * 
+     * @param a
+     *            the dividend, with no leading zero limbs
+     * @param b
+     *            the divisor, with no leading zero limbs
+     * @param n
+     *            the number of limbs in {@code b}
+     * @return the trimmed quotient and remainder, in that order
+     * @requires <pre>
+     * {@code |b| = n  and  b[n - 1] >= BASE / 2  and  a < b * BASE ^ (n)}
+     * </pre>
+     * @ensures <pre>
+     * {@code a = divide2n1n[0] * b + divide2n1n[1]  and
+     * 0 <= divide2n1n[1] < b}
+     * </pre>
+     */
+    private int[][] divide2n1n(int[] a, int[] b, int n) {
+        if (n % 2 == 1 || n < this.threshold) {
+            return schoolbook(a, b);
+        }
+        int half = n / 2;
+        int[] b1 = slice(b, half, n);
+        int[] b2 = slice(b, 0, half);
+        int[][] high = this.divide3n2n(slice(a, half, a.length), b, b1, b2,
+                half);
+        int[][] low = this.divide3n2n(
+                LimbMultiplier.add(shiftLeft(high[1], half),
+                        slice(a, 0, half)), b, b1, b2, half);
+        return new int[][] {
+                LimbMultiplier.add(shiftLeft(high[0], half), low[0]), low[1] };
+    }
+
+    /**
+     * Divides a number of at most 3k limbs by one of 2k limbs.
+     * 
+     * @param a
+     *            the dividend, with no leading zero limbs
+     * @param b
+     *            the divisor, b1 * BASE ^ (k) + b2
+     * @param b1
+     *            the high k limbs of {@code b}
+     * @param b2
+     *            the low k limbs of {@code b}, with no leading zero limbs
+     * @param k
+     *            half the number of limbs in {@code b}
+     * @return the trimmed quotient and remainder, in that order
+     * @requires <pre>
+     * {@code |b1| = k  and  b1[k - 1] >= BASE / 2  and  a < b * BASE ^ (k)}
+     * </pre>
+     * @ensures <pre>
+     * {@code a = divide3n2n[0] * b + divide3n2n[1]  and
+     * 0 <= divide3n2n[1] < b}
+     * </pre>
+     */
+    private int[][] divide3n2n(int[] a, int[] b, int[] b1, int[] b2, int k) {
+        int[] a12 = slice(a, k, a.length);
+        int[] qHat;
+        int[] r1;
+        if (LimbMultiplier.compare(slice(a, 2 * k, a.length), b1) < 0) {
+            int[][] qr = this.divide2n1n(a12, b1, k);
+            qHat = qr[0];
+            r1 = qr[1];
+        } else {
+            /*
+             * The quotient digit estimate saturates at BASE^k - 1, for which
+             * a12 - qHat * b1 = a12 - b1 * BASE^k + b1
+             */
+            qHat = allNines(k);
+            r1 = LimbMultiplier.add(
+                    LimbMultiplier.subtract(a12, shiftLeft(b1, k)), b1);
+        }
+        /*
+         * qHat is at most two too large; correct it against the low half of
+         * the divisor
+         */
+        int[] d = this.multiplier.multiply(qHat, qHat.length, b2, b2.length);
+        int[] r = LimbMultiplier.add(shiftLeft(r1, k), slice(a, 0, k));
+        while (LimbMultiplier.compare(r, d) < 0) {
+            r = LimbMultiplier.add(r, b);
+            qHat = LimbMultiplier.subtract(qHat, ONE);
+        }
+        return new int[][] { qHat, LimbMultiplier.subtract(r, d) };
+    }
+
+    /**
+     * Burnikel-Ziegler division of {@code a} by {@code b}.
+     * 
+     * @param a
+     *            the dividend, with no leading zero limbs
+     * @param b
+     *            the divisor, with no leading zero limbs
+     * @return the trimmed quotient and remainder, in that order
+     * @requires <pre>
+     * {@code |b| >= 2}
+     * </pre>
+     * @ensures <pre>
+     * {@code a = burnikelZiegler[0] * b + burnikelZiegler[1]  and
+     * 0 <= burnikelZiegler[1] < b}
+     * </pre>
+     */
+    private int[][] burnikelZiegler(int[] a, int[] b) {
+        /*
+         * Pad the divisor to a block length j * 2^k, with j below the
+         * threshold, so that every halving is exact down to long division, and
+         * scale it so its top limb is at least BASE / 2
+         */
+        int blocks = 1;
+        while (b.length / blocks >= this.threshold) {
+            blocks *= 2;
+        }
+        int blockLength = ((b.length + blocks - 1) / blocks) * blocks;
+        int shift = blockLength - b.length;
+        int scale = (int) ((long) BASE / (b[b.length - 1] + 1));
+        int[] divisor = shiftLeft(scale(b, scale), shift);
+        int[] dividend = shiftLeft(scale(a, scale), shift);
+        /*
+         * Split the dividend into t blocks, the top one below the divisor,
+         * and divide two blocks at a time from the top
+         */
+        int t = Math.max(2, (dividend.length + blockLength) / blockLength);
+        int[] quotient = new int[(t - 1) * blockLength];
+        int[] z = slice(dividend, (t - 2) * blockLength, t * blockLength);
+        int[] r = ZERO;
+        for (int i = t - 2; i >= 0; i--) {
+            int[][] qr = this.divide2n1n(z, divisor, blockLength);
+            System.arraycopy(qr[0], 0, quotient, i * blockLength,
+                    qr[0].length);
+            r = qr[1];
+            if (i > 0) {
+                z = LimbMultiplier.add(shiftLeft(r, blockLength),
+                        slice(dividend, (i - 1) * blockLength, i
+                                * blockLength));
+            }
+        }
+        r = slice(r, shift, r.length);
+        NaturalNumber4.divideLimbs(r, r.length, scale);
+        return new int[][] { LimbMultiplier.trim(quotient, quotient.length),
+                LimbMultiplier.trim(r, r.length) };
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Returns the quotient and remainder of {@code a[0, aLength)} divided by
+     * {@code b[0, bLength)}.
+     * 
+     * @param a
+     *            the dividend's limbs, least significant first
+     * @param aLength
+     *            number of limbs of {@code a} taking part
+     * @param b
+     *            the divisor's limbs, least significant first
+     * @param bLength
+     *            number of limbs of {@code b} taking part
+     * @return the quotient's and the remainder's limbs, in that order, least
+     *         significant first, with no leading zero limbs
+     * @requires <pre>
+     * {@code 0 <= aLength <= |a|  and  0 <= bLength <= |b|  and
+     * [all limbs taking part are in [0, BASE)]  and  b[0, bLength) > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code a[0, aLength) = divide[0] * b[0, bLength) + divide[1]  and
+     * 0 <= divide[1] < b[0, bLength)}
+     * </pre>
+     */
+    public int[][] divide(int[] a, int aLength, int[] b, int bLength) {
+        int[] u = LimbMultiplier.trim(Arrays.copyOf(a, aLength), aLength);
+        int[] v = LimbMultiplier.trim(Arrays.copyOf(b, bLength), bLength);
+        assert v.length > 0 : "Violation of: b[0, bLength) > 0";
+        if (v.length < this.threshold
+                || u.length - v.length < this.threshold) {
+            return schoolbook(u, v);
+        }
+        return this.burnikelZiegler(u, v);
+    }
+
+    /**
+     * Divides {@code x} by {@code y} for any {@code NaturalNumber} kernel,
+     * moving the digits in and out in bulk through their decimal form.
+     * 
+     * @param x
+     *            the number to divide
+     * @param y
+     *            the number to divide by
+     * @return the remainder, of the same dynamic type as {@code x}
+     * @updates x
+     * @requires <pre>
+     * {@code x /= y  and  y > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code #x = x * y + divide  and  0 <= divide < y}
+     * </pre>
+     */
+    public NaturalNumber divide(NaturalNumber x, NaturalNumber y) {
+        assert x != null : "Violation of: x is not null";
+        assert y != null : "Violation of: y is not null";
+        assert x != y : "Violation of: x is not y";
+        assert !y.isZero() : "Violation of: y > 0";
+        int[] u = NaturalNumber4.parseLimbs(x.toString());
+        int[] v = NaturalNumber4.parseLimbs(y.toString());
+        int[][] qr = this.divide(u, u.length, v, v.length);
+        x.setFromString(NaturalNumber4.formatLimbs(qr[0], qr[0].length));
+        NaturalNumber remainder = x.newInstance();
+        remainder.setFromString(NaturalNumber4.formatLimbs(qr[1],
+                qr[1].length));
+        return remainder;
+    }
+
+}
@@ -0,0 +1,930 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Multiplication engine for natural numbers stored as base 10<sup>9</sup> limb
+ * arrays, least significant limb first. Switches from schoolbook to Karatsuba
+ * to Toom-3 as the shorter operand reaches the configured thresholds.
+ * 
+ * <p>
+ * Any {@code NaturalNumber} kernel can use the engine: those that keep limbs
+ * (like {@code NaturalNumber4}) pass their arrays directly to
+ * {@link #multiply(int[], int, int[], int)}, and every other kernel goes
+ * through {@link #multiply(NaturalNumber, NaturalNumber)}, which moves the
+ * digits in bulk through their decimal {@code String} form.
+ * 
+ * <p>
+ * All limb arrays produced by this class have no leading zero limbs, i.e.,
+ * their length is their number of significant limbs.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class LimbMultiplier {
+
+    /**
+     * Default number of limbs in the shorter operand at and above which
+     * Karatsuba is used instead of schoolbook multiplication.
+     */
+    public static final int DEFAULT_KARATSUBA_THRESHOLD = 32;
+
+    /**
+     * Default number of limbs in the shorter operand at and above which Toom-3
+     * is used instead of Karatsuba.
+     */
+    public static final int DEFAULT_TOOM3_THRESHOLD = 128;
+
+    /**
+     * Smallest Karatsuba threshold that still splits into two non-empty
+     * halves.
+     */
+    private static final int MIN_KARATSUBA_THRESHOLD = 2;
+
+    /**
+     * Smallest Toom-3 threshold that still splits into three non-empty parts.
+     */
+    private static final int MIN_TOOM3_THRESHOLD = 3;
+
+    /**
+     * Constant 3 (so it's not a "magic number" in the code).
+     */
+    private static final int THREE = 3;
+
+    /**
+     * Constant 4 (so it's not a "magic number" in the code).
+     */
+    private static final int FOUR = 4;
+
+    /**
+     * Radix of one limb.
+     */
+    private static final int BASE = NaturalNumber4.BASE;
+
+    /**
+     * The empty (zero) limb array.
+     */
+    private static final int[] ZERO = new int[0];
+
+    /**
+     * Karatsuba threshold of this engine.
+     */
+    private final int karatsubaThreshold;
+
+    /**
+     * Toom-3 threshold of this engine.
+     */
+    private final int toom3Threshold;
+
+    /**
+     * Signed value used by Toom-3 evaluation and interpolation, where
+     * intermediate results can be negative.
+     */
+    private static final class Signed {
+
+        /**
+         * Magnitude, with no leading zero limbs.
+         */
+        private final int[] magnitude;
+
+        /**
+         * Whether the value is negative (never true for zero).
+         */
+        private final boolean negative;
+
+        /**
+         * Constructor from magnitude and sign.
+         * 
+         * @param magnitude
+         *            the magnitude
+         * @param negative
+         *            whether the value is negative
+         */
+        private Signed(int[] magnitude, boolean negative) {
+            this.magnitude = magnitude;
+            this.negative = negative && magnitude.length > 0;
+        }
+
+    }
+
+    /**
+     * Default constructor, using the default thresholds.
+     */
+    public LimbMultiplier() {
+        this(DEFAULT_KARATSUBA_THRESHOLD, DEFAULT_TOOM3_THRESHOLD);
+    }
+
+    /**
+     * Constructor with explicit thresholds. Passing
+     * {@code Integer.MAX_VALUE} for a threshold disables that algorithm.
+     * 
+     * @param karatsubaThreshold
+     *            limbs in the shorter operand at which Karatsuba starts
+     * @param toom3Threshold
+     *            limbs in the shorter operand at which Toom-3 starts
+     * @requires <pre>
+     * {@code karatsubaThreshold >= 2  and  toom3Threshold >= 3}
+     * </pre>
+     */
+    public LimbMultiplier(int karatsubaThreshold, int toom3Threshold) {
+        assert karatsubaThreshold >= MIN_KARATSUBA_THRESHOLD : ""
+                + "Violation of: karatsubaThreshold >= 2";
+        assert toom3Threshold >= MIN_TOOM3_THRESHOLD : ""
+                + "Violation of: toom3Threshold >= 3";
+        this.karatsubaThreshold = karatsubaThreshold;
+        this.toom3Threshold = toom3Threshold;
+    }
+
+    /*
+     * Magnitude helpers ------------------------------------------------------
+     */
+
+    /**
+     * Returns {@code a[0, length)} without leading zero limbs.
+     * 
+     * @param a
+     *            the limbs
+     * @param length
+     *            number of limbs of {@code a} taking part
+     * @return the trimmed limbs (possibly {@code a} itself)
+     */
+    static int[] trim(int[] a, int length) {
+        int significant = length;
+        while (significant > 0 && a[significant - 1] == 0) {
+            significant--;
+        }
+        if (significant == a.length) {
+            return a;
+        }
+        return Arrays.copyOf(a, significant);
+    }
+
+    /**
+     * Returns the limbs {@code a[from, to)} as a number of their own.
+     * 
+     * @param a
+     *            the limbs
+     * @param from
+     *            first limb taken
+     * @param to
+     *            one past the last limb taken
+     * @return the trimmed slice
+     */
+    private static int[] slice(int[] a, int from, int to) {
+        int end = Math.min(to, a.length);
+        if (from >= end) {
+            return ZERO;
+        }
+        return trim(Arrays.copyOfRange(a, from, end), end - from);
+    }
+
+    /**
+     * Compares two trimmed limb arrays as numbers.
+     * 
+     * @param a
+     *            the first number
+     * @param b
+     *            the second number
+     * @return negative, zero, or positive as a is less than, equal to, or
+     *         greater than b
+     */
+    static int compare(int[] a, int[] b) {
+        if (a.length != b.length) {
+            return a.length < b.length ? -1 : 1;
+        }
+        for (int i = a.length - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns {@code a + b}.
+     * 
+     * @param a
+     *            the first addend
+     * @param b
+     *            the second addend
+     * @return the trimmed sum
+     */
+    static int[] add(int[] a, int[] b) {
+        if (a.length < b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        int[] sum = new int[a.length + 1];
+        int carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            int s = a[i] + carry;
+            if (i < b.length) {
+                s += b[i];
+            }
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            } else {
+                carry = 0;
+            }
+            sum[i] = s;
+        }
+        sum[a.length] = carry;
+        return trim(sum, sum.length);
+    }
+
+    /**
+     * Returns {@code a - b}.
+     * 
+     * @param a
+     *            the minuend
+     * @param b
+     *            the subtrahend
+     * @return the trimmed difference
+     * @requires <pre>
+     * {@code a >= b}
+     * </pre>
+     */
+    static int[] subtract(int[] a, int[] b) {
+        int[] difference = new int[a.length];
+        int borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            int d = a[i] - borrow;
+            if (i < b.length) {
+                d -= b[i];
+            }
+            if (d < 0) {
+                d += BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            difference[i] = d;
+        }
+        assert borrow == 0 : "Violation of: a >= b";
+        return trim(difference, difference.length);
+    }
+
+    /**
+     * Adds {@code x * BASE ^ (offset)} into {@code acc}.
+     * 
+     * @param acc
+     *            the accumulator
+     * @param x
+     *            the number to add
+     * @param offset
+     *            the limb shift applied to {@code x}
+     * @updates acc
+     * @requires <pre>
+     * {@code [the sum fits in |acc| limbs]}
+     * </pre>
+     */
+    static void addShifted(int[] acc, int[] x, int offset) {
+        int carry = 0;
+        int i = 0;
+        while (i < x.length || carry > 0) {
+            int s = acc[offset + i] + carry;
+            if (i < x.length) {
+                s += x[i];
+            }
+            if (s >= BASE) {
+                s -= BASE;
+                carry = 1;
+            } else {
+                carry = 0;
+            }
+            acc[offset + i] = s;
+            i++;
+        }
+    }
+
+    /**
+     * Returns {@code a * f}.
+     * 
+     * @param a
+     *            the number
+     * @param f
+     *            the factor
+     * @return the trimmed product
+     * @requires <pre>
+     * {@code 0 <= f < BASE}
+     * </pre>
+     */
+    private static int[] multiplySmall(int[] a, int f) {
+        int[] product = new int[a.length + 1];
+        long carry = 0;
+        for (int i = 0; i < a.length; i++) {
+            long t = (long) a[i] * f + carry;
+            product[i] = (int) (t % BASE);
+            carry = t / BASE;
+        }
+        product[a.length] = (int) carry;
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code a / d} for a division known to be exact.
+     * 
+     * @param a
+     *            the dividend
+     * @param d
+     *            the divisor
+     * @return the trimmed quotient
+     * @requires <pre>
+     * {@code 0 < d < BASE  and  a mod d = 0}
+     * </pre>
+     */
+    private static int[] divideSmallExact(int[] a, int d) {
+        int[] quotient = new int[a.length];
+        long remainder = 0;
+        for (int i = a.length - 1; i >= 0; i--) {
+            long current = remainder * BASE + a[i];
+            quotient[i] = (int) (current / d);
+            remainder = current % d;
+        }
+        assert remainder == 0 : "Violation of: a mod d = 0";
+        return trim(quotient, quotient.length);
+    }
+
+    /*
+     * Signed helpers for Toom-3 ----------------------------------------------
+     */
+
+    /**
+     * Returns {@code x + y}.
+     * 
+     * @param x
+     *            the first addend
+     * @param y
+     *            the second addend
+     * @return the sum
+     */
+    private static Signed add(Signed x, Signed y) {
+        if (x.negative == y.negative) {
+            return new Signed(add(x.magnitude, y.magnitude), x.negative);
+        }
+        int c = compare(x.magnitude, y.magnitude);
+        if (c >= 0) {
+            return new Signed(subtract(x.magnitude, y.magnitude), x.negative);
+        }
+        return new Signed(subtract(y.magnitude, x.magnitude), y.negative);
+    }
+
+    /**
+     * Returns {@code x - y}.
+     * 
+     * @param x
+     *            the minuend
+     * @param y
+     *            the subtrahend
+     * @return the difference
+     */
+    private static Signed subtract(Signed x, Signed y) {
+        return add(x, new Signed(y.magnitude, !y.negative));
+    }
+
+    /*
+     * Multiplication algorithms ----------------------------------------------
+     */
+
+    /**
+     * Returns {@code a * b} by the schoolbook method.
+     * 
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the trimmed product
+     */
+    static int[] schoolbook(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return ZERO;
+        }
+        int[] product = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            long carry = 0;
+            for (int j = 0; j < b.length; j++) {
+                long t = ai * b[j] + product[i + j] + carry;
+                product[i + j] = (int) (t % BASE);
+                carry = t / BASE;
+            }
+            product[i + b.length] = (int) carry;
+        }
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code a * b} when {@code b} is much shorter than {@code a}, by
+     * cutting {@code a} into pieces as long as {@code b} so that each partial
+     * product is balanced.
+     * 
+     * @param a
+     *            the longer factor
+     * @param b
+     *            the shorter factor
+     * @return the trimmed product
+     */
+    private int[] unbalanced(int[] a, int[] b) {
+        int[] product = new int[a.length + b.length];
+        for (int offset = 0; offset < a.length; offset += b.length) {
+            int[] piece = slice(a, offset, offset + b.length);
+            addShifted(product, this.multiply(piece, b), offset);
+        }
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code a * b} by one level of Karatsuba.
+     * 
+     * @param a
+     *            the longer factor
+     * @param b
+     *            the shorter factor
+     * @return the trimmed product
+     */
+    private int[] karatsuba(int[] a, int[] b) {
+        int half = (a.length + 1) / 2;
+        int[] a0 = slice(a, 0, half);
+        int[] a1 = slice(a, half, a.length);
+        int[] b0 = slice(b, 0, half);
+        int[] b1 = slice(b, half, b.length);
+        int[] z0 = this.multiply(a0, b0);
+        int[] z2 = this.multiply(a1, b1);
+        int[] z1 = this.multiply(add(a0, a1), add(b0, b1));
+        z1 = subtract(subtract(z1, z0), z2);
+        int[] product = new int[a.length + b.length];
+        addShifted(product, z0, 0);
+        addShifted(product, z1, half);
+        addShifted(product, z2, 2 * half);
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code x * y} for signed operands.
+     * 
+     * @param x
+     *            the first factor
+     * @param y
+     *            the second factor
+     * @return the product
+     */
+    private Signed multiply(Signed x, Signed y) {
+        return new Signed(this.multiply(x.magnitude, y.magnitude),
+                x.negative != y.negative);
+    }
+
+    /**
+     * Returns {@code a * b} by one level of Toom-3, evaluating at 0, 1, -1,
+     * -2, and infinity and interpolating with Bodrato's sequence.
+     * 
+     * @param a
+     *            the longer factor
+     * @param b
+     *            the shorter factor
+     * @return the trimmed product
+     */
+    private int[] toom3(int[] a, int[] b) {
+        int k = (a.length + 2) / THREE;
+        Signed a0 = new Signed(slice(a, 0, k), false);
+        Signed a1 = new Signed(slice(a, k, 2 * k), false);
+        Signed a2 = new Signed(slice(a, 2 * k, a.length), false);
+        Signed b0 = new Signed(slice(b, 0, k), false);
+        Signed b1 = new Signed(slice(b, k, 2 * k), false);
+        Signed b2 = new Signed(slice(b, 2 * k, b.length), false);
+        /*
+         * Evaluation
+         */
+        Signed aSum = add(a0, a2);
+        Signed aAt1 = add(aSum, a1);
+        Signed aAtMinus1 = subtract(aSum, a1);
+        Signed aAtMinus2 = subtract(twice(add(aAtMinus1, a2)), a0);
+        Signed bSum = add(b0, b2);
+        Signed bAt1 = add(bSum, b1);
+        Signed bAtMinus1 = subtract(bSum, b1);
+        Signed bAtMinus2 = subtract(twice(add(bAtMinus1, b2)), b0);
+        /*
+         * Pointwise products
+         */
+        Signed r0 = this.multiply(a0, b0);
+        Signed r1 = this.multiply(aAt1, bAt1);
+        Signed rMinus1 = this.multiply(aAtMinus1, bAtMinus1);
+        Signed rMinus2 = this.multiply(aAtMinus2, bAtMinus2);
+        Signed rInf = this.multiply(a2, b2);
+        /*
+         * Interpolation
+         */
+        Signed r3 = divideExact(subtract(rMinus2, r1), THREE);
+        r1 = divideExact(subtract(r1, rMinus1), 2);
+        Signed r2 = subtract(rMinus1, r0);
+        r3 = add(divideExact(subtract(r2, r3), 2), twice(rInf));
+        r2 = subtract(add(r2, r1), rInf);
+        r1 = subtract(r1, r3);
+        assert !r1.negative && !r2.negative && !r3.negative : ""
+                + "Violation of: Toom-3 coefficients are non-negative";
+        int[] product = new int[a.length + b.length];
+        addShifted(product, r0.magnitude, 0);
+        addShifted(product, r1.magnitude, k);
+        addShifted(product, r2.magnitude, 2 * k);
+        addShifted(product, r3.magnitude, THREE * k);
+        addShifted(product, rInf.magnitude, FOUR * k);
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code 2 * x}.
+     * 
+     * @param x
+     *            the number to double
+     * @return the doubled number
+     */
+    private static Signed twice(Signed x) {
+        return new Signed(add(x.magnitude, x.magnitude), x.negative);
+    }
+
+    /**
+     * Returns {@code x / d} for a division known to be exact.
+     * 
+     * @param x
+     *            the dividend
+     * @param d
+     *            the divisor
+     * @return the quotient
+     */
+    private static Signed divideExact(Signed x, int d) {
+        return new Signed(divideSmallExact(x.magnitude, d), x.negative);
+    }
+
+    /**
+     * Returns {@code a * b}, dispatching on the length of the shorter factor.
+     * 
+     * @param a
+     *            the first factor, with no leading zero limbs
+     * @param b
+     *            the second factor, with no leading zero limbs
+     * @return the trimmed product
+     */
+    private int[] multiply(int[] a, int[] b) {
+        if (a.length < b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        if (b.length < this.karatsubaThreshold) {
+            return schoolbook(a, b);
+        }
+        if (2 * b.length <= a.length) {
+            return this.unbalanced(a, b);
+        }
+        if (b.length < this.toom3Threshold) {
+            return this.karatsuba(a, b);
+        }
+        return this.toom3(a, b);
+    }
+
+    /*
+     * Allocation-free multiplication -----------------------------------------
+     */
+
+    /**
+     * Writes {@code a[aFrom, aFrom + aLength) * b[bFrom, bFrom + bLength)}
+     * into {@code product[pFrom, pFrom + aLength + bLength)} by the schoolbook
+     * method.
+     * 
+     * @param a
+     *            the first factor's array
+     * @param aFrom
+     *            first limb of the first factor
+     * @param aLength
+     *            number of limbs in the first factor
+     * @param b
+     *            the second factor's array
+     * @param bFrom
+     *            first limb of the second factor
+     * @param bLength
+     *            number of limbs in the second factor
+     * @param product
+     *            receives the product, which may have leading zero limbs
+     * @param pFrom
+     *            first limb of the product
+     * @replaces product[pFrom, pFrom + aLength + bLength)
+     * @requires <pre>
+     * {@code [product range overlaps neither factor]}
+     * </pre>
+     */
+    static void schoolbookInto(int[] a, int aFrom, int aLength, int[] b,
+            int bFrom, int bLength, int[] product, int pFrom) {
+        Arrays.fill(product, pFrom, pFrom + aLength + bLength, 0);
+        for (int i = 0; i < aLength; i++) {
+            long ai = a[aFrom + i];
+            long carry = 0;
+            for (int j = 0; j < bLength; j++) {
+                long t = ai * b[bFrom + j] + product[pFrom + i + j] + carry;
+                product[pFrom + i + j] = (int) (t % BASE);
+                carry = t / BASE;
+            }
+            product[pFrom + i + bLength] = (int) carry;
+        }
+    }
+
+    /**
+     * Writes {@code |x - y|} into {@code result[rFrom, rFrom + length)}, where
+     * x = {@code a[xFrom, xFrom + xLength)} and y = {@code a[yFrom, yFrom +
+     * length)}, and reports whether x < y.
+     * 
+     * @param a
+     *            the array holding both numbers
+     * @param xFrom
+     *            first limb of x
+     * @param xLength
+     *            number of limbs in x
+     * @param yFrom
+     *            first limb of y
+     * @param length
+     *            number of limbs in y and in the result
+     * @param result
+     *            receives the difference
+     * @param rFrom
+     *            first limb of the result
+     * @return true iff x < y
+     * @replaces result[rFrom, rFrom + length)
+     * @requires <pre>
+     * {@code xLength <= length}
+     * </pre>
+     */
+    private static boolean differenceInto(int[] a, int xFrom, int xLength,
+            int yFrom, int length, int[] result, int rFrom) {
+        boolean less = false;
+        for (int i = length - 1; i >= 0; i--) {
+            int xi = i < xLength ? a[xFrom + i] : 0;
+            int yi = a[yFrom + i];
+            if (xi != yi) {
+                less = xi < yi;
+                break;
+            }
+        }
+        int borrow = 0;
+        for (int i = 0; i < length; i++) {
+            int xi = i < xLength ? a[xFrom + i] : 0;
+            int yi = a[yFrom + i];
+            int d;
+            if (less) {
+                d = yi - xi - borrow;
+            } else {
+                d = xi - yi - borrow;
+            }
+            if (d < 0) {
+                d += BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            result[rFrom + i] = d;
+        }
+        return less;
+    }
+
+    /**
+     * Adds ({@code subtract} false) or subtracts ({@code subtract} true)
+     * {@code x[xFrom, xFrom + xLength)} to or from {@code acc[accFrom,
+     * accEnd)}, propagating the carry or borrow no further than
+     * {@code accEnd}.
+     * 
+     * @param acc
+     *            the accumulator's array
+     * @param accFrom
+     *            first limb of the accumulator
+     * @param accEnd
+     *            one past the last limb of the accumulator
+     * @param x
+     *            the array of the number to add or subtract
+     * @param xFrom
+     *            first limb of that number
+     * @param xLength
+     *            number of limbs in that number
+     * @param subtract
+     *            whether to subtract instead of add
+     * @updates acc[accFrom, accEnd)
+     * @requires <pre>
+     * {@code [the result fits in acc[accFrom, accEnd) and is not negative]}
+     * </pre>
+     */
+    private static void accumulate(int[] acc, int accFrom, int accEnd,
+            int[] x, int xFrom, int xLength, boolean subtract) {
+        int carry = 0;
+        int i = 0;
+        while (accFrom + i < accEnd && (i < xLength || carry != 0)) {
+            int xi = i < xLength ? x[xFrom + i] : 0;
+            int s;
+            if (subtract) {
+                s = acc[accFrom + i] - xi - carry;
+                carry = s < 0 ? 1 : 0;
+                s += carry * BASE;
+            } else {
+                s = acc[accFrom + i] + xi + carry;
+                carry = s >= BASE ? 1 : 0;
+                s -= carry * BASE;
+            }
+            acc[accFrom + i] = s;
+            i++;
+        }
+    }
+
+    /**
+     * Writes {@code a[aFrom, aFrom + n) * b[bFrom, bFrom + n)} into
+     * {@code product[pFrom, pFrom + 2n)} by Karatsuba, with all temporaries in
+     * {@code scratch[sFrom, ...)}.
+     * 
+     * @param a
+     *            the first factor's array
+     * @param aFrom
+     *            first limb of the first factor
+     * @param b
+     *            the second factor's array
+     * @param bFrom
+     *            first limb of the second factor
+     * @param n
+     *            number of limbs in each factor
+     * @param product
+     *            receives the product, which may have leading zero limbs
+     * @param pFrom
+     *            first limb of the product
+     * @param scratch
+     *            space for temporaries
+     * @param sFrom
+     *            first limb of scratch space that may be used
+     * @replaces product[pFrom, pFrom + 2n), scratch[sFrom, ...)
+     * @requires <pre>
+     * {@code |scratch| - sFrom >= scratchLength(n)  and
+     * [product, scratch, and factor ranges do not overlap]}
+     * </pre>
+     */
+    private void karatsubaInto(int[] a, int aFrom, int[] b, int bFrom, int n,
+            int[] product, int pFrom, int[] scratch, int sFrom) {
+        if (n < this.karatsubaThreshold) {
+            schoolbookInto(a, aFrom, n, b, bFrom, n, product, pFrom);
+            return;
+        }
+        int low = n / 2;
+        int high = n - low;
+        /*
+         * z0 = a0 * b0 and z2 = a1 * b1 go straight to their places in the
+         * product; |a0 - a1| * |b0 - b1| and z0 + z2 go to scratch
+         */
+        this.karatsubaInto(a, aFrom, b, bFrom, low, product, pFrom, scratch,
+                sFrom);
+        this.karatsubaInto(a, aFrom + low, b, bFrom + low, high, product, pFrom
+                + 2 * low, scratch, sFrom);
+        int da = sFrom;
+        int db = da + high;
+        int z1 = db + high;
+        int t = z1 + 2 * high;
+        int next = t + 2 * high + 1;
+        boolean aNegative = differenceInto(a, aFrom, low, aFrom + low, high,
+                scratch, da);
+        boolean bNegative = differenceInto(b, bFrom, low, bFrom + low, high,
+                scratch, db);
+        this.karatsubaInto(scratch, da, scratch, db, high, scratch, z1,
+                scratch, next);
+        System.arraycopy(product, pFrom, scratch, t, 2 * low);
+        Arrays.fill(scratch, t + 2 * low, next, 0);
+        accumulate(scratch, t, next, product, pFrom + 2 * low, 2 * high,
+                false);
+        /*
+         * a0 * b1 + a1 * b0 = z0 + z2 - (a0 - a1) * (b0 - b1)
+         */
+        accumulate(scratch, t, next, scratch, z1, 2 * high,
+                aNegative == bNegative);
+        accumulate(product, pFrom + low, pFrom + 2 * n, scratch, t,
+                2 * high + 1, false);
+    }
+
+    /**
+     * Returns the number of scratch limbs {@code multiplyInto} needs for
+     * factors of at most {@code n} limbs.
+     * 
+     * @param n
+     *            number of limbs in the longer factor
+     * @return the scratch length
+     */
+    static int scratchLength(int n) {
+        final int perLimb = 8;
+        final int slack = 64;
+        return perLimb * n + slack;
+    }
+
+    /**
+     * Writes {@code a[0, aLength) * b[0, bLength)} into {@code product}
+     * without allocating, using Karatsuba for balanced factors above the
+     * threshold and schoolbook otherwise.
+     * 
+     * @param a
+     *            the first factor's limbs
+     * @param aLength
+     *            number of limbs in the first factor
+     * @param b
+     *            the second factor's limbs
+     * @param bLength
+     *            number of limbs in the second factor
+     * @param product
+     *            receives the product
+     * @param scratch
+     *            space for temporaries
+     * @return the number of significant limbs in the product
+     * @replaces product, scratch
+     * @requires <pre>
+     * {@code |product| >= 2 * max(aLength, bLength)  and
+     * |scratch| >= scratchLength(max(aLength, bLength))  and
+     * [product and scratch overlap neither factor]}
+     * </pre>
+     */
+    int multiplyInto(int[] a, int aLength, int[] b, int bLength,
+            int[] product, int[] scratch) {
+        int longer = Math.max(aLength, bLength);
+        int shorter = Math.min(aLength, bLength);
+        int productLength;
+        if (shorter < this.karatsubaThreshold || 2 * shorter <= longer) {
+            schoolbookInto(a, 0, aLength, b, 0, bLength, product, 0);
+            productLength = aLength + bLength;
+        } else {
+            /*
+             * Zero-extend the shorter factor to the length of the longer one
+             * at the end of scratch
+             */
+            int padded = scratch.length - longer;
+            if (aLength < bLength) {
+                System.arraycopy(a, 0, scratch, padded, aLength);
+                Arrays.fill(scratch, padded + aLength, scratch.length, 0);
+                this.karatsubaInto(scratch, padded, b, 0, longer, product, 0,
+                        scratch, 0);
+            } else {
+                System.arraycopy(b, 0, scratch, padded, bLength);
+                Arrays.fill(scratch, padded + bLength, scratch.length, 0);
+                this.karatsubaInto(a, 0, scratch, padded, longer, product, 0,
+                        scratch, 0);
+            }
+            productLength = 2 * longer;
+        }
+        while (productLength > 0 && product[productLength - 1] == 0) {
+            productLength--;
+        }
+        return productLength;
+    }
+
+    /*
+     * Public methods ---------------------------------------------------------
+     */
+
+    /**
+     * Returns the product of {@code a[0, aLength)} and {@code b[0, bLength)}.
+     * 
+     * @param a
+     *            the first factor's limbs, least significant first
+     * @param aLength
+     *            number of limbs of {@code a} taking part
+     * @param b
+     *            the second factor's limbs, least significant first
+     * @param bLength
+     *            number of limbs of {@code b} taking part
+     * @return the product's limbs, least significant first, with no leading
+     *         zero limbs
+     * @requires <pre>
+     * {@code 0 <= aLength <= |a|  and  0 <= bLength <= |b|  and
+     * [all limbs taking part are in [0, BASE)]}
+     * </pre>
+     * @ensures <pre>
+     * {@code multiply = a[0, aLength) * b[0, bLength)}
+     * </pre>
+     */
+    public int[] multiply(int[] a, int aLength, int[] b, int bLength) {
+        return this.multiply(trim(Arrays.copyOf(a, aLength), aLength),
+                trim(Arrays.copyOf(b, bLength), bLength));
+    }
+
+    /**
+     * Multiplies {@code x} by {@code y} for any {@code NaturalNumber} kernel,
+     * moving the digits in and out in bulk through their decimal form.
+     * 
+     * @param x
+     *            the number to multiply
+     * @param y
+     *            the number to multiply by
+     * @updates x
+     * @requires <pre>
+     * {@code x /= y}
+     * </pre>
+     * @ensures <pre>
+     * {@code x = #x * y}
+     * </pre>
+     */
+    public void multiply(NaturalNumber x, NaturalNumber y) {
+        assert x != null : "Violation of: x is not null";
+        assert y != null : "Violation of: y is not null";
+        assert x != y : "Violation of: x is not y";
+        int[] product = this.multiply(NaturalNumber4.parseLimbs(x.toString()),
+                NaturalNumber4.parseLimbs(y.toString()));
+        x.setFromString(NaturalNumber4.formatLimbs(product, product.length));
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Reusable limb buffers for the allocation-free arithmetic of
+ * {@code NaturalNumber4} ({@code multiplyAdd}, {@code squareInPlace},
+ * {@code modInPlace}, and {@code fusedMultiplyMod}).
+ * 
+ * <p>
+ * A workspace grows its buffers on demand and never shrinks them, so once it
+ * has seen operands of the largest size in a computation (e.g., after the
+ * first step of a modular exponentiation loop) no further arrays are
+ * allocated. A workspace holds no values between calls, but it is not safe
+ * for use by more than one thread at a time.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class LimbWorkspace {
+
+    /**
+     * Number of limbs the buffers are sized for by default.
+     */
+    private static final int DEFAULT_LIMBS = 4;
+
+    /**
+     * Receives products, and the dividends reduced in place.
+     */
+    private int[] product;
+
+    /**
+     * Temporaries of {@code LimbMultiplier.multiplyInto}.
+     */
+    private int[] scratch;
+
+    /**
+     * Receives the scaled divisor of {@code LimbDivider.remainderInPlace}.
+     */
+    private int[] divisor;
+
+    /**
+     * Default constructor.
+     */
+    public LimbWorkspace() {
+        this(DEFAULT_LIMBS);
+    }
+
+    /**
+     * Constructor sizing the buffers for operands of up to {@code limbs}
+     * limbs, so that no allocation happens later for operands that size.
+     * 
+     * @param limbs
+     *            the expected number of limbs in the largest operand
+     */
+    public LimbWorkspace(int limbs) {
+        assert limbs >= 0 : "Violation of: limbs >= 0";
+        this.product = new int[2 * limbs + 1];
+        this.scratch = new int[LimbMultiplier.scratchLength(limbs)];
+        this.divisor = new int[limbs];
+    }
+
+    /**
+     * Returns the product buffer, grown if necessary so it can hold
+     * {@code capacity} limbs.
+     * 
+     * @param capacity
+     *            the number of limbs needed
+     * @return the product buffer
+     * @ensures <pre>
+     * {@code |product| >= capacity}
+     * </pre>
+     */
+    int[] product(int capacity) {
+        if (this.product.length < capacity) {
+            this.product = new int[Math.max(capacity, 2 * this.product.length)];
+        }
+        return this.product;
+    }
+
+    /**
+     * Returns the scratch buffer, grown if necessary so it can hold
+     * {@code capacity} limbs.
+     * 
+     * @param capacity
+     *            the number of limbs needed
+     * @return the scratch buffer
+     * @ensures <pre>
+     * {@code |scratch| >= capacity}
+     * </pre>
+     */
+    int[] scratch(int capacity) {
+        if (this.scratch.length < capacity) {
+            this.scratch = new int[Math.max(capacity, 2 * this.scratch.length)];
+        }
+        return this.scratch;
+    }
+
+    /**
+     * Returns the divisor buffer, grown if necessary so it can hold
+     * {@code capacity} limbs.
+     * 
+     * @param capacity
+     *            the number of limbs needed
+     * @return the divisor buffer
+     * @ensures <pre>
+     * {@code |divisor| >= capacity}
+     * </pre>
+     */
+    int[] divisor(int capacity) {
+        if (this.divisor.length < capacity) {
+            this.divisor = new int[Math.max(capacity, 2 * this.divisor.length)];
+        }
+        return this.divisor;
+    }
+
+}
@@ -0,0 +1,189 @@
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code LimbMultiplier} on operands of increasing size to find, on the
+ * machine it runs on, the operand sizes at which Karatsuba overtakes schoolbook
+ * multiplication and at which Toom-3 overtakes Karatsuba.
+ * 
+ * <p>
+ * Each algorithm is timed with one level of itself on top of the next simpler
+ * one, so a column wins exactly when switching at that size pays off. A
+ * crossover is reported at the first size from which the faster algorithm
+ * wins twice in a row, so one noisy measurement does not decide it. Output is
+ * CSV (sizes in limbs, times in nanoseconds per multiply) followed by the
+ * suggested thresholds.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class MultiplicationCrossover {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private MultiplicationCrossover() {
+    }
+
+    /**
+     * Operand sizes, in limbs, at which to time the algorithms.
+     */
+    private static final int[] SIZES = { 8, 12, 16, 24, 32, 48, 64, 96, 128,
+            192, 256, 384, 512, 768, 1024 };
+
+    /**
+     * Number of timed batches per measurement; the fastest batch is reported.
+     */
+    private static final int BATCHES = 5;
+
+    /**
+     * Minimum duration of one timed batch, in nanoseconds.
+     */
+    private static final long MIN_BATCH_NANOS = 20000000L;
+
+    /**
+     * Seed for the operand generator, so runs are comparable.
+     */
+    private static final long SEED = 2221L;
+
+    /**
+     * Operand size, in limbs, used to warm up every code path before timing.
+     */
+    private static final int WARMUP_SIZE = 300;
+
+    /**
+     * Number of multiplies per engine used to warm up.
+     */
+    private static final int WARMUP_REPS = 200;
+
+    /**
+     * Returns a random number of exactly {@code size} limbs.
+     * 
+     * @param random
+     *            source of randomness
+     * @param size
+     *            number of limbs
+     * @return the limbs, least significant first
+     * @requires <pre>
+     * {@code size > 0}
+     * </pre>
+     */
+    private static int[] randomLimbs(Random random, int size) {
+        int[] limbs = new int[size];
+        for (int i = 0; i < size; i++) {
+            limbs[i] = random.nextInt(NaturalNumber4.BASE);
+        }
+        limbs[size - 1] = 1 + random.nextInt(NaturalNumber4.BASE - 1);
+        return limbs;
+    }
+
+    /**
+     * Reports the time one multiply of {@code a} by {@code b} takes with
+     * {@code engine}, as the fastest of several batches.
+     * 
+     * @param engine
+     *            the engine to time
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return nanoseconds per multiply
+     */
+    private static long time(LimbMultiplier engine, int[] a, int[] b) {
+        /*
+         * Warm up and find a repetition count that fills one batch
+         */
+        int reps = 1;
+        long elapsed = 0;
+        while (elapsed < MIN_BATCH_NANOS) {
+            reps *= 2;
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) {
+                engine.multiply(a, a.length, b, b.length);
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        long best = Long.MAX_VALUE;
+        for (int batch = 0; batch < BATCHES; batch++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) {
+                engine.multiply(a, a.length, b, b.length);
+            }
+            best = Math.min(best, (System.nanoTime() - start) / reps);
+        }
+        return best;
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        Random random = new Random(SEED);
+
+        final int off = Integer.MAX_VALUE;
+        final int kDefault = LimbMultiplier.DEFAULT_KARATSUBA_THRESHOLD;
+        LimbMultiplier schoolbook = new LimbMultiplier(off, off);
+        LimbMultiplier karatsuba = new LimbMultiplier(kDefault, off);
+        int karatsubaCrossover = -1;
+        int toom3Crossover = -1;
+        int karatsubaCandidate = -1;
+        int toom3Candidate = -1;
+
+        int[] warmA = randomLimbs(random, WARMUP_SIZE);
+        int[] warmB = randomLimbs(random, WARMUP_SIZE);
+        LimbMultiplier[] warmEngines = { schoolbook, karatsuba,
+                new LimbMultiplier(), new LimbMultiplier(2, 3) };
+        for (LimbMultiplier engine : warmEngines) {
+            for (int i = 0; i < WARMUP_REPS; i++) {
+                engine.multiply(warmA, warmA.length, warmB, warmB.length);
+            }
+        }
+
+        out.println("limbs,schoolbook,karatsuba1,karatsuba,toom3");
+        for (int size : SIZES) {
+            int[] a = randomLimbs(random, size);
+            int[] b = randomLimbs(random, size);
+            long tSchoolbook = time(schoolbook, a, b);
+            long tKaratsuba1 = time(new LimbMultiplier(size, off), a, b);
+            long tKaratsuba = time(karatsuba, a, b);
+            long tToom3 = time(
+                    new LimbMultiplier(Math.min(kDefault, size), size), a, b);
+            out.println(size + "," + tSchoolbook + "," + tKaratsuba1 + ","
+                    + tKaratsuba + "," + tToom3);
+            if (karatsubaCrossover < 0) {
+                if (tKaratsuba1 >= tSchoolbook) {
+                    karatsubaCandidate = -1;
+                } else if (karatsubaCandidate < 0) {
+                    karatsubaCandidate = size;
+                } else {
+                    karatsubaCrossover = karatsubaCandidate;
+                }
+            }
+            if (toom3Crossover < 0) {
+                if (tToom3 >= tKaratsuba) {
+                    toom3Candidate = -1;
+                } else if (toom3Candidate < 0) {
+                    toom3Candidate = size;
+                } else {
+                    toom3Crossover = toom3Candidate;
+                }
+            }
+        }
+
+        out.println();
+        out.println("suggested karatsuba threshold = " + karatsubaCrossover
+                + " limbs (default " + kDefault + ")");
+        out.println("suggested toom3 threshold = " + toom3Crossover
+                + " limbs (default " + LimbMultiplier.DEFAULT_TOOM3_THRESHOLD
+                + ")");
+
+        out.close();
+    }
+
+}
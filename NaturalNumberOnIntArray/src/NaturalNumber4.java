@@ -0,0 +1,903 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a growable {@code int[]} of base
+ * 10<sup>9</sup> limbs, with implementations of primary methods and limb-level
+ * implementations of the arithmetic secondary methods.
+ * 
+ * <p>
+ * Let n = the number of limbs in {@code this}. {@code multiplyBy10} and
+ * {@code divideBy10} are O(n); {@code isZero} is O(1). {@code add},
+ * {@code subtract}, and {@code compareTo} are linear in the number of limbs of
+ * the larger operand. {@code multiply} goes through {@code LimbMultiplier},
+ * which is schoolbook for short operands and Karatsuba or Toom-3 for long
+ * ones. {@code divide} goes through {@code LimbDivider}, which is long
+ * division while the divisor or the quotient is short and Burnikel-Ziegler
+ * (a small multiple of the cost of {@code multiply}) otherwise; divisors of
+ * one limb, and any {@code int} divisor via {@code divideBy}, take a single
+ * O(n) pass.
+ * 
+ * <p>
+ * {@code multiplyAdd}, {@code squareInPlace}, {@code modInPlace}, and
+ * {@code fusedMultiplyMod} do the same arithmetic in caller-supplied
+ * {@code LimbWorkspace} buffers (schoolbook or Karatsuba, then long division)
+ * so that loops such as modular exponentiation allocate nothing once the
+ * buffers and {@code this.limbs} have grown to the operands' size.
+ * 
+ * <p>
+ * {@code toString} is linear in the number of digits, since a limb converts
+ * to exactly nine decimal digits, and its result is cached: the cache stays
+ * valid across {@code multiplyBy10} and {@code divideBy10}, which append or
+ * drop a single digit, so rendering a number that is being typed in digit by
+ * digit costs only a copy of the digits. Every other method that changes
+ * {@code this} discards the cache.
+ * 
+ * @convention <pre>
+ * {@code 0 <= $this.length <= |$this.limbs|  and
+ * for all i: integer where (0 <= i < |$this.limbs|)
+ *   (0 <= $this.limbs[i] < BASE)  and
+ * ($this.length = 0  or  $this.limbs[$this.length - 1] /= 0)  and
+ * ($this.digits = null  or
+ *  [$this.digits is the decimal representation of this without leading
+ *   zeros, i.e., empty for zero])  and
+ * ($this.text = null  or  $this.text = TO_STRING(this))}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = sum i: integer where (0 <= i < $this.length)
+ *                 ($this.limbs[i] * BASE ^ (i))}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Constant 10 (so it's not a "magic number" in the code).
+     */
+    private static final int TEN = 10;
+
+    /**
+     * Radix of one limb.
+     */
+    static final int BASE = 1000000000;
+
+    /**
+     * Number of decimal digits in one limb.
+     */
+    static final int BASE_DIGITS = 9;
+
+    /**
+     * Number of limbs allocated for a new representation.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Engine used by {@code multiply}.
+     */
+    private static final LimbMultiplier MULTIPLIER = new LimbMultiplier();
+
+    /**
+     * Engine used by {@code divide} for multi-limb divisors.
+     */
+    private static final LimbDivider DIVIDER = new LimbDivider();
+
+    /**
+     * Limbs of {@code this}, least significant first.
+     */
+    private int[] limbs;
+
+    /**
+     * Number of significant limbs in {@code this.limbs}.
+     */
+    private int length;
+
+    /**
+     * Decimal digits of {@code this} kept up to date by {@code multiplyBy10}
+     * and {@code divideBy10} once {@code toString} has derived them, or
+     * {@code null}.
+     */
+    private StringBuilder digits;
+
+    /**
+     * Last result of {@code toString}, or {@code null} if {@code this} has
+     * changed since.
+     */
+    private String text;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.limbs = new int[INITIAL_CAPACITY];
+        this.length = 0;
+        this.digits = null;
+        this.text = null;
+    }
+
+    /**
+     * Discards the cached decimal representation; called by every method
+     * that changes {@code this} other than {@code multiplyBy10} and
+     * {@code divideBy10}.
+     * 
+     * @clears this.digits, this.text
+     */
+    private void invalidate() {
+        this.digits = null;
+        this.text = null;
+    }
+
+    /**
+     * Grows {@code this.limbs}, if necessary, so it can hold {@code capacity}
+     * limbs.
+     * 
+     * @param capacity
+     *            the number of limbs needed
+     * @updates this.limbs
+     * @ensures <pre>
+     * {@code |this.limbs| >= capacity  and
+     * this.limbs[0, this.length) = #this.limbs[0, this.length)}
+     * </pre>
+     */
+    private void ensureCapacity(int capacity) {
+        if (this.limbs.length < capacity) {
+            int newCapacity = Math.max(capacity, 2 * this.limbs.length);
+            this.limbs = Arrays.copyOf(this.limbs, newCapacity);
+        }
+    }
+
+    /**
+     * Drops leading zero limbs so that the convention holds again.
+     * 
+     * @updates this.length
+     * @ensures <pre>
+     * {@code this.length = 0  or  this.limbs[this.length - 1] /= 0}
+     * </pre>
+     */
+    private void normalize() {
+        while (this.length > 0 && this.limbs[this.length - 1] == 0) {
+            this.length--;
+        }
+    }
+
+    /**
+     * Reports {@code n} as a {@code NaturalNumber4}, converting it only if it
+     * is of some other dynamic type.
+     * 
+     * @param n
+     *            the number to view as limbs
+     * @return {@code n} itself, or a {@code NaturalNumber4} with its value
+     * @ensures <pre>
+     * {@code asLimbs = n}
+     * </pre>
+     */
+    private static NaturalNumber4 asLimbs(NaturalNumber n) {
+        if (n instanceof NaturalNumber4) {
+            return (NaturalNumber4) n;
+        }
+        NaturalNumber4 result = new NaturalNumber4();
+        result.setFromString(n.toString());
+        return result;
+    }
+
+    /**
+     * Returns the limbs of the number whose decimal representation is
+     * {@code s}.
+     * 
+     * @param s
+     *            the decimal representation
+     * @return the limbs, least significant first, with no leading zero limbs
+     * @requires <pre>
+     * {@code there exists n: NATURAL (s = TO_STRING(n))}
+     * </pre>
+     * @ensures <pre>
+     * {@code [parseLimbs are the limbs of the number s represents]}
+     * </pre>
+     */
+    static int[] parseLimbs(String s) {
+        int limbCount = (s.length() + BASE_DIGITS - 1) / BASE_DIGITS;
+        int[] result = new int[limbCount];
+        int end = s.length();
+        for (int i = 0; i < limbCount; i++) {
+            int start = Math.max(0, end - BASE_DIGITS);
+            int limb = 0;
+            for (int j = start; j < end; j++) {
+                limb = limb * TEN + (s.charAt(j) - '0');
+            }
+            result[i] = limb;
+            end = start;
+        }
+        return LimbMultiplier.trim(result, limbCount);
+    }
+
+    /**
+     * Returns the decimal representation of {@code limbs[0, length)}.
+     * 
+     * @param limbs
+     *            the limbs, least significant first
+     * @param length
+     *            number of significant limbs
+     * @return the decimal representation
+     * @requires <pre>
+     * {@code length = 0  or  limbs[length - 1] /= 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code formatLimbs = TO_STRING(limbs[0, length))}
+     * </pre>
+     */
+    static String formatLimbs(int[] limbs, int length) {
+        if (length == 0) {
+            return "0";
+        }
+        StringBuilder result = new StringBuilder(length * BASE_DIGITS);
+        appendLimbs(result, limbs, length);
+        return result.toString();
+    }
+
+    /**
+     * Appends the decimal representation of {@code limbs[0, length)} to
+     * {@code result}, appending nothing for zero.
+     * 
+     * @param result
+     *            the builder to append to
+     * @param limbs
+     *            the limbs, least significant first
+     * @param length
+     *            number of significant limbs
+     * @updates result
+     * @requires <pre>
+     * {@code length = 0  or  limbs[length - 1] /= 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code result = #result * [decimal digits of limbs[0, length)]}
+     * </pre>
+     */
+    private static void appendLimbs(StringBuilder result, int[] limbs,
+            int length) {
+        if (length == 0) {
+            return;
+        }
+        result.append(limbs[length - 1]);
+        char[] limb = new char[BASE_DIGITS];
+        for (int i = length - 2; i >= 0; i--) {
+            int value = limbs[i];
+            for (int j = BASE_DIGITS - 1; j >= 0; j--) {
+                limb[j] = (char) ('0' + value % TEN);
+                value /= TEN;
+            }
+            result.append(limb);
+        }
+    }
+
+    /**
+     * Compares the limb strings {@code a[0, aLength)} and
+     * {@code b[0, bLength)} as numbers.
+     * 
+     * @param a
+     *            the first limb array
+     * @param aLength
+     *            number of significant limbs in {@code a}
+     * @param b
+     *            the second limb array
+     * @param bLength
+     *            number of significant limbs in {@code b}
+     * @return negative, zero, or positive as a is less than, equal to, or
+     *         greater than b
+     * @requires <pre>
+     * {@code [a[0, aLength) and b[0, bLength) have no leading zero limbs]}
+     * </pre>
+     */
+    static int compareLimbs(int[] a, int aLength, int[] b, int bLength) {
+        if (aLength != bLength) {
+            return aLength < bLength ? -1 : 1;
+        }
+        for (int i = aLength - 1; i >= 0; i--) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Divides {@code u[0, length)} by the single limb {@code d} in place and
+     * reports the remainder.
+     * 
+     * @param u
+     *            the dividend limbs
+     * @param length
+     *            number of limbs of {@code u} taking part
+     * @param d
+     *            the divisor
+     * @return the remainder
+     * @updates u
+     * @requires <pre>
+     * {@code d > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code #u[0, length) = u[0, length) * d + divideLimbs  and
+     * 0 <= divideLimbs < d}
+     * </pre>
+     */
+    static int divideLimbs(int[] u, int length, int d) {
+        long remainder = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            long current = remainder * BASE + u[i];
+            u[i] = (int) (current / d);
+            remainder = current % d;
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Multiplies {@code u[0, length)} by the single limb {@code f} in place
+     * and reports the carry out of the top limb.
+     * 
+     * @param u
+     *            the limbs to scale
+     * @param length
+     *            number of limbs of {@code u} taking part
+     * @param f
+     *            the factor
+     * @return the carry limb
+     * @updates u
+     * @requires <pre>
+     * {@code 0 <= f < BASE}
+     * </pre>
+     * @ensures <pre>
+     * {@code #u[0, length) * f =
+     *   u[0, length) + multiplyLimbs * BASE ^ (length)}
+     * </pre>
+     */
+    static int multiplyLimbs(int[] u, int length, int f) {
+        long carry = 0;
+        for (int i = 0; i < length; i++) {
+            long product = (long) u[i] * f + carry;
+            u[i] = (int) (product % BASE);
+            carry = product / BASE;
+        }
+        return (int) carry;
+    }
+
+    /**
+     * Adds {@code x[0, xLength)} to {@code this}.
+     * 
+     * @param x
+     *            the limbs to add
+     * @param xLength
+     *            number of significant limbs in {@code x}
+     * @updates this
+     * @requires <pre>
+     * {@code x is not this.limbs}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this + x[0, xLength)}
+     * </pre>
+     */
+    private void addLimbs(int[] x, int xLength) {
+        this.invalidate();
+        int longer = Math.max(this.length, xLength);
+        this.ensureCapacity(longer + 1);
+        int carry = 0;
+        for (int i = 0; i < longer; i++) {
+            int sum = carry;
+            if (i < this.length) {
+                sum += this.limbs[i];
+            }
+            if (i < xLength) {
+                sum += x[i];
+            }
+            if (sum >= BASE) {
+                sum -= BASE;
+                carry = 1;
+            } else {
+                carry = 0;
+            }
+            this.limbs[i] = sum;
+        }
+        this.limbs[longer] = carry;
+        this.length = longer + carry;
+    }
+
+    /**
+     * Replaces {@code this} by {@code x[0, xLength)}, reusing
+     * {@code this.limbs} when it is large enough.
+     * 
+     * @param x
+     *            the limbs to copy
+     * @param xLength
+     *            number of significant limbs in {@code x}
+     * @replaces this
+     * @requires <pre>
+     * {@code x is not this.limbs  and
+     * (xLength = 0  or  x[xLength - 1] /= 0)}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = x[0, xLength)}
+     * </pre>
+     */
+    private void setLimbs(int[] x, int xLength) {
+        this.invalidate();
+        this.length = 0;
+        this.ensureCapacity(xLength);
+        System.arraycopy(x, 0, this.limbs, 0, xLength);
+        this.length = xLength;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public NaturalNumber4() {
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor from {@code int}.
+     * 
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.createNewRep();
+        this.setFromInt(i);
+    }
+
+    /**
+     * Constructor from {@code String}.
+     * 
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.createNewRep();
+        this.setFromString(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     * 
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.createNewRep();
+        this.copyFrom(n);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.limbs = localSource.limbs;
+        this.length = localSource.length;
+        this.digits = localSource.digits;
+        this.text = localSource.text;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < TEN : "Violation of: k < 10";
+        if (this.digits != null && (this.length > 0 || k > 0)) {
+            this.digits.append((char) ('0' + k));
+        }
+        this.text = null;
+        long carry = k;
+        for (int i = 0; i < this.length; i++) {
+            long product = (long) this.limbs[i] * TEN + carry;
+            this.limbs[i] = (int) (product % BASE);
+            carry = product / BASE;
+        }
+        if (carry > 0) {
+            this.ensureCapacity(this.length + 1);
+            this.limbs[this.length] = (int) carry;
+            this.length++;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+        if (this.digits != null && this.digits.length() > 0) {
+            this.digits.setLength(this.digits.length() - 1);
+        }
+        this.text = null;
+        int remainder = divideLimbs(this.limbs, this.length, TEN);
+        this.normalize();
+        return remainder;
+    }
+
+    @Override
+    public final boolean isZero() {
+        return this.length == 0;
+    }
+
+    /*
+     * Secondary methods overridden with limb-level loops ---------------------
+     */
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert n != this : "Violation of: n is not this";
+        NaturalNumber4 other = asLimbs(n);
+        return compareLimbs(this.limbs, this.length, other.limbs,
+                other.length);
+    }
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.invalidate();
+        this.length = 0;
+        this.ensureCapacity(2);
+        while (i > 0) {
+            this.limbs[this.length] = i % BASE;
+            this.length++;
+            i /= BASE;
+        }
+    }
+
+    @Override
+    public final boolean canConvertToInt() {
+        if (this.length <= 1) {
+            return true;
+        }
+        return this.length == 2
+                && (long) this.limbs[1] * BASE + this.limbs[0]
+                        <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public final int toInt() {
+        assert this.canConvertToInt() : "Violation of: this <= Integer.MAX_VALUE";
+        long result = 0;
+        for (int i = this.length - 1; i >= 0; i--) {
+            result = result * BASE + this.limbs[i];
+        }
+        return (int) result;
+    }
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert this.canSetFromString(s) : ""
+                + "Violation of: s = [result of toString for some NaturalNumber]";
+        this.limbs = parseLimbs(s);
+        this.length = this.limbs.length;
+        this.ensureCapacity(INITIAL_CAPACITY);
+        this.digits = null;
+        this.text = s;
+    }
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert n != this : "Violation of: n is not this";
+        if (n instanceof NaturalNumber4) {
+            NaturalNumber4 other = (NaturalNumber4) n;
+            this.limbs = Arrays.copyOf(other.limbs,
+                    Math.max(other.length, INITIAL_CAPACITY));
+            this.length = other.length;
+            this.digits = null;
+            this.text = other.text;
+        } else {
+            this.setFromString(n.toString());
+        }
+    }
+
+    @Override
+    public final void increment() {
+        this.invalidate();
+        int i = 0;
+        while (i < this.length && this.limbs[i] == BASE - 1) {
+            this.limbs[i] = 0;
+            i++;
+        }
+        if (i == this.length) {
+            this.ensureCapacity(this.length + 1);
+            this.limbs[this.length] = 0;
+            this.length++;
+        }
+        this.limbs[i]++;
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+        this.invalidate();
+        int i = 0;
+        while (this.limbs[i] == 0) {
+            this.limbs[i] = BASE - 1;
+            i++;
+        }
+        this.limbs[i]--;
+        this.normalize();
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert n != this : "Violation of: n is not this";
+        NaturalNumber4 other = asLimbs(n);
+        this.addLimbs(other.limbs, other.length);
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert n != this : "Violation of: n is not this";
+        assert this.compareTo(n) >= 0 : "Violation of: this >= n";
+        NaturalNumber4 other = asLimbs(n);
+        this.invalidate();
+        int borrow = 0;
+        int i = 0;
+        while (i < this.length && (i < other.length || borrow > 0)) {
+            int difference = this.limbs[i] - borrow;
+            if (i < other.length) {
+                difference -= other.limbs[i];
+            }
+            if (difference < 0) {
+                difference += BASE;
+                borrow = 1;
+            } else {
+                borrow = 0;
+            }
+            this.limbs[i] = difference;
+            i++;
+        }
+        this.normalize();
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert n != this : "Violation of: n is not this";
+        NaturalNumber4 other = asLimbs(n);
+        this.invalidate();
+        this.limbs = MULTIPLIER.multiply(this.limbs, this.length, other.limbs,
+                other.length);
+        this.length = this.limbs.length;
+        this.ensureCapacity(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert n != this : "Violation of: n is not this";
+        assert !n.isZero() : "Violation of: n > 0";
+        NaturalNumber4 other = asLimbs(n);
+        NaturalNumber4 remainder = (NaturalNumber4) this.newInstance();
+        if (compareLimbs(this.limbs, this.length, other.limbs,
+                other.length) < 0) {
+            remainder.transferFrom(this);
+        } else if (other.length == 1) {
+            remainder.setFromInt(this.divideBy(other.limbs[0]));
+        } else {
+            int[][] qr = DIVIDER.divide(this.limbs, this.length,
+                    other.limbs, other.length);
+            this.invalidate();
+            this.limbs = qr[0];
+            this.length = qr[0].length;
+            this.ensureCapacity(INITIAL_CAPACITY);
+            remainder.limbs = qr[1];
+            remainder.length = qr[1].length;
+            remainder.ensureCapacity(INITIAL_CAPACITY);
+        }
+        return remainder;
+    }
+
+    /**
+     * Divides {@code this} by {@code d}, returning the remainder; a single
+     * pass over the limbs, for divisors that fit in an {@code int}.
+     * 
+     * @param d
+     *            {@code int} to divide by
+     * @return remainder
+     * @updates this
+     * @requires <pre>
+     * {@code d > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code #this = this * d + divideBy  and  0 <= divideBy < d}
+     * </pre>
+     */
+    public final int divideBy(int d) {
+        assert d > 0 : "Violation of: d > 0";
+        this.invalidate();
+        int remainder = divideLimbs(this.limbs, this.length, d);
+        this.normalize();
+        return remainder;
+    }
+
+    @Override
+    public final String toString() {
+        if (this.text == null) {
+            if (this.digits == null) {
+                this.digits = new StringBuilder(this.length * BASE_DIGITS);
+                appendLimbs(this.digits, this.limbs, this.length);
+            }
+            if (this.digits.length() == 0) {
+                this.text = "0";
+            } else {
+                this.text = this.digits.toString();
+            }
+        }
+        return this.text;
+    }
+
+    /*
+     * Allocation-free arithmetic ---------------------------------------------
+     */
+
+    /**
+     * Adds the product of {@code x} and {@code y} to {@code this}, using the
+     * buffers of {@code workspace} for the product.
+     * 
+     * @param x
+     *            the first factor
+     * @param y
+     *            the second factor
+     * @param workspace
+     *            buffers for the intermediate product
+     * @updates this
+     * @requires <pre>
+     * {@code x is not this  and  y is not this}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this + x * y}
+     * </pre>
+     */
+    public final void multiplyAdd(NaturalNumber x, NaturalNumber y,
+            LimbWorkspace workspace) {
+        assert x != null : "Violation of: x is not null";
+        assert y != null : "Violation of: y is not null";
+        assert workspace != null : "Violation of: workspace is not null";
+        assert x != this : "Violation of: x is not this";
+        assert y != this : "Violation of: y is not this";
+        NaturalNumber4 a = asLimbs(x);
+        NaturalNumber4 b = asLimbs(y);
+        int longer = Math.max(a.length, b.length);
+        int[] product = workspace.product(2 * longer);
+        int productLength = MULTIPLIER.multiplyInto(a.limbs, a.length,
+                b.limbs, b.length, product,
+                workspace.scratch(LimbMultiplier.scratchLength(longer)));
+        this.addLimbs(product, productLength);
+    }
+
+    /**
+     * Squares {@code this}, using the buffers of {@code workspace} for the
+     * product.
+     * 
+     * @param workspace
+     *            buffers for the intermediate product
+     * @updates this
+     * @ensures <pre>
+     * {@code this = #this * #this}
+     * </pre>
+     */
+    public final void squareInPlace(LimbWorkspace workspace) {
+        assert workspace != null : "Violation of: workspace is not null";
+        int[] product = workspace.product(2 * this.length);
+        int productLength = MULTIPLIER.multiplyInto(this.limbs, this.length,
+                this.limbs, this.length, product,
+                workspace.scratch(LimbMultiplier.scratchLength(this.length)));
+        this.setLimbs(product, productLength);
+    }
+
+    /**
+     * Reduces {@code this} modulo {@code m} in place, using the buffers of
+     * {@code workspace} for the scaled divisor.
+     * 
+     * @param m
+     *            the modulus
+     * @param workspace
+     *            buffers for the scaled divisor
+     * @updates this
+     * @requires <pre>
+     * {@code m is not this  and  m > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this mod m}
+     * </pre>
+     */
+    public final void modInPlace(NaturalNumber m, LimbWorkspace workspace) {
+        assert m != null : "Violation of: m is not null";
+        assert workspace != null : "Violation of: workspace is not null";
+        assert m != this : "Violation of: m is not this";
+        assert !m.isZero() : "Violation of: m > 0";
+        NaturalNumber4 modulus = asLimbs(m);
+        this.invalidate();
+        this.ensureCapacity(this.length + 1);
+        this.length = LimbDivider.remainderInPlace(this.limbs, this.length,
+                modulus.limbs, modulus.length,
+                workspace.divisor(modulus.length));
+    }
+
+    /**
+     * Multiplies {@code this} by {@code y} and reduces the product modulo
+     * {@code m}, using the buffers of {@code workspace} for the product and
+     * the scaled divisor; the step of modular exponentiation.
+     * 
+     * @param y
+     *            the factor
+     * @param m
+     *            the modulus
+     * @param workspace
+     *            buffers for the intermediate product and the scaled divisor
+     * @updates this
+     * @requires <pre>
+     * {@code y is not this  and  m is not this  and  m > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = (#this * y) mod m}
+     * </pre>
+     */
+    public final void fusedMultiplyMod(NaturalNumber y, NaturalNumber m,
+            LimbWorkspace workspace) {
+        assert y != null : "Violation of: y is not null";
+        assert m != null : "Violation of: m is not null";
+        assert workspace != null : "Violation of: workspace is not null";
+        assert y != this : "Violation of: y is not this";
+        assert m != this : "Violation of: m is not this";
+        assert !m.isZero() : "Violation of: m > 0";
+        NaturalNumber4 b = asLimbs(y);
+        NaturalNumber4 modulus = asLimbs(m);
+        int longer = Math.max(this.length, b.length);
+        int[] product = workspace.product(2 * longer + 1);
+        int productLength = MULTIPLIER.multiplyInto(this.limbs, this.length,
+                b.limbs, b.length, product,
+                workspace.scratch(LimbMultiplier.scratchLength(longer)));
+        productLength = LimbDivider.remainderInPlace(product, productLength,
+                modulus.limbs, modulus.length,
+                workspace.divisor(modulus.length));
+        this.setLimbs(product, productLength);
+    }
+
+}
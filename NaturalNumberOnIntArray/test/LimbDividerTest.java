@@ -0,0 +1,155 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * JUnit test fixture for {@code LimbDivider}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class LimbDividerTest {
+
+    /**
+     * Returns the decimal representation of 10^(n) - 1, i.e., n nines.
+     * 
+     * @param n
+     *            number of nines
+     * @return the string of nines
+     */
+    private static String nines(int n) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            s.append('9');
+        }
+        return s.toString();
+    }
+
+    /**
+     * Returns the decimal representation of (10^(n) - 1)^2, i.e., n - 1
+     * nines, an eight, n - 1 zeros, and a one.
+     * 
+     * @param n
+     *            number of nines in the factor
+     * @return the square
+     */
+    private static String ninesSquared(int n) {
+        StringBuilder s = new StringBuilder(nines(n - 1));
+        s.append('8');
+        for (int i = 0; i < n - 1; i++) {
+            s.append('0');
+        }
+        s.append('1');
+        return s.toString();
+    }
+
+    /**
+     * Divides the number represented by {@code a} by the one represented by
+     * {@code b} with {@code engine} and returns the quotient's and the
+     * remainder's representations, separated by a space.
+     * 
+     * @param engine
+     *            the engine to use
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the quotient and remainder
+     */
+    private static String quotientAndRemainder(LimbDivider engine, String a,
+            String b) {
+        int[] x = NaturalNumber4.parseLimbs(a);
+        int[] y = NaturalNumber4.parseLimbs(b);
+        int[][] qr = engine.divide(x, x.length, y, y.length);
+        return NaturalNumber4.formatLimbs(qr[0], qr[0].length) + " "
+                + NaturalNumber4.formatLimbs(qr[1], qr[1].length);
+    }
+
+    /**
+     * Test for long division only.
+     */
+    @Test
+    public final void testSchoolbook() {
+        LimbDivider engine = new LimbDivider(Integer.MAX_VALUE);
+        assertEquals(nines(500) + " 0",
+                quotientAndRemainder(engine, ninesSquared(500), nines(500)));
+    }
+
+    /**
+     * Test for Burnikel-Ziegler all the way down.
+     */
+    @Test
+    public final void testBurnikelZiegler() {
+        LimbDivider engine = new LimbDivider(2);
+        assertEquals(nines(500) + " 0",
+                quotientAndRemainder(engine, ninesSquared(500), nines(500)));
+    }
+
+    /**
+     * Test for Burnikel-Ziegler with the largest possible remainder.
+     */
+    @Test
+    public final void testBurnikelZieglerLargestRemainder() {
+        LimbDivider engine = new LimbDivider(2);
+        String dividend = nines(1000);
+        String divisor = "1" + nines(400);
+        assertEquals(
+                quotientAndRemainder(new LimbDivider(Integer.MAX_VALUE),
+                        dividend, divisor),
+                quotientAndRemainder(engine, dividend, divisor));
+    }
+
+    /**
+     * Test for Burnikel-Ziegler with a divisor whose length is not a power of
+     * two times the block size.
+     */
+    @Test
+    public final void testBurnikelZieglerPaddedDivisor() {
+        LimbDivider engine = new LimbDivider(3);
+        String dividend = "31415926535897932384626433832795028841971"
+                + nines(1200) + "123456789";
+        String divisor = "27182818284590452353602874713526624977572"
+                + nines(321);
+        assertEquals(
+                quotientAndRemainder(new LimbDivider(Integer.MAX_VALUE),
+                        dividend, divisor),
+                quotientAndRemainder(engine, dividend, divisor));
+    }
+
+    /**
+     * Test for a dividend smaller than the divisor.
+     */
+    @Test
+    public final void testSmallerDividend() {
+        LimbDivider engine = new LimbDivider(2);
+        assertEquals("0 " + nines(100),
+                quotientAndRemainder(engine, nines(100), "1" + nines(100)));
+    }
+
+    /**
+     * Test for a single-limb divisor.
+     */
+    @Test
+    public final void testSingleLimbDivisor() {
+        LimbDivider engine = new LimbDivider(2);
+        assertEquals("142857142857142857 1",
+                quotientAndRemainder(engine, "1000000000000000000", "7"));
+    }
+
+    /**
+     * Test for the {@code NaturalNumber} entry point.
+     */
+    @Test
+    public final void testNaturalNumberEntryPoint() {
+        NaturalNumber x = new NaturalNumber4(ninesSquared(300));
+        NaturalNumber y = new NaturalNumber4(nines(300));
+        x.increment();
+        NaturalNumber r = new LimbDivider(2).divide(x, y);
+        assertEquals(nines(300), x.toString());
+        assertEquals("1", r.toString());
+        assertEquals(nines(300), y.toString());
+    }
+
+}
@@ -0,0 +1,145 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * JUnit test fixture for {@code LimbMultiplier}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class LimbMultiplierTest {
+
+    /**
+     * Returns the decimal representation of 10^(n) - 1, i.e., n nines.
+     * 
+     * @param n
+     *            number of nines
+     * @return the string of nines
+     */
+    private static String nines(int n) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            s.append('9');
+        }
+        return s.toString();
+    }
+
+    /**
+     * Returns the decimal representation of (10^(n) - 1)^2, i.e., n - 1
+     * nines, an eight, n - 1 zeros, and a one.
+     * 
+     * @param n
+     *            number of nines in the factor
+     * @return the square
+     */
+    private static String ninesSquared(int n) {
+        StringBuilder s = new StringBuilder(nines(n - 1));
+        s.append('8');
+        for (int i = 0; i < n - 1; i++) {
+            s.append('0');
+        }
+        s.append('1');
+        return s.toString();
+    }
+
+    /**
+     * Multiplies the numbers represented by {@code a} and {@code b} with
+     * {@code engine} and returns the product's representation.
+     * 
+     * @param engine
+     *            the engine to use
+     * @param a
+     *            the first factor
+     * @param b
+     *            the second factor
+     * @return the product
+     */
+    private static String product(LimbMultiplier engine, String a, String b) {
+        int[] x = NaturalNumber4.parseLimbs(a);
+        int[] y = NaturalNumber4.parseLimbs(b);
+        int[] p = engine.multiply(x, x.length, y, y.length);
+        return NaturalNumber4.formatLimbs(p, p.length);
+    }
+
+    /**
+     * Test for schoolbook only.
+     */
+    @Test
+    public final void testSchoolbook() {
+        LimbMultiplier engine = new LimbMultiplier(Integer.MAX_VALUE,
+                Integer.MAX_VALUE);
+        assertEquals(ninesSquared(500),
+                product(engine, nines(500), nines(500)));
+    }
+
+    /**
+     * Test for Karatsuba all the way down.
+     */
+    @Test
+    public final void testKaratsuba() {
+        LimbMultiplier engine = new LimbMultiplier(2, Integer.MAX_VALUE);
+        assertEquals(ninesSquared(500),
+                product(engine, nines(500), nines(500)));
+    }
+
+    /**
+     * Test for Toom-3 all the way down.
+     */
+    @Test
+    public final void testToom3() {
+        LimbMultiplier engine = new LimbMultiplier(2, 3);
+        assertEquals(ninesSquared(500),
+                product(engine, nines(500), nines(500)));
+    }
+
+    /**
+     * Test for Toom-3 with operands of different lengths.
+     */
+    @Test
+    public final void testToom3Unbalanced() {
+        LimbMultiplier schoolbook = new LimbMultiplier(Integer.MAX_VALUE,
+                Integer.MAX_VALUE);
+        LimbMultiplier engine = new LimbMultiplier(2, 3);
+        String a = nines(700) + "123456789";
+        String b = "31415926535897932384626433832795028841971" + nines(120);
+        assertEquals(product(schoolbook, a, b), product(engine, a, b));
+    }
+
+    /**
+     * Test for a very short operand against a very long one.
+     */
+    @Test
+    public final void testMuchShorterOperand() {
+        LimbMultiplier schoolbook = new LimbMultiplier(Integer.MAX_VALUE,
+                Integer.MAX_VALUE);
+        LimbMultiplier engine = new LimbMultiplier(2, 3);
+        String a = nines(2000);
+        String b = "1234567890123456789";
+        assertEquals(product(schoolbook, a, b), product(engine, a, b));
+    }
+
+    /**
+     * Test for multiplying by zero.
+     */
+    @Test
+    public final void testZero() {
+        LimbMultiplier engine = new LimbMultiplier(2, 3);
+        assertEquals("0", product(engine, nines(100), "0"));
+    }
+
+    /**
+     * Test for the {@code NaturalNumber} entry point.
+     */
+    @Test
+    public final void testNaturalNumberEntryPoint() {
+        NaturalNumber x = new NaturalNumber4(nines(300));
+        NaturalNumber y = new NaturalNumber4(nines(300));
+        new LimbMultiplier(2, 3).multiply(x, y);
+        assertEquals(ninesSquared(300), x.toString());
+        assertEquals(nines(300), y.toString());
+    }
+
+}
@@ -0,0 +1,426 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber4}, including the
+ * secondary methods it overrides with limb-level loops.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class NaturalNumber4Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructor() {
+        return new NaturalNumber4();
+    }
+
+    @Override
+    protected final NaturalNumber constructor(int i) {
+        return new NaturalNumber4(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructor(String s) {
+        return new NaturalNumber4(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructor(NaturalNumber n) {
+        return new NaturalNumber4(n);
+    }
+
+    /**
+     * Test for multiplyBy10 carrying into a new limb.
+     */
+    @Test
+    public final void testMultiplyBy10AcrossLimb() {
+        NaturalNumber s = this.constructor("999999999");
+        s.multiplyBy10(9);
+        assertEquals("9999999999", s.toString());
+    }
+
+    /**
+     * Test for divideBy10 dropping a limb.
+     */
+    @Test
+    public final void testDivideBy10AcrossLimb() {
+        NaturalNumber s = this.constructor("1000000000");
+        int remainder = s.divideBy10();
+        assertEquals("100000000", s.toString());
+        assertEquals(0, remainder);
+    }
+
+    /**
+     * Test for toString with zero-padded inner limbs.
+     */
+    @Test
+    public final void testToStringPadsInnerLimbs() {
+        NaturalNumber s = this.constructor("1000000000000000007");
+        assertEquals("1000000000000000007", s.toString());
+    }
+
+    /**
+     * Test for compareTo on numbers of different limb counts.
+     */
+    @Test
+    public final void testCompareToDifferentLengths() {
+        NaturalNumber s = this.constructor("123456789012");
+        NaturalNumber r = this.constructor("999999999");
+        assertTrue(s.compareTo(r) > 0);
+        assertTrue(r.compareTo(s) < 0);
+    }
+
+    /**
+     * Test for compareTo on equal multi-limb numbers.
+     */
+    @Test
+    public final void testCompareToEqual() {
+        NaturalNumber s = this.constructor("123456789012345678901");
+        NaturalNumber r = this.constructor("123456789012345678901");
+        assertEquals(0, s.compareTo(r));
+    }
+
+    /**
+     * Test for add with a carry out of every limb.
+     */
+    @Test
+    public final void testAddCarryChain() {
+        NaturalNumber s = this.constructor("999999999999999999");
+        NaturalNumber r = this.constructor(1);
+        s.add(r);
+        assertEquals("1000000000000000000", s.toString());
+        assertEquals("1", r.toString());
+    }
+
+    /**
+     * Test for add to zero.
+     */
+    @Test
+    public final void testAddToZero() {
+        NaturalNumber s = this.constructor();
+        NaturalNumber r = this.constructor("4000000000");
+        s.add(r);
+        assertEquals("4000000000", s.toString());
+    }
+
+    /**
+     * Test for subtract with a borrow through every limb.
+     */
+    @Test
+    public final void testSubtractBorrowChain() {
+        NaturalNumber s = this.constructor("1000000000000000000");
+        NaturalNumber r = this.constructor(1);
+        s.subtract(r);
+        assertEquals("999999999999999999", s.toString());
+    }
+
+    /**
+     * Test for subtract leaving zero.
+     */
+    @Test
+    public final void testSubtractToZero() {
+        NaturalNumber s = this.constructor("31415926535897932384");
+        NaturalNumber r = this.constructor("31415926535897932384");
+        s.subtract(r);
+        assertTrue(s.isZero());
+    }
+
+    /**
+     * Test for multiply of multi-limb numbers.
+     */
+    @Test
+    public final void testMultiplyMultiLimb() {
+        NaturalNumber s = this.constructor("123456789123456789");
+        NaturalNumber r = this.constructor("987654321987654321");
+        s.multiply(r);
+        assertEquals("121932631356500531347203169112635269", s.toString());
+        assertEquals("987654321987654321", r.toString());
+    }
+
+    /**
+     * Test for multiply by zero.
+     */
+    @Test
+    public final void testMultiplyByZero() {
+        NaturalNumber s = this.constructor("123456789123456789");
+        NaturalNumber r = this.constructor();
+        s.multiply(r);
+        assertTrue(s.isZero());
+    }
+
+    /**
+     * Test for divide by a single-limb divisor.
+     */
+    @Test
+    public final void testDivideSingleLimb() {
+        NaturalNumber s = this.constructor("1000000000000000000");
+        NaturalNumber r = this.constructor(7);
+        NaturalNumber remainder = s.divide(r);
+        assertEquals("142857142857142857", s.toString());
+        assertEquals("1", remainder.toString());
+    }
+
+    /**
+     * Test for divide by a multi-limb divisor.
+     */
+    @Test
+    public final void testDivideMultiLimb() {
+        NaturalNumber s = this
+                .constructor("121932631356500531347203169112635270");
+        NaturalNumber r = this.constructor("987654321987654321");
+        NaturalNumber remainder = s.divide(r);
+        assertEquals("123456789123456789", s.toString());
+        assertEquals("1", remainder.toString());
+        assertEquals("987654321987654321", r.toString());
+    }
+
+    /**
+     * Test for divide by a larger divisor.
+     */
+    @Test
+    public final void testDivideByLarger() {
+        NaturalNumber s = this.constructor(42);
+        NaturalNumber r = this.constructor("10000000000");
+        NaturalNumber remainder = s.divide(r);
+        assertTrue(s.isZero());
+        assertEquals("42", remainder.toString());
+    }
+
+    /**
+     * Test for divide by a divisor long enough for Burnikel-Ziegler.
+     */
+    @Test
+    public final void testDivideLongDivisor() {
+        StringBuilder nines = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            nines.append('9');
+        }
+        NaturalNumber s = this.constructor(nines.toString());
+        NaturalNumber r = this.constructor(nines.toString());
+        s.multiply(r);
+        s.increment();
+        NaturalNumber remainder = s.divide(r);
+        assertEquals(nines.toString(), s.toString());
+        assertEquals("1", remainder.toString());
+    }
+
+    /**
+     * Test for divideBy with a divisor larger than one limb.
+     */
+    @Test
+    public final void testDivideBy() {
+        NaturalNumber4 s = new NaturalNumber4("1000000000000000000000");
+        int remainder = s.divideBy(Integer.MAX_VALUE);
+        assertEquals("465661287524", s.toString());
+        assertEquals(1244879972, remainder);
+    }
+
+    /**
+     * Test for divideBy leaving zero.
+     */
+    @Test
+    public final void testDivideByToZero() {
+        NaturalNumber4 s = new NaturalNumber4(6);
+        int remainder = s.divideBy(7);
+        assertTrue(s.isZero());
+        assertEquals(6, remainder);
+    }
+
+    /**
+     * Test for multiplyAdd with multi-limb factors.
+     */
+    @Test
+    public final void testMultiplyAdd() {
+        NaturalNumber4 s = new NaturalNumber4(5);
+        NaturalNumber x = this.constructor("123456789012345678901234567890");
+        NaturalNumber y = this.constructor("987654321098765432109876543210");
+        s.multiplyAdd(x, y, new LimbWorkspace());
+        assertEquals("121932631137021795226185032733622923332237463801111"
+                + "263526905", s.toString());
+        assertEquals("123456789012345678901234567890", x.toString());
+        assertEquals("987654321098765432109876543210", y.toString());
+    }
+
+    /**
+     * Test for squareInPlace.
+     */
+    @Test
+    public final void testSquareInPlace() {
+        NaturalNumber4 s = new NaturalNumber4("99999999999999999999");
+        s.squareInPlace(new LimbWorkspace());
+        assertEquals("9999999999999999999800000000000000000001",
+                s.toString());
+    }
+
+    /**
+     * Test for squareInPlace on a number long enough for Karatsuba.
+     */
+    @Test
+    public final void testSquareInPlaceLong() {
+        StringBuilder nines = new StringBuilder();
+        StringBuilder square = new StringBuilder();
+        for (int i = 0; i < 999; i++) {
+            nines.append('9');
+            square.append('9');
+        }
+        nines.append('9');
+        square.append('8');
+        for (int i = 0; i < 999; i++) {
+            square.append('0');
+        }
+        square.append('1');
+        NaturalNumber4 s = new NaturalNumber4(nines.toString());
+        s.squareInPlace(new LimbWorkspace());
+        assertEquals(square.toString(), s.toString());
+    }
+
+    /**
+     * Test for modInPlace with a single-limb modulus.
+     */
+    @Test
+    public final void testModInPlaceOneLimb() {
+        NaturalNumber4 s = new NaturalNumber4(
+                "123456789012345678901234567890");
+        NaturalNumber m = this.constructor(1000000007);
+        s.modInPlace(m, new LimbWorkspace());
+        assertEquals("197434842", s.toString());
+        assertEquals("1000000007", m.toString());
+    }
+
+    /**
+     * Test for modInPlace with a multi-limb modulus.
+     */
+    @Test
+    public final void testModInPlaceMultiLimb() {
+        NaturalNumber4 s = new NaturalNumber4(
+                "123456789012345678901234567890");
+        NaturalNumber m = this.constructor("98765432109876543211");
+        s.modInPlace(m, new LimbWorkspace());
+        assertEquals("60185185206003086422", s.toString());
+    }
+
+    /**
+     * Test for modInPlace with a modulus larger than this.
+     */
+    @Test
+    public final void testModInPlaceSmaller() {
+        NaturalNumber4 s = new NaturalNumber4(42);
+        NaturalNumber m = this.constructor("98765432109876543211");
+        s.modInPlace(m, new LimbWorkspace());
+        assertEquals("42", s.toString());
+    }
+
+    /**
+     * Test for fusedMultiplyMod as the step of modular exponentiation.
+     */
+    @Test
+    public final void testFusedMultiplyModPower() {
+        NaturalNumber m = this.constructor("1000000000000000000000000000057");
+        NaturalNumber4 two = new NaturalNumber4(2);
+        NaturalNumber4 s = new NaturalNumber4(1);
+        LimbWorkspace workspace = new LimbWorkspace();
+        for (int i = 0; i < 1000; i++) {
+            s.fusedMultiplyMod(two, m, workspace);
+        }
+        assertEquals("141502251827270929530186206576", s.toString());
+    }
+
+    /**
+     * Test for squareInPlace and fusedMultiplyMod by Fermat's little theorem
+     * on the Mersenne prime 2^127 - 1.
+     */
+    @Test
+    public final void testFusedMultiplyModFermat() {
+        NaturalNumber4 m = new NaturalNumber4(
+                "170141183460469231731687303715884105727");
+        NaturalNumber4 e = new NaturalNumber4(m);
+        e.decrement();
+        NaturalNumber4 p = new NaturalNumber4(3);
+        NaturalNumber4 s = new NaturalNumber4(1);
+        LimbWorkspace workspace = new LimbWorkspace();
+        while (!e.isZero()) {
+            if (e.divideBy(2) == 1) {
+                s.fusedMultiplyMod(p, m, workspace);
+            }
+            p.squareInPlace(workspace);
+            p.modInPlace(m, workspace);
+        }
+        assertEquals("1", s.toString());
+    }
+
+    /**
+     * Test for toString kept up to date by multiplyBy10 after rendering.
+     */
+    @Test
+    public final void testToStringAfterMultiplyBy10() {
+        NaturalNumber s = this.constructor();
+        assertEquals("0", s.toString());
+        s.multiplyBy10(0);
+        assertEquals("0", s.toString());
+        StringBuilder expected = new StringBuilder();
+        for (int i = 1; i <= 30; i++) {
+            s.multiplyBy10(i % 10);
+            expected.append(i % 10);
+            assertEquals(expected.toString(), s.toString());
+        }
+    }
+
+    /**
+     * Test for toString kept up to date by divideBy10 after rendering.
+     */
+    @Test
+    public final void testToStringAfterDivideBy10() {
+        NaturalNumber s = this.constructor("1234567890123");
+        assertEquals("1234567890123", s.toString());
+        assertEquals(3, s.divideBy10());
+        assertEquals("123456789012", s.toString());
+        for (int i = 0; i < 11; i++) {
+            s.divideBy10();
+        }
+        assertEquals("1", s.toString());
+        assertEquals(1, s.divideBy10());
+        assertEquals("0", s.toString());
+        s.multiplyBy10(7);
+        assertEquals("7", s.toString());
+    }
+
+    /**
+     * Test for toString after other changes to a rendered number.
+     */
+    @Test
+    public final void testToStringAfterArithmetic() {
+        NaturalNumber s = this.constructor("999999999");
+        NaturalNumber n = this.constructor(1);
+        assertEquals("999999999", s.toString());
+        s.increment();
+        assertEquals("1000000000", s.toString());
+        s.multiplyBy10(5);
+        s.subtract(n);
+        assertEquals("10000000004", s.toString());
+        s.multiply(s.newInstance());
+        assertEquals("0", s.toString());
+    }
+
+    /**
+     * Test for toString of transferFrom and copyFrom sources and targets.
+     */
+    @Test
+    public final void testToStringAfterTransferAndCopy() {
+        NaturalNumber s = this.constructor("123456789123456789");
+        NaturalNumber t = this.constructor();
+        NaturalNumber u = this.constructor(5);
+        assertEquals("123456789123456789", s.toString());
+        t.transferFrom(s);
+        assertEquals("0", s.toString());
+        u.copyFrom(t);
+        t.multiplyBy10(1);
+        assertEquals("1234567891234567891", t.toString());
+        assertEquals("123456789123456789", u.toString());
+    }
+
+}
@@ -18,6 +18,23 @@ public final class NaturalNumberRoot {
     private NaturalNumberRoot() {
     }
 
+    /**
+     * Number of leading digits of {@code n} read into a {@code double} to seed
+     * Newton's method.
+     */
+    private static final int LEADING_DIGITS = 17;
+
+    /**
+     * Number of significant digits kept in the seed.
+     */
+    private static final int SEED_DIGITS = 15;
+
+    /**
+     * Allowance for rounding error when deciding from a logarithm that a root
+     * is 1.
+     */
+    private static final double LOG_TOLERANCE = 1e-9;
+
     // Method to compute n to the p power
     /**
      * Returns {@code n} to the power {@code p}.
@@ -41,24 +58,27 @@ public final class NaturalNumberRoot {
     }
 
     /**
-     * Updates {@code n} to the {@code r}-th root of its incoming value.
+     * Updates {@code n} to the {@code r}-th root of its incoming value, by
+     * interval halving on {@code double}. Kept for comparison with
+     * {@code root}; only works while {@code n} fits in an {@code int}.
      * 
      * @param n
      *            the number whose root to compute
      * @param r
      *            root
-     * @return
      * @updates {@code n}
      * @requires <pre>
-     * {@code r >= 2}
+     * {@code r >= 2  and  n <= Integer.MAX_VALUE}
      * </pre>
      * @ensures <pre>
      * {@code n ^ (r) <= #n < (n + 1) ^ (r)}
      * </pre>
      */
-    public static void root(NaturalNumber n, int r) {
+    static void rootByIntervalHalving(NaturalNumber n, int r) {
         assert n != null : "Violation of: n is  not null";
         assert r >= 2 : "Violation of: r >= 2";
+        assert n.canConvertToInt() : ""
+                + "Violation of: n <= Integer.MAX_VALUE";
 
         // Set the lower limit and higher limit of the possible guesses the r'th
         // root of n can be
@@ -96,6 +116,226 @@ public final class NaturalNumberRoot {
         n.copyFrom(k);
     }
 
+    /**
+     * Reports whether {@code x ^ (r) > value}.
+     * 
+     * @param x
+     *            the base
+     * @param r
+     *            the power
+     * @param value
+     *            the bound
+     * @return true iff x ^ (r) > value
+     * @requires <pre>
+     * {@code 0 <= x <= Integer.MAX_VALUE  and  r >= 1  and  value >= 0}
+     * </pre>
+     */
+    private static boolean exceeds(long x, int r, int value) {
+        long power = 1;
+        for (int i = 0; i < r; i++) {
+            power *= x;
+            if (power > value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the base-10 logarithm of {@code n}, from its number of digits and
+     * its leading digits.
+     * 
+     * @param n
+     *            the number
+     * @return approximately log10(n)
+     * @requires <pre>
+     * {@code n > 0}
+     * </pre>
+     */
+    private static double log10(NaturalNumber n) {
+        String digits = n.toString();
+        int leading = Math.min(digits.length(), LEADING_DIGITS);
+        return Math.log10(Double.parseDouble(digits.substring(0, leading)))
+                + (digits.length() - leading);
+    }
+
+    /**
+     * Returns a first guess at the {@code r}-th root of {@code n}, good to
+     * about {@code SEED_DIGITS} significant digits.
+     * 
+     * @param n
+     *            the number whose root to guess
+     * @param rootLog
+     *            approximately log10(n) / r
+     * @return the guess
+     * @requires <pre>
+     * {@code rootLog >= 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code seed > 0}
+     * </pre>
+     */
+    private static NaturalNumber seed(NaturalNumber n, double rootLog) {
+        NaturalNumber guess = n.newInstance();
+        if (rootLog < SEED_DIGITS) {
+            guess.setFromString(Long.toString((long) Math.ceil(Math.pow(10,
+                    rootLog))));
+        } else {
+            /*
+             * SEED_DIGITS significant digits followed by zeros
+             */
+            int zeros = (int) rootLog - (SEED_DIGITS - 1);
+            StringBuilder s = new StringBuilder(Long.toString((long) Math.pow(
+                    10, rootLog - zeros)));
+            for (int i = 0; i < zeros; i++) {
+                s.append('0');
+            }
+            guess.setFromString(s.toString());
+        }
+        if (guess.isZero()) {
+            guess.increment();
+        }
+        return guess;
+    }
+
+    /**
+     * Returns the Newton step from {@code x} toward the {@code r}-th root of
+     * {@code n}.
+     * 
+     * @param n
+     *            the number whose root to compute
+     * @param r
+     *            root
+     * @param x
+     *            the current guess
+     * @return the next guess
+     * @requires <pre>
+     * {@code r >= 2  and  x > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code newtonStep = ((r - 1) * x + n / x ^ (r - 1)) / r}
+     * </pre>
+     */
+    private static NaturalNumber newtonStep(NaturalNumber n, int r,
+            NaturalNumber x) {
+        NaturalNumber divisor = n.newInstance();
+        divisor.copyFrom(x);
+        divisor.power(r - 1);
+        NaturalNumber next = n.newInstance();
+        next.copyFrom(n);
+        next.divide(divisor);
+        NaturalNumber weighted = n.newInstance();
+        weighted.setFromInt(r - 1);
+        weighted.multiply(x);
+        next.add(weighted);
+        NaturalNumber rootIndex = n.newInstance();
+        rootIndex.setFromInt(r);
+        next.divide(rootIndex);
+        return next;
+    }
+
+    /**
+     * Updates {@code n} to the {@code r}-th root of its incoming value, by
+     * Newton's method on {@code NaturalNumber}s of any size.
+     * 
+     * @param n
+     *            the number whose root to compute
+     * @param r
+     *            root
+     * @updates {@code n}
+     * @requires <pre>
+     * {@code r >= 2}
+     * </pre>
+     * @ensures <pre>
+     * {@code n ^ (r) <= #n < (n + 1) ^ (r)}
+     * </pre>
+     */
+    public static void root(NaturalNumber n, int r) {
+        assert n != null : "Violation of: n is  not null";
+        assert r >= 2 : "Violation of: r >= 2";
+
+        // 0 and 1 are their own roots
+        NaturalNumber one = n.newInstance();
+        one.increment();
+        if (n.compareTo(one) <= 0) {
+            return;
+        }
+
+        // Numbers that fit in an int are done in machine arithmetic: the
+        // double estimate is off by at most one either way
+        if (n.canConvertToInt()) {
+            int value = n.toInt();
+            long x = (long) Math.pow(value, 1.0 / r);
+            while (!exceeds(x + 1, r, value)) {
+                x++;
+            }
+            while (exceeds(x, r, value)) {
+                x--;
+            }
+            n.setFromInt((int) x);
+            return;
+        }
+
+        // The root is 1 whenever n < 2^r; settling that from the logarithm
+        // keeps x^(r-1) from being computed for huge r
+        double rootLog = log10(n) / r;
+        if (rootLog < Math.log10(2) * (1 - LOG_TOLERANCE)) {
+            n.transferFrom(one);
+            return;
+        }
+
+        // By the AM-GM inequality one Newton step from any positive guess
+        // lands at or above the root; from there every step goes down until
+        // the first one that does not, and the guess before it is the root.
+        // Each step roughly doubles the number of correct digits
+        NaturalNumber x = newtonStep(n, r, seed(n, rootLog));
+        NaturalNumber next = newtonStep(n, r, x);
+        while (next.compareTo(x) < 0) {
+            x = next;
+            next = newtonStep(n, r, x);
+        }
+        n.transferFrom(x);
+    }
+
+    /**
+     * Returns a string of {@code k} copies of {@code c}.
+     * 
+     * @param c
+     *            the character
+     * @param k
+     *            the number of copies
+     * @return the string
+     */
+    private static String repeat(char c, int k) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < k; i++) {
+            s.append(c);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Returns a string of {@code k} zeros.
+     * 
+     * @param k
+     *            the number of zeros
+     * @return the string
+     */
+    private static String zeros(int k) {
+        return repeat('0', k);
+    }
+
+    /**
+     * Returns a string of {@code k} nines.
+     * 
+     * @param k
+     *            the number of nines
+     * @return the string
+     */
+    private static String nines(int k) {
+        return repeat('9', k);
+    }
+
     /**
      * Main method.
      * 
@@ -127,6 +367,37 @@ public final class NaturalNumberRoot {
             }
         }
 
+        /*
+         * Numbers beyond int range, which root(n, r) now handles
+         */
+        final String[] bigNumbers = {
+                "1" + zeros(100),
+                nines(100),
+                "170141183460469231731687303715884105727",
+                "18446744073709551616",
+                "18446744073709551615",
+                "2147483648",
+                "12345678901234567890123456789" };
+        final int[] bigRoots = { 2, 2, 3, 64, 64, 2, 5 };
+        final String[] bigResults = { "1" + zeros(50), nines(50),
+                "5541191377756", "2", "1", "46340", "415243" };
+
+        for (int i = 0; i < bigNumbers.length; i++) {
+            NaturalNumber n = new NaturalNumber2(bigNumbers[i]);
+            NaturalNumber r = new NaturalNumber2(bigResults[i]);
+            root(n, bigRoots[i]);
+            if (n.equals(r)) {
+                out.println("Test " + (numbers.length + i + 1)
+                        + " passed: root(" + bigNumbers[i] + ", "
+                        + bigRoots[i] + ") = " + bigResults[i]);
+            } else {
+                out.println("*** Test " + (numbers.length + i + 1)
+                        + " failed: root(" + bigNumbers[i] + ", "
+                        + bigRoots[i] + ") expected <" + bigResults[i]
+                        + "> but was <" + n + ">");
+            }
+        }
+
         out.close();
     }
 
@@ -0,0 +1,144 @@
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times {@code NaturalNumberRoot.root} (Newton's method) against
+ * {@code NaturalNumberRoot.rootByIntervalHalving} on numbers of increasing
+ * size.
+ * 
+ * <p>
+ * Output is CSV: number of digits, root, and nanoseconds per call for each
+ * method, as the fastest of several batches. Interval halving only handles
+ * numbers that fit in an {@code int}, so its column is empty beyond that.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class RootTiming {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private RootTiming() {
+    }
+
+    /**
+     * Numbers of digits at which to time the methods.
+     */
+    private static final int[] DIGITS = { 3, 6, 9, 20, 50, 100, 200, 500 };
+
+    /**
+     * Roots at which to time the methods.
+     */
+    private static final int[] ROOTS = { 2, 3, 15 };
+
+    /**
+     * Number of timed batches per measurement; the fastest batch is reported.
+     */
+    private static final int BATCHES = 5;
+
+    /**
+     * Minimum duration of one timed batch, in nanoseconds.
+     */
+    private static final long MIN_BATCH_NANOS = 20000000L;
+
+    /**
+     * Largest number of digits interval halving can handle.
+     */
+    private static final int INT_DIGITS = 9;
+
+    /**
+     * Returns a number of {@code d} digits, 1234...9012... repeating.
+     * 
+     * @param d
+     *            number of digits
+     * @return the digits
+     * @requires <pre>
+     * {@code d > 0}
+     * </pre>
+     */
+    private static String number(int d) {
+        final int base = 10;
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < d; i++) {
+            s.append((i + 1) % base);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Reports the time one root of {@code value} takes, as the fastest of
+     * several batches.
+     * 
+     * @param newton
+     *            whether to time Newton's method rather than interval halving
+     * @param value
+     *            the number whose root to compute
+     * @param r
+     *            root
+     * @return nanoseconds per call
+     */
+    private static long time(boolean newton, String value, int r) {
+        NaturalNumber n = new NaturalNumber2();
+        /*
+         * Warm up and find a repetition count that fills one batch
+         */
+        int reps = 1;
+        long elapsed = 0;
+        while (elapsed < MIN_BATCH_NANOS) {
+            reps *= 2;
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) {
+                n.setFromString(value);
+                if (newton) {
+                    NaturalNumberRoot.root(n, r);
+                } else {
+                    NaturalNumberRoot.rootByIntervalHalving(n, r);
+                }
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        long best = Long.MAX_VALUE;
+        for (int batch = 0; batch < BATCHES; batch++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) {
+                n.setFromString(value);
+                if (newton) {
+                    NaturalNumberRoot.root(n, r);
+                } else {
+                    NaturalNumberRoot.rootByIntervalHalving(n, r);
+                }
+            }
+            best = Math.min(best, (System.nanoTime() - start) / reps);
+        }
+        return best;
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        out.println("digits,r,intervalHalving,newton");
+        for (int d : DIGITS) {
+            String value = number(d);
+            for (int r : ROOTS) {
+                String halving = "";
+                if (d <= INT_DIGITS) {
+                    halving = Long.toString(time(false, value, r));
+                }
+                long newton = time(true, value, r);
+                out.println(d + "," + r + "," + halving + "," + newton);
+            }
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,592 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Benchmark suite timing every {@code NaturalNumber} kernel and power strategy
+ * on {@code add}, {@code multiply}, {@code divide}, {@code power},
+ * {@code root}, and {@code toString}, over a range of operand sizes.
+ * 
+ * <p>
+ * Follows the methodology of JMH, which these Eclipse projects cannot depend
+ * on: every (kernel, operation, size) combination runs in {@code forks} fresh
+ * JVMs, each doing {@code warmup} untimed iterations before {@code iterations}
+ * timed ones of {@code time} milliseconds. An iteration reports the average
+ * nanoseconds per operation; operands are reset outside the timed region, and
+ * every result is consumed so the JIT cannot discard the work. Operations are
+ * timed in batches, each run on its own freshly reset operand, and the batch
+ * doubles until it takes long enough that the cost of reading the clock is
+ * negligible, as JMH does for operations of a few nanoseconds. Results are
+ * written to {@code <out>.csv} (one row per combination) and
+ * {@code <out>.json} (the same with raw per-iteration data), for trending
+ * across releases.
+ * 
+ * <p>
+ * Arguments are {@code key=value} pairs overriding the defaults: {@code
+ * kernels} (comma-separated class names), {@code ops}, {@code sizes} (in
+ * decimal digits), {@code forks}, {@code warmup}, {@code iterations},
+ * {@code time}, and {@code out}. Kernels that are not on the classpath, such as
+ * {@code NaturalNumber3} and {@code NaturalNumber4} when their projects are
+ * not added to the run configuration, are skipped with a message. With
+ * {@code forks=0} everything runs in this JVM, which is faster but lets the
+ * kernels' JIT profiles pollute each other.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class NaturalNumberBenchmark {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberBenchmark() {
+    }
+
+    /**
+     * Default kernels, by class name.
+     */
+    private static final String DEFAULT_KERNELS = ""
+            + "components.naturalnumber.NaturalNumber1L,"
+            + "components.naturalnumber.NaturalNumber2,"
+            + "NaturalNumber3,NaturalNumber4,NaturalNumber2SlowPower,"
+            + "NaturalNumber2FastPower,NaturalNumber1LFastPower";
+
+    /**
+     * Default operations.
+     */
+    private static final String DEFAULT_OPS = ""
+            + "add,multiply,divide,power,root,toString";
+
+    /**
+     * Default operand sizes, in decimal digits.
+     */
+    private static final String DEFAULT_SIZES = "10,100,1000";
+
+    /**
+     * Default number of forked JVMs per combination.
+     */
+    private static final int DEFAULT_FORKS = 2;
+
+    /**
+     * Default number of warmup iterations per fork.
+     */
+    private static final int DEFAULT_WARMUP = 5;
+
+    /**
+     * Default number of measurement iterations per fork.
+     */
+    private static final int DEFAULT_ITERATIONS = 5;
+
+    /**
+     * Default duration of one iteration, in milliseconds.
+     */
+    private static final int DEFAULT_TIME = 200;
+
+    /**
+     * Default prefix of the output files.
+     */
+    private static final String DEFAULT_OUT = "naturalnumber-benchmark";
+
+    /**
+     * Exponent used by the {@code power} benchmark.
+     */
+    private static final int POWER_EXPONENT = 4;
+
+    /**
+     * Root used by the {@code root} benchmark.
+     */
+    private static final int ROOT = 2;
+
+    /**
+     * Seed for the operand generator, so runs are comparable.
+     */
+    private static final long SEED = 2221L;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    /**
+     * Nanoseconds below which a timed batch is considered too short and
+     * doubled, so that reading the clock is a negligible part of it.
+     */
+    private static final long BATCH_NANOS = 100000L;
+
+    /**
+     * Largest number of operations in a timed batch.
+     */
+    private static final int MAX_BATCH = 1 << 12;
+
+    /**
+     * Argument marking a forked child JVM.
+     */
+    private static final String CHILD = "child";
+
+    /**
+     * Prefix of the lines on which a child reports one measurement.
+     */
+    private static final String RESULT_PREFIX = "ns/op=";
+
+    /**
+     * Sink for results, so the JIT cannot discard the benchmarked work.
+     */
+    private static int sink;
+
+    /**
+     * Settings of one run, from the command line.
+     */
+    private static final class Settings {
+
+        /**
+         * Kernel class names.
+         */
+        private String[] kernels = DEFAULT_KERNELS.split(",");
+
+        /**
+         * Operation names.
+         */
+        private String[] ops = DEFAULT_OPS.split(",");
+
+        /**
+         * Operand sizes, in decimal digits.
+         */
+        private String[] sizes = DEFAULT_SIZES.split(",");
+
+        /**
+         * Number of forked JVMs per combination.
+         */
+        private int forks = DEFAULT_FORKS;
+
+        /**
+         * Number of warmup iterations per fork.
+         */
+        private int warmup = DEFAULT_WARMUP;
+
+        /**
+         * Number of measurement iterations per fork.
+         */
+        private int iterations = DEFAULT_ITERATIONS;
+
+        /**
+         * Duration of one iteration, in milliseconds.
+         */
+        private int time = DEFAULT_TIME;
+
+        /**
+         * Prefix of the output files.
+         */
+        private String out = DEFAULT_OUT;
+
+    }
+
+    /**
+     * Returns a new instance of the kernel named {@code kernel}.
+     * 
+     * @param kernel
+     *            the class name
+     * @return a new zero of that kernel, or {@code null} if it cannot be
+     *         loaded
+     */
+    private static NaturalNumber newKernel(String kernel) {
+        try {
+            return (NaturalNumber) Class.forName(kernel).newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            return null;
+        }
+    }
+
+    /**
+     * Returns a random number of exactly {@code digits} decimal digits.
+     * 
+     * @param random
+     *            source of randomness
+     * @param digits
+     *            number of digits
+     * @return the decimal representation
+     * @requires <pre>
+     * {@code digits > 0}
+     * </pre>
+     */
+    private static String randomDigits(Random random, int digits) {
+        final int base = 10;
+        StringBuilder s = new StringBuilder();
+        s.append(1 + random.nextInt(base - 1));
+        for (int i = 1; i < digits; i++) {
+            s.append(random.nextInt(base));
+        }
+        return s.toString();
+    }
+
+    /**
+     * Runs {@code op} on {@code x} and {@code y}, consuming the result.
+     * 
+     * @param op
+     *            the operation name
+     * @param x
+     *            the receiver, updated by most operations
+     * @param y
+     *            the argument, if any
+     * @updates x
+     */
+    private static void runOp(String op, NaturalNumber x, NaturalNumber y) {
+        if (op.equals("add")) {
+            x.add(y);
+        } else if (op.equals("multiply")) {
+            x.multiply(y);
+        } else if (op.equals("divide")) {
+            sink += x.divide(y).isZero() ? 1 : 0;
+        } else if (op.equals("power")) {
+            x.power(POWER_EXPONENT);
+        } else if (op.equals("root")) {
+            x.root(ROOT);
+        } else if (op.equals("toString")) {
+            sink += x.toString().length();
+        } else {
+            throw new IllegalArgumentException("Unknown operation: " + op);
+        }
+    }
+
+    /**
+     * Runs the iterations of one fork, in this JVM.
+     * 
+     * @param kernel
+     *            the kernel class name
+     * @param op
+     *            the operation name
+     * @param size
+     *            the operand size, in decimal digits
+     * @param settings
+     *            warmup, iterations, and time
+     * @return the nanoseconds per operation of each measurement iteration, or
+     *         {@code null} if the kernel cannot be loaded
+     */
+    private static double[] runFork(String kernel, String op, int size,
+            Settings settings) {
+        NaturalNumber x = newKernel(kernel);
+        if (x == null) {
+            return null;
+        }
+        NaturalNumber original = x.newInstance();
+        NaturalNumber y = x.newInstance();
+        Random random = new Random(SEED);
+        original.setFromString(randomDigits(random, size));
+        /*
+         * The divisor is half as long as the dividend, so both the quotient
+         * and the divisor are non-trivial
+         */
+        int ySize = Math.max(1, op.equals("divide") ? size / 2 : size);
+        y.setFromString(randomDigits(random, ySize));
+
+        /*
+         * Each operation of a batch gets its own operand, since most
+         * operations change it; all are reset before the batch is timed
+         */
+        NaturalNumber[] batch = { x };
+        double[] results = new double[settings.iterations];
+        long budget = settings.time * NANOS_PER_MILLI;
+        for (int i = -settings.warmup; i < settings.iterations; i++) {
+            long timed = 0;
+            long count = 0;
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < budget || count == 0) {
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j].copyFrom(original);
+                }
+                long t = System.nanoTime();
+                for (int j = 0; j < batch.length; j++) {
+                    runOp(op, batch[j], y);
+                }
+                long elapsed = System.nanoTime() - t;
+                timed += elapsed;
+                count += batch.length;
+                if (elapsed < BATCH_NANOS && batch.length < MAX_BATCH) {
+                    int n = 2 * batch.length;
+                    NaturalNumber[] larger = new NaturalNumber[n];
+                    System.arraycopy(batch, 0, larger, 0, batch.length);
+                    for (int j = batch.length; j < larger.length; j++) {
+                        larger[j] = x.newInstance();
+                    }
+                    batch = larger;
+                }
+            }
+            if (i >= 0) {
+                results[i] = (double) timed / count;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs one fork in a fresh JVM with the same classpath.
+     * 
+     * @param kernel
+     *            the kernel class name
+     * @param op
+     *            the operation name
+     * @param size
+     *            the operand size, in decimal digits
+     * @param settings
+     *            warmup, iterations, and time
+     * @return the nanoseconds per operation of each measurement iteration, or
+     *         {@code null} if the fork failed
+     */
+    private static double[] runForked(String kernel, String op, int size,
+            Settings settings) {
+        String java = System.getProperty("java.home") + File.separator
+                + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp",
+                System.getProperty("java.class.path"),
+                NaturalNumberBenchmark.class.getName(), CHILD, kernel, op,
+                Integer.toString(size), Integer.toString(settings.warmup),
+                Integer.toString(settings.iterations),
+                Integer.toString(settings.time));
+        builder.redirectErrorStream(true);
+        List<Double> results = new ArrayList<Double>();
+        try {
+            Process process = builder.start();
+            BufferedReader output = new BufferedReader(new InputStreamReader(
+                    process.getInputStream()));
+            String line = output.readLine();
+            while (line != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    results.add(Double.valueOf(line.substring(RESULT_PREFIX
+                            .length())));
+                }
+                line = output.readLine();
+            }
+            output.close();
+            if (process.waitFor() != 0) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (results.size() != settings.iterations) {
+            return null;
+        }
+        double[] a = new double[results.size()];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = results.get(i);
+        }
+        return a;
+    }
+
+    /**
+     * Returns {@code x} with one decimal place and a decimal point whatever
+     * the default locale, as CSV and JSON need.
+     * 
+     * @param x
+     *            the number
+     * @return the formatted number
+     */
+    private static String decimal(double x) {
+        return String.format(Locale.ROOT, "%.1f", x);
+    }
+
+    /**
+     * Returns {@code samples} as a JSON array.
+     * 
+     * @param samples
+     *            the numbers
+     * @return the JSON text
+     */
+    private static String jsonArray(double[] samples) {
+        StringBuilder s = new StringBuilder("[");
+        for (int i = 0; i < samples.length; i++) {
+            if (i > 0) {
+                s.append(", ");
+            }
+            s.append(decimal(samples[i]));
+        }
+        s.append("]");
+        return s.toString();
+    }
+
+    /**
+     * Parses the {@code key=value} arguments into settings.
+     * 
+     * @param args
+     *            the command line arguments
+     * @return the settings
+     */
+    private static Settings parse(String[] args) {
+        Settings settings = new Settings();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value: "
+                        + arg);
+            }
+            String key = arg.substring(0, equals);
+            String value = arg.substring(equals + 1);
+            if (key.equals("kernels")) {
+                settings.kernels = value.split(",");
+            } else if (key.equals("ops")) {
+                settings.ops = value.split(",");
+            } else if (key.equals("sizes")) {
+                settings.sizes = value.split(",");
+            } else if (key.equals("forks")) {
+                settings.forks = Integer.parseInt(value);
+            } else if (key.equals("warmup")) {
+                settings.warmup = Integer.parseInt(value);
+            } else if (key.equals("iterations")) {
+                settings.iterations = Integer.parseInt(value);
+            } else if (key.equals("time")) {
+                settings.time = Integer.parseInt(value);
+            } else if (key.equals("out")) {
+                settings.out = value;
+            } else {
+                throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(CHILD)) {
+            /*
+             * Forked child: run one fork and report each measurement
+             */
+            Settings settings = new Settings();
+            settings.warmup = Integer.parseInt(args[4]);
+            settings.iterations = Integer.parseInt(args[5]);
+            settings.time = Integer.parseInt(args[6]);
+            double[] results = runFork(args[1], args[2],
+                    Integer.parseInt(args[3]), settings);
+            SimpleWriter out = new SimpleWriter1L();
+            for (int i = 0; results != null && i < results.length; i++) {
+                out.println(RESULT_PREFIX + results[i]);
+            }
+            out.close();
+            return;
+        }
+
+        Settings settings = parse(args);
+        SimpleWriter console = new SimpleWriter1L();
+        SimpleWriter csv = new SimpleWriter1L(settings.out + ".csv");
+        SimpleWriter json = new SimpleWriter1L(settings.out + ".json");
+        csv.println("kernel,op,digits,forks,samples,mean,stddev,min,max,unit");
+        json.println("[");
+        boolean first = true;
+        for (String kernel : settings.kernels) {
+            if (newKernel(kernel) == null) {
+                console.println("Skipping " + kernel
+                        + ": not on the classpath");
+                continue;
+            }
+            for (String op : settings.ops) {
+                for (String sizeText : settings.sizes) {
+                    int size = Integer.parseInt(sizeText.trim());
+                    List<double[]> forks = new ArrayList<double[]>();
+                    int runs = Math.max(1, settings.forks);
+                    for (int f = 0; f < runs; f++) {
+                        double[] results;
+                        if (settings.forks == 0) {
+                            results = runFork(kernel, op, size, settings);
+                        } else {
+                            results = runForked(kernel, op, size, settings);
+                        }
+                        if (results != null) {
+                            forks.add(results);
+                        }
+                    }
+                    if (forks.isEmpty()) {
+                        console.println("Failed: " + kernel + " " + op + " "
+                                + size);
+                        continue;
+                    }
+                    /*
+                     * Statistics over every measurement of every fork
+                     */
+                    int samples = 0;
+                    double sum = 0;
+                    double min = Double.MAX_VALUE;
+                    double max = 0;
+                    for (double[] fork : forks) {
+                        for (double t : fork) {
+                            samples++;
+                            sum += t;
+                            min = Math.min(min, t);
+                            max = Math.max(max, t);
+                        }
+                    }
+                    double mean = sum / samples;
+                    double squares = 0;
+                    for (double[] fork : forks) {
+                        for (double t : fork) {
+                            squares += (t - mean) * (t - mean);
+                        }
+                    }
+                    double stddev = 0;
+                    if (samples > 1) {
+                        stddev = Math.sqrt(squares / (samples - 1));
+                    }
+
+                    String row = kernel + "," + op + "," + size + ","
+                            + forks.size() + "," + samples + ","
+                            + decimal(mean) + "," + decimal(stddev) + ","
+                            + decimal(min) + "," + decimal(max) + ",ns/op";
+                    console.println(row);
+                    csv.println(row);
+                    if (!first) {
+                        json.println(",");
+                    }
+                    first = false;
+                    json.println("  {");
+                    json.println("    \"kernel\": \"" + kernel + "\",");
+                    json.println("    \"op\": \"" + op + "\",");
+                    json.println("    \"digits\": " + size + ",");
+                    json.println("    \"mode\": \"avgt\",");
+                    json.println("    \"unit\": \"ns/op\",");
+                    json.println("    \"forks\": " + forks.size() + ",");
+                    json.println("    \"warmupIterations\": "
+                            + settings.warmup + ",");
+                    json.println("    \"iterationMillis\": " + settings.time
+                            + ",");
+                    json.println("    \"mean\": " + decimal(mean) + ",");
+                    json.println("    \"stddev\": " + decimal(stddev) + ",");
+                    json.println("    \"min\": " + decimal(min) + ",");
+                    json.println("    \"max\": " + decimal(max) + ",");
+                    json.println("    \"rawData\": [");
+                    for (int f = 0; f < forks.size(); f++) {
+                        json.print("      " + jsonArray(forks.get(f)));
+                        if (f < forks.size() - 1) {
+                            json.println(",");
+                        } else {
+                            json.println();
+                        }
+                    }
+                    json.println("    ]");
+                    json.print("  }");
+                }
+            }
+        }
+        json.println();
+        json.println("]");
+        console.println("Results written to " + settings.out + ".csv and "
+                + settings.out + ".json");
+        json.close();
+        csv.close();
+        console.close();
+    }
+
+}
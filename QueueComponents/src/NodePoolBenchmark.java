@@ -0,0 +1,282 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import components.queue.Queue;
+import components.queue.Queue2;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Allocation benchmark for {@code Queue2} with and without a node pool.
+ * 
+ * <p>
+ * Each trial fills a queue with {@code backlog} entries and then does
+ * {@code pairs} enqueue/dequeue pairs, each re-enqueueing the entry just
+ * dequeued, so that the only allocation left is that of the nodes. It is run
+ * on a {@code Queue2} without a pool and on one with a pool of
+ * {@code pool} nodes, first for {@code warmup} untimed trials and then for
+ * {@code trials} timed ones, and for each timed trial the bytes allocated by
+ * the benchmark thread (where the JVM can report them, and -1 otherwise), the
+ * allocation rate, the bytes per pair, and the collections and time the
+ * garbage collectors report over the trial are printed.
+ * 
+ * <p>
+ * Arguments are {@code key=value} pairs overriding the defaults:
+ * {@code pairs}, {@code backlog}, {@code pool}, {@code warmup}, and
+ * {@code trials}. Run it with a fixed heap (e.g. {@code -Xms256m -Xmx256m})
+ * so the two kinds of queue see the same collector.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class NodePoolBenchmark {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NodePoolBenchmark() {
+    }
+
+    /**
+     * Default number of enqueue/dequeue pairs per trial.
+     */
+    private static final int DEFAULT_PAIRS = 10000000;
+
+    /**
+     * Default number of entries in the queue during a trial.
+     */
+    private static final int DEFAULT_BACKLOG = 1000;
+
+    /**
+     * Default pool capacity of the pooled queue.
+     */
+    private static final int DEFAULT_POOL = 1024;
+
+    /**
+     * Default number of untimed trials.
+     */
+    private static final int DEFAULT_WARMUP = 2;
+
+    /**
+     * Default number of timed trials.
+     */
+    private static final int DEFAULT_TRIALS = 3;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Bytes in a megabyte.
+     */
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    /**
+     * Settings of a run.
+     */
+    private static final class Settings {
+
+        /**
+         * Enqueue/dequeue pairs per trial.
+         */
+        private int pairs = DEFAULT_PAIRS;
+
+        /**
+         * Entries in the queue during a trial.
+         */
+        private int backlog = DEFAULT_BACKLOG;
+
+        /**
+         * Pool capacity of the pooled queue.
+         */
+        private int pool = DEFAULT_POOL;
+
+        /**
+         * Untimed trials.
+         */
+        private int warmup = DEFAULT_WARMUP;
+
+        /**
+         * Timed trials.
+         */
+        private int trials = DEFAULT_TRIALS;
+
+    }
+
+    /**
+     * Measurements of one trial.
+     */
+    private static final class Result {
+
+        /**
+         * Elapsed time, in nanoseconds.
+         */
+        private long nanos;
+
+        /**
+         * Bytes allocated by the benchmark thread, or -1 if unknown.
+         */
+        private long bytes;
+
+        /**
+         * Collections by all collectors.
+         */
+        private long collections;
+
+        /**
+         * Time spent in collections by all collectors, in milliseconds.
+         */
+        private long gcMillis;
+
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM cannot report it.
+     * 
+     * @return the bytes allocated
+     */
+    private static long allocatedBytes() {
+        long result = -1;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean =
+                    (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()
+                    && sunBean.isThreadAllocatedMemoryEnabled()) {
+                result = sunBean.getThreadAllocatedBytes(Thread
+                        .currentThread().getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total number of collections so far by all collectors.
+     * 
+     * @return the number of collections
+     */
+    private static long collections() {
+        long result = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory
+                .getGarbageCollectorMXBeans()) {
+            result += Math.max(gc.getCollectionCount(), 0);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total time so far spent in collections by all collectors, in
+     * milliseconds.
+     * 
+     * @return the collection time
+     */
+    private static long gcMillis() {
+        long result = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory
+                .getGarbageCollectorMXBeans()) {
+            result += Math.max(gc.getCollectionTime(), 0);
+        }
+        return result;
+    }
+
+    /**
+     * Runs one trial on a new {@code Queue2} with pool capacity
+     * {@code poolCapacity} and returns its measurements.
+     * 
+     * @param poolCapacity
+     *            the pool capacity of the queue, 0 for no pool
+     * @param settings
+     *            the settings of the run
+     * @return the measurements
+     */
+    private static Result runTrial(int poolCapacity, Settings settings) {
+        Queue<Integer> q = new Queue2<Integer>(poolCapacity);
+        for (int i = 0; i < settings.backlog; i++) {
+            q.enqueue(i);
+        }
+        Result result = new Result();
+        long bytes = allocatedBytes();
+        long collections = collections();
+        long gcMillis = gcMillis();
+        long start = System.nanoTime();
+        for (int i = 0; i < settings.pairs; i++) {
+            q.enqueue(q.dequeue());
+        }
+        result.nanos = System.nanoTime() - start;
+        result.gcMillis = gcMillis() - gcMillis;
+        result.collections = collections() - collections;
+        if (bytes >= 0) {
+            result.bytes = allocatedBytes() - bytes;
+        } else {
+            result.bytes = -1;
+        }
+        assert q.length() == settings.backlog : ""
+                + "Violation of: queue kept its backlog";
+        return result;
+    }
+
+    /**
+     * Parses the {@code key=value} arguments.
+     * 
+     * @param args
+     *            the command-line arguments
+     * @return the settings
+     */
+    private static Settings parse(String[] args) {
+        Settings settings = new Settings();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            assert eq > 0 : "Violation of: arguments are key=value";
+            String key = arg.substring(0, eq);
+            int value = Integer.parseInt(arg.substring(eq + 1));
+            if (key.equals("pairs")) {
+                settings.pairs = value;
+            } else if (key.equals("backlog")) {
+                settings.backlog = value;
+            } else if (key.equals("pool")) {
+                settings.pool = value;
+            } else if (key.equals("warmup")) {
+                settings.warmup = value;
+            } else if (key.equals("trials")) {
+                settings.trials = value;
+            } else {
+                throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        Settings settings = parse(args);
+        SimpleWriter out = new SimpleWriter1L();
+        int[] pools = { 0, settings.pool };
+        out.println("pool,trial,seconds,allocated MB,MB/s,bytes/pair,"
+                + "collections,GC ms");
+        for (int pool : pools) {
+            for (int i = 0; i < settings.warmup; i++) {
+                runTrial(pool, settings);
+            }
+            for (int i = 1; i <= settings.trials; i++) {
+                Result r = runTrial(pool, settings);
+                double seconds = r.nanos / NANOS_PER_SECOND;
+                double megabytes = r.bytes / MEGABYTE;
+                out.println(String.format(Locale.ROOT,
+                        "%d,%d,%.3f,%.1f,%.1f,%.2f,%d,%d", pool, i, seconds,
+                        megabytes, megabytes / seconds, (double) r.bytes
+                                / settings.pairs, r.collections, r.gcMillis));
+            }
+        }
+        out.close();
+    }
+
+}
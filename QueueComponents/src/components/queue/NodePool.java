@@ -0,0 +1,156 @@
+package components.queue;
+
+/**
+ * Bounded pool of reusable linked-list nodes, for kernels that allocate a
+ * node per entry and drop it when the entry is removed.
+ * 
+ * <p>
+ * A kernel constructed with a pool takes its nodes from here and gives back
+ * the nodes it unlinks, so under steady churn (as many removals as additions)
+ * it stops allocating altogether. Nodes given back are kept on a free list of
+ * at most {@code capacity} nodes, beyond which they are left to the garbage
+ * collector; when the free list is empty, nodes are handed out from a slab of
+ * nodes created together, so that even a growing structure allocates its
+ * nodes in runs that sit close together in memory. A pool belongs to one
+ * kernel object and, like it, is not safe to use from several threads at
+ * once.
+ * 
+ * @param <N>
+ *            type of the nodes
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class NodePool<N> {
+
+    /**
+     * Maker of new nodes for a {@code NodePool}.
+     * 
+     * @param <N>
+     *            type of the nodes
+     */
+    public interface Factory<N> {
+
+        /**
+         * Returns a new node.
+         * 
+         * @return the new node
+         */
+        N newNode();
+
+    }
+
+    /**
+     * Largest number of nodes created together for the slab.
+     */
+    private static final int SLAB_SIZE = 64;
+
+    /**
+     * Maker of new nodes.
+     */
+    private final Factory<N> factory;
+
+    /**
+     * Nodes given back, in its first {@code freeCount} slots.
+     */
+    private final Object[] free;
+
+    /**
+     * Number of nodes on the free list.
+     */
+    private int freeCount;
+
+    /**
+     * Nodes created together and not yet handed out, from index
+     * {@code slabNext} on.
+     */
+    private final Object[] slab;
+
+    /**
+     * Index of the next node to hand out from the slab.
+     */
+    private int slabNext;
+
+    /**
+     * Constructor from node factory and free-list capacity.
+     * 
+     * @param factory
+     *            the maker of new nodes
+     * @param capacity
+     *            the largest number of nodes kept on the free list
+     * @requires <pre>
+     * {@code capacity > 0}
+     * </pre>
+     */
+    public NodePool(Factory<N> factory, int capacity) {
+        assert factory != null : "Violation of: factory is not null";
+        assert capacity > 0 : "Violation of: capacity > 0";
+
+        this.factory = factory;
+        this.free = new Object[capacity];
+        this.freeCount = 0;
+        this.slab = new Object[Math.min(SLAB_SIZE, capacity)];
+        this.slabNext = this.slab.length;
+    }
+
+    /**
+     * Returns a node, reusing one given back if there is one.
+     * 
+     * @return the node
+     * @ensures <pre>
+     * {@code [take is a node not in use: either new, or given back to this
+     *  by recycle and not handed out since]}
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    public N take() {
+        N result;
+        if (this.freeCount > 0) {
+            this.freeCount--;
+            result = (N) this.free[this.freeCount];
+            this.free[this.freeCount] = null;
+        } else {
+            if (this.slabNext == this.slab.length) {
+                for (int i = 0; i < this.slab.length; i++) {
+                    this.slab[i] = this.factory.newNode();
+                }
+                this.slabNext = 0;
+            }
+            result = (N) this.slab[this.slabNext];
+            this.slab[this.slabNext] = null;
+            this.slabNext++;
+        }
+        return result;
+    }
+
+    /**
+     * Gives {@code node} back for reuse, if the free list has room, and
+     * reports whether it did. The caller must have cleared the node's fields,
+     * so the pool does not keep entries reachable, and must not use the node
+     * again.
+     * 
+     * @param node
+     *            the node no longer in use
+     * @return whether node was kept for reuse
+     */
+    public boolean recycle(N node) {
+        assert node != null : "Violation of: node is not null";
+
+        boolean result = this.freeCount < this.free.length;
+        if (result) {
+            this.free[this.freeCount] = node;
+            this.freeCount++;
+        }
+        return result;
+    }
+
+    /**
+     * Reports how many nodes {@code this} can hand out without creating any.
+     * 
+     * @return the number of nodes ready to hand out
+     */
+    public int available() {
+        return this.freeCount + this.slab.length - this.slabNext;
+    }
+
+}
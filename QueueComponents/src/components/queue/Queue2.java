@@ -10,6 +10,12 @@ import java.util.NoSuchElementException;
  * <p>
  * Execution-time performance of all methods implemented in this class is O(1).
  * 
+ * <p>
+ * A {@code Queue2} constructed with a positive pool capacity takes its nodes
+ * from a {@link NodePool} and gives back the nodes that {@code dequeue}
+ * unlinks, so that a queue with as many dequeues as enqueues stops allocating
+ * once its pool is primed.
+ * 
  * @param <T>
  *            type of {@code Queue} entries
  * @convention <pre>
@@ -66,23 +72,90 @@ public class Queue2<T> extends QueueSecondary<T> {
      */
     private int length;
 
+    /**
+     * Largest number of unlinked nodes kept for reuse, or 0 if none are.
+     */
+    private final int poolCapacity;
+
+    /**
+     * Pool of nodes for reuse, or null if {@code this.poolCapacity = 0}.
+     */
+    private final NodePool<Node> pool;
+
+    /**
+     * Returns a node with null data and next, from the pool if there is one.
+     * 
+     * @return the node
+     */
+    private Node newNode() {
+        Node result;
+        if (this.pool == null) {
+            result = new Node();
+        } else {
+            result = this.pool.take();
+        }
+        return result;
+    }
+
+    /**
+     * Gives {@code n}, which is no longer linked, back to the pool if there is
+     * one.
+     * 
+     * @param n
+     *            the node to give back
+     */
+    private void recycle(Node n) {
+        if (this.pool != null) {
+            n.data = null;
+            n.next = null;
+            this.pool.recycle(n);
+        }
+    }
+
     /**
      * Creator of initial representation.
      */
     private void createNewRep() {
-        this.preFront = new Node();
+        this.preFront = this.newNode();
         this.rear = this.preFront;
         this.length = 0;
     }
 
     /*
-     * Constructor ------------------------------------------------------------
+     * Constructors -----------------------------------------------------------
      */
 
     /**
      * Default constructor.
      */
     public Queue2() {
+        this(0);
+    }
+
+    /**
+     * Constructor from pool capacity: {@code this} keeps up to
+     * {@code poolCapacity} dequeued nodes for reuse by later enqueues, and
+     * keeps none if {@code poolCapacity = 0}.
+     * 
+     * @param poolCapacity
+     *            the largest number of nodes kept for reuse
+     * @requires <pre>
+     * {@code poolCapacity >= 0}
+     * </pre>
+     */
+    public Queue2(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+        this.poolCapacity = poolCapacity;
+        if (poolCapacity > 0) {
+            this.pool = new NodePool<Node>(new NodePool.Factory<Node>() {
+                @Override
+                public Node newNode() {
+                    return new Node();
+                }
+            }, poolCapacity);
+        } else {
+            this.pool = null;
+        }
         this.createNewRep();
     }
 
@@ -94,7 +167,8 @@ public class Queue2<T> extends QueueSecondary<T> {
     @Override
     public final Queue<T> newInstance() {
         try {
-            return this.getClass().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (Exception e) { // ReflectiveOperationException in Java 7
             throw new AssertionError("Cannot construct object of type "
                     + this.getClass());
@@ -131,7 +205,7 @@ public class Queue2<T> extends QueueSecondary<T> {
     @Override
     public final void enqueue(T x) {
         assert x != null : "Violation of: x is not null";
-        Node p = new Node();
+        Node p = this.newNode();
         Node q = this.rear;
         p.data = x;
         q.next = p;
@@ -145,8 +219,10 @@ public class Queue2<T> extends QueueSecondary<T> {
         Node p = this.preFront;
         Node q = p.next;
         T result = q.data;
+        q.data = null;
         this.preFront = q;
         this.length--;
+        this.recycle(p);
         return result;
     }
 
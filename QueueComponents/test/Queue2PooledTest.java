@@ -0,0 +1,23 @@
+import components.queue.Queue;
+import components.queue.Queue2;
+
+/**
+ * Customized JUnit test fixture for {@code Queue2} with a node pool, kept
+ * small so that dequeues both refill and overflow it.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Queue2PooledTest extends QueueTest {
+
+    /**
+     * Pool capacity of the queues under test.
+     */
+    private static final int POOL_CAPACITY = 2;
+
+    @Override
+    protected final Queue<String> constructor() {
+        return new Queue2<String>(POOL_CAPACITY);
+    }
+
+}
@@ -0,0 +1,17 @@
+import components.queue.Queue;
+import components.queue.Queue2;
+
+/**
+ * Customized JUnit test fixture for {@code Queue2}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Queue2Test extends QueueTest {
+
+    @Override
+    protected final Queue<String> constructor() {
+        return new Queue2<String>();
+    }
+
+}
@@ -0,0 +1,238 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.queue.Queue4;
+
+/**
+ * Customized JUnit test fixture for {@code Queue4}, including the circular
+ * array wrapping around, growing while wrapped, and the bulk methods.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Queue4Test extends QueueTest {
+
+    /**
+     * Length of the array of a new {@code Queue4}.
+     */
+    private static final int CAPACITY = 8;
+
+    @Override
+    protected final Queue<String> constructor() {
+        return new Queue4<String>();
+    }
+
+    /**
+     * Returns a {@code Queue4} holding {@code "c" + first} through
+     * {@code "c" + (first + n - 1)} whose front is not at the start of its
+     * array, so that its entries wrap around the end of the array once there
+     * are enough of them.
+     * 
+     * @param first
+     *            the number of the first entry
+     * @param n
+     *            the number of entries
+     * @param expected
+     *            the deque to which the same entries are added
+     * @return the queue
+     */
+    private static Queue4<String> wrapped(int first, int n,
+            Deque<String> expected) {
+        Queue4<String> q = new Queue4<String>();
+        for (int i = 0; i < CAPACITY - 2; i++) {
+            q.enqueue("x");
+        }
+        for (int i = 0; i < CAPACITY - 2; i++) {
+            q.dequeue();
+        }
+        for (int i = first; i < first + n; i++) {
+            q.enqueue("c" + i);
+            expected.addLast("c" + i);
+        }
+        return q;
+    }
+
+    /**
+     * Test for enqueue and dequeue wrapping around the end of the array
+     * without growing it.
+     */
+    @Test
+    public final void testWrapAround() {
+        Deque<String> expected = new ArrayDeque<String>();
+        Queue4<String> q = wrapped(0, CAPACITY, expected);
+        assertSameEntries(expected, q);
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            assertEquals(expected.removeFirst(), q.dequeue());
+            q.enqueue("d" + i);
+            expected.addLast("d" + i);
+            assertEquals(expected.peekFirst(), q.front());
+            assertSameEntries(expected, q);
+        }
+    }
+
+    /**
+     * Test for enqueue doubling the array while the entries wrap around.
+     */
+    @Test
+    public final void testGrowWhileWrapped() {
+        Deque<String> expected = new ArrayDeque<String>();
+        Queue4<String> q = wrapped(0, CAPACITY, expected);
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            q.enqueue("d" + i);
+            expected.addLast("d" + i);
+            assertSameEntries(expected, q);
+        }
+        while (expected.size() > 0) {
+            assertEquals(expected.removeFirst(), q.dequeue());
+        }
+        assertEquals(0, q.length());
+    }
+
+    /**
+     * Test for enqueueAll across the end of the array, with and without
+     * growing it.
+     */
+    @Test
+    public final void testEnqueueAllWrapped() {
+        Deque<String> expected = new ArrayDeque<String>();
+        Queue4<String> q = wrapped(0, 2, expected);
+        String[] fits = { "a", "b", "c", "d" };
+        q.enqueueAll(fits);
+        for (String x : fits) {
+            expected.addLast(x);
+        }
+        assertSameEntries(expected, q);
+        String[] grows = new String[2 * CAPACITY + 1];
+        for (int i = 0; i < grows.length; i++) {
+            grows[i] = "g" + i;
+            expected.addLast(grows[i]);
+        }
+        q.enqueueAll(grows);
+        assertSameEntries(expected, q);
+        q.enqueueAll(new String[0]);
+        assertSameEntries(expected, q);
+    }
+
+    /**
+     * Test for drainTo from and to wrapped {@code Queue4}s, including a count
+     * larger than the source and a count of zero.
+     */
+    @Test
+    public final void testDrainToWrapped() {
+        Deque<String> expectedSource = new ArrayDeque<String>();
+        Deque<String> expectedTarget = new ArrayDeque<String>();
+        Queue4<String> source = wrapped(0, CAPACITY - 1, expectedSource);
+        Queue4<String> target = wrapped(100, CAPACITY - 3, expectedTarget);
+        assertEquals(0, source.drainTo(target, 0));
+        assertEquals(5, source.drainTo(target, 5));
+        for (int i = 0; i < 5; i++) {
+            expectedTarget.addLast(expectedSource.removeFirst());
+        }
+        assertSameEntries(expectedSource, source);
+        assertSameEntries(expectedTarget, target);
+        assertEquals(2, source.drainTo(target, 10));
+        expectedTarget.addAll(expectedSource);
+        expectedSource.clear();
+        assertSameEntries(expectedSource, source);
+        assertSameEntries(expectedTarget, target);
+        source.enqueue("z");
+        assertEquals("z", source.front());
+    }
+
+    /**
+     * Test for drainTo to another kind of {@code Queue}.
+     */
+    @Test
+    public final void testDrainToQueue1L() {
+        Deque<String> expected = new ArrayDeque<String>();
+        Queue4<String> source = wrapped(0, CAPACITY, expected);
+        Queue<String> target = new Queue1L<String>();
+        target.enqueue("t");
+        assertEquals(3, source.drainTo(target, 3));
+        assertEquals("<t,c0,c1,c2>", target.toString());
+        for (int i = 0; i < 3; i++) {
+            expected.removeFirst();
+        }
+        assertSameEntries(expected, source);
+    }
+
+    /**
+     * Test for append of one wrapped {@code Queue4} to another, and of
+     * another kind of {@code Queue}.
+     */
+    @Test
+    public final void testAppend() {
+        Deque<String> expected = new ArrayDeque<String>();
+        Deque<String> expectedOther = new ArrayDeque<String>();
+        Queue4<String> q = wrapped(0, CAPACITY - 1, expected);
+        Queue4<String> other = wrapped(100, CAPACITY, expectedOther);
+        q.append(other);
+        expected.addAll(expectedOther);
+        assertSameEntries(expected, q);
+        assertEquals(0, other.length());
+        Queue<String> q1 = new Queue1L<String>();
+        q1.enqueue("p");
+        q1.enqueue("q");
+        q.append(q1);
+        expected.addLast("p");
+        expected.addLast("q");
+        assertSameEntries(expected, q);
+        assertEquals(0, q1.length());
+    }
+
+    /**
+     * Test for random single and bulk operations against an
+     * {@code ArrayDeque}.
+     */
+    @Test
+    public final void testRandomOperations() {
+        final int operations = 5000;
+        final int longest = 20;
+        Random random = new Random(1);
+        Queue4<String> q = new Queue4<String>();
+        Queue4<String> other = new Queue4<String>();
+        Deque<String> expected = new ArrayDeque<String>();
+        Deque<String> expectedOther = new ArrayDeque<String>();
+        for (int i = 0; i < operations; i++) {
+            int choice = random.nextInt(5);
+            if (choice == 0) {
+                q.enqueue("e" + i);
+                expected.addLast("e" + i);
+            } else if (choice == 1 && expected.size() > 0) {
+                assertEquals(expected.removeFirst(), q.dequeue());
+            } else if (choice == 2) {
+                String[] xs = new String[random.nextInt(longest)];
+                for (int j = 0; j < xs.length; j++) {
+                    xs[j] = "a" + i + "." + j;
+                    expected.addLast(xs[j]);
+                }
+                q.enqueueAll(xs);
+            } else if (choice == 3) {
+                int max = random.nextInt(longest);
+                int moved = q.drainTo(other, max);
+                assertEquals(Math.min(max, expected.size()), moved);
+                for (int j = 0; j < moved; j++) {
+                    expectedOther.addLast(expected.removeFirst());
+                }
+            } else {
+                int max = random.nextInt(longest);
+                int moved = other.drainTo(q, max);
+                for (int j = 0; j < moved; j++) {
+                    expected.addLast(expectedOther.removeFirst());
+                }
+            }
+            assertEquals(expected.size(), q.length());
+            assertEquals(expectedOther.size(), other.length());
+        }
+        assertSameEntries(expected, q);
+        assertSameEntries(expectedOther, other);
+    }
+
+}
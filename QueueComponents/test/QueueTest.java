@@ -0,0 +1,214 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+
+/**
+ * JUnit test fixture for {@code Queue<String>}'s constructor and kernel
+ * methods.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public abstract class QueueTest {
+
+    /**
+     * Invokes the appropriate {@code Queue} constructor and returns the result.
+     * 
+     * @return the new queue
+     * @ensures <pre>
+     * {@code constructor = <>}
+     * </pre>
+     */
+    protected abstract Queue<String> constructor();
+
+    /**
+     * Creates and returns a {@code Queue<String>} with the given entries.
+     * 
+     * @param args
+     *            the entries for the queue
+     * @return the constructed queue
+     * @ensures <pre>
+     * {@code createFromArgs = [entries in args]}
+     * </pre>
+     */
+    protected final Queue<String> createFromArgs(String... args) {
+        Queue<String> queue = this.constructor();
+        for (String s : args) {
+            queue.enqueue(s);
+        }
+        return queue;
+    }
+
+    /**
+     * Checks that {@code q} holds the entries of {@code expected}, in order.
+     * 
+     * @param expected
+     *            the entries expected
+     * @param q
+     *            the queue
+     */
+    protected static final void assertSameEntries(Deque<String> expected,
+            Queue<String> q) {
+        assertEquals(expected.size(), q.length());
+        Iterator<String> it = q.iterator();
+        for (String x : expected) {
+            assertEquals(x, it.next());
+        }
+        assertEquals(false, it.hasNext());
+    }
+
+    /**
+     * Test for constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        Queue<String> q = this.constructor();
+        assertEquals(0, q.length());
+        assertEquals("<>", q.toString());
+    }
+
+    /**
+     * Test for enqueue on an empty queue.
+     */
+    @Test
+    public final void testEnqueueEmpty() {
+        Queue<String> q = this.createFromArgs();
+        q.enqueue("red");
+        assertEquals("<red>", q.toString());
+    }
+
+    /**
+     * Test for enqueue on a non-empty queue.
+     */
+    @Test
+    public final void testEnqueueNonEmpty() {
+        Queue<String> q = this.createFromArgs("red", "green");
+        q.enqueue("blue");
+        assertEquals("<red,green,blue>", q.toString());
+    }
+
+    /**
+     * Test for dequeue leaving an empty queue.
+     */
+    @Test
+    public final void testDequeueLeavingEmpty() {
+        Queue<String> q = this.createFromArgs("red");
+        assertEquals("red", q.dequeue());
+        assertEquals("<>", q.toString());
+    }
+
+    /**
+     * Test for dequeue leaving a non-empty queue.
+     */
+    @Test
+    public final void testDequeueLeavingNonEmpty() {
+        Queue<String> q = this.createFromArgs("red", "green", "blue");
+        assertEquals("red", q.dequeue());
+        assertEquals("<green,blue>", q.toString());
+    }
+
+    /**
+     * Test for front.
+     */
+    @Test
+    public final void testFront() {
+        Queue<String> q = this.createFromArgs("red", "green");
+        assertEquals("red", q.front());
+        assertEquals("<red,green>", q.toString());
+    }
+
+    /**
+     * Test for length.
+     */
+    @Test
+    public final void testLength() {
+        Queue<String> q = this.createFromArgs("red", "green", "blue");
+        assertEquals(3, q.length());
+        q.dequeue();
+        assertEquals(2, q.length());
+    }
+
+    /**
+     * Test for clear, transferFrom, and newInstance.
+     */
+    @Test
+    public final void testStandardMethods() {
+        Queue<String> q = this.createFromArgs("red", "green");
+        Queue<String> r = q.newInstance();
+        assertEquals(q.getClass(), r.getClass());
+        assertEquals(0, r.length());
+        r.transferFrom(q);
+        assertEquals("<red,green>", r.toString());
+        assertEquals("<>", q.toString());
+        q.enqueue("blue");
+        r.clear();
+        assertEquals("<>", r.toString());
+        r.enqueue("white");
+        assertEquals("<white>", r.toString());
+        assertEquals("<blue>", q.toString());
+    }
+
+    /**
+     * Test for many enqueues and dequeues, so that the queue grows and
+     * empties several times.
+     */
+    @Test
+    public final void testManyEnqueuesAndDequeues() {
+        final int n = 1000;
+        final int rounds = 3;
+        Queue<String> q = this.constructor();
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < n; i++) {
+                q.enqueue("c" + i);
+            }
+            assertEquals(n, q.length());
+            for (int i = 0; i < n; i++) {
+                assertEquals("c" + i, q.front());
+                assertEquals("c" + i, q.dequeue());
+            }
+            assertEquals(0, q.length());
+        }
+    }
+
+    /**
+     * Test for rounds of enqueues and dequeues of varying sizes, against a
+     * {@code java.util.ArrayDeque}, so that a queue that reuses the nodes it
+     * dequeues both reuses some and has more than it can keep.
+     */
+    @Test
+    public final void testEnqueueDequeueRounds() {
+        final int rounds = 50;
+        final int seven = 7;
+        final int eleven = 11;
+        Queue<String> q = this.constructor();
+        Deque<String> expected = new ArrayDeque<String>();
+        int next = 0;
+        for (int r = 0; r < rounds; r++) {
+            int enqueues = r * seven % eleven + 1;
+            for (int i = 0; i < enqueues; i++) {
+                String x = "c" + next;
+                next++;
+                q.enqueue(x);
+                expected.add(x);
+            }
+            assertSameEntries(expected, q);
+            int dequeues = r * eleven % seven + 1;
+            for (int i = 0; i < dequeues && expected.size() > 0; i++) {
+                assertEquals(expected.peek(), q.front());
+                assertEquals(expected.remove(), q.dequeue());
+            }
+            assertSameEntries(expected, q);
+        }
+        while (expected.size() > 0) {
+            assertEquals(expected.remove(), q.dequeue());
+        }
+        assertSameEntries(expected, q);
+    }
+
+}
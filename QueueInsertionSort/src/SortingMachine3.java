@@ -5,7 +5,6 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import components.queue.Queue;
-import components.queue.Queue1L;
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachineSecondary;
 
@@ -67,7 +66,7 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
     private void createNewRep(Comparator<T> order) {
         this.insertionMode = true;
         this.machineOrder = order;
-        this.entries = new Queue1L<T>();
+        this.entries = new Queue4<T>();
     }
 
     /**
@@ -97,7 +96,7 @@ public class SortingMachine3<T> extends SortingMachineSecondary<T> {
         assert q != null : "Violation of: q is not null";
         assert order != null : "Violation of: order is not null";
 
-        Queue<T> q2 = new Queue1L<T>();
+        Queue<T> q2 = q.newInstance();
         int count = 0;
         int length = q.length();
         boolean added = false;
@@ -1,4 +1,12 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
 
 import components.sortingmachine.SortingMachine;
 
@@ -11,6 +19,23 @@ import components.sortingmachine.SortingMachine;
  */
 public abstract class SortingMachineTest {
 
+    /**
+     * Comparator<String> implementation to be used in all test cases.
+     */
+    private static class StringLT implements Comparator<String> {
+
+        @Override
+        public int compare(String s1, String s2) {
+            return s1.compareToIgnoreCase(s2);
+        }
+
+    }
+
+    /**
+     * Comparator instance to be used in all test cases.
+     */
+    private static final StringLT ORDER = new StringLT();
+
     /**
      * Invokes the appropriate {@code SortingMachine} constructor and returns
      * the result.
@@ -59,7 +84,132 @@ public abstract class SortingMachineTest {
         return sm;
     }
 
-    // TODO - add test cases for constructor, add, changeToExtractionMode, 
-    // removeFirst, isInInsertionMode, order, and size
+    /**
+     * Removes every entry of {@code sm} and returns them in the order
+     * removed.
+     * 
+     * @param sm
+     *            the machine, in extraction mode
+     * @return the entries removed
+     */
+    private static List<String> removeAll(SortingMachine<String> sm) {
+        List<String> result = new ArrayList<String>();
+        while (sm.size() > 0) {
+            result.add(sm.removeFirst());
+        }
+        return result;
+    }
+
+    /**
+     * Test for constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        SortingMachine<String> sm = this.constructor(ORDER);
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(ORDER, sm.order());
+        assertEquals(0, sm.size());
+    }
+
+    /**
+     * Test for add and size.
+     */
+    @Test
+    public final void testAdd() {
+        SortingMachine<String> sm = this.createFromArgs(ORDER, true, "red",
+                "blue");
+        sm.add("green");
+        assertEquals(true, sm.isInInsertionMode());
+        assertEquals(3, sm.size());
+    }
+
+    /**
+     * Test for changeToExtractionMode.
+     */
+    @Test
+    public final void testChangeToExtractionMode() {
+        SortingMachine<String> sm = this.createFromArgs(ORDER, true, "red",
+                "blue", "green");
+        sm.changeToExtractionMode();
+        assertEquals(false, sm.isInInsertionMode());
+        assertEquals(3, sm.size());
+    }
+
+    /**
+     * Test for changeToExtractionMode on an empty machine.
+     */
+    @Test
+    public final void testChangeToExtractionModeEmpty() {
+        SortingMachine<String> sm = this.createFromArgs(ORDER, false);
+        assertEquals(false, sm.isInInsertionMode());
+        assertEquals(0, sm.size());
+    }
+
+    /**
+     * Test for removeFirst leaving an empty machine.
+     */
+    @Test
+    public final void testRemoveFirstLeavingEmpty() {
+        SortingMachine<String> sm = this.createFromArgs(ORDER, false, "red");
+        assertEquals("red", sm.removeFirst());
+        assertEquals(0, sm.size());
+    }
+
+    /**
+     * Test for removeFirst on a few entries, with duplicates and mixed case.
+     */
+    @Test
+    public final void testRemoveFirstSorted() {
+        SortingMachine<String> sm = this.createFromArgs(ORDER, false, "red",
+                "Blue", "green", "apple", "blue", "Zebra", "green");
+        List<String> removed = removeAll(sm);
+        assertEquals(7, removed.size());
+        assertEquals("apple", removed.get(0));
+        assertEquals("blue", removed.get(1).toLowerCase());
+        assertEquals("blue", removed.get(2).toLowerCase());
+        assertEquals("green", removed.get(3));
+        assertEquals("green", removed.get(4));
+        assertEquals("red", removed.get(5));
+        assertEquals("Zebra", removed.get(6));
+    }
+
+    /**
+     * Test for sorting many random entries, enough for the machine's queues
+     * to grow and wrap around, against {@code Collections.sort}.
+     */
+    @Test
+    public final void testSortManyRandom() {
+        final int n = 2000;
+        final int range = 500;
+        Random random = new Random(1);
+        SortingMachine<String> sm = this.constructor(ORDER);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < n; i++) {
+            String x = "s" + random.nextInt(range);
+            sm.add(x);
+            expected.add(x);
+        }
+        sm.changeToExtractionMode();
+        Collections.sort(expected, ORDER);
+        assertEquals(expected, removeAll(sm));
+        assertEquals(false, sm.isInInsertionMode());
+    }
+
+    /**
+     * Test for sorting entries added in decreasing order.
+     */
+    @Test
+    public final void testSortDecreasing() {
+        final int n = 300;
+        SortingMachine<String> sm = this.constructor(ORDER);
+        List<String> expected = new ArrayList<String>();
+        for (int i = n - 1; i >= 0; i--) {
+            String x = String.format("%04d", i);
+            sm.add(x);
+            expected.add(0, x);
+        }
+        sm.changeToExtractionMode();
+        assertEquals(expected, removeAll(sm));
+    }
 
 }
@@ -0,0 +1,363 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.queue.Queue;
+import components.queue.QueueSecondary;
+
+/**
+ * {@code Queue} represented as a circular array whose length is a power of two
+ * and which doubles when full, with implementations of primary methods and of
+ * the bulk methods {@code enqueueAll} and {@code drainTo}.
+ * 
+ * <p>
+ * Unlike {@code Queue1L} and {@code Queue2}, there is no node per entry: an
+ * entry is one array slot, so {@code enqueue}, {@code dequeue}, and
+ * {@code front} are O(1) without allocation (amortized O(1) for
+ * {@code enqueue}, which occasionally doubles the array), and a queue that is
+ * filled and emptied over and over, as in a queue-based sort, reuses the
+ * same array throughout. {@code enqueueAll}, {@code drainTo}, and
+ * {@code append} (from another {@code Queue4}) copy whole runs of slots at a
+ * time.
+ * 
+ * @param <T>
+ *            type of {@code Queue} entries
+ * @convention <pre>
+ * {@code there exists p: integer (|$this.entries| = 2 ^ (p)  and  p >= 3)  and
+ * 0 <= $this.front < |$this.entries|  and
+ * 0 <= $this.length <= |$this.entries|  and
+ * [the $this.length slots of $this.entries starting at $this.front, going
+ *  around cyclically, are not null, and all others are null]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [the $this.length entries of $this.entries starting at
+ *  $this.front, going around cyclically]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Queue4<T> extends QueueSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Default length of the array.
+     */
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Circular array of entries.
+     */
+    private Object[] entries;
+
+    /**
+     * Index of the front entry.
+     */
+    private int front;
+
+    /**
+     * Number of entries.
+     */
+    private int length;
+
+    /**
+     * Returns the slot of the entry at position {@code i} from the front.
+     * 
+     * @param i
+     *            the position from the front
+     * @return the index of that entry in $this.entries
+     */
+    private int slot(int i) {
+        return (this.front + i) & (this.entries.length - 1);
+    }
+
+    /**
+     * Copies the entries of {@code this} into the first {@code length} slots
+     * of {@code target}, in order.
+     * 
+     * @param target
+     *            the array to copy into
+     * @requires <pre>
+     * {@code |target| >= $this.length}
+     * </pre>
+     */
+    private void copyInto(Object[] target) {
+        int firstRun = Math.min(this.length, this.entries.length - this.front);
+        System.arraycopy(this.entries, this.front, target, 0, firstRun);
+        System.arraycopy(this.entries, 0, target, firstRun, this.length
+                - firstRun);
+    }
+
+    /**
+     * Grows the array, if needed, to hold at least {@code capacity} entries.
+     * 
+     * @param capacity
+     *            the number of entries to make room for
+     * @updates $this.entries, $this.front
+     * @ensures <pre>
+     * {@code |$this.entries| >= capacity  and  this = #this}
+     * </pre>
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.entries.length) {
+            int newLength = this.entries.length;
+            while (newLength < capacity) {
+                newLength *= 2;
+            }
+            Object[] newEntries = new Object[newLength];
+            this.copyInto(newEntries);
+            this.entries = newEntries;
+            this.front = 0;
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.entries = new Object[DEFAULT_CAPACITY];
+        this.front = 0;
+        this.length = 0;
+    }
+
+    /*
+     * Constructor ------------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Queue4() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Queue<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Queue<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Queue4<?> : ""
+                + "Violation of: source is of dynamic type Queue4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Queue4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Queue4<T> localSource = (Queue4<T>) source;
+        this.entries = localSource.entries;
+        this.front = localSource.front;
+        this.length = localSource.length;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void enqueue(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.ensureCapacity(this.length + 1);
+        this.entries[this.slot(this.length)] = x;
+        this.length++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T dequeue() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        T result = (T) this.entries[this.front];
+        this.entries[this.front] = null;
+        this.front = this.slot(1);
+        this.length--;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        return (T) this.entries[this.front];
+    }
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void append(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+        assert q != this : "Violation of: q is not this";
+
+        if (q instanceof Queue4<?>) {
+            ((Queue4<T>) q).drainTo(this, q.length());
+        } else {
+            while (q.length() > 0) {
+                this.enqueue(q.dequeue());
+            }
+        }
+    }
+
+    /**
+     * Adds the entries of {@code xs}, in order, to the end of {@code this}.
+     * 
+     * @param xs
+     *            the entries to be added
+     * @aliases references in {@code xs}
+     * @updates this
+     * @requires <pre>
+     * {@code [xs contains no null entries]}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this * [entries of xs, in order]}
+     * </pre>
+     */
+    public final void enqueueAll(T[] xs) {
+        assert xs != null : "Violation of: xs is not null";
+
+        this.ensureCapacity(this.length + xs.length);
+        int rear = this.slot(this.length);
+        int firstRun = Math.min(xs.length, this.entries.length - rear);
+        System.arraycopy(xs, 0, this.entries, rear, firstRun);
+        System.arraycopy(xs, firstRun, this.entries, 0, xs.length - firstRun);
+        this.length += xs.length;
+    }
+
+    /**
+     * Moves up to {@code max} entries from the front of {@code this} to the
+     * end of {@code q}, and reports how many were moved.
+     * 
+     * @param q
+     *            the queue to which entries are moved
+     * @param max
+     *            the largest number of entries to move
+     * @return the number of entries moved
+     * @updates this, q
+     * @requires <pre>
+     * {@code max >= 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code drainTo = min(max, |#this|)  and
+     * #this = [first drainTo entries of #this] * this  and
+     * q = #q * [first drainTo entries of #this]}
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    public final int drainTo(Queue<T> q, int max) {
+        assert q != null : "Violation of: q is not null";
+        assert q != this : "Violation of: q is not this";
+        assert max >= 0 : "Violation of: max >= 0";
+
+        int count = Math.min(max, this.length);
+        if (q instanceof Queue4<?>) {
+            Queue4<T> target = (Queue4<T>) q;
+            target.ensureCapacity(target.length + count);
+            int moved = 0;
+            while (moved < count) {
+                int from = this.slot(moved);
+                int to = target.slot(target.length + moved);
+                int run = Math.min(count - moved, Math.min(
+                        this.entries.length - from, target.entries.length
+                                - to));
+                System.arraycopy(this.entries, from, target.entries, to, run);
+                moved += run;
+            }
+            target.length += count;
+            int firstRun = Math.min(count, this.entries.length - this.front);
+            Arrays.fill(this.entries, this.front, this.front + firstRun,
+                    null);
+            Arrays.fill(this.entries, 0, count - firstRun, null);
+            this.front = this.slot(count);
+            this.length -= count;
+        } else {
+            for (int i = 0; i < count; i++) {
+                q.enqueue(this.dequeue());
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Queue4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Queue4}.
+     */
+    private final class Queue4Iterator implements Iterator<T> {
+
+        /**
+         * Position from the front of the next entry.
+         */
+        private int position;
+
+        /**
+         * Default constructor.
+         */
+        private Queue4Iterator() {
+            this.position = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < Queue4.this.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = (T) Queue4.this.entries[Queue4.this.slot(this.position)];
+            this.position++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -5,7 +5,6 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import components.queue.Queue;
-import components.queue.Queue1L;
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachineSecondary;
 
@@ -168,7 +167,7 @@ public class SortingMachine4<T> extends SortingMachineSecondary<T> {
     private void createNewRep(Comparator<T> order) {
         this.insertionMode = true;
         this.machineOrder = order;
-        this.entries = new Queue1L<T>();
+        this.entries = new Queue4<T>();
     }
 
     /*
@@ -0,0 +1,696 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sequence.Sequence;
+import components.sequence.SequenceSecondary;
+
+/**
+ * {@code Sequence} represented as an unrolled linked list: a doubly linked
+ * chain of blocks, each holding a run of consecutive entries in an array, with
+ * implementations of primary methods and of {@code addAll} and {@code slice}.
+ * 
+ * <p>
+ * Reaching position {@code pos} walks whole blocks, starting from whichever of
+ * the first block, the last block, and the block reached by the previous call
+ * is closest, and then shifts at most one block's entries with
+ * {@code System.arraycopy}. Block capacity is a power of two near the square
+ * root of the length, re-chosen (by rebuilding the chain) whenever the length
+ * has grown or shrunk by a factor of about four since it was last chosen, so
+ * {@code add}, {@code remove}, {@code entryAt}, and {@code replaceEntryAt}
+ * take O(sqrt |{@code this}|) time (amortized, for the first two), and O(1)
+ * time when each call is near the one before it. A full block is split in
+ * two, and a block that becomes empty or fits with a neighbor into half a
+ * block is merged away, so blocks stay at least about a quarter full.
+ * {@code addAll} splices in the blocks of a long enough {@code Sequence4}
+ * with blocks of the same capacity, copies the entries of any other
+ * {@code Sequence}, and merges the blocks that meet at either end of the
+ * inserted entries whenever they fit in one block.
+ * 
+ * @param <T>
+ *            type of {@code Sequence} entries
+ * @convention <pre>
+ * {@code [$this.first, $this.first.next, ... form a chain of blocks, linked
+ *  both ways, that ends at $this.last]  and
+ * [for every block b in the chain, |b.items| = $this.capacity, and
+ *  0 <= b.count <= |b.items|, and b.items[0, b.count) are not null, and
+ *  b.items[b.count, |b.items|) are null]  and
+ * [no block in the chain has count 0 unless it is the only one]  and
+ * $this.length = [sum of the counts of the blocks in the chain]  and
+ * [$this.cached is a block in the chain and $this.cachedStart is the sum of
+ *  the counts of the blocks before it]  and
+ * $this.capacity is a power of two and $this.capacity >= MIN_CAPACITY}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [concatenation of b.items[0, b.count) over the blocks b of
+ *  the chain, in order]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Sequence4<T> extends SequenceSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Block of the unrolled list.
+     * 
+     * @param <T>
+     *            type of the entries
+     */
+    private static final class Block<T> {
+
+        /**
+         * Entries of this block, in its first {@code count} slots.
+         */
+        private final Object[] items;
+
+        /**
+         * Number of entries in this block.
+         */
+        private int count;
+
+        /**
+         * Block before this one.
+         */
+        private Block<T> previous;
+
+        /**
+         * Block after this one.
+         */
+        private Block<T> next;
+
+        /**
+         * Constructor from capacity.
+         * 
+         * @param capacity
+         *            the number of slots
+         */
+        private Block(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+    }
+
+    /**
+     * Smallest block capacity.
+     */
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * First block.
+     */
+    private Block<T> first;
+
+    /**
+     * Last block.
+     */
+    private Block<T> last;
+
+    /**
+     * Number of entries.
+     */
+    private int length;
+
+    /**
+     * Capacity of new blocks.
+     */
+    private int capacity;
+
+    /**
+     * Block reached by the last search.
+     */
+    private Block<T> cached;
+
+    /**
+     * Position of the first entry of {@code cached}.
+     */
+    private int cachedStart;
+
+    /**
+     * Returns the block capacity suited to {@code n} entries: the smallest
+     * power of two whose square is at least {@code n}, and at least
+     * {@code MIN_CAPACITY}.
+     * 
+     * @param n
+     *            the number of entries
+     * @return the block capacity
+     */
+    private static int capacityFor(int n) {
+        int result = MIN_CAPACITY;
+        while ((long) result * result < n) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Makes {@code this.cached} the block holding position {@code pos}, or,
+     * if {@code end}, the block ending at {@code pos} when there is one.
+     * 
+     * @param pos
+     *            the position to find
+     * @param end
+     *            whether pos may be just past the end of the block found
+     * @updates $this.cached, $this.cachedStart
+     * @requires <pre>
+     * {@code 0 <= pos  and  (pos < $this.length  or  end  and
+     *  pos = $this.length)}
+     * </pre>
+     * @ensures <pre>
+     * {@code $this.cachedStart <= pos  and
+     * (pos < $this.cachedStart + $this.cached.count  or
+     *  end  and  pos = $this.cachedStart + $this.cached.count)}
+     * </pre>
+     */
+    private void locate(int pos, boolean end) {
+        Block<T> b = this.cached;
+        int start = this.cachedStart;
+        int lastStart = this.length - this.last.count;
+        if (pos < Math.abs(pos - start)) {
+            b = this.first;
+            start = 0;
+        }
+        if (Math.abs(pos - lastStart) < Math.abs(pos - start)) {
+            b = this.last;
+            start = lastStart;
+        }
+        while (pos < start) {
+            b = b.previous;
+            start -= b.count;
+        }
+        while (pos > start + b.count || !end && pos == start + b.count) {
+            start += b.count;
+            b = b.next;
+        }
+        this.cached = b;
+        this.cachedStart = start;
+    }
+
+    /**
+     * Links {@code b} into the chain right after {@code p}, or first if
+     * {@code p} is {@code null}.
+     * 
+     * @param b
+     *            the block to link
+     * @param p
+     *            the block to link it after, or null
+     */
+    private void linkAfter(Block<T> b, Block<T> p) {
+        b.previous = p;
+        if (p == null) {
+            b.next = this.first;
+            this.first = b;
+        } else {
+            b.next = p.next;
+            p.next = b;
+        }
+        if (b.next == null) {
+            this.last = b;
+        } else {
+            b.next.previous = b;
+        }
+    }
+
+    /**
+     * Unlinks {@code b} from the chain.
+     * 
+     * @param b
+     *            the block to unlink
+     */
+    private void unlink(Block<T> b) {
+        if (b.previous == null) {
+            this.first = b.next;
+        } else {
+            b.previous.next = b.next;
+        }
+        if (b.next == null) {
+            this.last = b.previous;
+        } else {
+            b.next.previous = b.previous;
+        }
+    }
+
+    /**
+     * Moves the entries of {@code b} from index {@code from} on into a new
+     * block of the same capacity, linked right after {@code b}, and returns
+     * the new block.
+     * 
+     * @param b
+     *            the block to split
+     * @param from
+     *            the index of the first entry to move
+     * @return the new block
+     */
+    private Block<T> split(Block<T> b, int from) {
+        Block<T> nb = new Block<T>(b.items.length);
+        nb.count = b.count - from;
+        System.arraycopy(b.items, from, nb.items, 0, nb.count);
+        for (int i = from; i < b.count; i++) {
+            b.items[i] = null;
+        }
+        b.count = from;
+        this.linkAfter(nb, b);
+        return nb;
+    }
+
+    /**
+     * Appends the entries of {@code b.next} to {@code b} and unlinks
+     * {@code b.next}.
+     * 
+     * @param b
+     *            the block to merge into
+     * @requires <pre>
+     * {@code b.next /= null  and  b.count + b.next.count <= |b.items|}
+     * </pre>
+     */
+    private void mergeNext(Block<T> b) {
+        Block<T> n = b.next;
+        System.arraycopy(n.items, 0, b.items, b.count, n.count);
+        b.count += n.count;
+        this.unlink(n);
+    }
+
+    /**
+     * Merges {@code b.next} into {@code b} if both are blocks and their
+     * entries fit in {@code b}.
+     * 
+     * @param b
+     *            the block to merge into, or null
+     */
+    private void mergeNextIfFits(Block<T> b) {
+        if (b != null && b.next != null
+                && b.count + b.next.count <= b.items.length) {
+            this.mergeNext(b);
+        }
+    }
+
+    /**
+     * Rebuilds the chain with blocks of capacity {@code newCapacity}, each
+     * three-quarters full.
+     * 
+     * @param newCapacity
+     *            the new block capacity
+     */
+    private void rebuild(int newCapacity) {
+        int fill = newCapacity - newCapacity / 4;
+        Block<T> oldFirst = this.first;
+        this.capacity = newCapacity;
+        this.first = new Block<T>(newCapacity);
+        this.last = this.first;
+        for (Block<T> b = oldFirst; b != null; b = b.next) {
+            int i = 0;
+            while (i < b.count) {
+                if (this.last.count == fill) {
+                    this.linkAfter(new Block<T>(newCapacity), this.last);
+                }
+                int run = Math.min(b.count - i, fill - this.last.count);
+                System.arraycopy(b.items, i, this.last.items,
+                        this.last.count, run);
+                this.last.count += run;
+                i += run;
+            }
+        }
+        this.cached = this.first;
+        this.cachedStart = 0;
+    }
+
+    /**
+     * Rebuilds the chain if the block capacity suited to the current length
+     * differs from {@code this.capacity} by more than a factor of two.
+     */
+    private void adjustCapacity() {
+        int want = capacityFor(this.length);
+        if (want > 2 * this.capacity || 2 * want < this.capacity) {
+            this.rebuild(want);
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.capacity = MIN_CAPACITY;
+        this.first = new Block<T>(this.capacity);
+        this.last = this.first;
+        this.length = 0;
+        this.cached = this.first;
+        this.cachedStart = 0;
+    }
+
+    /*
+     * Constructor ------------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Sequence4() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Sequence<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Sequence<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Sequence4<?> : ""
+                + "Violation of: source is of dynamic type Sequence4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Sequence4<?>,
+         * and the ? must be T or the call would not have compiled.
+         */
+        Sequence4<T> localSource = (Sequence4<T>) source;
+        this.first = localSource.first;
+        this.last = localSource.last;
+        this.length = localSource.length;
+        this.capacity = localSource.capacity;
+        this.cached = localSource.cached;
+        this.cachedStart = localSource.cachedStart;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(int pos, T x) {
+        assert x != null : "Violation of: x is not null";
+        assert 0 <= pos : "Violation of: 0 <= pos";
+        assert pos <= this.length() : "Violation of: pos <= |this|";
+
+        this.locate(pos, true);
+        Block<T> b = this.cached;
+        int offset = pos - this.cachedStart;
+        if (b.count == b.items.length) {
+            Block<T> nb = this.split(b, b.count / 2);
+            if (offset > b.count) {
+                offset -= b.count;
+                this.cachedStart += b.count;
+                this.cached = nb;
+                b = nb;
+            }
+        }
+        System.arraycopy(b.items, offset, b.items, offset + 1, b.count
+                - offset);
+        b.items[offset] = x;
+        b.count++;
+        this.length++;
+        this.adjustCapacity();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T remove(int pos) {
+        assert 0 <= pos : "Violation of: 0 <= pos";
+        assert pos < this.length() : "Violation of: pos < |this|";
+
+        this.locate(pos, false);
+        Block<T> b = this.cached;
+        int offset = pos - this.cachedStart;
+        T result = (T) b.items[offset];
+        b.count--;
+        System.arraycopy(b.items, offset + 1, b.items, offset, b.count
+                - offset);
+        b.items[b.count] = null;
+        this.length--;
+        if (b.count == 0 && this.first != this.last) {
+            this.unlink(b);
+            if (b.next != null) {
+                this.cached = b.next;
+            } else {
+                this.cached = b.previous;
+                this.cachedStart -= b.previous.count;
+            }
+        } else if (b.next != null
+                && b.count + b.next.count <= b.items.length / 2) {
+            this.mergeNext(b);
+        } else if (b.previous != null
+                && b.previous.count + b.count <= b.previous.items.length / 2) {
+            this.cachedStart -= b.previous.count;
+            this.cached = b.previous;
+            this.mergeNext(b.previous);
+        }
+        this.adjustCapacity();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T entryAt(int pos) {
+        assert 0 <= pos : "Violation of: 0 <= pos";
+        assert pos < this.length() : "Violation of: pos < |this|";
+
+        this.locate(pos, false);
+        return (T) this.cached.items[pos - this.cachedStart];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T replaceEntryAt(int pos, T x) {
+        assert x != null : "Violation of: x is not null";
+        assert 0 <= pos : "Violation of: 0 <= pos";
+        assert pos < this.length() : "Violation of: pos < |this|";
+
+        this.locate(pos, false);
+        int offset = pos - this.cachedStart;
+        T result = (T) this.cached.items[offset];
+        this.cached.items[offset] = x;
+        return result;
+    }
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Inserts the entries of {@code s} into {@code this} at position
+     * {@code pos}, and clears {@code s}. If {@code s} is a {@code Sequence4}
+     * with blocks of the same capacity as those of {@code this}, and at least
+     * as many entries as one block holds, its blocks are spliced in without
+     * copying its entries; otherwise its entries are copied into new blocks.
+     * Either way, the blocks that meet at each end of the inserted entries
+     * are then merged if they fit in one block, so that repeated calls with
+     * short sequences do not leave a trail of nearly empty blocks.
+     * 
+     * @param pos
+     *            the position at which to insert
+     * @param s
+     *            the entries to insert
+     * @updates this
+     * @clears s
+     * @requires <pre>
+     * {@code s /= this  and  0 <= pos  and  pos <= |this|}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = #this[0, pos) * #s * #this[pos, |#this|)}
+     * </pre>
+     */
+    public final void addAll(int pos, Sequence<T> s) {
+        assert s != null : "Violation of: s is not null";
+        assert s != this : "Violation of: s is not this";
+        assert 0 <= pos : "Violation of: 0 <= pos";
+        assert pos <= this.length() : "Violation of: pos <= |this|";
+
+        int n = s.length();
+        if (n > 0) {
+            Block<T> chainFirst;
+            Block<T> chainLast;
+            if (s instanceof Sequence4<?>
+                    && ((Sequence4<?>) s).capacity == this.capacity
+                    && n >= this.capacity) {
+                Sequence4<T> localS = (Sequence4<T>) s;
+                chainFirst = localS.first;
+                chainLast = localS.last;
+                localS.createNewRep();
+            } else {
+                chainFirst = new Block<T>(this.capacity);
+                chainLast = chainFirst;
+                for (T x : s) {
+                    if (chainLast.count == chainLast.items.length) {
+                        Block<T> b = new Block<T>(this.capacity);
+                        b.previous = chainLast;
+                        chainLast.next = b;
+                        chainLast = b;
+                    }
+                    chainLast.items[chainLast.count] = x;
+                    chainLast.count++;
+                }
+                s.clear();
+            }
+            Block<T> before;
+            if (this.length == 0) {
+                this.first = null;
+                this.last = null;
+                before = null;
+            } else {
+                this.locate(pos, true);
+                before = this.cached;
+                int offset = pos - this.cachedStart;
+                if (offset == 0) {
+                    before = before.previous;
+                } else if (offset < before.count) {
+                    this.split(before, offset);
+                }
+            }
+            Block<T> after;
+            if (before == null) {
+                after = this.first;
+                this.first = chainFirst;
+            } else {
+                after = before.next;
+                before.next = chainFirst;
+            }
+            chainFirst.previous = before;
+            chainLast.next = after;
+            if (after == null) {
+                this.last = chainLast;
+            } else {
+                after.previous = chainLast;
+            }
+            this.mergeNextIfFits(chainLast);
+            this.mergeNextIfFits(before);
+            this.length += n;
+            this.cached = this.first;
+            this.cachedStart = 0;
+            this.adjustCapacity();
+        }
+    }
+
+    /**
+     * Returns a view of the entries of {@code this} from position
+     * {@code pos1} up to, but not including, position {@code pos2}. The view
+     * copies nothing: iterating over it reads the entries of {@code this} in
+     * place, so it must not be used once {@code this} has been changed.
+     * 
+     * @param pos1
+     *            the position of the first entry in the view
+     * @param pos2
+     *            the position just past the last entry in the view
+     * @return the view
+     * @requires <pre>
+     * {@code 0 <= pos1  and  pos1 <= pos2  and  pos2 <= |this|}
+     * </pre>
+     * @ensures <pre>
+     * {@code [the entries iterated by slice] = this[pos1, pos2)}
+     * </pre>
+     */
+    public final Iterable<T> slice(final int pos1, final int pos2) {
+        assert 0 <= pos1 : "Violation of: 0 <= pos1";
+        assert pos1 <= pos2 : "Violation of: pos1 <= pos2";
+        assert pos2 <= this.length() : "Violation of: pos2 <= |this|";
+
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new Sequence4Iterator(pos1, pos2);
+            }
+        };
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Sequence4Iterator(0, this.length);
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Sequence4}.
+     */
+    private final class Sequence4Iterator implements Iterator<T> {
+
+        /**
+         * Block holding the next entry.
+         */
+        private Block<T> block;
+
+        /**
+         * Index of the next entry in {@code block}.
+         */
+        private int index;
+
+        /**
+         * Number of entries left to return.
+         */
+        private int remaining;
+
+        /**
+         * Constructor from range.
+         * 
+         * @param pos1
+         *            the position of the first entry to return
+         * @param pos2
+         *            the position just past the last entry to return
+         */
+        private Sequence4Iterator(int pos1, int pos2) {
+            this.remaining = pos2 - pos1;
+            if (this.remaining > 0) {
+                Sequence4.this.locate(pos1, false);
+                this.block = Sequence4.this.cached;
+                this.index = pos1 - Sequence4.this.cachedStart;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            if (this.index == this.block.count) {
+                this.block = this.block.next;
+                this.index = 0;
+            }
+            T result = (T) this.block.items[this.index];
+            this.index++;
+            this.remaining--;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,214 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.sequence.Sequence;
+import components.sequence.Sequence1L;
+
+/**
+ * Customized JUnit test fixture for {@code Sequence4}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Sequence4Test extends SequenceTest {
+
+    @Override
+    protected final Sequence<String> constructor() {
+        return new Sequence4<String>();
+    }
+
+    /**
+     * Returns a {@code Sequence4} of the strings "0" through "n - 1", the
+     * second half added at the end and then the first half at the front, so
+     * that blocks are split and rebuilt along the way.
+     * 
+     * @param n
+     *            the length
+     * @return the sequence
+     */
+    private static Sequence4<String> counting(int n) {
+        Sequence4<String> s = new Sequence4<String>();
+        for (int i = n / 2; i < n; i++) {
+            s.add(s.length(), Integer.toString(i));
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            s.add(0, Integer.toString(i));
+        }
+        return s;
+    }
+
+    /**
+     * Test for entryAt, add, and remove at every position of a long
+     * sequence.
+     */
+    @Test
+    public final void testLongSequence() {
+        final int n = 5000;
+        Sequence4<String> s = counting(n);
+        assertEquals(n, s.length());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.toString(i), s.entryAt(i));
+        }
+        for (int i = n - 1; i >= 0; i -= 2) {
+            assertEquals(Integer.toString(i), s.remove(i));
+        }
+        assertEquals(n / 2, s.length());
+        for (int i = 0; i < n / 2; i++) {
+            assertEquals(Integer.toString(2 * i), s.entryAt(i));
+        }
+        while (s.length() > 0) {
+            s.remove(s.length() / 2);
+        }
+        assertEquals("<>", s.toString());
+    }
+
+    /**
+     * Test for addAll with a {@code Sequence4} in the middle.
+     */
+    @Test
+    public final void testAddAllSequence4Middle() {
+        final int n = 1000;
+        Sequence4<String> s = counting(n);
+        Sequence<String> t = new Sequence4<String>();
+        t.add(0, "b");
+        t.add(0, "a");
+        s.addAll(n / 2, t);
+        assertEquals(n + 2, s.length());
+        assertEquals(Integer.toString(n / 2 - 1), s.entryAt(n / 2 - 1));
+        assertEquals("a", s.entryAt(n / 2));
+        assertEquals("b", s.entryAt(n / 2 + 1));
+        assertEquals(Integer.toString(n / 2), s.entryAt(n / 2 + 2));
+        assertEquals("<>", t.toString());
+    }
+
+    /**
+     * Test for addAll with another kind of {@code Sequence} at both ends.
+     */
+    @Test
+    public final void testAddAllSequence1LEnds() {
+        Sequence<String> s = this.constructor();
+        s.add(0, "red");
+        Sequence<String> t = new Sequence1L<String>();
+        t.add(0, "green");
+        t.add(1, "blue");
+        ((Sequence4<String>) s).addAll(0, t);
+        assertEquals("<green,blue,red>", s.toString());
+        assertEquals("<>", t.toString());
+        t.add(0, "yellow");
+        ((Sequence4<String>) s).addAll(s.length(), t);
+        assertEquals("<green,blue,red,yellow>", s.toString());
+    }
+
+    /**
+     * Test for many addAll calls, each with a one-entry {@code Sequence4},
+     * half at the end and half at random positions, leaving blocks as full as
+     * those left by add: random entryAt calls on the result take about as
+     * long as on a sequence of the same length built with add, rather than
+     * the hundred times longer that a block per call would make them.
+     */
+    @Test
+    public final void testManySmallAddAllsKeepBlocksFull() {
+        final int n = 100000;
+        final int probes = 20000;
+        final int rounds = 3;
+        final int slack = 10;
+        Random positions = new Random(0);
+        Sequence4<Integer> spliced = new Sequence4<Integer>();
+        Sequence4<Integer> added = new Sequence4<Integer>();
+        for (int i = 0; i < n; i++) {
+            Sequence4<Integer> t = new Sequence4<Integer>();
+            t.add(0, i);
+            int pos = spliced.length();
+            if (i % 2 == 1) {
+                pos = positions.nextInt(pos + 1);
+            }
+            spliced.addAll(pos, t);
+            added.add(i, i);
+        }
+        assertEquals(n, spliced.length());
+        long splicedTime = Long.MAX_VALUE;
+        long addedTime = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            Random random = new Random(r);
+            long start = System.nanoTime();
+            for (int i = 0; i < probes; i++) {
+                spliced.entryAt(random.nextInt(n));
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < probes; i++) {
+                added.entryAt(random.nextInt(n));
+            }
+            long end = System.nanoTime();
+            splicedTime = Math.min(splicedTime, middle - start);
+            addedTime = Math.min(addedTime, end - middle);
+        }
+        assertTrue(splicedTime < slack * Math.max(addedTime, 1000000));
+    }
+
+    /**
+     * Test for many addAll calls, with short and long sequences of both
+     * kinds at random positions, against a {@code List}.
+     */
+    @Test
+    public final void testAddAllMixedSizes() {
+        final int rounds = 300;
+        final int longest = 200;
+        Random random = new Random(1);
+        Sequence4<Integer> s = new Sequence4<Integer>();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int r = 0; r < rounds; r++) {
+            int m = random.nextInt(longest);
+            Sequence<Integer> t;
+            if (r % 2 == 0) {
+                t = new Sequence4<Integer>();
+            } else {
+                t = new Sequence1L<Integer>();
+            }
+            List<Integer> tExpected = new ArrayList<Integer>();
+            for (int i = 0; i < m; i++) {
+                t.add(i, r * longest + i);
+                tExpected.add(r * longest + i);
+            }
+            int pos = random.nextInt(s.length() + 1);
+            s.addAll(pos, t);
+            expected.addAll(pos, tExpected);
+            assertEquals(0, t.length());
+            if (s.length() > 0) {
+                int q = random.nextInt(s.length());
+                assertEquals(expected.remove(q), s.remove(q));
+            }
+        }
+        assertEquals(expected.size(), s.length());
+        int i = 0;
+        for (Integer x : s) {
+            assertEquals(expected.get(i), x);
+            i++;
+        }
+    }
+
+    /**
+     * Test for slice across several blocks.
+     */
+    @Test
+    public final void testSlice() {
+        final int n = 1000;
+        final int from = 123;
+        final int to = 877;
+        Sequence4<String> s = counting(n);
+        int i = from;
+        for (String x : s.slice(from, to)) {
+            assertEquals(Integer.toString(i), x);
+            i++;
+        }
+        assertEquals(to, i);
+        assertEquals(false, s.slice(from, from).iterator().hasNext());
+        assertEquals(n, s.length());
+    }
+
+}
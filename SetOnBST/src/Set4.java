@@ -0,0 +1,743 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as an AVL tree (a height-balanced binary search
+ * tree) of nodes, each recording the height and the size of its subtree, with
+ * implementations of primary methods and of the order-statistic methods
+ * {@code rank}, {@code select}, and {@code range}.
+ * 
+ * <p>
+ * Unlike {@code Set3}, whose tree degenerates into a list when elements are
+ * added in sorted order, every node here has subtrees whose heights differ by
+ * at most one, so the tree's height stays below 1.45 log(|this| + 2) and
+ * {@code add}, {@code remove}, {@code contains}, {@code rank}, and
+ * {@code select} all take time logarithmic in {@code |this|} whatever the
+ * order of the elements. {@code buildFromSorted} replaces {@code this} with
+ * the contents of a sorted {@code Queue} in linear time.
+ * 
+ * @param <T>
+ *            type of {@code Set} elements
+ * @mathdefinitions <pre>
+ * {@code IS_AVL(
+ *   n: node of T
+ *  ): boolean satisfies
+ *  [n is null, or n.left and n.right satisfy IS_AVL, every label in n.left
+ *   is less than n.label and every label in n.right is greater than n.label
+ *   in the ordering reported by compareTo for T,
+ *   |HEIGHT(n.left) - HEIGHT(n.right)| <= 1,
+ *   n.height = 1 + max(HEIGHT(n.left), HEIGHT(n.right)), and
+ *   n.size = 1 + SIZE(n.left) + SIZE(n.right), where HEIGHT and SIZE of null
+ *   are 0]}
+ * </pre>
+ * @convention <pre>
+ * {@code IS_AVL($this.root)}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = labels($this.root)}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Set4<T extends Comparable<T>> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the AVL tree.
+     * 
+     * @param <T>
+     *            type of the label
+     */
+    private static final class Node<T> {
+
+        /**
+         * Label of this node.
+         */
+        private T label;
+
+        /**
+         * Left subtree, {@code null} if empty.
+         */
+        private Node<T> left;
+
+        /**
+         * Right subtree, {@code null} if empty.
+         */
+        private Node<T> right;
+
+        /**
+         * Height of the subtree rooted at this node.
+         */
+        private int height;
+
+        /**
+         * Number of nodes in the subtree rooted at this node.
+         */
+        private int size;
+
+        /**
+         * Constructor for a leaf.
+         * 
+         * @param label
+         *            the label
+         */
+        private Node(T label) {
+            this.label = label;
+            this.height = 1;
+            this.size = 1;
+        }
+
+    }
+
+    /**
+     * Root of the AVL tree, {@code null} if {@code this} is empty.
+     */
+    private Node<T> root;
+
+    /**
+     * Returns the height of {@code n}.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @return the height of n, 0 if n is null
+     */
+    private static <T> int height(Node<T> n) {
+        int result = 0;
+        if (n != null) {
+            result = n.height;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of nodes in {@code n}.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @return the size of n, 0 if n is null
+     */
+    private static <T> int size(Node<T> n) {
+        int result = 0;
+        if (n != null) {
+            result = n.size;
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes the height and size of {@code n} from its children.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the node to update
+     * @updates n.height, n.size
+     * @requires <pre>
+     * {@code n /= null  and  [n.left and n.right have correct heights and
+     *  sizes]}
+     * </pre>
+     */
+    private static <T> void update(Node<T> n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    /**
+     * Rotates {@code n} to the right and returns the new subtree root.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @return the new root, formerly n.left
+     * @requires <pre>
+     * {@code n /= null  and  n.left /= null}
+     * </pre>
+     */
+    private static <T> Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    /**
+     * Rotates {@code n} to the left and returns the new subtree root.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @return the new root, formerly n.right
+     * @requires <pre>
+     * {@code n /= null  and  n.right /= null}
+     * </pre>
+     */
+    private static <T> Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    /**
+     * Restores the AVL balance at {@code n}, whose subtrees are AVL trees
+     * with heights differing by at most two, and returns the new subtree
+     * root.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @return the root of the rebalanced subtree
+     * @requires <pre>
+     * {@code n /= null  and  IS_AVL(n.left)  and  IS_AVL(n.right)  and
+     *  |HEIGHT(n.left) - HEIGHT(n.right)| <= 2}
+     * </pre>
+     * @ensures <pre>
+     * {@code IS_AVL(balance)  and  labels(balance) = labels(#n)}
+     * </pre>
+     */
+    private static <T> Node<T> balance(Node<T> n) {
+        Node<T> result = n;
+        int skew = height(n.left) - height(n.right);
+        if (skew > 1) {
+            if (height(n.left.left) < height(n.left.right)) {
+                n.left = rotateLeft(n.left);
+            }
+            result = rotateRight(n);
+        } else if (skew < -1) {
+            if (height(n.right.right) < height(n.right.left)) {
+                n.right = rotateRight(n.right);
+            }
+            result = rotateLeft(n);
+        } else {
+            update(n);
+        }
+        return result;
+    }
+
+    /**
+     * Inserts {@code x} in {@code n} and returns the new subtree root.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @param x
+     *            the label to be inserted
+     * @return the root of the subtree with x inserted
+     * @aliases reference {@code x}
+     * @requires <pre>
+     * {@code IS_AVL(n)  and  x is not in labels(n)}
+     * </pre>
+     * @ensures <pre>
+     * {@code IS_AVL(insert)  and  labels(insert) = labels(#n) union {x}}
+     * </pre>
+     */
+    private static <T extends Comparable<T>> Node<T> insert(Node<T> n, T x) {
+        Node<T> result;
+        if (n == null) {
+            result = new Node<T>(x);
+        } else {
+            if (x.compareTo(n.label) < 0) {
+                n.left = insert(n.left, x);
+            } else {
+                n.right = insert(n.right, x);
+            }
+            result = balance(n);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the smallest node from {@code n}, storing its label in
+     * {@code min[0]}, and returns the new subtree root.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @param min
+     *            holder for the removed label
+     * @return the root of the subtree without its smallest label
+     * @updates min
+     * @requires <pre>
+     * {@code IS_AVL(n)  and  n /= null  and  |min| = 1}
+     * </pre>
+     * @ensures <pre>
+     * {@code min[0] = [the smallest label in #n]  and
+     *  IS_AVL(removeSmallest)  and
+     *  labels(removeSmallest) = labels(#n) \ {min[0]}}
+     * </pre>
+     */
+    private static <T> Node<T> removeSmallest(Node<T> n, Object[] min) {
+        Node<T> result;
+        if (n.left == null) {
+            min[0] = n.label;
+            result = n.right;
+        } else {
+            n.left = removeSmallest(n.left, min);
+            result = balance(n);
+        }
+        return result;
+    }
+
+    /**
+     * Removes the node labelled {@code x} from {@code n} and returns the new
+     * subtree root.
+     * 
+     * @param <T>
+     *            type of the label
+     * @param n
+     *            the subtree
+     * @param x
+     *            the label to be removed
+     * @return the root of the subtree without x
+     * @requires <pre>
+     * {@code IS_AVL(n)  and  x is in labels(n)}
+     * </pre>
+     * @ensures <pre>
+     * {@code IS_AVL(delete)  and  labels(delete) = labels(#n) \ {x}}
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> Node<T> delete(Node<T> n, T x) {
+        Node<T> result;
+        int c = x.compareTo(n.label);
+        if (c < 0) {
+            n.left = delete(n.left, x);
+            result = balance(n);
+        } else if (c > 0) {
+            n.right = delete(n.right, x);
+            result = balance(n);
+        } else if (n.left == null) {
+            result = n.right;
+        } else if (n.right == null) {
+            result = n.left;
+        } else {
+            Object[] min = new Object[1];
+            n.right = removeSmallest(n.right, min);
+            n.label = (T) min[0];
+            result = balance(n);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node of {@code this} labelled {@code x}, or {@code null} if
+     * there is none.
+     * 
+     * @param x
+     *            the label to be searched for
+     * @return the node labelled x, or null
+     */
+    private Node<T> find(T x) {
+        Node<T> n = this.root;
+        int c = 1;
+        while (n != null && c != 0) {
+            c = x.compareTo(n.label);
+            if (c < 0) {
+                n = n.left;
+            } else if (c > 0) {
+                n = n.right;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Builds a perfectly balanced tree from {@code labels[lo..hi)}.
+     * 
+     * @param <T>
+     *            type of the labels
+     * @param labels
+     *            the labels, in increasing order
+     * @param lo
+     *            index of the first label
+     * @param hi
+     *            index past the last label
+     * @return the root of the tree, null if lo = hi
+     * @requires <pre>
+     * {@code 0 <= lo <= hi <= |labels|  and
+     *  [labels[lo..hi) is in strictly increasing order]}
+     * </pre>
+     * @ensures <pre>
+     * {@code IS_AVL(build)  and  labels(build) = elements(labels[lo..hi))}
+     * </pre>
+     */
+    private static <T> Node<T> build(T[] labels, int lo, int hi) {
+        Node<T> result = null;
+        if (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            result = new Node<T>(labels[mid]);
+            result.left = build(labels, lo, mid);
+            result.right = build(labels, mid + 1, hi);
+            update(result);
+        }
+        return result;
+    }
+
+    /**
+     * Enqueues, in increasing order, the labels {@code y} of {@code n} with
+     * {@code lo <= y < hi}.
+     * 
+     * @param <T>
+     *            type of the labels
+     * @param n
+     *            the subtree
+     * @param lo
+     *            the lower bound, inclusive
+     * @param hi
+     *            the upper bound, exclusive
+     * @param q
+     *            the queue to which labels are appended
+     * @updates q
+     * @ensures <pre>
+     * {@code q = #q * [labels y of n with lo <= y < hi, in increasing
+     *  order]}
+     * </pre>
+     */
+    private static <T extends Comparable<T>> void collect(Node<T> n, T lo,
+            T hi, Queue<T> q) {
+        if (n != null) {
+            boolean aboveLo = lo.compareTo(n.label) <= 0;
+            boolean belowHi = n.label.compareTo(hi) < 0;
+            if (aboveLo) {
+                collect(n.left, lo, hi, q);
+            }
+            if (aboveLo && belowHi) {
+                q.enqueue(n.label);
+            }
+            if (belowHi) {
+                collect(n.right, lo, hi, q);
+            }
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.root = null;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Set4() {
+
+        this.createNewRep();
+
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set4<?> : ""
+                + "Violation of: source is of dynamic type Set4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set4<T> localSource = (Set4<T>) source;
+        this.root = localSource.root;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        this.root = insert(this.root, x);
+
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        T result = this.find(x).label;
+        this.root = delete(this.root, x);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        Object[] min = new Object[1];
+        this.root = removeSmallest(this.root, min);
+        return (T) min[0];
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return this.find(x) != null;
+    }
+
+    @Override
+    public final int size() {
+
+        return size(this.root);
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports the number of elements of {@code this} that are smaller than
+     * {@code x}.
+     * 
+     * @param x
+     *            the element to rank
+     * @return the number of elements of this less than x
+     * @ensures <pre>
+     * {@code rank = |{y: T where (y is in this  and  y < x)}|}
+     * </pre>
+     */
+    public final int rank(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        int result = 0;
+        Node<T> n = this.root;
+        while (n != null) {
+            int c = x.compareTo(n.label);
+            if (c < 0) {
+                n = n.left;
+            } else if (c > 0) {
+                result += size(n.left) + 1;
+                n = n.right;
+            } else {
+                result += size(n.left);
+                n = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports the element of {@code this} with exactly {@code k} smaller
+     * elements in {@code this}.
+     * 
+     * @param k
+     *            the rank of the element to report
+     * @return the element of rank k
+     * @aliases reference returned by {@code select}
+     * @requires <pre>
+     * {@code 0 <= k < |this|}
+     * </pre>
+     * @ensures <pre>
+     * {@code select is in this  and  rank(select) = k}
+     * </pre>
+     */
+    public final T select(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < this.size() : "Violation of: k < |this|";
+
+        Node<T> n = this.root;
+        int i = k;
+        int leftSize = size(n.left);
+        while (i != leftSize) {
+            if (i < leftSize) {
+                n = n.left;
+            } else {
+                i -= leftSize + 1;
+                n = n.right;
+            }
+            leftSize = size(n.left);
+        }
+        return n.label;
+    }
+
+    /**
+     * Reports, in increasing order, the elements of {@code this} that are at
+     * least {@code lo} and smaller than {@code hi}.
+     * 
+     * @param lo
+     *            the lower bound, inclusive
+     * @param hi
+     *            the upper bound, exclusive
+     * @return the elements of this in [lo, hi), in increasing order
+     * @aliases references in returned {@code Queue}
+     * @requires <pre>
+     * {@code lo <= hi}
+     * </pre>
+     * @ensures <pre>
+     * {@code elements(range) = {y: T where (y is in this  and
+     *                                      lo <= y < hi)}  and
+     *  [range is in strictly increasing order]}
+     * </pre>
+     */
+    public final Queue<T> range(T lo, T hi) {
+        assert lo != null : "Violation of: lo is not null";
+        assert hi != null : "Violation of: hi is not null";
+        assert lo.compareTo(hi) <= 0 : "Violation of: lo <= hi";
+
+        Queue<T> result = new Queue1L<T>();
+        collect(this.root, lo, hi, result);
+        return result;
+    }
+
+    /**
+     * Replaces {@code this} with the entries of {@code q}, which must already
+     * be in strictly increasing order, in time linear in {@code |q|}.
+     * 
+     * @param q
+     *            the elements, in strictly increasing order
+     * @replaces this
+     * @clears q
+     * @requires <pre>
+     * {@code [q is in strictly increasing order]}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = elements(#q)}
+     * </pre>
+     */
+    public final void buildFromSorted(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+
+        @SuppressWarnings("unchecked")
+        T[] labels = (T[]) new Comparable<?>[q.length()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = q.dequeue();
+            assert i == 0 || labels[i - 1].compareTo(labels[i]) < 0 : ""
+                    + "Violation of: q is in strictly increasing order";
+        }
+        this.root = build(labels, 0, labels.length);
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set4}, yielding
+     * the elements in increasing order.
+     */
+    private final class Set4Iterator implements Iterator<T> {
+
+        /**
+         * Nodes whose labels and right subtrees are still to be visited,
+         * innermost on top.
+         */
+        private final Node<T>[] path;
+
+        /**
+         * Number of nodes on {@code path}.
+         */
+        private int depth;
+
+        /**
+         * Default constructor.
+         */
+        @SuppressWarnings("unchecked")
+        public Set4Iterator() {
+            this.path = (Node<T>[]) new Node<?>[height(Set4.this.root)];
+            this.depth = 0;
+            this.pushLeftSpine(Set4.this.root);
+        }
+
+        /**
+         * Pushes {@code n} and its chain of left descendants on {@code path}.
+         * 
+         * @param n
+         *            the subtree whose leftmost path to push
+         */
+        private void pushLeftSpine(Node<T> n) {
+            Node<T> p = n;
+            while (p != null) {
+                this.path[this.depth] = p;
+                this.depth++;
+                p = p.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.depth > 0;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            this.depth--;
+            Node<T> n = this.path[this.depth];
+            this.path[this.depth] = null;
+            this.pushLeftSpine(n.right);
+            return n.label;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,768 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as a B+-tree ordered by {@code compareTo}: every
+ * node holds up to {@code ORDER} elements in one array, internal nodes hold
+ * only separator elements and child links, and all elements live in the
+ * leaves, which are linked left to right, with implementations of primary
+ * methods and of the ordered methods {@code range} and
+ * {@code buildFromSorted}.
+ * 
+ * <p>
+ * Where {@code Set3} and {@code Set4} spend one node object per element and
+ * follow a pointer per comparison, a lookup here touches one node per level
+ * and there are at most log_{ORDER/2}(|this|) + 1 levels, so a million
+ * elements need at most five short binary searches over contiguous arrays.
+ * Iteration and {@code range} follow the leaf links, yielding elements in
+ * increasing order.
+ * 
+ * @param <T>
+ *            type of {@code Set} elements
+ * @mathdefinitions <pre>
+ * {@code IS_BPLUS_TREE(
+ *   n: node
+ *  ): boolean satisfies
+ *  [n.keys[0, n.count) is strictly increasing, n.count <= ORDER, and either
+ *   n is a leaf, or n is internal with n.count + 1 children, all of the
+ *   same height, each satisfying IS_BPLUS_TREE and holding at least
+ *   ORDER / 2 keys, such that every key under children[i] is less than
+ *   keys[i] and every key under children[i + 1] is at least keys[i]; and
+ *   the leaves, read left to right, are linked through next]}
+ * </pre>
+ * @convention <pre>
+ * {@code IS_BPLUS_TREE($this.root)  and
+ * $this.size = [number of keys in the leaves of $this.root]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [union of the keys of the leaves of $this.root]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Set5<T extends Comparable<T>> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Largest number of keys in a node.
+     */
+    private static final int ORDER = 64;
+
+    /**
+     * Smallest number of keys in a node other than the root.
+     */
+    private static final int MIN = ORDER / 2;
+
+    /**
+     * Node of the B+-tree. Its arrays have room for one key more than
+     * {@code ORDER} so that a node can overflow briefly before it is split.
+     */
+    private static final class Node {
+
+        /**
+         * Number of keys in this node.
+         */
+        private int count;
+
+        /**
+         * Keys of this node, in {@code keys[0, count)}.
+         */
+        private final Object[] keys;
+
+        /**
+         * Children of an internal node, in {@code children[0, count]},
+         * {@code null} for a leaf.
+         */
+        private final Node[] children;
+
+        /**
+         * Next leaf to the right, {@code null} for the last leaf or an
+         * internal node.
+         */
+        private Node next;
+
+        /**
+         * Constructor for an empty node.
+         * 
+         * @param leaf
+         *            whether the node is a leaf
+         */
+        private Node(boolean leaf) {
+            this.count = 0;
+            this.keys = new Object[ORDER + 1];
+            if (leaf) {
+                this.children = null;
+            } else {
+                this.children = new Node[ORDER + 2];
+            }
+        }
+
+        /**
+         * Reports whether this node is a leaf.
+         * 
+         * @return true iff this is a leaf
+         */
+        private boolean isLeaf() {
+            return this.children == null;
+        }
+
+    }
+
+    /**
+     * Root of the B+-tree, an empty leaf when {@code this} is empty.
+     */
+    private Node root;
+
+    /**
+     * Number of elements in {@code this}.
+     */
+    private int size;
+
+    /**
+     * Key promoted to the parent by the most recent {@code split}.
+     */
+    private Object promoted;
+
+    /**
+     * Returns {@code n.keys[i]} as a {@code T}.
+     * 
+     * @param <T>
+     *            type of the keys
+     * @param n
+     *            the node
+     * @param i
+     *            the index
+     * @return the key at index i of n
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T keyAt(Node n, int i) {
+        return (T) n.keys[i];
+    }
+
+    /**
+     * Returns the first index {@code i} in {@code n.keys[0, n.count)} whose
+     * key is at least {@code x} ({@code n.count} if there is none).
+     * 
+     * @param <T>
+     *            type of the keys
+     * @param n
+     *            the node to search
+     * @param x
+     *            the key to search for
+     * @return the index of the first key >= x
+     */
+    private static <T extends Comparable<T>> int lowerBound(Node n, T x) {
+        int lo = 0;
+        int hi = n.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Set5.<T> keyAt(n, mid).compareTo(x) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index {@code i} in {@code n.keys[0, n.count)} whose
+     * key is greater than {@code x} ({@code n.count} if there is none), which
+     * for an internal node is the child under which {@code x} belongs.
+     * 
+     * @param <T>
+     *            type of the keys
+     * @param n
+     *            the node to search
+     * @param x
+     *            the key to search for
+     * @return the index of the first key > x
+     */
+    private static <T extends Comparable<T>> int upperBound(Node n, T x) {
+        int lo = 0;
+        int hi = n.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (x.compareTo(Set5.<T> keyAt(n, mid)) < 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the leaf of {@code this} where {@code x} is or would be.
+     * 
+     * @param x
+     *            the key to search for
+     * @return the leaf for x
+     */
+    private Node leafFor(T x) {
+        Node n = this.root;
+        while (!n.isLeaf()) {
+            n = n.children[upperBound(n, x)];
+        }
+        return n;
+    }
+
+    /**
+     * Returns the index of {@code x} in {@code leaf}, or -1 if it is not
+     * there.
+     * 
+     * @param <T>
+     *            type of the keys
+     * @param leaf
+     *            the leaf to search
+     * @param x
+     *            the key to search for
+     * @return the index of x in leaf, or -1
+     */
+    private static <T extends Comparable<T>> int indexIn(Node leaf, T x) {
+        int i = lowerBound(leaf, x);
+        if (i == leaf.count || x.compareTo(Set5.<T> keyAt(leaf, i)) != 0) {
+            i = -1;
+        }
+        return i;
+    }
+
+    /**
+     * Moves the upper half of the overfull node {@code n} into a new right
+     * sibling, sets {@code this.promoted} to the key separating them, and
+     * returns the sibling.
+     * 
+     * @param n
+     *            the node to split
+     * @return the new right sibling of n
+     * @updates n, this.promoted
+     * @requires <pre>
+     * {@code n.count = ORDER + 1}
+     * </pre>
+     */
+    private Node split(Node n) {
+        Node right = new Node(n.isLeaf());
+        int total = n.count;
+        if (n.isLeaf()) {
+            int half = total / 2;
+            right.count = total - half;
+            System.arraycopy(n.keys, half, right.keys, 0, right.count);
+            Arrays.fill(n.keys, half, total, null);
+            n.count = half;
+            right.next = n.next;
+            n.next = right;
+            this.promoted = right.keys[0];
+        } else {
+            int mid = total / 2;
+            this.promoted = n.keys[mid];
+            right.count = total - mid - 1;
+            System.arraycopy(n.keys, mid + 1, right.keys, 0, right.count);
+            System.arraycopy(n.children, mid + 1, right.children, 0,
+                    right.count + 1);
+            Arrays.fill(n.keys, mid, total, null);
+            Arrays.fill(n.children, mid + 1, total + 1, null);
+            n.count = mid;
+        }
+        return right;
+    }
+
+    /**
+     * Inserts {@code x} under {@code n}, splitting {@code n} if it overflows.
+     * 
+     * @param n
+     *            the subtree
+     * @param x
+     *            the key to insert
+     * @return the new right sibling of n if n was split, otherwise null
+     * @updates n, this.promoted
+     * @requires <pre>
+     * {@code x is not under n}
+     * </pre>
+     */
+    private Node insert(Node n, T x) {
+        if (n.isLeaf()) {
+            int i = lowerBound(n, x);
+            System.arraycopy(n.keys, i, n.keys, i + 1, n.count - i);
+            n.keys[i] = x;
+            n.count++;
+        } else {
+            int c = upperBound(n, x);
+            Node sibling = this.insert(n.children[c], x);
+            if (sibling != null) {
+                System.arraycopy(n.keys, c, n.keys, c + 1, n.count - c);
+                System.arraycopy(n.children, c + 1, n.children, c + 2,
+                        n.count - c);
+                n.keys[c] = this.promoted;
+                n.children[c + 1] = sibling;
+                n.count++;
+            }
+        }
+        Node result = null;
+        if (n.count > ORDER) {
+            result = this.split(n);
+        }
+        return result;
+    }
+
+    /**
+     * Removes {@code x} from under {@code n}, restoring the minimum occupancy
+     * of any child left with too few keys.
+     * 
+     * @param <T>
+     *            type of the keys
+     * @param n
+     *            the subtree
+     * @param x
+     *            the key to remove
+     * @updates n
+     * @requires <pre>
+     * {@code x is under n}
+     * </pre>
+     */
+    private static <T extends Comparable<T>> void delete(Node n, T x) {
+        if (n.isLeaf()) {
+            int i = lowerBound(n, x);
+            n.count--;
+            System.arraycopy(n.keys, i + 1, n.keys, i, n.count - i);
+            n.keys[n.count] = null;
+        } else {
+            int c = upperBound(n, x);
+            delete(n.children[c], x);
+            if (n.children[c].count < MIN) {
+                refill(n, c);
+            }
+        }
+    }
+
+    /**
+     * Brings {@code parent.children[c]}, which has one key fewer than
+     * {@code MIN}, back to at least {@code MIN} keys by borrowing a key from
+     * a sibling or, if neither sibling can spare one, by merging it with a
+     * sibling.
+     * 
+     * @param parent
+     *            the internal node
+     * @param c
+     *            the index of the child to refill
+     * @updates parent
+     * @requires <pre>
+     * {@code parent.count >= 1  and  parent.children[c].count = MIN - 1}
+     * </pre>
+     */
+    private static void refill(Node parent, int c) {
+        Node child = parent.children[c];
+        if (c > 0 && parent.children[c - 1].count > MIN) {
+            Node left = parent.children[c - 1];
+            System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+            if (child.isLeaf()) {
+                child.keys[0] = left.keys[left.count - 1];
+                parent.keys[c - 1] = child.keys[0];
+            } else {
+                System.arraycopy(child.children, 0, child.children, 1,
+                        child.count + 1);
+                child.keys[0] = parent.keys[c - 1];
+                child.children[0] = left.children[left.count];
+                left.children[left.count] = null;
+                parent.keys[c - 1] = left.keys[left.count - 1];
+            }
+            left.keys[left.count - 1] = null;
+            left.count--;
+            child.count++;
+        } else if (c < parent.count && parent.children[c + 1].count > MIN) {
+            Node right = parent.children[c + 1];
+            if (child.isLeaf()) {
+                child.keys[child.count] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0,
+                        right.count - 1);
+                parent.keys[c] = right.keys[0];
+            } else {
+                child.keys[child.count] = parent.keys[c];
+                child.children[child.count + 1] = right.children[0];
+                parent.keys[c] = right.keys[0];
+                System.arraycopy(right.keys, 1, right.keys, 0,
+                        right.count - 1);
+                System.arraycopy(right.children, 1, right.children, 0,
+                        right.count);
+                right.children[right.count] = null;
+            }
+            right.keys[right.count - 1] = null;
+            right.count--;
+            child.count++;
+        } else if (c > 0) {
+            merge(parent, c - 1);
+        } else {
+            merge(parent, c);
+        }
+    }
+
+    /**
+     * Merges {@code parent.children[s + 1]} into {@code parent.children[s]}
+     * and removes separator {@code parent.keys[s]}.
+     * 
+     * @param parent
+     *            the internal node
+     * @param s
+     *            the index of the separator between the two children
+     * @updates parent
+     * @requires <pre>
+     * {@code 0 <= s < parent.count  and
+     *  [the two children together hold fewer than ORDER keys]}
+     * </pre>
+     */
+    private static void merge(Node parent, int s) {
+        Node left = parent.children[s];
+        Node right = parent.children[s + 1];
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count,
+                    right.count);
+            left.count += right.count;
+            left.next = right.next;
+        } else {
+            left.keys[left.count] = parent.keys[s];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1,
+                    right.count);
+            System.arraycopy(right.children, 0, left.children,
+                    left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        parent.count--;
+        System.arraycopy(parent.keys, s + 1, parent.keys, s, parent.count - s);
+        System.arraycopy(parent.children, s + 2, parent.children, s + 1,
+                parent.count - s);
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.root = new Node(true);
+        this.size = 0;
+        this.promoted = null;
+
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Set5() {
+
+        this.createNewRep();
+
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set5<?> : ""
+                + "Violation of: source is of dynamic type Set5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set5<T> localSource = (Set5<T>) source;
+        this.root = localSource.root;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        Node sibling = this.insert(this.root, x);
+        if (sibling != null) {
+            Node newRoot = new Node(false);
+            newRoot.keys[0] = this.promoted;
+            newRoot.children[0] = this.root;
+            newRoot.children[1] = sibling;
+            newRoot.count = 1;
+            this.root = newRoot;
+        }
+        this.promoted = null;
+        this.size++;
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        Node leaf = this.leafFor(x);
+        T result = keyAt(leaf, indexIn(leaf, x));
+        delete(this.root, x);
+        if (!this.root.isLeaf() && this.root.count == 0) {
+            this.root = this.root.children[0];
+        }
+        this.size--;
+        return result;
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        Node n = this.root;
+        while (!n.isLeaf()) {
+            n = n.children[0];
+        }
+        T x = keyAt(n, 0);
+        return this.remove(x);
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return indexIn(this.leafFor(x), x) >= 0;
+    }
+
+    @Override
+    public final int size() {
+
+        return this.size;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Reports, in increasing order, the elements of {@code this} that are at
+     * least {@code lo} and smaller than {@code hi}.
+     * 
+     * @param lo
+     *            the lower bound, inclusive
+     * @param hi
+     *            the upper bound, exclusive
+     * @return the elements of this in [lo, hi), in increasing order
+     * @aliases references in returned {@code Queue}
+     * @requires <pre>
+     * {@code lo <= hi}
+     * </pre>
+     * @ensures <pre>
+     * {@code elements(range) = {y: T where (y is in this  and
+     *                                      lo <= y < hi)}  and
+     *  [range is in strictly increasing order]}
+     * </pre>
+     */
+    public final Queue<T> range(T lo, T hi) {
+        assert lo != null : "Violation of: lo is not null";
+        assert hi != null : "Violation of: hi is not null";
+        assert lo.compareTo(hi) <= 0 : "Violation of: lo <= hi";
+
+        Queue<T> result = new Queue1L<T>();
+        Node leaf = this.leafFor(lo);
+        int i = lowerBound(leaf, lo);
+        boolean done = false;
+        while (leaf != null && !done) {
+            while (i < leaf.count && !done) {
+                T x = keyAt(leaf, i);
+                done = x.compareTo(hi) >= 0;
+                if (!done) {
+                    result.enqueue(x);
+                    i++;
+                }
+            }
+            leaf = leaf.next;
+            i = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Replaces {@code this} with the entries of {@code q}, which must already
+     * be in strictly increasing order, packing the leaves as full as
+     * possible, in time linear in {@code |q|}.
+     * 
+     * @param q
+     *            the elements, in strictly increasing order
+     * @replaces this
+     * @clears q
+     * @requires <pre>
+     * {@code [q is in strictly increasing order]}
+     * </pre>
+     * @ensures <pre>
+     * {@code this = elements(#q)}
+     * </pre>
+     */
+    public final void buildFromSorted(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
+
+        this.createNewRep();
+        int n = q.length();
+        if (n > 0) {
+            /*
+             * Spread the elements as evenly as possible over the fewest leaves
+             * that hold them, so that every leaf has at least MIN keys
+             */
+            int width = (n + ORDER - 1) / ORDER;
+            Node[] level = new Node[width];
+            Object[] mins = new Object[width];
+            T previous = null;
+            for (int j = 0; j < width; j++) {
+                Node leaf = new Node(true);
+                leaf.count = n / width;
+                if (j < n % width) {
+                    leaf.count++;
+                }
+                for (int i = 0; i < leaf.count; i++) {
+                    T x = q.dequeue();
+                    assert previous == null || previous.compareTo(x) < 0 : ""
+                            + "Violation of: q is in strictly increasing order";
+                    previous = x;
+                    leaf.keys[i] = x;
+                }
+                if (j > 0) {
+                    level[j - 1].next = leaf;
+                }
+                level[j] = leaf;
+                mins[j] = leaf.keys[0];
+            }
+            while (level.length > 1) {
+                int m = level.length;
+                int parents = (m + ORDER) / (ORDER + 1);
+                Node[] above = new Node[parents];
+                Object[] aboveMins = new Object[parents];
+                int c = 0;
+                for (int j = 0; j < parents; j++) {
+                    Node parent = new Node(false);
+                    int children = m / parents;
+                    if (j < m % parents) {
+                        children++;
+                    }
+                    aboveMins[j] = mins[c];
+                    parent.children[0] = level[c];
+                    for (int k = 1; k < children; k++) {
+                        parent.keys[k - 1] = mins[c + k];
+                        parent.children[k] = level[c + k];
+                    }
+                    parent.count = children - 1;
+                    c += children;
+                    above[j] = parent;
+                }
+                level = above;
+                mins = aboveMins;
+            }
+            this.root = level[0];
+            this.size = n;
+        }
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set5}, yielding
+     * the elements in increasing order by following the leaf links.
+     */
+    private final class Set5Iterator implements Iterator<T> {
+
+        /**
+         * Number of elements seen already (i.e., |~this.seen|).
+         */
+        private int numberSeen;
+
+        /**
+         * Leaf holding the next element.
+         */
+        private Node leaf;
+
+        /**
+         * Index of the next element in {@code leaf}.
+         */
+        private int index;
+
+        /**
+         * Default constructor.
+         */
+        public Set5Iterator() {
+            this.numberSeen = 0;
+            Node n = Set5.this.root;
+            while (!n.isLeaf()) {
+                n = n.children[0];
+            }
+            this.leaf = n;
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.numberSeen < Set5.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            if (this.index == this.leaf.count) {
+                this.leaf = this.leaf.next;
+                this.index = 0;
+            }
+            this.numberSeen++;
+            T result = keyAt(this.leaf, this.index);
+            this.index++;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.set.Set;
+
+/**
+ * Customized JUnit test fixture for {@code Set4}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+
+public final class Set4Test extends SetTest {
+
+    @Override
+    protected Set<String> constructor() {
+        return new Set4<String>();
+    }
+
+    /**
+     * Returns {@code i} as a string of {@code width} digits, zero-padded on the
+     * left so that string order agrees with numeric order.
+     * 
+     * @param i
+     *            the number
+     * @param width
+     *            the number of digits
+     * @return the padded string
+     */
+    private static String padded(int i, int width) {
+        StringBuilder sb = new StringBuilder(Integer.toString(i));
+        while (sb.length() < width) {
+            sb.insert(0, '0');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test for rank on present and absent elements.
+     */
+    @Test
+    public final void testRank() {
+        Set4<String> s = new Set4<String>();
+        s.add("d");
+        s.add("b");
+        s.add("f");
+        assertEquals(0, s.rank("a"));
+        assertEquals(0, s.rank("b"));
+        assertEquals(1, s.rank("c"));
+        assertEquals(2, s.rank("f"));
+        assertEquals(3, s.rank("g"));
+    }
+
+    /**
+     * Test for select, in every position.
+     */
+    @Test
+    public final void testSelect() {
+        Set4<String> s = new Set4<String>();
+        s.add("red");
+        s.add("blue");
+        s.add("green");
+        assertEquals("blue", s.select(0));
+        assertEquals("green", s.select(1));
+        assertEquals("red", s.select(2));
+    }
+
+    /**
+     * Test for range, including an empty range.
+     */
+    @Test
+    public final void testRange() {
+        Set4<String> s = new Set4<String>();
+        s.add("a");
+        s.add("c");
+        s.add("e");
+        s.add("g");
+        Queue<String> q = s.range("b", "g");
+        assertEquals("<c,e>", q.toString());
+        q = s.range("a", "a");
+        assertEquals(0, q.length());
+        assertEquals(4, s.size());
+    }
+
+    /**
+     * Test for buildFromSorted.
+     */
+    @Test
+    public final void testBuildFromSorted() {
+        final int n = 100;
+        Queue<String> q = new Queue1L<String>();
+        for (int i = 0; i < n; i++) {
+            q.enqueue(padded(i, 3));
+        }
+        Set4<String> s = new Set4<String>();
+        s.add("zzz");
+        s.buildFromSorted(q);
+        assertEquals(0, q.length());
+        assertEquals(n, s.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(padded(i, 3), s.select(i));
+            assertEquals(i, s.rank(padded(i, 3)));
+        }
+        assertEquals(false, s.contains("zzz"));
+    }
+
+    /**
+     * Test for many adds in sorted order followed by removes, checking order
+     * statistics along the way.
+     */
+    @Test
+    public final void testSortedAddsAndRemoves() {
+        final int n = 20000;
+        final int width = 5;
+        Set4<String> s = new Set4<String>();
+        for (int i = 0; i < n; i++) {
+            s.add(padded(i, width));
+        }
+        assertEquals(n, s.size());
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(padded(i, width), s.remove(padded(i, width)));
+        }
+        assertEquals(n / 2, s.size());
+        for (int i = 0; i < n / 2; i++) {
+            assertEquals(padded(2 * i + 1, width), s.select(i));
+        }
+        int count = 0;
+        String previous = "";
+        for (String x : s) {
+            assertEquals(true, previous.compareTo(x) < 0);
+            previous = x;
+            count++;
+        }
+        assertEquals(n / 2, count);
+    }
+
+}
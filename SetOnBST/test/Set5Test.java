@@ -0,0 +1,111 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.queue.Queue;
+import components.queue.Queue1L;
+import components.set.Set;
+
+/**
+ * Customized JUnit test fixture for {@code Set5}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+
+public final class Set5Test extends SetTest {
+
+    @Override
+    protected Set<String> constructor() {
+        return new Set5<String>();
+    }
+
+    /**
+     * Returns {@code i} as a string of {@code width} digits, zero-padded on the
+     * left so that string order agrees with numeric order.
+     * 
+     * @param i
+     *            the number
+     * @param width
+     *            the number of digits
+     * @return the padded string
+     */
+    private static String padded(int i, int width) {
+        StringBuilder sb = new StringBuilder(Integer.toString(i));
+        while (sb.length() < width) {
+            sb.insert(0, '0');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test for range, including an empty range.
+     */
+    @Test
+    public final void testRange() {
+        Set5<String> s = new Set5<String>();
+        s.add("a");
+        s.add("c");
+        s.add("e");
+        s.add("g");
+        Queue<String> q = s.range("b", "g");
+        assertEquals("<c,e>", q.toString());
+        q = s.range("a", "a");
+        assertEquals(0, q.length());
+        assertEquals(4, s.size());
+    }
+
+    /**
+     * Test for buildFromSorted.
+     */
+    @Test
+    public final void testBuildFromSorted() {
+        final int n = 1000;
+        Queue<String> q = new Queue1L<String>();
+        for (int i = 0; i < n; i++) {
+            q.enqueue(padded(i, 4));
+        }
+        Set5<String> s = new Set5<String>();
+        s.add("zzz");
+        s.buildFromSorted(q);
+        assertEquals(0, q.length());
+        assertEquals(n, s.size());
+        int i = 0;
+        for (String x : s) {
+            assertEquals(padded(i, 4), x);
+            i++;
+        }
+        assertEquals(false, s.contains("zzz"));
+    }
+
+    /**
+     * Test for many adds in sorted order followed by removes, checking the
+     * order of the remaining elements.
+     */
+    @Test
+    public final void testSortedAddsAndRemoves() {
+        final int n = 20000;
+        final int width = 5;
+        Set5<String> s = new Set5<String>();
+        for (int i = 0; i < n; i++) {
+            s.add(padded(i, width));
+        }
+        assertEquals(n, s.size());
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(padded(i, width), s.remove(padded(i, width)));
+        }
+        assertEquals(n / 2, s.size());
+        Queue<String> q = s.range(padded(n / 4, width), padded(n / 2, width));
+        assertEquals(n / 8, q.length());
+        assertEquals(padded(n / 4 + 1, width), q.dequeue());
+        int count = 0;
+        String previous = "";
+        for (String x : s) {
+            assertEquals(true, previous.compareTo(x) < 0);
+            previous = x;
+            count++;
+        }
+        assertEquals(n / 2, count);
+    }
+
+}
@@ -0,0 +1,342 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented, like {@code Set2}, as a queue of elements, but
+ * with the queue kept as a doubly linked chain of nodes so that any element
+ * can be unlinked in place, and with a side hash index from each element to
+ * its node, with implementations of primary methods.
+ * 
+ * <p>
+ * With the index (the default), {@code add}, {@code remove}, and
+ * {@code contains} take constant expected time and never rotate or copy the
+ * queue; elements are iterated in the order in which they were added.
+ * Without the index ({@code new Set6<T>(false)}), a lookup scans the queue
+ * from the front and then splices the element it found to the front, so that
+ * the elements looked up most often stay near the front. This self-organizing
+ * mode suits small sets with skewed access, where it saves the index's
+ * memory; unlike {@code Set2.moveToFront}, it allocates nothing and stops at
+ * the element found.
+ * 
+ * @param <T>
+ *            type of {@code Set} elements
+ * @convention <pre>
+ * {@code [$this.header.next, $this.header.next.next, ... form a chain of
+ *  $this.size nodes, linked both ways, that ends back at $this.header]  and
+ * [the values of the nodes in the chain are distinct]  and
+ * if $this.index /= null
+ *  then DOMAIN($this.index) = [values of the nodes in the chain]  and
+ *       [$this.index maps each value to its node]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [values of the nodes in the chain from $this.header]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Set6<T> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the doubly linked queue.
+     * 
+     * @param <T>
+     *            type of the value
+     */
+    private static final class Node<T> {
+
+        /**
+         * Value of this node, {@code null} in the header.
+         */
+        private T value;
+
+        /**
+         * Node before this one.
+         */
+        private Node<T> previous;
+
+        /**
+         * Node after this one.
+         */
+        private Node<T> next;
+
+    }
+
+    /**
+     * Header node; {@code header.next} is the front of the queue and
+     * {@code header.previous} its rear.
+     */
+    private Node<T> header;
+
+    /**
+     * Number of elements in {@code this}.
+     */
+    private int size;
+
+    /**
+     * Index from element to node, {@code null} in move-to-front mode.
+     */
+    private HashMap<T, Node<T>> index;
+
+    /**
+     * Whether {@code this} keeps a hash index.
+     */
+    private final boolean indexed;
+
+    /**
+     * Unlinks {@code n} from the queue.
+     * 
+     * @param <T>
+     *            type of the value
+     * @param n
+     *            the node to unlink
+     */
+    private static <T> void unlink(Node<T> n) {
+        n.previous.next = n.next;
+        n.next.previous = n.previous;
+    }
+
+    /**
+     * Links {@code n} into the queue right after {@code p}.
+     * 
+     * @param <T>
+     *            type of the value
+     * @param n
+     *            the node to link
+     * @param p
+     *            the node to link it after
+     */
+    private static <T> void linkAfter(Node<T> n, Node<T> p) {
+        n.previous = p;
+        n.next = p.next;
+        p.next.previous = n;
+        p.next = n;
+    }
+
+    /**
+     * Returns the node whose value is {@code x}, or {@code null} if there is
+     * none. Without the index, the node found is moved to the front.
+     * 
+     * @param x
+     *            the element to look for
+     * @return the node of x, or null
+     * @updates $this.header
+     */
+    private Node<T> find(T x) {
+        Node<T> result;
+        if (this.index != null) {
+            result = this.index.get(x);
+        } else {
+            result = this.header.next;
+            while (result != this.header && !result.value.equals(x)) {
+                result = result.next;
+            }
+            if (result == this.header) {
+                result = null;
+            } else if (result.previous != this.header) {
+                unlink(result);
+                linkAfter(result, this.header);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.header = new Node<T>();
+        this.header.previous = this.header;
+        this.header.next = this.header;
+        this.size = 0;
+        if (this.indexed) {
+            this.index = new HashMap<T, Node<T>>();
+        } else {
+            this.index = null;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor, resulting in a set with a hash index.
+     */
+    public Set6() {
+        this.indexed = true;
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor resulting in a set with a hash index if {@code indexed}, and
+     * otherwise in a self-organizing set that moves each element looked up to
+     * the front.
+     * 
+     * @param indexed
+     *            whether to keep a hash index
+     */
+    public Set6(boolean indexed) {
+        this.indexed = indexed;
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(boolean.class)
+                    .newInstance(this.indexed);
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set6<?> : ""
+                + "Violation of: source is of dynamic type Set6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set6<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set6<T> localSource = (Set6<T>) source;
+        this.header = localSource.header;
+        this.size = localSource.size;
+        if (this.indexed == localSource.indexed) {
+            this.index = localSource.index;
+        } else if (this.indexed) {
+            this.index = new HashMap<T, Node<T>>();
+            for (Node<T> n = this.header.next; n != this.header; n = n.next) {
+                this.index.put(n.value, n);
+            }
+        } else {
+            this.index = null;
+        }
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        Node<T> n = new Node<T>();
+        n.value = x;
+        linkAfter(n, this.header.previous);
+        if (this.index != null) {
+            this.index.put(x, n);
+        }
+        this.size++;
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        Node<T> n = this.find(x);
+        unlink(n);
+        if (this.index != null) {
+            this.index.remove(x);
+        }
+        this.size--;
+        return n.value;
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        return this.remove(this.header.next.value);
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return this.find(x) != null;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set6}.
+     */
+    private final class Set6Iterator implements Iterator<T> {
+
+        /**
+         * Node holding the next element.
+         */
+        private Node<T> current;
+
+        /**
+         * Default constructor.
+         */
+        public Set6Iterator() {
+            this.current = Set6.this.header.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != Set6.this.header;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T result = this.current.value;
+            this.current = this.current.next;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.set.Set;
+
+/**
+ * Customized JUnit test fixture for {@code Set6} using default constructor.
+ */
+public class Set6Test extends SetTest {
+
+    @Override
+    protected final Set<String> constructor() {
+        return new Set6<String>();
+    }
+
+    /**
+     * Test for iteration in the order elements were added, after lookups and
+     * a remove.
+     */
+    @Test
+    public final void testInsertionOrder() {
+        Set<String> s = this.constructor();
+        s.add("red");
+        s.add("green");
+        s.add("blue");
+        s.add("white");
+        assertEquals(true, s.contains("blue"));
+        assertEquals("green", s.remove("green"));
+        StringBuilder order = new StringBuilder();
+        for (String x : s) {
+            order.append(x).append(' ');
+        }
+        assertEquals("red blue white ", order.toString());
+    }
+
+    /**
+     * Test for many adds and removes.
+     */
+    @Test
+    public final void testManyAddsAndRemoves() {
+        final int n = 5000;
+        Set<String> s = this.constructor();
+        for (int i = 0; i < n; i++) {
+            s.add("e" + i);
+        }
+        for (int i = 0; i < n; i += 2) {
+            assertEquals("e" + i, s.remove("e" + i));
+        }
+        assertEquals(n / 2, s.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 2 == 1, s.contains("e" + i));
+        }
+    }
+
+}
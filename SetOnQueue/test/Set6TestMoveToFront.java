@@ -0,0 +1,50 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.set.Set;
+
+/**
+ * Customized JUnit test fixture for {@code Set6} without a hash index.
+ */
+public class Set6TestMoveToFront extends SetTest {
+
+    @Override
+    protected final Set<String> constructor() {
+        return new Set6<String>(false);
+    }
+
+    /**
+     * Test that a lookup moves the element found to the front.
+     */
+    @Test
+    public final void testMoveToFront() {
+        Set<String> s = this.constructor();
+        s.add("red");
+        s.add("green");
+        s.add("blue");
+        assertEquals(true, s.contains("blue"));
+        assertEquals(false, s.contains("white"));
+        assertEquals("blue", s.iterator().next());
+        assertEquals("{blue,red,green}", s.toString());
+    }
+
+    /**
+     * Test that newInstance and transferFrom keep working across modes.
+     */
+    @Test
+    public final void testTransferFromIndexed() {
+        Set<String> s = this.constructor();
+        Set<String> t = new Set6<String>();
+        t.add("red");
+        t.add("green");
+        s.transferFrom(t);
+        assertEquals(0, t.size());
+        assertEquals(true, s.contains("green"));
+        t.transferFrom(s);
+        assertEquals(true, t.contains("red"));
+        assertEquals("green", t.remove("green"));
+        assertEquals(0, s.newInstance().size());
+    }
+
+}
@@ -0,0 +1,507 @@
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ * Bulk set-algebra operations {@code union}, {@code intersection},
+ * {@code difference}, and {@code isSubset} on any two {@code Set}s, layered
+ * on the kernel methods and iterators of the operands.
+ * 
+ * <p>
+ * Each operation picks the cheapest of three strategies. When both operands
+ * iterate in strictly increasing order (as the tree kernels do) and are
+ * close enough in size that a single pass over both costs less than looking
+ * up each element of the smaller one in the larger, the two iterations are
+ * merged in one linear pass with no {@code contains} at all. Otherwise every
+ * element of the smaller operand is looked up in the larger one. When the
+ * smaller operand has at least {@code PARALLEL_THRESHOLD} elements and the
+ * larger is a {@code Set1L}, whose {@code contains} only reads its hash
+ * table, those lookups run as fork-join tasks on all cores; other kernels may
+ * reorganize themselves in {@code contains} (as {@code Set2} does) and so are
+ * only ever probed from one thread.
+ * 
+ * <p>
+ * The operands are restored; results are new sets of the same dynamic type
+ * as the first operand.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class SetAlgebra {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private SetAlgebra() {
+    }
+
+    /**
+     * Smallest number of lookups worth spreading over several threads.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Number of lookups below which a task runs them itself instead of
+     * splitting.
+     */
+    private static final int LEAF_SIZE = 1 << 12;
+
+    /**
+     * Pool running the parallel lookups.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+
+    /**
+     * Task looking up {@code elements[from, to)} in {@code probed} and
+     * recording the results in {@code found}.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     */
+    private static final class Probe<T> extends RecursiveAction {
+
+        /**
+         * Serialization version, as required of a Serializable class.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The set in which to look up elements.
+         */
+        private final Set<T> probed;
+
+        /**
+         * The elements to look up.
+         */
+        private final T[] elements;
+
+        /**
+         * found[i] reports whether elements[i] is in probed.
+         */
+        private final boolean[] found;
+
+        /**
+         * First element to look up.
+         */
+        private final int from;
+
+        /**
+         * One past the last element to look up.
+         */
+        private final int to;
+
+        /**
+         * Set once some element has not been found, if lookups should stop
+         * then; {@code null} otherwise.
+         */
+        private final AtomicBoolean missing;
+
+        /**
+         * Constructor.
+         * 
+         * @param probed
+         *            the set in which to look up elements
+         * @param elements
+         *            the elements to look up
+         * @param found
+         *            where to record the results
+         * @param from
+         *            first element to look up
+         * @param to
+         *            one past the last element to look up
+         * @param missing
+         *            flag to raise, and to stop at, on a missing element, or
+         *            null to look up every element
+         */
+        Probe(Set<T> probed, T[] elements, boolean[] found, int from, int to,
+                AtomicBoolean missing) {
+            this.probed = probed;
+            this.elements = elements;
+            this.found = found;
+            this.from = from;
+            this.to = to;
+            this.missing = missing;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= LEAF_SIZE) {
+                int i = this.from;
+                while (i < this.to
+                        && (this.missing == null || !this.missing.get())) {
+                    this.found[i] = this.probed.contains(this.elements[i]);
+                    if (!this.found[i] && this.missing != null) {
+                        this.missing.set(true);
+                    }
+                    i++;
+                }
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new Probe<T>(this.probed, this.elements, this.found,
+                        this.from, middle, this.missing), new Probe<T>(
+                        this.probed, this.elements, this.found, middle,
+                        this.to, this.missing));
+            }
+        }
+
+    }
+
+    /**
+     * Returns the elements of {@code s} in an array, in iteration order.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param s
+     *            the set
+     * @return the elements of s
+     * @ensures <pre>
+     * {@code elements(toArray) = s  and  |toArray| = |s|}
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] toArray(Set<T> s) {
+        T[] result = (T[]) new Object[s.size()];
+        int i = 0;
+        for (T x : s) {
+            result[i] = x;
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Looks up every entry of {@code elements} in {@code probed}, in parallel
+     * when that is both worthwhile and safe, and reports which were found.
+     * If {@code stopOnMiss}, lookups may stop at the first entry not found,
+     * leaving later entries of the result false.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param probed
+     *            the set in which to look up elements
+     * @param elements
+     *            the elements to look up
+     * @param stopOnMiss
+     *            whether lookups may stop at the first entry not found
+     * @return found, where found[i] reports whether elements[i] is in probed
+     * @ensures <pre>
+     * {@code |probeAll| = |elements|  and
+     * for all i: integer where (0 <= i < |elements|)
+     *   (if probeAll[i] then elements[i] is in probed)  and
+     * if not stopOnMiss  or  elements is a subset of probed
+     *  then for all i: integer where (0 <= i < |elements|)
+     *         (probeAll[i] = (elements[i] is in probed))}
+     * </pre>
+     */
+    private static <T> boolean[] probeAll(Set<T> probed, T[] elements,
+            boolean stopOnMiss) {
+        boolean[] found = new boolean[elements.length];
+        AtomicBoolean missing = null;
+        if (stopOnMiss) {
+            missing = new AtomicBoolean(false);
+        }
+        Probe<T> task = new Probe<T>(probed, elements, found, 0,
+                elements.length, missing);
+        if (elements.length >= PARALLEL_THRESHOLD && probed instanceof Set1L) {
+            POOL.invoke(task);
+        } else {
+            task.compute();
+        }
+        return found;
+    }
+
+    /**
+     * Reports whether the elements of {@code s} are {@code Comparable} and
+     * its iterator yields them in strictly increasing order.
+     * 
+     * @param s
+     *            the set
+     * @return true iff s iterates in strictly increasing order
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean isIncreasing(Set<?> s) {
+        boolean result = true;
+        Comparable<Object> previous = null;
+        Iterator<?> it = s.iterator();
+        while (result && it.hasNext()) {
+            Object x = it.next();
+            result = x instanceof Comparable
+                    && (previous == null || previous.compareTo(x) < 0);
+            previous = (Comparable<Object>) x;
+        }
+        return result;
+    }
+
+    /**
+     * Reports whether a linear merge of sets of sizes {@code m} and {@code n}
+     * is cheaper than looking up each element of the smaller in the larger,
+     * taking a lookup in an ordered set to cost about log2 of its size.
+     * 
+     * @param m
+     *            the size of one set
+     * @param n
+     *            the size of the other set
+     * @return true iff merging is expected to be cheaper
+     */
+    private static boolean mergeIsCheaper(int m, int n) {
+        final int bits = 32;
+        int small = Math.min(m, n);
+        int large = Math.max(m, n);
+        long log = bits - Integer.numberOfLeadingZeros(large);
+        return large <= small * log;
+    }
+
+    /**
+     * Reports whether {@code a} and {@code b} should be combined by merging
+     * their iterations.
+     * 
+     * @param a
+     *            the first set
+     * @param b
+     *            the second set
+     * @return true iff both sets iterate in increasing order and merging is
+     *         cheaper than lookups
+     */
+    private static boolean shouldMerge(Set<?> a, Set<?> b) {
+        return a.size() > 0 && b.size() > 0
+                && mergeIsCheaper(a.size(), b.size()) && isIncreasing(a)
+                && isIncreasing(b);
+    }
+
+    /**
+     * Merges the iterations of {@code a} and {@code b}, adding to
+     * {@code result} the elements only in {@code a} if {@code onlyA}, the
+     * elements in both if {@code both}, and the elements only in {@code b} if
+     * {@code onlyB}, in increasing order, and reports how many elements are
+     * only in {@code a}.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param a
+     *            the first set
+     * @param b
+     *            the second set
+     * @param onlyA
+     *            whether to add the elements only in a
+     * @param both
+     *            whether to add the elements in both
+     * @param onlyB
+     *            whether to add the elements only in b
+     * @param result
+     *            the set to add to
+     * @return |a \ b|
+     * @updates result
+     * @requires <pre>
+     * {@code [a and b iterate in strictly increasing order]  and
+     *  [result is disjoint from the elements to be added]}
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> int merge(Set<T> a, Set<T> b, boolean onlyA,
+            boolean both, boolean onlyB, Set<T> result) {
+        int onlyACount = 0;
+        Iterator<T> ia = a.iterator();
+        Iterator<T> ib = b.iterator();
+        T x = ia.next();
+        T y = ib.next();
+        while (x != null || y != null) {
+            int c;
+            if (x == null) {
+                c = 1;
+            } else if (y == null) {
+                c = -1;
+            } else {
+                c = ((Comparable<Object>) x).compareTo(y);
+            }
+            if (c < 0) {
+                onlyACount++;
+                if (onlyA) {
+                    result.add(x);
+                }
+            } else if (c > 0) {
+                if (onlyB) {
+                    result.add(y);
+                }
+            } else if (both) {
+                result.add(x);
+            }
+            if (c <= 0) {
+                x = null;
+                if (ia.hasNext()) {
+                    x = ia.next();
+                }
+            }
+            if (c >= 0) {
+                y = null;
+                if (ib.hasNext()) {
+                    y = ib.next();
+                }
+            }
+        }
+        return onlyACount;
+    }
+
+    /**
+     * Returns the union of {@code a} and {@code b}.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param a
+     *            the first set
+     * @param b
+     *            the second set
+     * @return a union b
+     * @ensures <pre>
+     * {@code union = a union b}
+     * </pre>
+     */
+    public static <T> Set<T> union(Set<T> a, Set<T> b) {
+        assert a != null : "Violation of: a is not null";
+        assert b != null : "Violation of: b is not null";
+
+        Set<T> result = a.newInstance();
+        if (shouldMerge(a, b)) {
+            merge(a, b, true, true, true, result);
+        } else {
+            Set<T> larger = a;
+            Set<T> smaller = b;
+            if (b.size() > a.size()) {
+                larger = b;
+                smaller = a;
+            }
+            T[] elements = toArray(smaller);
+            boolean[] found = probeAll(larger, elements, false);
+            for (T x : larger) {
+                result.add(x);
+            }
+            for (int i = 0; i < elements.length; i++) {
+                if (!found[i]) {
+                    result.add(elements[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the intersection of {@code a} and {@code b}.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param a
+     *            the first set
+     * @param b
+     *            the second set
+     * @return a intersection b
+     * @ensures <pre>
+     * {@code intersection = a intersection b}
+     * </pre>
+     */
+    public static <T> Set<T> intersection(Set<T> a, Set<T> b) {
+        assert a != null : "Violation of: a is not null";
+        assert b != null : "Violation of: b is not null";
+
+        Set<T> result = a.newInstance();
+        if (shouldMerge(a, b)) {
+            merge(a, b, false, true, false, result);
+        } else {
+            Set<T> larger = a;
+            Set<T> smaller = b;
+            if (b.size() > a.size()) {
+                larger = b;
+                smaller = a;
+            }
+            T[] elements = toArray(smaller);
+            boolean[] found = probeAll(larger, elements, false);
+            for (int i = 0; i < elements.length; i++) {
+                if (found[i]) {
+                    result.add(elements[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the difference of {@code a} and {@code b}.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param a
+     *            the first set
+     * @param b
+     *            the set whose elements are left out
+     * @return a \ b
+     * @ensures <pre>
+     * {@code difference = a \ b}
+     * </pre>
+     */
+    public static <T> Set<T> difference(Set<T> a, Set<T> b) {
+        assert a != null : "Violation of: a is not null";
+        assert b != null : "Violation of: b is not null";
+
+        Set<T> result = a.newInstance();
+        if (shouldMerge(a, b)) {
+            merge(a, b, true, false, false, result);
+        } else if (a.size() <= b.size()) {
+            T[] elements = toArray(a);
+            boolean[] found = probeAll(b, elements, false);
+            for (int i = 0; i < elements.length; i++) {
+                if (!found[i]) {
+                    result.add(elements[i]);
+                }
+            }
+        } else {
+            T[] elements = toArray(b);
+            boolean[] found = probeAll(a, elements, false);
+            for (T x : a) {
+                result.add(x);
+            }
+            for (int i = 0; i < elements.length; i++) {
+                if (found[i]) {
+                    result.remove(elements[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports whether {@code a} is a subset of {@code b}.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     * @param a
+     *            the possible subset
+     * @param b
+     *            the possible superset
+     * @return true iff a is a subset of b
+     * @ensures <pre>
+     * {@code isSubset = (a is subset of b)}
+     * </pre>
+     */
+    public static <T> boolean isSubset(Set<T> a, Set<T> b) {
+        assert a != null : "Violation of: a is not null";
+        assert b != null : "Violation of: b is not null";
+
+        boolean result;
+        if (a.size() > b.size()) {
+            result = false;
+        } else if (shouldMerge(a, b)) {
+            result = merge(a, b, false, false, false, null) == 0;
+        } else {
+            T[] elements = toArray(a);
+            boolean[] found = probeAll(b, elements, true);
+            result = true;
+            for (int i = 0; i < elements.length && result; i++) {
+                result = found[i];
+            }
+        }
+        return result;
+    }
+
+}
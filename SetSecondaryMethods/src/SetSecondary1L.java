@@ -38,8 +38,16 @@ public final class SetSecondary1L<T> extends Set1L<T> {
         assert s != null : "Violation of: s is not null";
         assert s != this : "Violation of: s is not this";
 
-        // TODO - fill in body
-
+        Set<T> temp = s.newInstance();
+        temp.transferFrom(s);
+        while (temp.size() > 0) {
+            T x = temp.removeAny();
+            if (this.contains(x)) {
+                s.add(x);
+            } else {
+                this.add(x);
+            }
+        }
     }
 
 }
\ No newline at end of file
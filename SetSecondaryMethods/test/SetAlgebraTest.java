@@ -0,0 +1,407 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.set.SetSecondary;
+
+/**
+ * JUnit test fixture for {@code SetAlgebra}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class SetAlgebraTest {
+
+    /**
+     * {@code Set} kept in a {@code java.util.TreeSet}, so that it iterates in
+     * increasing order as the tree kernels do and {@code SetAlgebra} can merge
+     * it, and that counts the calls to {@code contains}, so that a test can
+     * tell whether {@code SetAlgebra} merged or looked elements up.
+     * 
+     * @param <T>
+     *            type of {@code Set} elements
+     */
+    public static final class SortedSet<T> extends SetSecondary<T> {
+
+        /**
+         * The elements.
+         */
+        private TreeSet<T> rep = new TreeSet<T>();
+
+        /**
+         * Number of calls to {@code contains} since construction.
+         */
+        private int lookups = 0;
+
+        /**
+         * Default constructor.
+         */
+        public SortedSet() {
+        }
+
+        /**
+         * Reports the number of calls to {@code contains} since construction.
+         * 
+         * @return the number of lookups
+         */
+        public int lookups() {
+            return this.lookups;
+        }
+
+        @Override
+        public Set<T> newInstance() {
+            return new SortedSet<T>();
+        }
+
+        @Override
+        public void clear() {
+            this.rep = new TreeSet<T>();
+        }
+
+        @Override
+        public void transferFrom(Set<T> source) {
+            SortedSet<T> localSource = (SortedSet<T>) source;
+            this.rep = localSource.rep;
+            localSource.clear();
+        }
+
+        @Override
+        public void add(T x) {
+            assert !this.rep.contains(x) : "Violation of: x is not in this";
+            this.rep.add(x);
+        }
+
+        @Override
+        public T remove(T x) {
+            assert this.rep.contains(x) : "Violation of: x is in this";
+            this.rep.remove(x);
+            return x;
+        }
+
+        @Override
+        public T removeAny() {
+            assert this.rep.size() > 0 : "Violation of: this /= empty_set";
+            return this.rep.pollFirst();
+        }
+
+        @Override
+        public boolean contains(T x) {
+            this.lookups++;
+            return this.rep.contains(x);
+        }
+
+        @Override
+        public int size() {
+            return this.rep.size();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Iterator<T> it = this.rep.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return it.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException(
+                            "remove operation not supported");
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Creates and returns a {@code Set<Integer>} with the multiples of
+     * {@code step} from {@code from} (inclusive) to {@code to} (exclusive),
+     * added in increasing order if {@code increasing} and otherwise in a
+     * scrambled order.
+     * 
+     * @param from
+     *            the first element
+     * @param to
+     *            the bound on the elements
+     * @param step
+     *            the distance between elements
+     * @param increasing
+     *            whether to add the elements in increasing order
+     * @return the constructed set
+     */
+    private static Set<Integer> multiples(int from, int to, int step,
+            boolean increasing) {
+        final int scramble = 7919;
+        Set<Integer> s = new Set1L<Integer>();
+        int count = (to - from + step - 1) / step;
+        for (int i = 0; i < count; i++) {
+            int k = i;
+            if (!increasing) {
+                k = (int) ((long) i * scramble % count);
+            }
+            s.add(from + k * step);
+        }
+        return s;
+    }
+
+    /**
+     * Checks the four operations on multiples of 2 and 3 below {@code n}.
+     * 
+     * @param n
+     *            the bound on the elements
+     * @param increasing
+     *            whether to add the elements in increasing order
+     */
+    private static void checkTwosAndThrees(int n, boolean increasing) {
+        final int three = 3;
+        final int six = 6;
+        Set<Integer> twos = multiples(0, n, 2, increasing);
+        Set<Integer> threes = multiples(0, n, three, increasing);
+        Set<Integer> union = SetAlgebra.union(twos, threes);
+        Set<Integer> both = SetAlgebra.intersection(twos, threes);
+        Set<Integer> onlyTwos = SetAlgebra.difference(twos, threes);
+        int expectedUnion = 0;
+        int expectedBoth = 0;
+        for (int i = 0; i < n; i++) {
+            boolean two = i % 2 == 0;
+            boolean isThree = i % three == 0;
+            assertEquals(two || isThree, union.contains(i));
+            assertEquals(two && isThree, both.contains(i));
+            assertEquals(two && !isThree, onlyTwos.contains(i));
+            if (two || isThree) {
+                expectedUnion++;
+            }
+            if (two && isThree) {
+                expectedBoth++;
+            }
+        }
+        assertEquals(expectedUnion, union.size());
+        assertEquals(expectedBoth, both.size());
+        assertEquals(twos.size() - expectedBoth, onlyTwos.size());
+        assertEquals(true, SetAlgebra.isSubset(both, twos));
+        assertEquals(true, SetAlgebra.isSubset(multiples(0, n, six,
+                increasing), threes));
+        assertEquals(false, SetAlgebra.isSubset(threes, twos));
+        assertEquals(false, SetAlgebra.isSubset(twos, both));
+        assertEquals((n + 1) / 2, twos.size());
+    }
+
+    /**
+     * Test for the operations on small sets added in increasing order.
+     */
+    @Test
+    public final void testSmallIncreasing() {
+        final int n = 100;
+        checkTwosAndThrees(n, true);
+    }
+
+    /**
+     * Test for the operations on small sets added in scrambled order.
+     */
+    @Test
+    public final void testSmallScrambled() {
+        final int n = 100;
+        checkTwosAndThrees(n, false);
+    }
+
+    /**
+     * Test for the operations on sets large enough for parallel lookups.
+     */
+    @Test
+    public final void testLarge() {
+        final int n = 300000;
+        checkTwosAndThrees(n, false);
+    }
+
+    /**
+     * Test for the operations with an empty operand.
+     */
+    @Test
+    public final void testEmpty() {
+        final int n = 10;
+        Set<Integer> empty = new Set1L<Integer>();
+        Set<Integer> s = multiples(0, n, 1, true);
+        assertEquals(s, SetAlgebra.union(empty, s));
+        assertEquals(0, SetAlgebra.intersection(s, empty).size());
+        assertEquals(s, SetAlgebra.difference(s, empty));
+        assertEquals(true, SetAlgebra.isSubset(empty, s));
+        assertEquals(false, SetAlgebra.isSubset(s, empty));
+    }
+
+    /**
+     * Test that the operands are restored.
+     */
+    @Test
+    public final void testOperandsRestored() {
+        final int n = 50;
+        final int three = 3;
+        Set<Integer> a = multiples(0, n, 2, true);
+        Set<Integer> b = multiples(0, n, three, false);
+        Set<Integer> aCopy = multiples(0, n, 2, true);
+        Set<Integer> bCopy = multiples(0, n, three, false);
+        SetAlgebra.union(a, b);
+        SetAlgebra.intersection(a, b);
+        SetAlgebra.difference(b, a);
+        SetAlgebra.isSubset(a, b);
+        assertEquals(aCopy, a);
+        assertEquals(bCopy, b);
+    }
+
+    /**
+     * Creates and returns a {@code SortedSet<Integer>} with the multiples of
+     * {@code step} from {@code from} (inclusive) to {@code to} (exclusive).
+     * 
+     * @param from
+     *            the first element
+     * @param to
+     *            the bound on the elements
+     * @param step
+     *            the distance between elements
+     * @return the constructed set
+     */
+    private static SortedSet<Integer> sortedMultiples(int from, int to,
+            int step) {
+        SortedSet<Integer> s = new SortedSet<Integer>();
+        for (int x = from; x < to; x += step) {
+            s.add(x);
+        }
+        return s;
+    }
+
+    /**
+     * Checks the four operations on sorted {@code a} and {@code b} against
+     * {@code java.util.TreeSet}, that the operands are restored, and that
+     * {@code SetAlgebra} merged them, looking up no element, iff
+     * {@code merge}.
+     * 
+     * @param a
+     *            the first set
+     * @param b
+     *            the second set
+     * @param merge
+     *            whether the operations should merge a and b
+     */
+    private static void checkSorted(SortedSet<Integer> a,
+            SortedSet<Integer> b, boolean merge) {
+        TreeSet<Integer> ja = new TreeSet<Integer>();
+        for (Integer x : a) {
+            ja.add(x);
+        }
+        TreeSet<Integer> jb = new TreeSet<Integer>();
+        for (Integer x : b) {
+            jb.add(x);
+        }
+        SortedSet<Integer> union = new SortedSet<Integer>();
+        SortedSet<Integer> both = new SortedSet<Integer>();
+        SortedSet<Integer> onlyA = new SortedSet<Integer>();
+        SortedSet<Integer> onlyB = new SortedSet<Integer>();
+        TreeSet<Integer> all = new TreeSet<Integer>(ja);
+        all.addAll(jb);
+        for (Integer x : all) {
+            union.add(x);
+            if (ja.contains(x) && jb.contains(x)) {
+                both.add(x);
+            } else if (ja.contains(x)) {
+                onlyA.add(x);
+            } else {
+                onlyB.add(x);
+            }
+        }
+        assertEquals(union, SetAlgebra.union(a, b));
+        assertEquals(union, SetAlgebra.union(b, a));
+        assertEquals(both, SetAlgebra.intersection(a, b));
+        assertEquals(both, SetAlgebra.intersection(b, a));
+        assertEquals(onlyA, SetAlgebra.difference(a, b));
+        assertEquals(onlyB, SetAlgebra.difference(b, a));
+        SortedSet<Integer> smaller = a;
+        SortedSet<Integer> larger = b;
+        if (a.size() > b.size()) {
+            smaller = b;
+            larger = a;
+        }
+        assertEquals(larger.rep.containsAll(smaller.rep),
+                SetAlgebra.isSubset(smaller, larger));
+        assertEquals(merge, a.lookups() == 0 && b.lookups() == 0);
+        assertEquals(ja, a.rep);
+        assertEquals(jb, b.rep);
+    }
+
+    /**
+     * Test for the operations on sorted sets of similar sizes, which are
+     * merged.
+     */
+    @Test
+    public final void testSortedMerged() {
+        final int n = 1000;
+        final int three = 3;
+        checkSorted(sortedMultiples(0, n, 2), sortedMultiples(0, n, three),
+                true);
+    }
+
+    /**
+     * Test for the operations on sorted sets with one element each.
+     */
+    @Test
+    public final void testSortedSingletons() {
+        final int seven = 7;
+        checkSorted(sortedMultiples(seven, seven + 1, 1),
+                sortedMultiples(seven, seven + 1, 1), true);
+        checkSorted(sortedMultiples(seven, seven + 1, 1),
+                sortedMultiples(0, 1, 1), true);
+    }
+
+    /**
+     * Test for the operations on a sorted set and a sorted subset of it.
+     */
+    @Test
+    public final void testSortedSubset() {
+        final int n = 200;
+        final int four = 4;
+        checkSorted(sortedMultiples(0, n, 2), sortedMultiples(0, n, four),
+                true);
+    }
+
+    /**
+     * Test for the operations on sorted sets of mixed sizes, on both sides of
+     * the point where looking up each element of the smaller set becomes
+     * cheaper than merging: with 8 elements in the smaller set, merging is
+     * cheaper up to 48 elements in the larger one, since 48 &lt;= 8 * 6 but
+     * 49 &gt; 8 * 6, where 6 is the bit length of both.
+     */
+    @Test
+    public final void testSortedMixedSizes() {
+        final int smallSize = 8;
+        final int lastMerged = 48;
+        final int largest = 80;
+        final int seven = 7;
+        final int offset = 20;
+        for (int n = smallSize; n <= largest; n++) {
+            checkSorted(sortedMultiples(0, smallSize * seven, seven),
+                    sortedMultiples(offset, offset + n, 1), n <= lastMerged);
+        }
+    }
+
+    /**
+     * Test for the operations on a small sorted set and a much larger one,
+     * which are not merged.
+     */
+    @Test
+    public final void testSortedSmallAndLarge() {
+        final int n = 100000;
+        final int step = 9973;
+        checkSorted(sortedMultiples(0, n, step), sortedMultiples(0, n, 2),
+                false);
+    }
+
+}
@@ -1,13 +1,186 @@
-import static org.junit.Assert.*;
+import static org.junit.Assert.assertEquals;
 
 import org.junit.Test;
 
+import components.set.Set;
 
+/**
+ * JUnit test fixture for {@code SetSecondary1L}'s secondary methods
+ * {@code add(Set)} and {@code remove(Set)}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
 public class SetSecondary1LTest {
 
+    /**
+     * Creates and returns a {@code SetSecondary1L<String>} with the given
+     * elements.
+     * 
+     * @param args
+     *            the elements for the set
+     * @return the constructed set
+     * @requires <pre>
+     * {@code [every entry in args is unique]}
+     * </pre>
+     * @ensures <pre>
+     * {@code createFromArgs = [entries in args]}
+     * </pre>
+     */
+    private static Set<String> createFromArgs(String... args) {
+        Set<String> set = new SetSecondary1L<String>();
+        for (String s : args) {
+            assert !set.contains(s) : ""
+                    + "Violation of: every entry in args is unique";
+            set.add(s);
+        }
+        return set;
+    }
+
+    /**
+     * Test for add(Set) with disjoint sets.
+     */
+    @Test
+    public final void testAddDisjoint() {
+        Set<String> a = createFromArgs("a", "b");
+        Set<String> s = createFromArgs("c", "d", "e");
+        Set<String> aExpected = createFromArgs("a", "b", "c", "d", "e");
+        Set<String> sExpected = createFromArgs();
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for add(Set) with overlapping sets.
+     */
+    @Test
+    public final void testAddOverlapping() {
+        Set<String> a = createFromArgs("a", "b", "c");
+        Set<String> s = createFromArgs("b", "c", "d");
+        Set<String> aExpected = createFromArgs("a", "b", "c", "d");
+        Set<String> sExpected = createFromArgs("b", "c");
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for add(Set) with s a subset of this.
+     */
+    @Test
+    public final void testAddSubset() {
+        Set<String> a = createFromArgs("a", "b", "c");
+        Set<String> s = createFromArgs("a", "c");
+        Set<String> aExpected = createFromArgs("a", "b", "c");
+        Set<String> sExpected = createFromArgs("a", "c");
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for add(Set) with this a subset of s.
+     */
+    @Test
+    public final void testAddSuperset() {
+        Set<String> a = createFromArgs("b");
+        Set<String> s = createFromArgs("a", "b", "c");
+        Set<String> aExpected = createFromArgs("a", "b", "c");
+        Set<String> sExpected = createFromArgs("b");
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for add(Set) with an empty s.
+     */
+    @Test
+    public final void testAddEmpty() {
+        Set<String> a = createFromArgs("a", "b");
+        Set<String> s = createFromArgs();
+        Set<String> aExpected = createFromArgs("a", "b");
+        Set<String> sExpected = createFromArgs();
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for add(Set) to an empty this.
+     */
+    @Test
+    public final void testAddToEmpty() {
+        Set<String> a = createFromArgs();
+        Set<String> s = createFromArgs("a", "b");
+        Set<String> aExpected = createFromArgs("a", "b");
+        Set<String> sExpected = createFromArgs();
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for add(Set) on larger sets, against the postconditions
+     * {@code this = #this union #s} and {@code s = #this intersection #s}.
+     */
+    @Test
+    public final void testAddLarge() {
+        final int n = 1000;
+        final int three = 3;
+        Set<String> a = createFromArgs();
+        Set<String> s = createFromArgs();
+        Set<String> aExpected = createFromArgs();
+        Set<String> sExpected = createFromArgs();
+        for (int i = 0; i < n; i++) {
+            boolean inA = i % 2 == 0;
+            boolean inS = i % three == 0;
+            String x = Integer.toString(i);
+            if (inA) {
+                a.add(x);
+            }
+            if (inS) {
+                s.add(x);
+            }
+            if (inA || inS) {
+                aExpected.add(x);
+            }
+            if (inA && inS) {
+                sExpected.add(x);
+            }
+        }
+        a.add(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for remove(Set) with overlapping sets.
+     */
+    @Test
+    public final void testRemoveOverlapping() {
+        Set<String> a = createFromArgs("a", "b", "c");
+        Set<String> s = createFromArgs("b", "c", "d");
+        Set<String> aExpected = createFromArgs("a");
+        Set<String> sExpected = createFromArgs("b", "c", "d");
+        a.remove(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
+    }
+
+    /**
+     * Test for remove(Set) with disjoint sets.
+     */
     @Test
-    public void test() {
-        fail("Not yet implemented");
+    public final void testRemoveDisjoint() {
+        Set<String> a = createFromArgs("a", "b");
+        Set<String> s = createFromArgs("c");
+        Set<String> aExpected = createFromArgs("a", "b");
+        Set<String> sExpected = createFromArgs("c");
+        a.remove(s);
+        assertEquals(aExpected, a);
+        assertEquals(sExpected, s);
     }
 
 }
@@ -0,0 +1,361 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as a plain array that is a heap in
+ * extraction mode (ordered by heap sort), with implementations of primary
+ * methods; the production counterpart of {@code SortingMachine5}.
+ * 
+ * <p>
+ * Entries are added straight into the array, which doubles when full, so
+ * {@code changeToExtractionMode} copies nothing: it turns the array into a
+ * heap in place with Floyd's bottom-up construction, sifting down each
+ * internal node from the last one to the root, in O(n) time.
+ * {@code removeFirst} sifts the hole left by the root all the way down to a
+ * leaf, moving the smaller child up at each level, and then bounces the last
+ * entry up from that leaf to its place; since the last entry almost always
+ * belongs near the bottom, this takes about one comparison per level instead
+ * of the two of the usual sift-down. Sifting moves entries into the hole
+ * rather than exchanging them, and is a loop rather than a recursion.
+ * 
+ * <p>
+ * Unlike {@code SortingMachine5}, this class does not check its convention:
+ * apart from the preconditions of each method, no contract is checked, not
+ * even with assertions enabled.
+ * 
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * {@code IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare
+ *  method])  and
+ * 0 <= $this.size <= |$this.entries|  and
+ * |$this.entries| > 0  and
+ * [$this.entries[0, $this.size) are not null]  and
+ * [$this.entries[$this.size, |$this.entries|) are null]  and
+ * if not $this.insertionMode then
+ *   [$this.entries[0, $this.size) is a heap, as a complete binary tree,
+ *    according to the relation computed by $this.machineOrder.compare
+ *    method]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = ($this.insertionMode, $this.machineOrder,
+ *   multiset_entries($this.entries[0, $this.size)))}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class SortingMachine6<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Length of the array of a new machine.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries, in a heap in extraction mode.
+     */
+    private Object[] entries;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Returns the entry at index {@code i}.
+     * 
+     * @param i
+     *            the index
+     * @return the entry
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(int i) {
+        return (T) this.entries[i];
+    }
+
+    /**
+     * Sifts {@code x} down from the hole at index {@code hole} of the heap
+     * {@code $this.entries[0, $this.size)} until it is no greater than its
+     * children.
+     * 
+     * @param hole
+     *            the index of the hole
+     * @param x
+     *            the entry to put in the hole
+     * @updates $this.entries
+     * @requires <pre>
+     * {@code 0 <= hole < $this.size  and
+     * [the subtrees rooted at the children of hole are heaps]}
+     * </pre>
+     * @ensures <pre>
+     * {@code [the subtree rooted at hole is a heap]  and
+     * [its entries are those of #$this.entries, with x in place of the entry
+     *  at hole]}
+     * </pre>
+     */
+    private void siftDown(int hole, T x) {
+        int i = hole;
+        int half = this.size / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            T c = this.entryAt(child);
+            int right = child + 1;
+            if (right < this.size
+                    && this.machineOrder.compare(this.entryAt(right), c) < 0) {
+                child = right;
+                c = this.entryAt(right);
+            }
+            if (this.machineOrder.compare(x, c) <= 0) {
+                break;
+            }
+            this.entries[i] = c;
+            i = child;
+        }
+        this.entries[i] = x;
+    }
+
+    /**
+     * Removes the root of the heap {@code $this.entries[0, $this.size)} by
+     * sifting its hole down to a leaf and then bouncing the last entry back up
+     * from there.
+     * 
+     * @updates $this.entries, $this.size
+     * @requires <pre>
+     * {@code $this.size > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code $this.size = #$this.size - 1  and
+     * [$this.entries[0, $this.size) is a heap of the entries of
+     *  #$this.entries[1, #$this.size)]}
+     * </pre>
+     */
+    private void removeRoot() {
+        this.size--;
+        T last = this.entryAt(this.size);
+        this.entries[this.size] = null;
+        if (this.size > 0) {
+            /*
+             * Sift the hole to a leaf along the path of smaller children.
+             */
+            int i = 0;
+            int child = 1;
+            while (child < this.size) {
+                int right = child + 1;
+                if (right < this.size
+                        && this.machineOrder.compare(this.entryAt(right),
+                                this.entryAt(child)) < 0) {
+                    child = right;
+                }
+                this.entries[i] = this.entries[child];
+                i = child;
+                child = 2 * i + 1;
+            }
+            /*
+             * Bounce last up from the leaf to its place on that path.
+             */
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                T p = this.entryAt(parent);
+                if (this.machineOrder.compare(last, p) >= 0) {
+                    break;
+                }
+                this.entries[i] = p;
+                i = parent;
+            }
+            this.entries[i] = last;
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     * 
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.machineOrder = order;
+        this.insertionMode = true;
+        this.entries = new Object[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     * 
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine6(Comparator<T> order) {
+        this.createNewRep(order);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine6<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine6<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine6<T> localSource = (SortingMachine6<T>) source;
+        this.machineOrder = localSource.machineOrder;
+        this.insertionMode = localSource.insertionMode;
+        this.entries = localSource.entries;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            Object[] newEntries = new Object[2 * this.entries.length];
+            System.arraycopy(this.entries, 0, newEntries, 0, this.size);
+            this.entries = newEntries;
+        }
+        this.entries[this.size] = x;
+        this.size++;
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        for (int i = this.size / 2 - 1; i >= 0; i--) {
+            this.siftDown(i, this.entryAt(i));
+        }
+        this.insertionMode = false;
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this.isInInsertionMode() : ""
+                + "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T result = this.entryAt(0);
+        this.removeRoot();
+        return result;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code SortingMachine6}.
+     */
+    private final class SortingMachine6Iterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry.
+         */
+        private int index;
+
+        /**
+         * Default constructor.
+         */
+        private SortingMachine6Iterator() {
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < SortingMachine6.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = SortingMachine6.this.entryAt(this.index);
+            this.index++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,542 @@
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} represented as a d-ary heap in a plain array, built
+ * only when the first entry is removed, with implementations of primary
+ * methods, of {@code offer} for use as a priority queue, and of a bounded
+ * {@code topK} mode.
+ * 
+ * <p>
+ * Each node of the heap has {@code arity} children (4 by default; 4 or 8 keep
+ * the children of a node within one or two cache lines), so the heap is
+ * shallower than a binary one, and a sift-down touches fewer, adjacent,
+ * entries per level. {@code changeToExtractionMode} only changes the mode:
+ * the heap is built (Floyd's bottom-up construction, O(n)) by the first
+ * {@code removeFirst}, so a client that takes only the first k entries pays
+ * O(n + k log n) in all, and one that takes none pays nothing. {@code offer}
+ * adds an entry in either mode; in extraction mode it sifts the new entry up
+ * into the heap, so the machine can be used as a priority queue, with
+ * additions and removals interleaved.
+ * 
+ * <p>
+ * A machine made by {@code topK(order, k)} keeps only the k first entries (by
+ * {@code order}) of those added: while in insertion mode its array is a heap
+ * in the reverse order, so that the last of the k entries kept is at the root
+ * and an entry added later either replaces it or is dropped, in O(log k) time
+ * and O(k) space. Its {@code size} is then the number of entries kept.
+ * 
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @convention <pre>
+ * {@code IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare
+ *  method])  and
+ * $this.arity >= 2  and  $this.limit >= 0  and
+ * 0 <= $this.size <= |$this.entries|  and
+ * |$this.entries| > 0  and
+ * ($this.limit = 0  or  $this.size <= $this.limit)  and
+ * [$this.entries[0, $this.size) are not null]  and
+ * [$this.entries[$this.size, |$this.entries|) are null]  and
+ * if $this.heapified then
+ *   not $this.insertionMode  and
+ *   [$this.entries[0, $this.size) is an $this.arity-ary heap according to
+ *    the relation computed by $this.machineOrder.compare method]
+ * else if $this.limit > 0  and  $this.insertionMode then
+ *   [$this.entries[0, $this.size) is an $this.arity-ary heap according to
+ *    the reverse of that relation]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = ($this.insertionMode, $this.machineOrder,
+ *   multiset_entries($this.entries[0, $this.size)))}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class SortingMachine7<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Number of children of a node of a machine made without an arity.
+     */
+    private static final int DEFAULT_ARITY = 4;
+
+    /**
+     * Length of the array of a new machine.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Reverse of {@code this.machineOrder}, the order of the heap of a
+     * machine with a limit in insertion mode.
+     */
+    private Comparator<T> reverseOrder;
+
+    /**
+     * Number of children of each node of the heap.
+     */
+    private final int arity;
+
+    /**
+     * Largest number of entries kept, or 0 if there is no limit.
+     */
+    private final int limit;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Whether the entries are in a heap in {@code this.machineOrder}.
+     */
+    private boolean heapified;
+
+    /**
+     * Entries.
+     */
+    private Object[] entries;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Returns the entry at index {@code i}.
+     * 
+     * @param i
+     *            the index
+     * @return the entry
+     */
+    @SuppressWarnings("unchecked")
+    private T entryAt(int i) {
+        return (T) this.entries[i];
+    }
+
+    /**
+     * Sifts {@code x} down from the hole at index {@code hole} of the heap
+     * {@code $this.entries[0, $this.size)} in {@code order} until it comes no
+     * later than its children.
+     * 
+     * @param hole
+     *            the index of the hole
+     * @param x
+     *            the entry to put in the hole
+     * @param order
+     *            the order of the heap
+     * @updates $this.entries
+     * @requires <pre>
+     * {@code 0 <= hole < $this.size  and
+     * [the subtrees rooted at the children of hole are heaps in order]}
+     * </pre>
+     * @ensures <pre>
+     * {@code [the subtree rooted at hole is a heap in order]  and
+     * [its entries are those of #$this.entries, with x in place of the entry
+     *  at hole]}
+     * </pre>
+     */
+    private void siftDown(int hole, T x, Comparator<T> order) {
+        int i = hole;
+        int first = this.arity * i + 1;
+        while (first < this.size) {
+            int last = Math.min(first + this.arity, this.size);
+            int child = first;
+            T c = this.entryAt(first);
+            for (int j = first + 1; j < last; j++) {
+                T y = this.entryAt(j);
+                if (order.compare(y, c) < 0) {
+                    child = j;
+                    c = y;
+                }
+            }
+            if (order.compare(x, c) <= 0) {
+                break;
+            }
+            this.entries[i] = c;
+            i = child;
+            first = this.arity * i + 1;
+        }
+        this.entries[i] = x;
+    }
+
+    /**
+     * Sifts {@code x} up from the hole at index {@code hole} of the heap
+     * {@code $this.entries[0, $this.size)} in {@code order} until it comes no
+     * earlier than its parent.
+     * 
+     * @param hole
+     *            the index of the hole
+     * @param x
+     *            the entry to put in the hole
+     * @param order
+     *            the order of the heap
+     * @updates $this.entries
+     * @requires <pre>
+     * {@code 0 <= hole < $this.size  and
+     * [$this.entries[0, $this.size) is a heap in order, but for the hole]}
+     * </pre>
+     * @ensures <pre>
+     * {@code [$this.entries[0, $this.size) is a heap in order]  and
+     * [its entries are those of #$this.entries, with x in place of the entry
+     *  at hole]}
+     * </pre>
+     */
+    private void siftUp(int hole, T x, Comparator<T> order) {
+        int i = hole;
+        while (i > 0) {
+            int parent = (i - 1) / this.arity;
+            T p = this.entryAt(parent);
+            if (order.compare(x, p) >= 0) {
+                break;
+            }
+            this.entries[i] = p;
+            i = parent;
+        }
+        this.entries[i] = x;
+    }
+
+    /**
+     * Appends {@code x} to the entries, doubling the array if it is full.
+     * 
+     * @param x
+     *            the entry to append
+     * @updates $this.entries, $this.size
+     * @ensures <pre>
+     * {@code $this.entries[0, $this.size) =
+     *  #$this.entries[0, #$this.size) * <x>}
+     * </pre>
+     */
+    private void append(T x) {
+        if (this.size == this.entries.length) {
+            Object[] newEntries = new Object[2 * this.entries.length];
+            System.arraycopy(this.entries, 0, newEntries, 0, this.size);
+            this.entries = newEntries;
+        }
+        this.entries[this.size] = x;
+        this.size++;
+    }
+
+    /**
+     * Turns the entries into a heap in {@code this.machineOrder}, if they are
+     * not one already.
+     * 
+     * @updates $this.entries, $this.heapified
+     * @ensures <pre>
+     * {@code $this.heapified}
+     * </pre>
+     */
+    private void heapify() {
+        if (!this.heapified) {
+            for (int i = (this.size - 2) / this.arity; i >= 0; i--) {
+                this.siftDown(i, this.entryAt(i), this.machineOrder);
+            }
+            this.heapified = true;
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     * 
+     * @param order
+     *            total preorder for sorting
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.machineOrder = order;
+        this.reverseOrder = Collections.reverseOrder(order);
+        this.insertionMode = true;
+        this.heapified = false;
+        this.entries = new Object[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     * 
+     * @param order
+     *            total preorder for sorting
+     */
+    public SortingMachine7(Comparator<T> order) {
+        this(order, DEFAULT_ARITY, 0);
+    }
+
+    /**
+     * Constructor from order and arity of the heap.
+     * 
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            the number of children of each node of the heap
+     * @requires <pre>
+     * {@code arity >= 2}
+     * </pre>
+     */
+    public SortingMachine7(Comparator<T> order, int arity) {
+        this(order, arity, 0);
+    }
+
+    /**
+     * Constructor from order, arity of the heap, and limit on the number of
+     * entries kept: with a positive {@code limit}, only the {@code limit}
+     * first entries (by {@code order}) of those added in insertion mode are
+     * kept.
+     * 
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            the number of children of each node of the heap
+     * @param limit
+     *            the largest number of entries kept, or 0 for no limit
+     * @requires <pre>
+     * {@code arity >= 2  and  limit >= 0}
+     * </pre>
+     */
+    public SortingMachine7(Comparator<T> order, int arity, int limit) {
+        assert order != null : "Violation of: order is not null";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        assert limit >= 0 : "Violation of: limit >= 0";
+
+        this.arity = arity;
+        this.limit = limit;
+        this.createNewRep(order);
+    }
+
+    /**
+     * Returns a new machine, with a heap of the default arity, that keeps
+     * only the {@code k} first entries (by {@code order}) of those added to
+     * it in insertion mode.
+     * 
+     * @param <T>
+     *            type of {@code SortingMachine} entries
+     * @param order
+     *            total preorder for sorting
+     * @param k
+     *            the number of entries kept
+     * @return the new machine
+     * @requires <pre>
+     * {@code k > 0}
+     * </pre>
+     * @ensures <pre>
+     * {@code topK = (true, order, {})}
+     * </pre>
+     */
+    public static <T> SortingMachine7<T> topK(Comparator<T> order, int k) {
+        assert k > 0 : "Violation of: k > 0";
+
+        return new SortingMachine7<T>(order, DEFAULT_ARITY, k);
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, int.class, int.class)
+                    .newInstance(this.machineOrder, this.arity, this.limit);
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof SortingMachine7<?> : ""
+                + "Violation of: source is of dynamic type SortingMachine7<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * SortingMachine7<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        SortingMachine7<T> localSource = (SortingMachine7<T>) source;
+        assert localSource.arity == this.arity : ""
+                + "Violation of: source has the same arity as this";
+        assert localSource.limit == this.limit : ""
+                + "Violation of: source has the same limit as this";
+        this.machineOrder = localSource.machineOrder;
+        this.reverseOrder = localSource.reverseOrder;
+        this.insertionMode = localSource.insertionMode;
+        this.heapified = localSource.heapified;
+        this.entries = localSource.entries;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder);
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.limit == 0) {
+            this.append(x);
+        } else {
+            if (this.size < this.limit) {
+                this.append(x);
+                this.siftUp(this.size - 1, x, this.reverseOrder);
+            } else if (this.machineOrder.compare(x, this.entryAt(0)) < 0) {
+                this.siftDown(0, x, this.reverseOrder);
+            }
+        }
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this.isInInsertionMode() : ""
+                + "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        this.heapify();
+        T result = this.entryAt(0);
+        this.size--;
+        T last = this.entryAt(this.size);
+        this.entries[this.size] = null;
+        if (this.size > 0) {
+            this.siftDown(0, last, this.machineOrder);
+        }
+        return result;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this} in either mode: in
+     * insertion mode it is {@code add}, and in extraction mode {@code x} is
+     * among the entries that {@code removeFirst} can return next, as in a
+     * priority queue.
+     * 
+     * @param x
+     *            the element to be added
+     * @aliases reference {@code x}
+     * @updates this.contents
+     * @requires <pre>
+     * {@code this.insertion_mode  or  [this was not made with a limit]}
+     * </pre>
+     * @ensures <pre>
+     * {@code this.contents = #this.contents union {x}}
+     * </pre>
+     */
+    public final void offer(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.insertionMode) {
+            this.add(x);
+        } else {
+            assert this.limit == 0 : ""
+                    + "Violation of: this.insertion_mode  or"
+                    + "  [this was not made with a limit]";
+            this.append(x);
+            if (this.heapified) {
+                this.siftUp(this.size - 1, x, this.machineOrder);
+            }
+        }
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new SortingMachine7Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code SortingMachine7}.
+     */
+    private final class SortingMachine7Iterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry.
+         */
+        private int index;
+
+        /**
+         * Default constructor.
+         */
+        private SortingMachine7Iterator() {
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < SortingMachine7.this.size;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = SortingMachine7.this.entryAt(this.index);
+            this.index++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
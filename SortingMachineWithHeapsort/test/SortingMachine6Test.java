@@ -0,0 +1,67 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine6}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class SortingMachine6Test extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructor(Comparator<String> order) {
+        return new SortingMachine6<String>(order);
+    }
+
+    /**
+     * Order on strings of decimal digits by numerical value.
+     */
+    private static final Comparator<String> NUMERIC = new Comparator<String>() {
+        @Override
+        public int compare(String s1, String s2) {
+            return Integer.valueOf(s1).compareTo(Integer.valueOf(s2));
+        }
+    };
+
+    /**
+     * Test for removeFirst on many entries with duplicates, added in an order
+     * that is neither sorted nor reversed, across several doublings of the
+     * array.
+     */
+    @Test
+    public final void testRemoveFirstMany() {
+        final int n = 1000;
+        final int step = 389;
+        final int distinct = 250;
+        SortingMachine<String> m = this.constructor(NUMERIC);
+        for (int i = 0; i < n; i++) {
+            m.add(Integer.toString(i * step % n % distinct));
+        }
+        m.changeToExtractionMode();
+        assertEquals(n, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.toString(i / (n / distinct)), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for changeToExtractionMode and removeFirst on one entry.
+     */
+    @Test
+    public final void testRemoveFirstOnly() {
+        SortingMachine<String> m = this.constructor(NUMERIC);
+        m.add("7");
+        m.changeToExtractionMode();
+        assertEquals("7", m.removeFirst());
+        assertEquals(0, m.size());
+        assertEquals(false, m.isInInsertionMode());
+    }
+
+}
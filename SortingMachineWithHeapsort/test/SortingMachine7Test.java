@@ -0,0 +1,109 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine7}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class SortingMachine7Test extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructor(Comparator<String> order) {
+        return new SortingMachine7<String>(order);
+    }
+
+    /**
+     * Order on strings of decimal digits by numerical value.
+     */
+    private static final Comparator<String> NUMERIC = new Comparator<String>() {
+        @Override
+        public int compare(String s1, String s2) {
+            return Integer.valueOf(s1).compareTo(Integer.valueOf(s2));
+        }
+    };
+
+    /**
+     * Test for removeFirst on many entries with duplicates, in a heap of
+     * arity 8.
+     */
+    @Test
+    public final void testRemoveFirstManyArity8() {
+        final int n = 1000;
+        final int step = 389;
+        final int distinct = 250;
+        final int arity = 8;
+        SortingMachine<String> m = new SortingMachine7<String>(NUMERIC, arity);
+        for (int i = 0; i < n; i++) {
+            m.add(Integer.toString(i * step % n % distinct));
+        }
+        m.changeToExtractionMode();
+        assertEquals(n, m.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.toString(i / (n / distinct)), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for offer in extraction mode, between calls to removeFirst.
+     */
+    @Test
+    public final void testOfferInExtractionMode() {
+        SortingMachine7<String> m = new SortingMachine7<String>(NUMERIC);
+        m.add("5");
+        m.add("3");
+        m.changeToExtractionMode();
+        m.offer("4");
+        assertEquals("3", m.removeFirst());
+        m.offer("1");
+        m.offer("9");
+        assertEquals("1", m.removeFirst());
+        assertEquals("4", m.removeFirst());
+        assertEquals("5", m.removeFirst());
+        assertEquals("9", m.removeFirst());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for topK keeping the k first of many entries.
+     */
+    @Test
+    public final void testTopK() {
+        final int n = 1000;
+        final int step = 389;
+        final int k = 10;
+        SortingMachine<String> m = SortingMachine7.topK(NUMERIC, k);
+        for (int i = 0; i < n; i++) {
+            m.add(Integer.toString(i * step % n));
+        }
+        assertEquals(k, m.size());
+        m.changeToExtractionMode();
+        for (int i = 0; i < k; i++) {
+            assertEquals(Integer.toString(i), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for topK with fewer entries added than k.
+     */
+    @Test
+    public final void testTopKFewEntries() {
+        final int k = 10;
+        SortingMachine<String> m = SortingMachine7.topK(NUMERIC, k);
+        m.add("2");
+        m.add("1");
+        m.changeToExtractionMode();
+        assertEquals(2, m.size());
+        assertEquals("1", m.removeFirst());
+        assertEquals("2", m.removeFirst());
+    }
+
+}
@@ -11,6 +11,12 @@ import components.stack.StackSecondary;
  * <p>
  * Execution-time performance of all methods implemented in this class is O(1).
  * 
+ * <p>
+ * A {@code Stack2} constructed with a positive pool capacity takes its nodes
+ * from a {@link NodePool} and gives back the nodes that {@code pop} unlinks,
+ * so that a stack with as many pops as pushes stops allocating once its pool
+ * is primed.
+ * 
  * @param <T>
  *            type of Stack entries
  * @convention <pre>
@@ -60,6 +66,46 @@ public class Stack2<T> extends StackSecondary<T> {
      */
     private int length;
 
+    /**
+     * Largest number of unlinked nodes kept for reuse, or 0 if none are.
+     */
+    private final int poolCapacity;
+
+    /**
+     * Pool of nodes for reuse, or null if {@code this.poolCapacity = 0}.
+     */
+    private final NodePool<Node> pool;
+
+    /**
+     * Returns a node with null data and next, from the pool if there is one.
+     * 
+     * @return the node
+     */
+    private Node newNode() {
+        Node result;
+        if (this.pool == null) {
+            result = new Node();
+        } else {
+            result = this.pool.take();
+        }
+        return result;
+    }
+
+    /**
+     * Gives {@code n}, which is no longer linked, back to the pool if there is
+     * one.
+     * 
+     * @param n
+     *            the node to give back
+     */
+    private void recycle(Node n) {
+        if (this.pool != null) {
+            n.data = null;
+            n.next = null;
+            this.pool.recycle(n);
+        }
+    }
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -104,9 +150,7 @@ public class Stack2<T> extends StackSecondary<T> {
      * Creator of initial representation.
      */
     private void createNewRep() {
-
-        this.top = new Node();
-        this.top.next = null;
+        this.top = null;
         this.length = 0;
     }
 
@@ -118,6 +162,33 @@ public class Stack2<T> extends StackSecondary<T> {
      * Default constructor.
      */
     public Stack2() {
+        this(0);
+    }
+
+    /**
+     * Constructor from pool capacity: {@code this} keeps up to
+     * {@code poolCapacity} popped nodes for reuse by later pushes, and keeps
+     * none if {@code poolCapacity = 0}.
+     * 
+     * @param poolCapacity
+     *            the largest number of nodes kept for reuse
+     * @requires <pre>
+     * {@code poolCapacity >= 0}
+     * </pre>
+     */
+    public Stack2(int poolCapacity) {
+        assert poolCapacity >= 0 : "Violation of: poolCapacity >= 0";
+        this.poolCapacity = poolCapacity;
+        if (poolCapacity > 0) {
+            this.pool = new NodePool<Node>(new NodePool.Factory<Node>() {
+                @Override
+                public Node newNode() {
+                    return new Node();
+                }
+            }, poolCapacity);
+        } else {
+            this.pool = null;
+        }
         this.createNewRep();
         assert this.conventionHolds();
     }
@@ -130,7 +201,8 @@ public class Stack2<T> extends StackSecondary<T> {
     @Override
     public final Stack<T> newInstance() {
         try {
-            return this.getClass().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (Exception e) { // ReflectiveOperationException in Java 7
             throw new AssertionError("Cannot construct object of type "
                     + this.getClass());
@@ -170,9 +242,10 @@ public class Stack2<T> extends StackSecondary<T> {
     public final void push(T x) {
         assert x != null : "Violation of: x is not null";
 
-        this.top.next = this.top;
-        this.top = new Node();
-        this.top.data = x;
+        Node p = this.newNode();
+        p.data = x;
+        p.next = this.top;
+        this.top = p;
         this.length++;
         assert this.conventionHolds();
     }
@@ -181,31 +254,26 @@ public class Stack2<T> extends StackSecondary<T> {
     public final T pop() {
         assert this.length() > 0 : "Violation of: this /= <>";
 
+        Node p = this.top;
+        T result = p.data;
+        this.top = p.next;
         this.length--;
-        this.top.next = this.top;
+        this.recycle(p);
         assert this.conventionHolds();
-
-        return this.top.data;
+        return result;
     }
 
     @Override
     public final T top() {
         assert this.length() > 0 : "Violation of: this /= <>";
 
-        // TODO - fill in body
-
         assert this.conventionHolds();
-        // Fix this line to return the result after checking the convention.
         return this.top.data;
     }
 
     @Override
     public final int length() {
-
-        // TODO - fill in body
-
         assert this.conventionHolds();
-        // Fix this line to return the result after checking the convention.
         return this.length;
     }
 
@@ -0,0 +1,208 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.stack.Stack;
+import components.stack.StackSecondary;
+
+/**
+ * {@code Stack} represented as a growable array, with implementations of
+ * primary methods and {@code top}.
+ * 
+ * <p>
+ * The bottom entry is at index 0 and the top entry at index
+ * {@code $this.length - 1}; when the array is full, {@code push} doubles it.
+ * Execution-time performance of all methods implemented in this class is
+ * O(1), amortized for {@code push}. Unlike {@code Stack2}, there is no node
+ * per entry, so a stack of n entries takes one array of at most 2n references
+ * rather than n nodes.
+ * 
+ * @param <T>
+ *            type of Stack entries
+ * @convention <pre>
+ * {@code 0 <= $this.length <= |$this.entries|  and
+ * |$this.entries| > 0  and
+ * [$this.entries[0, $this.length) are not null]  and
+ * [$this.entries[$this.length, |$this.entries|) are null]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = rev($this.entries[0, $this.length))}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Stack3<T> extends StackSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Length of the array of a new stack.
+     */
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Entries, from the bottom of the stack up.
+     */
+    private Object[] entries;
+
+    /**
+     * Number of entries, i.e., length = |this|.
+     */
+    private int length;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.entries = new Object[DEFAULT_CAPACITY];
+        this.length = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public Stack3() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Stack<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Stack<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Stack3<?> : ""
+                + "Violation of: source is of dynamic type Stack3<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Stack3<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Stack3<T> localSource = (Stack3<T>) source;
+        this.entries = localSource.entries;
+        this.length = localSource.length;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void push(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.length == this.entries.length) {
+            Object[] newEntries = new Object[2 * this.entries.length];
+            System.arraycopy(this.entries, 0, newEntries, 0, this.length);
+            this.entries = newEntries;
+        }
+        this.entries[this.length] = x;
+        this.length++;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T pop() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        this.length--;
+        T result = (T) this.entries[this.length];
+        this.entries[this.length] = null;
+        return result;
+    }
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final T top() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        return (T) this.entries[this.length - 1];
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Stack3Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Stack3}.
+     */
+    private final class Stack3Iterator implements Iterator<T> {
+
+        /**
+         * Number of entries not yet returned; the next one is at index
+         * {@code remaining - 1}.
+         */
+        private int remaining;
+
+        /**
+         * Default constructor.
+         */
+        private Stack3Iterator() {
+            this.remaining = Stack3.this.length;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            this.remaining--;
+            return (T) Stack3.this.entries[this.remaining];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntStack}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class IntStackTest {
+
+    /**
+     * Test for the constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        IntStack s = new IntStack();
+        assertEquals(0, s.length());
+    }
+
+    /**
+     * Test for push, top, and pop across several doublings of the array.
+     */
+    @Test
+    public final void testPushTopPop() {
+        final int n = 1000;
+        IntStack s = new IntStack();
+        for (int i = 0; i < n; i++) {
+            s.push(i % 10);
+            assertEquals(i % 10, s.top());
+        }
+        assertEquals(n, s.length());
+        for (int i = n - 1; i >= 0; i--) {
+            assertEquals(i % 10, s.pop());
+        }
+        assertEquals(0, s.length());
+    }
+
+    /**
+     * Test for clear after growth.
+     */
+    @Test
+    public final void testClear() {
+        final int n = 100;
+        IntStack s = new IntStack();
+        for (int i = 0; i < n; i++) {
+            s.push(i);
+        }
+        s.clear();
+        assertEquals(0, s.length());
+        s.push(7);
+        assertEquals(7, s.top());
+        assertEquals(1, s.length());
+    }
+
+}
@@ -0,0 +1,22 @@
+import components.stack.Stack;
+
+/**
+ * Customized JUnit test fixture for {@code Stack2} with a node pool, kept
+ * small so that pops both refill and overflow it.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Stack2PooledTest extends StackTest {
+
+    /**
+     * Pool capacity of the stacks under test.
+     */
+    private static final int POOL_CAPACITY = 2;
+
+    @Override
+    protected final Stack<String> constructor() {
+        return new Stack2<String>(POOL_CAPACITY);
+    }
+
+}
@@ -0,0 +1,16 @@
+import components.stack.Stack;
+
+/**
+ * Customized JUnit test fixture for {@code Stack3}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class Stack3Test extends StackTest {
+
+    @Override
+    protected final Stack<String> constructor() {
+        return new Stack3<String>();
+    }
+
+}
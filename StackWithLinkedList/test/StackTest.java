@@ -1,3 +1,11 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import org.junit.Test;
+
 import components.stack.Stack;
 
 /**
@@ -39,6 +47,190 @@ public abstract class StackTest {
         return stack;
     }
 
-    // TODO - add test cases for constructor, push, pop, top, and length
+    /**
+     * Checks that {@code s} holds the entries of {@code expected}, from the
+     * top down.
+     * 
+     * @param expected
+     *            the entries expected, with the top first
+     * @param s
+     *            the stack
+     */
+    private static void assertSameEntries(Deque<String> expected,
+            Stack<String> s) {
+        assertEquals(expected.size(), s.length());
+        Iterator<String> it = s.iterator();
+        for (String x : expected) {
+            assertEquals(x, it.next());
+        }
+        assertEquals(false, it.hasNext());
+    }
+
+    /**
+     * Test for the constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        Stack<String> s = this.constructor();
+        assertEquals(0, s.length());
+        assertEquals("<>", s.toString());
+    }
+
+    /**
+     * Test for push on an empty stack.
+     */
+    @Test
+    public final void testPushEmpty() {
+        Stack<String> s = this.createFromArgs();
+        s.push("red");
+        assertEquals(this.createFromArgs("red"), s);
+    }
+
+    /**
+     * Test for push on a non-empty stack.
+     */
+    @Test
+    public final void testPushNonEmpty() {
+        Stack<String> s = this.createFromArgs("green", "blue");
+        s.push("red");
+        assertEquals(this.createFromArgs("red", "green", "blue"), s);
+    }
+
+    /**
+     * Test for pop leaving an empty stack.
+     */
+    @Test
+    public final void testPopLeavingEmpty() {
+        Stack<String> s = this.createFromArgs("red");
+        assertEquals("red", s.pop());
+        assertEquals(this.createFromArgs(), s);
+    }
+
+    /**
+     * Test for pop leaving a non-empty stack.
+     */
+    @Test
+    public final void testPopLeavingNonEmpty() {
+        Stack<String> s = this.createFromArgs("red", "green", "blue");
+        assertEquals("red", s.pop());
+        assertEquals(this.createFromArgs("green", "blue"), s);
+    }
+
+    /**
+     * Test for top.
+     */
+    @Test
+    public final void testTop() {
+        Stack<String> s = this.createFromArgs("red", "green");
+        assertEquals("red", s.top());
+        assertEquals(this.createFromArgs("red", "green"), s);
+    }
+
+    /**
+     * Test for push, top, and pop on a few entries.
+     */
+    @Test
+    public final void testPushTopPop() {
+        Stack<String> s = this.constructor();
+        s.push("red");
+        s.push("green");
+        assertEquals("<green,red>", s.toString());
+        assertEquals("green", s.top());
+        assertEquals("green", s.pop());
+        assertEquals("red", s.pop());
+        assertEquals("<>", s.toString());
+    }
+
+    /**
+     * Test for clear, transferFrom, and newInstance.
+     */
+    @Test
+    public final void testStandardMethods() {
+        Stack<String> s = this.createFromArgs("red", "green");
+        Stack<String> t = s.newInstance();
+        assertEquals(s.getClass(), t.getClass());
+        assertEquals(0, t.length());
+        t.transferFrom(s);
+        assertEquals("<red,green>", t.toString());
+        assertEquals("<>", s.toString());
+        s.push("blue");
+        t.clear();
+        assertEquals("<>", t.toString());
+        t.push("white");
+        assertEquals("<white>", t.toString());
+        assertEquals("<blue>", s.toString());
+    }
+
+    /**
+     * Test for transferFrom.
+     */
+    @Test
+    public final void testTransferFrom() {
+        Stack<String> s = this.constructor();
+        Stack<String> t = this.constructor();
+        t.push("blue");
+        s.transferFrom(t);
+        assertEquals("<blue>", s.toString());
+        assertEquals("<>", t.toString());
+        t.push("yellow");
+        assertEquals("<yellow>", t.toString());
+    }
+
+    /**
+     * Test for many pushes and then as many pops.
+     */
+    @Test
+    public final void testGrowth() {
+        final int n = 1000;
+        Stack<String> s = this.constructor();
+        for (int i = 0; i < n; i++) {
+            s.push(Integer.toString(i));
+            assertEquals(i + 1, s.length());
+        }
+        int i = n;
+        for (String x : s) {
+            i--;
+            assertEquals(Integer.toString(i), x);
+        }
+        for (i = n - 1; i >= 0; i--) {
+            assertEquals(Integer.toString(i), s.pop());
+        }
+        assertEquals(0, s.length());
+    }
+
+    /**
+     * Test for rounds of pushes and pops of varying sizes, against a
+     * {@code java.util.ArrayDeque}, so that a stack that reuses the nodes it
+     * pops both reuses some and has more than it can keep.
+     */
+    @Test
+    public final void testPushPopRounds() {
+        final int rounds = 50;
+        final int seven = 7;
+        final int eleven = 11;
+        Stack<String> s = this.constructor();
+        Deque<String> expected = new ArrayDeque<String>();
+        int next = 0;
+        for (int r = 0; r < rounds; r++) {
+            int pushes = r * seven % eleven + 1;
+            for (int i = 0; i < pushes; i++) {
+                String x = "c" + next;
+                next++;
+                s.push(x);
+                expected.push(x);
+            }
+            assertSameEntries(expected, s);
+            int pops = r * eleven % seven + 1;
+            for (int i = 0; i < pops && expected.size() > 0; i++) {
+                assertEquals(expected.peek(), s.top());
+                assertEquals(expected.pop(), s.pop());
+            }
+            assertSameEntries(expected, s);
+        }
+        while (expected.size() > 0) {
+            assertEquals(expected.pop(), s.pop());
+        }
+        assertSameEntries(expected, s);
+    }
 
 }
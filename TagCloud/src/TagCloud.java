@@ -16,6 +16,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import components.sortingmachine.SortingMachine;
+
 /**
  * Program to receive a text file of words and to output an html page with a tag
  * cloud of words.
@@ -71,14 +73,13 @@ public final class TagCloud {
     }
 
     /**
-     * Generates the pairs of terms and definitions (Strings) in the given
-     * {@code file} into the given {@code Map}. Also generates a Queue of all
-     * the terms in no particular order into the given {@code Queue}.
+     * Generates the pairs of terms (Strings) and counts (ints) in the given
+     * {@code file} into the given {@code ObjectIntMap}.
      * 
      * @param file
      *            the given {@code file}
      * @param strMap
-     *            the {@code Map} to be replaced
+     *            the {@code ObjectIntMap} to be updated
      * @param separators
      *            the {@code Set} that contains the separators
      * @replaces {@code strSet}
@@ -88,7 +89,7 @@ public final class TagCloud {
      * </pre>
      */
     private static void generateTerms(BufferedReader file,
-            Map<String, Integer> strMap, Set<Character> separators) {
+            ObjectIntMap<String> strMap, Set<Character> separators) {
 
         String term = "";
         String nexTerm = "";
@@ -101,12 +102,7 @@ public final class TagCloud {
                     nexTerm = nextWordOrSeparator(term, index, separators);
                     index += nexTerm.length();
                     if (!separators.contains(nexTerm.charAt(0))) {
-                        if (strMap.containsKey(nexTerm)) {
-                            int tempValue = strMap.remove(nexTerm);
-                            strMap.put(nexTerm, tempValue + 1);
-                        } else {
-                            strMap.put(nexTerm, 1);
-                        }
+                        strMap.increment(nexTerm);
                     }
                 }
                 term = file.readLine();
@@ -313,25 +309,35 @@ public final class TagCloud {
             count++;
         }
         /*
-         * Creates a Map of associated terms and word counts.
+         * Counts the terms without boxing, then creates a Map of associated
+         * terms and word counts, boxing each count once.
          */
+        ObjectIntMap<String> counts = new ObjectIntMap<String>();
+        generateTerms(file, counts, separatorSet);
         Map<String, Integer> m = new HashMap<String, Integer>();
-        generateTerms(file, m, separatorSet);
+        for (String term : counts) {
+            m.put(term, counts.value(term));
+        }
         /*
          * Declare comparators to sort Map entries
          */
         Comparator<Map.Entry<String, Integer>> alphabet = new Order();
         Comparator<Map.Entry<String, Integer>> numerical = new Order2();
         /*
-         * Sort N Map entries by decreasing value (numerically), where N is the
-         * number of words in tag cloud provided by user, into a List containing
-         * N entries
+         * Keep the N Map entries of largest value (numerically), where N is the
+         * number of words in tag cloud provided by user, in a bounded heap of N
+         * entries, and move them into a List by decreasing value
          */
-        List<Map.Entry<String, Integer>> si = new LinkedList<Map.Entry<String, Integer>>(
-                m.entrySet());
+        SortingMachine<Map.Entry<String, Integer>> top = SortingMachine7.topK(
+                numerical, Math.max(numberWords, 1));
+        for (Map.Entry<String, Integer> entry : m.entrySet()) {
+            top.add(entry);
+        }
+        top.changeToExtractionMode();
         List<Map.Entry<String, Integer>> is = new LinkedList<Map.Entry<String, Integer>>();
-        Collections.sort(si, numerical);
-        is = si.subList(0, numberWords);
+        while (top.size() > 0) {
+            is.add(top.removeFirst());
+        }
         /*
          * Sort top Map entries in alphabetical order
          */
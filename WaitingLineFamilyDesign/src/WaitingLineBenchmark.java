@@ -0,0 +1,339 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.waitingline.WaitingLine;
+import components.waitingline.WaitingLine1L;
+import components.waitingline.WaitingLine2;
+
+/**
+ * Throughput benchmark for {@code WaitingLine} kernels shared by producer and
+ * consumer threads.
+ * 
+ * <p>
+ * For each thread count, half the threads (rounded up) enqueue and the rest
+ * dequeue until {@code ops} entries have gone through the line; with one
+ * thread, that thread alternates between the two. {@code WaitingLine2} is
+ * used as is ({@code put} and {@code take}); {@code WaitingLine1L}, which is
+ * not thread-safe, is guarded by one lock on the whole line, with consumers
+ * waiting on it while the line is empty, as a client would have to do. Each
+ * combination runs {@code warmup} untimed trials and then {@code trials}
+ * timed ones, and the best and median throughput, in millions of entries per
+ * second, are printed.
+ * 
+ * <p>
+ * Arguments are {@code key=value} pairs overriding the defaults:
+ * {@code threads} (comma-separated), {@code ops}, {@code warmup},
+ * {@code trials}, and {@code capacity} (of the {@code WaitingLine2}, 0 for
+ * unbounded).
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public final class WaitingLineBenchmark {
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private WaitingLineBenchmark() {
+    }
+
+    /**
+     * Default thread counts.
+     */
+    private static final String DEFAULT_THREADS = "1,2,4,8,16,32";
+
+    /**
+     * Default number of entries per trial.
+     */
+    private static final int DEFAULT_OPS = 1000000;
+
+    /**
+     * Default number of untimed trials.
+     */
+    private static final int DEFAULT_WARMUP = 3;
+
+    /**
+     * Default number of timed trials.
+     */
+    private static final int DEFAULT_TRIALS = 5;
+
+    /**
+     * Default capacity of {@code WaitingLine2}; 0 means unbounded.
+     */
+    private static final int DEFAULT_CAPACITY = 0;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Entries per second in a million entries per second.
+     */
+    private static final double MILLION = 1e6;
+
+    /**
+     * Sum of the entries dequeued, so the JIT cannot discard the work.
+     */
+    private static volatile long sink;
+
+    /**
+     * Benchmark settings.
+     */
+    private static final class Settings {
+
+        /**
+         * Thread counts.
+         */
+        private String threads = DEFAULT_THREADS;
+
+        /**
+         * Entries per trial.
+         */
+        private int ops = DEFAULT_OPS;
+
+        /**
+         * Untimed trials.
+         */
+        private int warmup = DEFAULT_WARMUP;
+
+        /**
+         * Timed trials.
+         */
+        private int trials = DEFAULT_TRIALS;
+
+        /**
+         * Capacity of {@code WaitingLine2}, 0 for unbounded.
+         */
+        private int capacity = DEFAULT_CAPACITY;
+
+    }
+
+    /**
+     * Adds {@code x} to {@code line}, with the discipline the kernel needs
+     * when shared.
+     * 
+     * @param line
+     *            the line
+     * @param x
+     *            the entry
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    private static void put(WaitingLine<Integer> line, Integer x)
+            throws InterruptedException {
+        if (line instanceof WaitingLine2<?>) {
+            ((WaitingLine2<Integer>) line).put(x);
+        } else {
+            synchronized (line) {
+                line.enqueue(x);
+                line.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Removes the front of {@code line}, waiting for one if needed, with the
+     * discipline the kernel needs when shared.
+     * 
+     * @param line
+     *            the line
+     * @return the entry removed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @SuppressWarnings("unchecked")
+    private static Integer take(WaitingLine<Integer> line)
+            throws InterruptedException {
+        Integer result;
+        if (line instanceof WaitingLine2<?>) {
+            result = ((WaitingLine2<Integer>) line).take();
+        } else {
+            synchronized (line) {
+                while (line.length() == 0) {
+                    line.wait();
+                }
+                result = line.dequeue();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs one trial of {@code ops} entries through {@code line} with
+     * {@code threads} threads and returns its duration.
+     * 
+     * @param line
+     *            the line, initially empty
+     * @param threads
+     *            the number of threads
+     * @param ops
+     *            the number of entries
+     * @return the duration in nanoseconds
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static long runTrial(final WaitingLine<Integer> line, int threads,
+            int ops) throws InterruptedException {
+        List<Thread> workers = new ArrayList<Thread>();
+        if (threads == 1) {
+            final int count = ops;
+            workers.add(new Thread() {
+                @Override
+                public void run() {
+                    long sum = 0;
+                    try {
+                        for (int i = 0; i < count; i++) {
+                            put(line, i);
+                            sum += take(line);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    sink += sum;
+                }
+            });
+        } else {
+            int producers = (threads + 1) / 2;
+            int consumers = threads - producers;
+            for (int p = 0; p < producers; p++) {
+                final int count = ops / producers
+                        + (p < ops % producers ? 1 : 0);
+                workers.add(new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = 0; i < count; i++) {
+                                put(line, i);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            }
+            for (int c = 0; c < consumers; c++) {
+                final int count = ops / consumers
+                        + (c < ops % consumers ? 1 : 0);
+                workers.add(new Thread() {
+                    @Override
+                    public void run() {
+                        long sum = 0;
+                        try {
+                            for (int i = 0; i < count; i++) {
+                                sum += take(line);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        sink += sum;
+                    }
+                });
+            }
+        }
+        long start = System.nanoTime();
+        for (Thread t : workers) {
+            t.start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Returns a new, empty line of the kernel named {@code kernel}.
+     * 
+     * @param kernel
+     *            the kernel name
+     * @param capacity
+     *            the capacity of a {@code WaitingLine2}, 0 for unbounded
+     * @return the new line
+     */
+    private static WaitingLine<Integer> newLine(String kernel, int capacity) {
+        WaitingLine<Integer> result;
+        if (kernel.equals("WaitingLine2")) {
+            if (capacity > 0) {
+                result = new WaitingLine2<Integer>(capacity);
+            } else {
+                result = new WaitingLine2<Integer>();
+            }
+        } else {
+            result = new WaitingLine1L<Integer>();
+        }
+        return result;
+    }
+
+    /**
+     * Parses the {@code key=value} arguments.
+     * 
+     * @param args
+     *            the command-line arguments
+     * @return the settings
+     */
+    private static Settings parse(String[] args) {
+        Settings settings = new Settings();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            assert eq > 0 : "Violation of: arguments are key=value";
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            if (key.equals("threads")) {
+                settings.threads = value;
+            } else if (key.equals("ops")) {
+                settings.ops = Integer.parseInt(value);
+            } else if (key.equals("warmup")) {
+                settings.warmup = Integer.parseInt(value);
+            } else if (key.equals("trials")) {
+                settings.trials = Integer.parseInt(value);
+            } else if (key.equals("capacity")) {
+                settings.capacity = Integer.parseInt(value);
+            } else {
+                throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        }
+        return settings;
+    }
+
+    /**
+     * Main method.
+     * 
+     * @param args
+     *            the command line arguments
+     * @throws InterruptedException
+     *             if interrupted while waiting for a trial
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Settings settings = parse(args);
+        SimpleWriter out = new SimpleWriter1L();
+        String[] kernels = { "WaitingLine1L", "WaitingLine2" };
+        out.println("kernel,threads,best Mops/s,median Mops/s");
+        for (String threadsText : settings.threads.split(",")) {
+            int threads = Integer.parseInt(threadsText.trim());
+            for (String kernel : kernels) {
+                for (int i = 0; i < settings.warmup; i++) {
+                    runTrial(newLine(kernel, settings.capacity), threads,
+                            settings.ops);
+                }
+                double[] rates = new double[settings.trials];
+                for (int i = 0; i < settings.trials; i++) {
+                    long nanos = runTrial(newLine(kernel, settings.capacity),
+                            threads, settings.ops);
+                    rates[i] = settings.ops * NANOS_PER_SECOND / nanos
+                            / MILLION;
+                }
+                Arrays.sort(rates);
+                out.println(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f",
+                        kernel, threads, rates[rates.length - 1],
+                        rates[rates.length / 2]));
+            }
+        }
+        out.close();
+    }
+
+}
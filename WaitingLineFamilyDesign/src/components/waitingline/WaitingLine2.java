@@ -0,0 +1,628 @@
+package components.waitingline;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * {@code WaitingLine} represented as a Michael-Scott non-blocking linked
+ * queue, with implementations of primary methods that are safe to call from
+ * many producer and consumer threads at once.
+ * 
+ * <p>
+ * Producers link a new node after the last one with a single compare-and-set,
+ * and consumers advance the front the same way, so no thread ever holds a lock
+ * on the line. Each node carries the sequence number of its enqueue, which
+ * makes {@code length} O(1) and {@code position} a lock-free scan: both are
+ * differences of sequence numbers, read without stopping other threads.
+ * Consumers that must wait for an entry ({@code take}, the timed
+ * {@code poll}) and, for a line constructed with a capacity, producers that
+ * must wait for room ({@code put}, the timed {@code offer}) wait on
+ * semaphores counting entries and free places; their uncontended paths are
+ * single compare-and-sets as well. The kernel {@code enqueue} waits for room
+ * like {@code put}, and the kernel {@code dequeue} requires, like every
+ * {@code WaitingLine}, that {@code this} is not empty.
+ * 
+ * <p>
+ * {@code length}, {@code position}, {@code front}, {@code peek}, and
+ * iterators are weakly consistent: they reflect some state of {@code this}
+ * during the call and never fail because of concurrent updates, except that
+ * {@code front} throws {@code NoSuchElementException} if another consumer
+ * empties {@code this} first; {@code peek} returns {@code null} instead. The
+ * {@code Standard} methods ({@code clear}, {@code transferFrom},
+ * {@code newInstance}) and the secondary methods built from several kernel
+ * calls ({@code append}, {@code remove}) require that no other thread is
+ * using {@code this}.
+ * 
+ * @param <T>
+ *            type of {@code WaitingLine} entries
+ * @convention <pre>
+ * {@code [$this.head, $this.head.next, ... form a chain of nodes ending with
+ *  a node whose next is null]  and
+ * [$this.tail is the last node of the chain or the one before it]  and
+ * [the seq of each node in the chain after $this.head is one more than the
+ *  seq of the node before it]  and
+ * [the items of the nodes in the chain after $this.head are not null]  and
+ * $this.items.availablePermits() <= [number of nodes after $this.head]  and
+ * if $this.capacity < Integer.MAX_VALUE
+ *  then $this.space.availablePermits() <=
+ *        $this.capacity - [number of nodes after $this.head]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [items of the nodes in the chain after $this.head]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class WaitingLine2<T> extends WaitingLineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the linked queue.
+     * 
+     * @param <T>
+     *            type of the item
+     */
+    private static final class Node<T> {
+
+        /**
+         * Updater for {@code next}.
+         */
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class,
+                        Node.class, "next");
+
+        /**
+         * Item of this node; {@code null} once this node is the dummy head.
+         */
+        private volatile T item;
+
+        /**
+         * Node after this one.
+         */
+        private volatile Node<T> next;
+
+        /**
+         * Sequence number of the enqueue that created this node.
+         */
+        private long seq;
+
+        /**
+         * Constructor from item.
+         * 
+         * @param item
+         *            the item
+         */
+        private Node(T item) {
+            this.item = item;
+        }
+
+        /**
+         * Links {@code n} after this node if this is still the last node.
+         * 
+         * @param n
+         *            the node to link
+         * @return whether n was linked
+         */
+        private boolean casNext(Node<T> n) {
+            return NEXT.compareAndSet(this, null, n);
+        }
+
+    }
+
+    /**
+     * Updater for {@code head}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<WaitingLine2, Node> HEAD =
+            AtomicReferenceFieldUpdater.newUpdater(WaitingLine2.class,
+                    Node.class, "head");
+
+    /**
+     * Updater for {@code tail}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<WaitingLine2, Node> TAIL =
+            AtomicReferenceFieldUpdater.newUpdater(WaitingLine2.class,
+                    Node.class, "tail");
+
+    /**
+     * Dummy node before the front entry.
+     */
+    private volatile Node<T> head;
+
+    /**
+     * Last node, or the one before it.
+     */
+    private volatile Node<T> tail;
+
+    /**
+     * Number of entries that consumers may claim.
+     */
+    private Semaphore items;
+
+    /**
+     * Number of free places, {@code null} if {@code this} is unbounded.
+     */
+    private Semaphore space;
+
+    /**
+     * Largest number of entries, {@code Integer.MAX_VALUE} if unbounded.
+     */
+    private final int capacity;
+
+    /**
+     * Links a new node holding {@code x} after the last node.
+     * 
+     * @param x
+     *            the entry to add
+     */
+    private void link(T x) {
+        Node<T> n = new Node<T>(x);
+        while (true) {
+            Node<T> t = this.tail;
+            Node<T> next = t.next;
+            if (t == this.tail) {
+                if (next == null) {
+                    n.seq = t.seq + 1;
+                    if (t.casNext(n)) {
+                        TAIL.compareAndSet(this, t, n);
+                        this.items.release();
+                        return;
+                    }
+                } else {
+                    TAIL.compareAndSet(this, t, next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Unlinks the front node and returns its entry.
+     * 
+     * @return the entry removed
+     * @requires <pre>
+     * {@code [the caller has acquired a permit from $this.items]}
+     * </pre>
+     */
+    private T unlink() {
+        while (true) {
+            Node<T> h = this.head;
+            Node<T> t = this.tail;
+            Node<T> next = h.next;
+            if (h == this.head && next != null) {
+                if (h == t) {
+                    /*
+                     * The permit guarantees that the line is not empty, so the
+                     * tail just lags behind: help it along.
+                     */
+                    TAIL.compareAndSet(this, t, next);
+                } else {
+                    T x = next.item;
+                    if (HEAD.compareAndSet(this, h, next)) {
+                        next.item = null;
+                        if (this.space != null) {
+                            this.space.release();
+                        }
+                        return x;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        Node<T> dummy = new Node<T>(null);
+        this.head = dummy;
+        this.tail = dummy;
+        this.items = new Semaphore(0);
+        if (this.capacity < Integer.MAX_VALUE) {
+            this.space = new Semaphore(this.capacity);
+        } else {
+            this.space = null;
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Default constructor, resulting in an unbounded line.
+     */
+    public WaitingLine2() {
+        this.capacity = Integer.MAX_VALUE;
+        this.createNewRep();
+    }
+
+    /**
+     * Constructor resulting in a line of at most {@code capacity} entries
+     * ({@code Integer.MAX_VALUE} meaning unbounded).
+     * 
+     * @param capacity
+     *            the largest number of entries
+     * @requires <pre>
+     * {@code capacity > 0}
+     * </pre>
+     */
+    public WaitingLine2(int capacity) {
+        assert capacity > 0 : "Violation of: capacity > 0";
+
+        this.capacity = capacity;
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final WaitingLine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.capacity);
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(WaitingLine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof WaitingLine2<?> : ""
+                + "Violation of: source is of dynamic type WaitingLine2<?>";
+        assert ((WaitingLine2<?>) source).capacity == this.capacity : ""
+                + "Violation of: source.capacity = this.capacity";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * WaitingLine2<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        WaitingLine2<T> localSource = (WaitingLine2<T>) source;
+        this.head = localSource.head;
+        this.tail = localSource.tail;
+        this.items = localSource.items;
+        this.space = localSource.space;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void enqueue(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.space != null) {
+            this.space.acquireUninterruptibly();
+        }
+        this.link(x);
+    }
+
+    @Override
+    public final T dequeue() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        this.items.acquireUninterruptibly();
+        return this.unlink();
+    }
+
+    @Override
+    public final T front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        T x = this.peek();
+        if (x == null) {
+            /*
+             * Another consumer took the last entry after the check above, or
+             * assertion-checking is disabled and this was empty.
+             */
+            throw new NoSuchElementException();
+        }
+        return x;
+    }
+
+    @Override
+    public final int length() {
+        Node<T> h = this.head;
+        Node<T> t = this.tail;
+        Node<T> next = t.next;
+        if (next != null) {
+            t = next;
+        }
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, t.seq - h.seq));
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    @Override
+    public final int position(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        Node<T> h = this.head;
+        Node<T> n = h.next;
+        while (n != null && !x.equals(n.item)) {
+            n = n.next;
+        }
+        int result = 0;
+        if (n != null) {
+            result = (int) (n.seq - h.seq);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the front of {@code this} if there is one, without removing it,
+     * and otherwise returns {@code null}.
+     * 
+     * @return the front entry, or null
+     * @aliases reference returned by {@code peek}
+     * @ensures <pre>
+     * {@code if this = <> then peek = null else <peek> is prefix of this}
+     * </pre>
+     */
+    public final T peek() {
+        T result = null;
+        boolean done = false;
+        while (!done) {
+            Node<T> h = this.head;
+            Node<T> next = h.next;
+            if (next == null) {
+                result = null;
+                done = true;
+            } else {
+                /*
+                 * The item is cleared only after head has moved past h, so a
+                 * null item or a moved head means a consumer got there first.
+                 */
+                result = next.item;
+                done = result != null && h == this.head;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code x} to the end of {@code this} if there is room, without
+     * waiting, and reports whether it did.
+     * 
+     * @param x
+     *            the entry to be added
+     * @return whether x was added
+     * @aliases reference {@code x}
+     * @updates this
+     * @ensures <pre>
+     * {@code if offer then this = #this * <x> else this = #this}
+     * </pre>
+     */
+    public final boolean offer(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        boolean result = this.space == null || this.space.tryAcquire();
+        if (result) {
+            this.link(x);
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code x} to the end of {@code this}, waiting up to
+     * {@code timeout} for room, and reports whether it did.
+     * 
+     * @param x
+     *            the entry to be added
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            the unit of {@code timeout}
+     * @return whether x was added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @aliases reference {@code x}
+     * @updates this
+     * @ensures <pre>
+     * {@code if offer then this = #this * <x> else this = #this}
+     * </pre>
+     */
+    public final boolean offer(T x, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        assert x != null : "Violation of: x is not null";
+        assert unit != null : "Violation of: unit is not null";
+
+        boolean result = this.space == null
+                || this.space.tryAcquire(timeout, unit);
+        if (result) {
+            this.link(x);
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code x} to the end of {@code this}, waiting as long as needed for
+     * room.
+     * 
+     * @param x
+     *            the entry to be added
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @aliases reference {@code x}
+     * @updates this
+     * @ensures <pre>
+     * {@code this = #this * <x>}
+     * </pre>
+     */
+    public final void put(T x) throws InterruptedException {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.space != null) {
+            this.space.acquire();
+        }
+        this.link(x);
+    }
+
+    /**
+     * Removes and returns the front of {@code this} if there is one, without
+     * waiting, and otherwise returns {@code null}.
+     * 
+     * @return the entry removed, or null
+     * @updates this
+     * @ensures <pre>
+     * {@code if #this = <> then poll = null and this = #this
+     *  else #this = <poll> * this}
+     * </pre>
+     */
+    public final T poll() {
+        T result = null;
+        if (this.items.tryAcquire()) {
+            result = this.unlink();
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the front of {@code this}, waiting up to
+     * {@code timeout} for an entry, and otherwise returns {@code null}.
+     * 
+     * @param timeout
+     *            how long to wait, in units of {@code unit}
+     * @param unit
+     *            the unit of {@code timeout}
+     * @return the entry removed, or null
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     * @ensures <pre>
+     * {@code if poll = null then this = #this else #this = <poll> * this}
+     * </pre>
+     */
+    public final T poll(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        assert unit != null : "Violation of: unit is not null";
+
+        T result = null;
+        if (this.items.tryAcquire(timeout, unit)) {
+            result = this.unlink();
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the front of {@code this}, waiting as long as needed
+     * for an entry.
+     * 
+     * @return the entry removed
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     * @updates this
+     * @ensures <pre>
+     * {@code #this = <take> * this}
+     * </pre>
+     */
+    public final T take() throws InterruptedException {
+        this.items.acquire();
+        return this.unlink();
+    }
+
+    /**
+     * Reports the largest number of entries {@code this} can hold.
+     * 
+     * @return the capacity of {@code this}, {@code Integer.MAX_VALUE} if
+     *         unbounded
+     */
+    public final int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new WaitingLine2Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code WaitingLine2}.
+     */
+    private final class WaitingLine2Iterator implements Iterator<T> {
+
+        /**
+         * Node holding the next entry, or {@code null}.
+         */
+        private Node<T> current;
+
+        /**
+         * Entry of {@code current}, read when it was reached.
+         */
+        private T item;
+
+        /**
+         * Default constructor.
+         */
+        private WaitingLine2Iterator() {
+            this.current = WaitingLine2.this.head;
+            this.advance();
+        }
+
+        /**
+         * Moves {@code current} to the next node that still holds an entry.
+         */
+        private void advance() {
+            this.item = null;
+            while (this.item == null && this.current != null) {
+                this.current = this.current.next;
+                if (this.current != null) {
+                    this.item = this.current.item;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.item != null;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T result = this.item;
+            this.advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
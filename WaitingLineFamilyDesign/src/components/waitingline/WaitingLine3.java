@@ -0,0 +1,414 @@
+package components.waitingline;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code WaitingLine} represented as a doubly linked chain of nodes, with a
+ * side hash index from each entry to its node and a Fenwick tree counting the
+ * entries by their order of arrival, with implementations of primary methods
+ * and of {@code remove}, {@code position}, and {@code contains}.
+ * 
+ * <p>
+ * Each entry gets the next slot number when it is enqueued, so slot order is
+ * line order. The Fenwick tree starts with a 1 in every slot, which is only
+ * cleared when an entry leaves from the middle of the line; entries that
+ * leave from the front are instead counted in {@code dequeued}, since they all
+ * have smaller slots than any entry still in line. The position of an entry
+ * is then the prefix sum up to its slot minus {@code dequeued}. When the
+ * slots run out, the entries in line are renumbered from 0, doubling the
+ * number of slots if more than half are in use.
+ * 
+ * <p>
+ * {@code enqueue} (amortized), {@code dequeue}, {@code front},
+ * {@code length}, and {@code contains} take constant time; {@code remove} and
+ * {@code position} take time logarithmic in the number of slots, with no
+ * scan of the line. Entries must be distinct, as the customers of a line are.
+ * 
+ * @param <T>
+ *            type of {@code WaitingLine} entries
+ * @convention <pre>
+ * {@code [$this.header.next, $this.header.next.next, ... form a chain of
+ *  $this.length nodes, linked both ways, that ends back at $this.header]  and
+ * [the values of the nodes in the chain are distinct]  and
+ * DOMAIN($this.index) = [values of the nodes in the chain]  and
+ * [$this.index maps each value to its node]  and
+ * |$this.tree| - 1 is a power of two  and
+ * [the slots of the nodes in the chain are increasing and less than
+ *  $this.next]  and
+ * $this.next <= |$this.tree| - 1  and
+ * [$this.tree is the Fenwick tree of the counts c[1..|$this.tree| - 1] where
+ *  c[s + 1] = 0 if slot s < $this.next was vacated by remove, and 1
+ *  otherwise]  and
+ * $this.dequeued = [number of slots below the slot of $this.header.next, or
+ *  below $this.next if $this.length = 0, with c[s + 1] = 1]}
+ * </pre>
+ * @correspondence <pre>
+ * {@code this = [values of the nodes in the chain from $this.header]}
+ * </pre>
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class WaitingLine3<T> extends WaitingLineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Node of the doubly linked chain.
+     * 
+     * @param <T>
+     *            type of the value
+     */
+    private static final class Node<T> {
+
+        /**
+         * Value of this node, {@code null} in the header.
+         */
+        private T value;
+
+        /**
+         * Slot of this node.
+         */
+        private int slot;
+
+        /**
+         * Node before this one.
+         */
+        private Node<T> previous;
+
+        /**
+         * Node after this one.
+         */
+        private Node<T> next;
+
+    }
+
+    /**
+     * Number of slots in a new line.
+     */
+    private static final int DEFAULT_SLOTS = 16;
+
+    /**
+     * Header node; {@code header.next} is the front of the line and
+     * {@code header.previous} its end.
+     */
+    private Node<T> header;
+
+    /**
+     * Index from entry to node.
+     */
+    private HashMap<T, Node<T>> index;
+
+    /**
+     * Fenwick tree over the slots, 1-based.
+     */
+    private int[] tree;
+
+    /**
+     * Next slot to hand out.
+     */
+    private int next;
+
+    /**
+     * Number of entries that left from the front since the last renumbering.
+     */
+    private int dequeued;
+
+    /**
+     * Number of entries.
+     */
+    private int length;
+
+    /**
+     * Sets {@code this.tree} to the Fenwick tree of {@code slots} slots each
+     * holding 1.
+     * 
+     * @param slots
+     *            the number of slots
+     * @replaces $this.tree
+     */
+    private void resetTree(int slots) {
+        this.tree = new int[slots + 1];
+        for (int i = 1; i <= slots; i++) {
+            this.tree[i] = i & -i;
+        }
+    }
+
+    /**
+     * Returns the sum of the counts of slots 0 through {@code slot}.
+     * 
+     * @param slot
+     *            the last slot to count
+     * @return the prefix sum
+     */
+    private int prefix(int slot) {
+        int sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Clears the count of {@code slot}.
+     * 
+     * @param slot
+     *            the slot vacated
+     */
+    private void vacate(int slot) {
+        for (int i = slot + 1; i < this.tree.length; i += i & -i) {
+            this.tree[i]--;
+        }
+    }
+
+    /**
+     * Gives the entries in line the slots 0 through {@code this.length - 1},
+     * doubling the number of slots if more than half would be in use.
+     */
+    private void renumber() {
+        int slots = this.tree.length - 1;
+        if (2 * this.length > slots) {
+            slots *= 2;
+        }
+        this.resetTree(slots);
+        int slot = 0;
+        for (Node<T> n = this.header.next; n != this.header; n = n.next) {
+            n.slot = slot;
+            slot++;
+        }
+        this.next = slot;
+        this.dequeued = 0;
+    }
+
+    /**
+     * Unlinks {@code n} from the chain and the index.
+     * 
+     * @param n
+     *            the node to unlink
+     */
+    private void unlink(Node<T> n) {
+        n.previous.next = n.next;
+        n.next.previous = n.previous;
+        this.index.remove(n.value);
+        this.length--;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.header = new Node<T>();
+        this.header.previous = this.header;
+        this.header.next = this.header;
+        this.index = new HashMap<T, Node<T>>();
+        this.resetTree(DEFAULT_SLOTS);
+        this.next = 0;
+        this.dequeued = 0;
+        this.length = 0;
+    }
+
+    /*
+     * Constructor ------------------------------------------------------------
+     */
+
+    /**
+     * Default constructor.
+     */
+    public WaitingLine3() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final WaitingLine<T> newInstance() {
+        try {
+            return this.getClass().newInstance();
+        } catch (Exception e) { // ReflectiveOperationException in Java 7
+            throw new AssertionError("Cannot construct object of type "
+                    + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(WaitingLine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof WaitingLine3<?> : ""
+                + "Violation of: source is of dynamic type WaitingLine3<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * WaitingLine3<?>, and the ? must be T or the call would not have
+         * compiled.
+         */
+        WaitingLine3<T> localSource = (WaitingLine3<T>) source;
+        this.header = localSource.header;
+        this.index = localSource.index;
+        this.tree = localSource.tree;
+        this.next = localSource.next;
+        this.dequeued = localSource.dequeued;
+        this.length = localSource.length;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void enqueue(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        if (this.next == this.tree.length - 1) {
+            this.renumber();
+        }
+        Node<T> n = new Node<T>();
+        n.value = x;
+        n.slot = this.next;
+        this.next++;
+        n.previous = this.header.previous;
+        n.next = this.header;
+        this.header.previous.next = n;
+        this.header.previous = n;
+        this.index.put(x, n);
+        this.length++;
+    }
+
+    @Override
+    public final T dequeue() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        Node<T> n = this.header.next;
+        this.unlink(n);
+        this.dequeued++;
+        return n.value;
+    }
+
+    @Override
+    public final T front() {
+        assert this.length() > 0 : "Violation of: this /= <>";
+
+        return this.header.next.value;
+    }
+
+    @Override
+    public final int length() {
+        return this.length;
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        T result = null;
+        Node<T> n = this.index.get(x);
+        if (n != null) {
+            if (n == this.header.next) {
+                this.dequeue();
+            } else {
+                this.unlink(n);
+                this.vacate(n.slot);
+            }
+            result = n.value;
+        }
+        return result;
+    }
+
+    @Override
+    public final int position(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        int result = 0;
+        Node<T> n = this.index.get(x);
+        if (n != null) {
+            result = this.prefix(n.slot) - this.dequeued;
+        }
+        return result;
+    }
+
+    /**
+     * Reports whether {@code x} is in {@code this}.
+     * 
+     * @param x
+     *            the entry to look for
+     * @return true iff x is an entry of this
+     * @ensures <pre>
+     * {@code contains = (x is in elements(this))}
+     * </pre>
+     */
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        return this.index.containsKey(x);
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new WaitingLine3Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code WaitingLine3}.
+     */
+    private final class WaitingLine3Iterator implements Iterator<T> {
+
+        /**
+         * Node holding the next entry.
+         */
+        private Node<T> current;
+
+        /**
+         * Default constructor.
+         */
+        private WaitingLine3Iterator() {
+            this.current = WaitingLine3.this.header.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != WaitingLine3.this.header;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T result = this.current.value;
+            this.current = this.current.next;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
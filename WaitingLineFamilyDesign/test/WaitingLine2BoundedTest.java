@@ -0,0 +1,70 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import components.waitingline.WaitingLine;
+import components.waitingline.WaitingLine2;
+
+/**
+ * Customized JUnit test fixture for {@code WaitingLine2} using the
+ * constructor with a capacity.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class WaitingLine2BoundedTest extends WaitingLineTest {
+
+    /**
+     * Capacity to be used in tests.
+     */
+    private static final int TEST_CAPACITY = 4;
+
+    @Override
+    protected final WaitingLine<String> constructor() {
+        return new WaitingLine2<String>(TEST_CAPACITY);
+    }
+
+    /**
+     * Test for offer on a full line, and after room is made.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testOfferFull() throws InterruptedException {
+        WaitingLine2<String> q = new WaitingLine2<String>(TEST_CAPACITY);
+        for (int i = 0; i < TEST_CAPACITY; i++) {
+            assertEquals(true, q.offer("c" + i));
+        }
+        assertEquals(false, q.offer("red"));
+        assertEquals(false, q.offer("red", 1, TimeUnit.MILLISECONDS));
+        assertEquals(TEST_CAPACITY, q.length());
+        assertEquals("c0", q.poll());
+        assertEquals(true, q.offer("red"));
+        assertEquals(TEST_CAPACITY, q.position("red"));
+    }
+
+    /**
+     * Test for the room given back by dequeue, remove, and clear.
+     */
+    @Test
+    public final void testRoomGivenBack() {
+        WaitingLine2<String> q = new WaitingLine2<String>(TEST_CAPACITY);
+        for (int i = 0; i < TEST_CAPACITY; i++) {
+            q.enqueue("c" + i);
+        }
+        q.dequeue();
+        q.remove("c2");
+        assertEquals(true, q.offer("red"));
+        assertEquals(true, q.offer("green"));
+        assertEquals(false, q.offer("blue"));
+        q.clear();
+        for (int i = 0; i < TEST_CAPACITY; i++) {
+            assertEquals(true, q.offer("c" + i));
+        }
+        assertEquals(TEST_CAPACITY, q.capacity());
+    }
+
+}
@@ -0,0 +1,231 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import components.waitingline.WaitingLine2;
+
+/**
+ * JUnit test fixture for {@code WaitingLine2} used by many producer and
+ * consumer threads at once.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class WaitingLine2ConcurrencyTest {
+
+    /**
+     * Number of producer threads.
+     */
+    private static final int PRODUCERS = 4;
+
+    /**
+     * Number of consumer threads.
+     */
+    private static final int CONSUMERS = 4;
+
+    /**
+     * Number of entries each producer adds.
+     */
+    private static final int ENTRIES = 20000;
+
+    /**
+     * Capacity of the bounded lines.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Starts every thread in {@code threads} and waits for all of them.
+     * 
+     * @param threads
+     *            the threads
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static void runAll(List<Thread> threads)
+            throws InterruptedException {
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    /**
+     * Runs {@code PRODUCERS} producers adding the entries 0 through
+     * {@code PRODUCERS * ENTRIES - 1} to {@code q}, each its own run of
+     * {@code ENTRIES}, by turns with {@code enqueue}, {@code put}, and
+     * {@code offer}, and {@code CONSUMERS} consumers removing them with the
+     * timed and the untimed {@code poll}, while another thread keeps calling
+     * {@code peek}, {@code length}, and {@code position}; then checks that
+     * every entry was removed exactly once, and that each consumer got the
+     * entries of each producer in the order they were added.
+     * 
+     * @param q
+     *            the empty line to use
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    private static void stress(final WaitingLine2<Integer> q)
+            throws InterruptedException {
+        final int total = PRODUCERS * ENTRIES;
+        final AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        final AtomicInteger consumed = new AtomicInteger(0);
+        final AtomicLong sum = new AtomicLong(0);
+        final AtomicBoolean inOrder = new AtomicBoolean(true);
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int first = p * ENTRIES;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = first; i < first + ENTRIES; i++) {
+                            if (i % 3 == 0) {
+                                q.enqueue(i);
+                            } else if (i % 3 == 1) {
+                                q.put(i);
+                            } else {
+                                while (!q.offer(i, 1, TimeUnit.MILLISECONDS)) {
+                                    Thread.yield();
+                                }
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        failed.set(true);
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < CONSUMERS; c++) {
+            final boolean timed = c % 2 == 0;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    int[] last = new int[PRODUCERS];
+                    for (int p = 0; p < PRODUCERS; p++) {
+                        last[p] = -1;
+                    }
+                    try {
+                        while (consumed.get() < total) {
+                            Integer x;
+                            if (timed) {
+                                x = q.poll(1, TimeUnit.MILLISECONDS);
+                            } else {
+                                x = q.poll();
+                            }
+                            if (x != null) {
+                                seen.incrementAndGet(x);
+                                sum.addAndGet(x);
+                                consumed.incrementAndGet();
+                                int p = x / ENTRIES;
+                                if (x <= last[p]) {
+                                    inOrder.set(false);
+                                }
+                                last[p] = x;
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        failed.set(true);
+                    }
+                }
+            });
+        }
+        threads.add(new Thread() {
+            @Override
+            public void run() {
+                while (consumed.get() < total) {
+                    Integer x = q.peek();
+                    if (q.length() < 0 || (x != null && q.position(x) < 0)) {
+                        failed.set(true);
+                    }
+                }
+            }
+        });
+        runAll(threads);
+        assertEquals(false, failed.get());
+        assertEquals(true, inOrder.get());
+        assertEquals(total, consumed.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i));
+        }
+        assertEquals((long) total * (total - 1) / 2, sum.get());
+        assertEquals(0, q.length());
+        assertEquals(null, q.peek());
+    }
+
+    /**
+     * Test for many producers and consumers on an unbounded line.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testUnbounded() throws InterruptedException {
+        stress(new WaitingLine2<Integer>());
+    }
+
+    /**
+     * Test for many producers and consumers on a bounded line, so that
+     * producers wait for room.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testBounded() throws InterruptedException {
+        WaitingLine2<Integer> q = new WaitingLine2<Integer>(CAPACITY);
+        stress(q);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(q.offer(i));
+        }
+        assertEquals(false, q.offer(CAPACITY));
+    }
+
+    /**
+     * Test for peek returning, rather than spinning, when consumers empty the
+     * line under it.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test(timeout = 10000)
+    public final void testPeekWhileDraining() throws InterruptedException {
+        final WaitingLine2<Integer> q = new WaitingLine2<Integer>();
+        final int rounds = 2000;
+        final AtomicBoolean done = new AtomicBoolean(false);
+        Thread drainer = new Thread() {
+            @Override
+            public void run() {
+                for (int r = 0; r < rounds; r++) {
+                    q.enqueue(r);
+                    while (q.poll() == null) {
+                        Thread.yield();
+                    }
+                }
+                done.set(true);
+            }
+        };
+        drainer.start();
+        int nulls = 0;
+        while (!done.get()) {
+            if (q.peek() == null) {
+                nulls++;
+            }
+        }
+        drainer.join();
+        assertEquals(null, q.peek());
+        assertTrue(nulls > 0);
+    }
+
+}
@@ -0,0 +1,81 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import components.waitingline.WaitingLine;
+import components.waitingline.WaitingLine2;
+
+/**
+ * Customized JUnit test fixture for {@code WaitingLine2} using the default
+ * constructor, i.e., an unbounded line.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class WaitingLine2Test extends WaitingLineTest {
+
+    @Override
+    protected final WaitingLine<String> constructor() {
+        return new WaitingLine2<String>();
+    }
+
+    /**
+     * Test for peek on an empty line, including one emptied by dequeue.
+     */
+    @Test
+    public final void testPeekEmpty() {
+        WaitingLine2<String> q = new WaitingLine2<String>();
+        assertEquals(null, q.peek());
+        q.enqueue("red");
+        q.dequeue();
+        assertEquals(null, q.peek());
+    }
+
+    /**
+     * Test for peek on a non-empty line.
+     */
+    @Test
+    public final void testPeekNonEmpty() {
+        WaitingLine2<String> q = new WaitingLine2<String>();
+        q.enqueue("red");
+        q.enqueue("green");
+        assertEquals("red", q.peek());
+        assertEquals(2, q.length());
+    }
+
+    /**
+     * Test for poll, with and without a timeout, on an empty line.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testPollEmpty() throws InterruptedException {
+        WaitingLine2<String> q = new WaitingLine2<String>();
+        assertEquals(null, q.poll());
+        assertEquals(null, q.poll(1, TimeUnit.MILLISECONDS));
+        assertEquals(0, q.length());
+    }
+
+    /**
+     * Test for poll, take, offer, and put on an unbounded line.
+     * 
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    @Test
+    public final void testOfferPollPutTake() throws InterruptedException {
+        WaitingLine2<String> q = new WaitingLine2<String>();
+        assertEquals(true, q.offer("red"));
+        assertEquals(true, q.offer("green", 1, TimeUnit.MILLISECONDS));
+        q.put("blue");
+        assertEquals("<red,green,blue>", q.toString());
+        assertEquals("red", q.poll());
+        assertEquals("green", q.poll(1, TimeUnit.MILLISECONDS));
+        assertEquals("blue", q.take());
+        assertEquals(Integer.MAX_VALUE, q.capacity());
+    }
+
+}
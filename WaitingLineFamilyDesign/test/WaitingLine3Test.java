@@ -0,0 +1,229 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.waitingline.WaitingLine;
+import components.waitingline.WaitingLine3;
+
+/**
+ * Customized JUnit test fixture for {@code WaitingLine3}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public class WaitingLine3Test extends WaitingLineTest {
+
+    /**
+     * Number of slots of a new {@code WaitingLine3}.
+     */
+    private static final int SLOTS = 16;
+
+    @Override
+    protected final WaitingLine<String> constructor() {
+        return new WaitingLine3<String>();
+    }
+
+    /**
+     * Checks that the positions of the entries of {@code q} are 1 through
+     * {@code |q|}, in the order of {@code expected}, and that {@code q}
+     * holds exactly those entries.
+     * 
+     * @param expected
+     *            the entries expected, in order
+     * @param q
+     *            the line
+     */
+    private static void assertPositions(List<String> expected,
+            WaitingLine3<String> q) {
+        assertEquals(expected.size(), q.length());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i + 1, q.position(expected.get(i)));
+            assertEquals(true, q.contains(expected.get(i)));
+        }
+        assertEquals(expected.toString().replace(" ", "")
+                .replace('[', '<').replace(']', '>'), q.toString());
+    }
+
+    /**
+     * Test for position after removes from the middle.
+     */
+    @Test
+    public final void testPositionAfterRemoveMiddle() {
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        List<String> expected = new ArrayList<String>();
+        for (String s : new String[] { "a", "b", "c", "d", "e", "f" }) {
+            q.enqueue(s);
+            expected.add(s);
+        }
+        assertEquals("c", q.remove("c"));
+        expected.remove("c");
+        assertPositions(expected, q);
+        assertEquals("e", q.remove("e"));
+        expected.remove("e");
+        assertPositions(expected, q);
+        assertEquals(0, q.position("c"));
+        assertEquals(false, q.contains("c"));
+    }
+
+    /**
+     * Test for position after removes from the front, both by dequeue and
+     * by remove, mixed with removes from the middle.
+     */
+    @Test
+    public final void testPositionAfterRemoveFront() {
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        List<String> expected = new ArrayList<String>();
+        for (String s : new String[] { "a", "b", "c", "d", "e", "f" }) {
+            q.enqueue(s);
+            expected.add(s);
+        }
+        assertEquals("a", q.dequeue());
+        expected.remove("a");
+        assertPositions(expected, q);
+        assertEquals("b", q.remove("b"));
+        expected.remove("b");
+        assertPositions(expected, q);
+        assertEquals("d", q.remove("d"));
+        expected.remove("d");
+        assertEquals("c", q.dequeue());
+        expected.remove("c");
+        assertPositions(expected, q);
+        assertEquals("e", q.front());
+    }
+
+    /**
+     * Test for remove of the front entry when it is the only one, and
+     * enqueue after it.
+     */
+    @Test
+    public final void testRemoveOnlyEntry() {
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        q.enqueue("a");
+        assertEquals("a", q.remove("a"));
+        assertEquals(0, q.length());
+        assertEquals(0, q.position("a"));
+        q.enqueue("b");
+        q.enqueue("a");
+        assertEquals(1, q.position("b"));
+        assertEquals(2, q.position("a"));
+    }
+
+    /**
+     * Test for renumbering without doubling: the slots run out many times
+     * while the line stays short, with removes from the middle vacating
+     * slots along the way.
+     */
+    @Test
+    public final void testRenumberWithoutDoubling() {
+        final int n = 10 * SLOTS;
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < n; i++) {
+            String s = "c" + i;
+            q.enqueue(s);
+            expected.add(s);
+            if (expected.size() > 3) {
+                String x = expected.remove(1);
+                assertEquals(x, q.remove(x));
+            }
+            if (expected.size() > 2) {
+                assertEquals(expected.remove(0), q.dequeue());
+            }
+            assertPositions(expected, q);
+        }
+    }
+
+    /**
+     * Test for renumbering with doubling: more than half of the slots are in
+     * use when they run out, several times over, after some removes.
+     */
+    @Test
+    public final void testRenumberWithDoubling() {
+        final int n = 8 * SLOTS;
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < n; i++) {
+            String s = "c" + i;
+            q.enqueue(s);
+            expected.add(s);
+            if (i % 5 == 4) {
+                String x = expected.remove(expected.size() / 2);
+                assertEquals(x, q.remove(x));
+            }
+            if (i % 7 == 6) {
+                assertEquals(expected.remove(0), q.dequeue());
+            }
+            assertPositions(expected, q);
+        }
+    }
+
+    /**
+     * Test for transferFrom, with positions, removes, and enqueues on both
+     * lines afterward.
+     */
+    @Test
+    public final void testTransferFromPositions() {
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        WaitingLine3<String> source = new WaitingLine3<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < SLOTS + 2; i++) {
+            source.enqueue("c" + i);
+            expected.add("c" + i);
+        }
+        source.dequeue();
+        expected.remove(0);
+        source.remove("c5");
+        expected.remove("c5");
+        q.enqueue("x");
+        q.transferFrom(source);
+        assertPositions(expected, q);
+        assertEquals(0, q.position("x"));
+        assertPositions(new ArrayList<String>(), source);
+        source.enqueue("c1");
+        assertEquals(1, source.position("c1"));
+        q.enqueue("x");
+        expected.add("x");
+        q.remove("c3");
+        expected.remove("c3");
+        assertPositions(expected, q);
+    }
+
+    /**
+     * Test for random enqueues, dequeues, and removes against a
+     * {@code java.util.List}.
+     */
+    @Test
+    public final void testRandomOperations() {
+        final int operations = 5000;
+        final int range = 200;
+        Random random = new Random(1);
+        WaitingLine3<String> q = new WaitingLine3<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < operations; i++) {
+            String s = "c" + random.nextInt(range);
+            int choice = random.nextInt(3);
+            if (choice == 0 && !q.contains(s)) {
+                q.enqueue(s);
+                expected.add(s);
+            } else if (choice == 1 && q.length() > 0) {
+                assertEquals(expected.remove(0), q.dequeue());
+            } else {
+                String x = null;
+                if (expected.remove(s)) {
+                    x = s;
+                }
+                assertEquals(x, q.remove(s));
+            }
+            int j = random.nextInt(expected.size() + 1);
+            if (j < expected.size()) {
+                assertEquals(j + 1, q.position(expected.get(j)));
+            }
+        }
+        assertPositions(expected, q);
+    }
+
+}
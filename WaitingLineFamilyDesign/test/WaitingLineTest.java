@@ -0,0 +1,256 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.waitingline.WaitingLine;
+
+/**
+ * JUnit test fixture for {@code WaitingLine<String>}'s constructor, kernel
+ * methods, and {@code append}, {@code remove}, and {@code position}.
+ * 
+ * @author Ronit Kumar
+ * 
+ */
+public abstract class WaitingLineTest {
+
+    /**
+     * Invokes the appropriate {@code WaitingLine} constructor and returns the
+     * result.
+     * 
+     * @return the new waiting line
+     * @ensures <pre>
+     * {@code constructor = <>}
+     * </pre>
+     */
+    protected abstract WaitingLine<String> constructor();
+
+    /**
+     * Creates and returns a {@code WaitingLine<String>} with the given
+     * entries.
+     * 
+     * @param args
+     *            the entries for the waiting line
+     * @return the constructed waiting line
+     * @ensures <pre>
+     * {@code createFromArgs = [entries in args]}
+     * </pre>
+     */
+    protected final WaitingLine<String> createFromArgs(String... args) {
+        WaitingLine<String> line = this.constructor();
+        for (String s : args) {
+            line.enqueue(s);
+        }
+        return line;
+    }
+
+    /**
+     * Test for constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        WaitingLine<String> q = this.constructor();
+        WaitingLine<String> qExpected = this.createFromArgs();
+        assertEquals(qExpected, q);
+        assertEquals(0, q.length());
+    }
+
+    /**
+     * Test for enqueue on an empty line.
+     */
+    @Test
+    public final void testEnqueueEmpty() {
+        WaitingLine<String> q = this.createFromArgs();
+        WaitingLine<String> qExpected = this.createFromArgs("red");
+        q.enqueue("red");
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for enqueue on a non-empty line.
+     */
+    @Test
+    public final void testEnqueueNonEmpty() {
+        WaitingLine<String> q = this.createFromArgs("red", "green");
+        WaitingLine<String> qExpected = this.createFromArgs("red", "green",
+                "blue");
+        q.enqueue("blue");
+        assertEquals(qExpected, q);
+        assertEquals("<red,green,blue>", q.toString());
+    }
+
+    /**
+     * Test for dequeue leaving an empty line.
+     */
+    @Test
+    public final void testDequeueToEmpty() {
+        WaitingLine<String> q = this.createFromArgs("red");
+        WaitingLine<String> qExpected = this.createFromArgs();
+        String x = q.dequeue();
+        assertEquals("red", x);
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for dequeue leaving a non-empty line.
+     */
+    @Test
+    public final void testDequeueNonEmpty() {
+        WaitingLine<String> q = this.createFromArgs("red", "green", "blue");
+        WaitingLine<String> qExpected = this.createFromArgs("green", "blue");
+        String x = q.dequeue();
+        assertEquals("red", x);
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for dequeue and enqueue alternating, so that the line is empty
+     * several times.
+     */
+    @Test
+    public final void testDequeueEnqueueAlternating() {
+        WaitingLine<String> q = this.constructor();
+        final int n = 100;
+        for (int i = 0; i < n; i++) {
+            q.enqueue("c" + i);
+            assertEquals("c" + i, q.front());
+            assertEquals("c" + i, q.dequeue());
+            assertEquals(0, q.length());
+        }
+    }
+
+    /**
+     * Test for front.
+     */
+    @Test
+    public final void testFront() {
+        WaitingLine<String> q = this.createFromArgs("red", "green");
+        WaitingLine<String> qExpected = this.createFromArgs("red", "green");
+        String x = q.front();
+        assertEquals("red", x);
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for length.
+     */
+    @Test
+    public final void testLength() {
+        WaitingLine<String> q = this.createFromArgs("red", "green", "blue");
+        assertEquals(3, q.length());
+        q.dequeue();
+        assertEquals(2, q.length());
+    }
+
+    /**
+     * Test for clear.
+     */
+    @Test
+    public final void testClear() {
+        WaitingLine<String> q = this.createFromArgs("red", "green");
+        WaitingLine<String> qExpected = this.createFromArgs();
+        q.clear();
+        assertEquals(qExpected, q);
+        q.enqueue("blue");
+        assertEquals("blue", q.front());
+    }
+
+    /**
+     * Test for transferFrom.
+     */
+    @Test
+    public final void testTransferFrom() {
+        WaitingLine<String> q = this.createFromArgs("red");
+        WaitingLine<String> source = this.createFromArgs("green", "blue");
+        WaitingLine<String> qExpected = this.createFromArgs("green", "blue");
+        WaitingLine<String> sourceExpected = this.createFromArgs();
+        q.transferFrom(source);
+        assertEquals(qExpected, q);
+        assertEquals(sourceExpected, source);
+        source.enqueue("red");
+        assertEquals(1, source.length());
+    }
+
+    /**
+     * Test for newInstance.
+     */
+    @Test
+    public final void testNewInstance() {
+        WaitingLine<String> q = this.createFromArgs("red");
+        WaitingLine<String> r = q.newInstance();
+        assertEquals(this.createFromArgs(), r);
+        assertEquals(q.getClass(), r.getClass());
+    }
+
+    /**
+     * Test for append.
+     */
+    @Test
+    public final void testAppend() {
+        WaitingLine<String> q = this.createFromArgs("red", "green");
+        WaitingLine<String> other = this.createFromArgs("blue", "white");
+        WaitingLine<String> qExpected = this.createFromArgs("red", "green",
+                "blue", "white");
+        q.append(other);
+        assertEquals(qExpected, q);
+        assertEquals(this.createFromArgs(), other);
+    }
+
+    /**
+     * Test for remove of the front entry.
+     */
+    @Test
+    public final void testRemoveFront() {
+        WaitingLine<String> q = this.createFromArgs("red", "green", "blue");
+        WaitingLine<String> qExpected = this.createFromArgs("green", "blue");
+        assertEquals("red", q.remove("red"));
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for remove of an entry in the middle.
+     */
+    @Test
+    public final void testRemoveMiddle() {
+        WaitingLine<String> q = this.createFromArgs("red", "green", "blue");
+        WaitingLine<String> qExpected = this.createFromArgs("red", "blue");
+        assertEquals("green", q.remove("green"));
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for remove of an entry not in the line.
+     */
+    @Test
+    public final void testRemoveAbsent() {
+        WaitingLine<String> q = this.createFromArgs("red", "green");
+        WaitingLine<String> qExpected = this.createFromArgs("red", "green");
+        assertEquals(null, q.remove("blue"));
+        assertEquals(qExpected, q);
+    }
+
+    /**
+     * Test for position.
+     */
+    @Test
+    public final void testPosition() {
+        WaitingLine<String> q = this.createFromArgs("red", "green", "blue");
+        assertEquals(1, q.position("red"));
+        assertEquals(2, q.position("green"));
+        assertEquals(3, q.position("blue"));
+        assertEquals(0, q.position("white"));
+    }
+
+    /**
+     * Test for position after dequeue and enqueue.
+     */
+    @Test
+    public final void testPositionAfterDequeue() {
+        WaitingLine<String> q = this.createFromArgs("red", "green", "blue");
+        q.dequeue();
+        q.enqueue("white");
+        assertEquals(0, q.position("red"));
+        assertEquals(1, q.position("green"));
+        assertEquals(3, q.position("white"));
+    }
+
+}
@@ -1,5 +1,3 @@
-import components.map.Map;
-import components.map.Map1L;
 import components.sequence.Sequence;
 import components.sequence.Sequence1L;
 import components.set.Set;
@@ -25,14 +23,15 @@ public final class WordCounter {
     }
 
     /**
-     * Generates the pairs of words (Strings) and word counts (Integers) in the
-     * given {@code file} into the given {@code Map}. Also generates a Set of
-     * all the words in no particular order into the given {@code Set}.
+     * Generates the pairs of words (Strings) and word counts (ints) in the
+     * given {@code file} into the given {@code ObjectIntMap}. Also generates a
+     * Sequence of all the words in order of first appearance into the given
+     * {@code Sequence}.
      * 
      * @param file
      *            the given {@code file}
      * @param strMap
-     *            the {@code Map} to be replaced
+     *            the {@code ObjectIntMap} to be replaced
      * @param q
      *            the {@code Sequence} to be replaced
      * @replaces {@code q}
@@ -41,10 +40,9 @@ public final class WordCounter {
      * </pre>
      */
     private static void generateTerms(SimpleReader file,
-            Map<String, Integer> strMap, Sequence<String> q) {
+            ObjectIntMap<String> strMap, Sequence<String> q) {
 
         String line = "";
-        int wordcount = 0;
         String word = "";
         int qpos = 0;
 
@@ -53,22 +51,17 @@ public final class WordCounter {
         generateElements(separatorStr, separatorSet);
 
         while (!file.atEOS()) {
-            wordcount = 0;
             line = file.nextLine();
             while (!line.isEmpty()) {
                 word = nextWordOrSeparator(line, 0, separatorSet);
                 line = line.substring(word.length(), line.length());
                 if (!separatorSet.contains(word.charAt(0))) {
-                    if (strMap.hasKey(word)) {
-                        wordcount = strMap.remove(word);
-                        wordcount++;
-                        strMap.add(word, wordcount);
-                    } else {
-                        wordcount = 0;
+                    /*
+                     * A count of one means the word was just added
+                     */
+                    if (strMap.increment(word) == 1) {
                         q.add(qpos, word);
                         qpos++;
-                        wordcount++;
-                        strMap.add(word, wordcount);
                     }
                 }
             }
@@ -106,26 +99,6 @@ public final class WordCounter {
         }
     }
 
-    /**
-     * Updates given {@code Map} with the utilization of the given alphabetized
-     * {@code Sequence}.
-     * 
-     * @param m
-     *            the given {@code Map}
-     * @param s
-     *            the {@code Sequence} to be used to update m
-     * @replaces {@code m}
-     */
-    private static void mapUpdate(Map<String, Integer> m, Sequence<String> s) {
-        Map<String, Integer> copy = new Map1L<String, Integer>();
-        int count = 0;
-        while (count < s.length()) {
-            copy.add(s.entryAt(count), m.value(s.entryAt(count)));
-            count++;
-        }
-        m.transferFrom(copy);
-    }
-
     /**
      * Creates an HTML page containing a list of words and their associated word
      * count.
@@ -137,14 +110,14 @@ public final class WordCounter {
      * @param out
      *            the output stream
      * @param m
-     *            Map of words and associated word count
+     *            ObjectIntMap of words and associated word count
      * @updates {@code out.content}
      * @ensures <pre>
      * {@code out.content = #out.content * [the HTML opening tags]}
      * </pre>
      */
     private static void outputWordList(String filename, Sequence<String> terms,
-            SimpleWriter out, Map<String, Integer> m) {
+            SimpleWriter out, ObjectIntMap<String> m) {
         // Prints to the file the opening tags
         out.println("<?xml version='1.0' encoding='ISO-8859-1' ?>");
         out.println("<!DOCTYPE html PUBLIC '-//W3C//DTD XHTML 1.0 Strict//EN'"
@@ -306,21 +279,16 @@ public final class WordCounter {
         out.println("Insert name of output folder: ");
         String folder = in.nextLine();
         /*
-         * Creates a Map of words and associated word counts. Additionally
+         * Creates a map of words and associated word counts. Additionally
          * creates a Sequence of all the words in no particular order.
          */
-        Map<String, Integer> m = new Map1L<String, Integer>();
+        ObjectIntMap<String> m = new ObjectIntMap<String>();
         Sequence<String> terms = new Sequence1L<String>();
         generateTerms(file, m, terms);
         /*
          * Sort the Sequence of words into alphabetical order
          */
         alphabetize(terms);
-        /*
-         * Update the Map to have alphabetized words and associated word counts
-         * paired
-         */
-        mapUpdate(m, terms);
         /*
          * Create html page of table with words and word count
          */